@@ -14,7 +14,26 @@ public interface GrpcReadStream<R> {
         void onNext(R value);
     }
 
+    /**
+     * Observer which controls reading of the stream, the next message is requested only after completion of the
+     * future returned for the previous one. Null future is treated as completed one.
+     *
+     * @param <R> type of message received
+     */
+    interface FlowControlObserver<R> {
+        CompletableFuture<Void> onNext(R value);
+    }
+
     CompletableFuture<Status> start(Observer<R> observer);
 
+    /**
+     * Starts the stream with manual flow control, so the observer can slow down the stream without blocking of the
+     * thread which delivers messages.
+     *
+     * @param observer observer of messages
+     * @return future with the status of the stream
+     */
+    CompletableFuture<Status> startWithFlowControl(FlowControlObserver<R> observer);
+
     void cancel();
 }
@@ -13,12 +13,14 @@ public class GrpcRequestSettings {
     private final Integer preferredNodeID;
     private final Metadata extraHeaders;
     private final Consumer<Metadata> trailersHandler;
+    private final Consumer<String> endpointHandler;
 
     private GrpcRequestSettings(Builder builder) {
         this.deadlineAfter = builder.getDeadlineAfter();
         this.preferredNodeID = builder.getPreferredNodeID();
         this.extraHeaders = builder.getExtraHeaders();
         this.trailersHandler = builder.getTrailersHandler();
+        this.endpointHandler = builder.getEndpointHandler();
     }
 
     public static Builder newBuilder() {
@@ -41,11 +43,16 @@ public class GrpcRequestSettings {
         return trailersHandler;
     }
 
+    public Consumer<String> getEndpointHandler() {
+        return endpointHandler;
+    }
+
     public static final class Builder {
         private long deadlineAfter = 0L;
         private Integer preferredNodeID = null;
         private Metadata extraHeaders = null;
         private Consumer<Metadata> trailersHandler = null;
+        private Consumer<String> endpointHandler = null;
 
         /**
          * Returns a new {@code Builder} with a deadline, based on the running Java Virtual Machine's
@@ -91,6 +98,17 @@ public class GrpcRequestSettings {
             return this;
         }
 
+        /**
+         * Sets handler of the endpoint chosen for the request, it's called with host and port of the endpoint
+         * before the request is sent
+         * @param handler handler of host and port of the endpoint
+         * @return {@code Builder} with the endpoint handler
+         */
+        public Builder withEndpointHandler(Consumer<String> handler) {
+            this.endpointHandler = handler;
+            return this;
+        }
+
         public long getDeadlineAfter() {
             return deadlineAfter;
         }
@@ -107,6 +125,10 @@ public class GrpcRequestSettings {
             return trailersHandler;
         }
 
+        public Consumer<String> getEndpointHandler() {
+            return endpointHandler;
+        }
+
         public GrpcRequestSettings build() {
             return new GrpcRequestSettings(this);
         }
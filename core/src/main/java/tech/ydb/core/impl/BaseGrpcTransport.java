@@ -72,6 +72,7 @@ public abstract class BaseGrpcTransport implements GrpcTransport {
 
         try {
             GrpcChannel channel = getChannel(settings);
+            notifyEndpoint(channel, settings);
             ClientCall<ReqT, RespT> call = channel.getReadyChannel().newCall(method, options);
             ChannelStatusHandler handler = new ChannelStatusHandler(channel, settings);
 
@@ -110,6 +111,7 @@ public abstract class BaseGrpcTransport implements GrpcTransport {
 
         try {
             GrpcChannel channel = getChannel(settings);
+            notifyEndpoint(channel, settings);
             ClientCall<ReqT, RespT> call = channel.getReadyChannel().newCall(method, options);
             ChannelStatusHandler handler = new ChannelStatusHandler(channel, settings);
 
@@ -149,6 +151,7 @@ public abstract class BaseGrpcTransport implements GrpcTransport {
 
         try {
             GrpcChannel channel = getChannel(settings);
+            notifyEndpoint(channel, settings);
             ClientCall<ReqT, RespT> call = channel.getReadyChannel().newCall(method, options);
             ChannelStatusHandler handler = new ChannelStatusHandler(channel, settings);
 
@@ -166,6 +169,12 @@ public abstract class BaseGrpcTransport implements GrpcTransport {
         }
     }
 
+    private static void notifyEndpoint(GrpcChannel channel, GrpcRequestSettings settings) {
+        if (settings.getEndpointHandler() != null) {
+            settings.getEndpointHandler().accept(channel.getEndpoint().getHostAndPort());
+        }
+    }
+
     private static <T> Result<T> deadlineExpiredResult(MethodDescriptor<?, T> method) {
         String message = "deadline expired before calling method " + method.getFullMethodName();
         return Result.fail(Status.of(
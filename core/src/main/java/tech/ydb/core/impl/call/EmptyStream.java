@@ -34,6 +34,11 @@ public class EmptyStream<R, W> implements GrpcReadWriteStream<R, W> {
         return CompletableFuture.completedFuture(status);
     }
 
+    @Override
+    public CompletableFuture<Status> startWithFlowControl(GrpcReadStream.FlowControlObserver<R> observer) {
+        return CompletableFuture.completedFuture(status);
+    }
+
     @Override
     public void sendNext(W message) {
         // nothing
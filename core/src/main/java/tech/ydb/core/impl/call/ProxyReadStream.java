@@ -1,5 +1,7 @@
 package tech.ydb.core.impl.call;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 import tech.ydb.core.Status;
@@ -27,19 +29,39 @@ public class ProxyReadStream<BaseR, DestR> implements GrpcReadStream<DestR> {
 
     @Override
     public CompletableFuture<Status> start(Observer<DestR> observer) {
-        origin.start(response -> functor.apply(response, future, observer)).whenComplete((status, th) -> {
-            // promise may be completed by functor and in that case this code will be ignored
-            if (th != null) {
-                future.completeExceptionally(th);
-            }
-            if (status != null) {
-                future.complete(status);
-            }
-        });
+        origin.start(response -> functor.apply(response, future, observer)).whenComplete(this::onOriginCompleted);
+        return future;
+    }
 
+    @Override
+    public CompletableFuture<Status> startWithFlowControl(FlowControlObserver<DestR> observer) {
+        origin.startWithFlowControl(response -> {
+            // functor may pass any number of messages to the observer
+            List<CompletableFuture<Void>> ready = new ArrayList<>(1);
+            functor.apply(response, future, value -> {
+                CompletableFuture<Void> next = observer.onNext(value);
+                if (next != null) {
+                    ready.add(next);
+                }
+            });
+            if (ready.size() == 1) {
+                return ready.get(0);
+            }
+            return CompletableFuture.allOf(ready.toArray(new CompletableFuture<?>[0]));
+        }).whenComplete(this::onOriginCompleted);
         return future;
     }
 
+    private void onOriginCompleted(Status status, Throwable th) {
+        // promise may be completed by functor and in that case this code will be ignored
+        if (th != null) {
+            future.completeExceptionally(th);
+        }
+        if (status != null) {
+            future.complete(status);
+        }
+    }
+
     @Override
     public void cancel() {
         origin.cancel();
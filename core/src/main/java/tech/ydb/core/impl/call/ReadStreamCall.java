@@ -23,6 +23,7 @@ import tech.ydb.core.grpc.GrpcStatuses;
  */
 public class ReadStreamCall<ReqT, RespT> extends ClientCall.Listener<RespT> implements GrpcReadStream<RespT> {
     private static final Logger logger = LoggerFactory.getLogger(ReadStreamCall.class);
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
 
     private final ClientCall<ReqT, RespT> call;
     private final GrpcStatusHandler statusConsumer;
@@ -30,7 +31,7 @@ public class ReadStreamCall<ReqT, RespT> extends ClientCall.Listener<RespT> impl
     private final Metadata headers;
 
     private final CompletableFuture<Status> statusFuture = new CompletableFuture<>();
-    private final AtomicReference<Observer<RespT>> observerReference = new AtomicReference<>();
+    private final AtomicReference<FlowControlObserver<RespT>> observerReference = new AtomicReference<>();
 
     public ReadStreamCall(
             ClientCall<ReqT, RespT> call,
@@ -46,6 +47,14 @@ public class ReadStreamCall<ReqT, RespT> extends ClientCall.Listener<RespT> impl
 
     @Override
     public CompletableFuture<Status> start(Observer<RespT> observer) {
+        return startWithFlowControl(value -> {
+            observer.onNext(value);
+            return COMPLETED;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Status> startWithFlowControl(FlowControlObserver<RespT> observer) {
         if (!observerReference.compareAndSet(null, observer)) {
             throw new IllegalStateException("Read stream call is already started");
         }
@@ -80,22 +89,43 @@ public class ReadStreamCall<ReqT, RespT> extends ClientCall.Listener<RespT> impl
 
     @Override
     public void onMessage(RespT message) {
+        CompletableFuture<Void> ready;
         try {
-            observerReference.get().onNext(message);
-            // request delivery of the next inbound message.
-            synchronized (call) {
-                call.request(1);
-            }
+            ready = observerReference.get().onNext(message);
         } catch (Exception ex) {
-            statusFuture.completeExceptionally(ex);
+            cancelByObserver(ex);
+            return;
+        }
 
-            try {
-                synchronized (call) {
-                    call.cancel("Canceled by exception from observer", ex);
-                }
-            } catch (Throwable th) {
-                logger.error("Exception encountered while canceling the read stream call", th);
+        if (ready == null || (ready.isDone() && !ready.isCompletedExceptionally())) {
+            requestNext();
+            return;
+        }
+        ready.whenComplete((ignored, th) -> {
+            if (th != null) {
+                cancelByObserver(th);
+            } else {
+                requestNext();
+            }
+        });
+    }
+
+    private void requestNext() {
+        // request delivery of the next inbound message.
+        synchronized (call) {
+            call.request(1);
+        }
+    }
+
+    private void cancelByObserver(Throwable ex) {
+        statusFuture.completeExceptionally(ex);
+
+        try {
+            synchronized (call) {
+                call.cancel("Canceled by exception from observer", ex);
             }
+        } catch (Throwable th) {
+            logger.error("Exception encountered while canceling the read stream call", th);
         }
     }
 
@@ -26,6 +26,7 @@ import tech.ydb.core.impl.auth.AuthCallOptions;
  */
 public class ReadWriteStreamCall<R, W> extends ClientCall.Listener<R> implements GrpcReadWriteStream<R, W> {
     private static final Logger logger = LoggerFactory.getLogger(ReadStreamCall.class);
+    private static final CompletableFuture<Void> COMPLETED = CompletableFuture.completedFuture(null);
 
     private final ClientCall<W, R> call;
     private final GrpcStatusHandler statusConsumer;
@@ -33,7 +34,7 @@ public class ReadWriteStreamCall<R, W> extends ClientCall.Listener<R> implements
     private final AuthCallOptions callOptions;
 
     private final CompletableFuture<Status> statusFuture = new CompletableFuture<>();
-    private final AtomicReference<Observer<R>> observerReference = new AtomicReference<>();
+    private final AtomicReference<FlowControlObserver<R>> observerReference = new AtomicReference<>();
     private final Queue<W> messagesQueue = new ArrayDeque<>();
 
     public ReadWriteStreamCall(
@@ -55,6 +56,14 @@ public class ReadWriteStreamCall<R, W> extends ClientCall.Listener<R> implements
 
     @Override
     public CompletableFuture<Status> start(Observer<R> observer) {
+        return startWithFlowControl(value -> {
+            observer.onNext(value);
+            return COMPLETED;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Status> startWithFlowControl(FlowControlObserver<R> observer) {
         if (!observerReference.compareAndSet(null, observer)) {
             throw new IllegalStateException("Read stream call is already started");
         }
@@ -110,22 +119,43 @@ public class ReadWriteStreamCall<R, W> extends ClientCall.Listener<R> implements
 
     @Override
     public void onMessage(R message) {
+        CompletableFuture<Void> ready;
         try {
-            observerReference.get().onNext(message);
-            // request delivery of the next inbound message.
-            synchronized (call) {
-                call.request(1);
-            }
+            ready = observerReference.get().onNext(message);
         } catch (Exception ex) {
-            statusFuture.completeExceptionally(ex);
+            cancelByObserver(ex);
+            return;
+        }
 
-            try {
-                synchronized (call) {
-                    call.cancel("Canceled by exception from observer", ex);
-                }
-            } catch (Throwable th) {
-                logger.error("Exception encountered while canceling the read write stream call", th);
+        if (ready == null || (ready.isDone() && !ready.isCompletedExceptionally())) {
+            requestNext();
+            return;
+        }
+        ready.whenComplete((ignored, th) -> {
+            if (th != null) {
+                cancelByObserver(th);
+            } else {
+                requestNext();
+            }
+        });
+    }
+
+    private void requestNext() {
+        // request delivery of the next inbound message.
+        synchronized (call) {
+            call.request(1);
+        }
+    }
+
+    private void cancelByObserver(Throwable ex) {
+        statusFuture.completeExceptionally(ex);
+
+        try {
+            synchronized (call) {
+                call.cancel("Canceled by exception from observer", ex);
             }
+        } catch (Throwable th) {
+            logger.error("Exception encountered while canceling the read write stream call", th);
         }
     }
 
@@ -0,0 +1,50 @@
+package tech.ydb.core.impl.call;
+
+import java.util.concurrent.CompletableFuture;
+
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import tech.ydb.core.Status;
+
+
+public class ReadStreamCallTest {
+
+    @SuppressWarnings("unchecked")
+    private static ClientCall<String, String> mockCall() {
+        return Mockito.mock(ClientCall.class);
+    }
+
+    @Test
+    public void flowControlTest() {
+        ClientCall<String, String> call = mockCall();
+        ReadStreamCall<String, String> stream = new ReadStreamCall<>(call, "request", null, (status, trailers) -> { });
+        CompletableFuture<Void> ready = new CompletableFuture<>();
+        stream.startWithFlowControl(message -> ready);
+        Mockito.verify(call, Mockito.times(1)).request(1);
+
+        // the next message is requested only when the observer is ready
+        stream.onMessage("first");
+        Mockito.verify(call, Mockito.times(1)).request(1);
+        ready.complete(null);
+        Mockito.verify(call, Mockito.times(2)).request(1);
+    }
+
+    @Test
+    public void nullFutureTest() {
+        ClientCall<String, String> call = mockCall();
+        ReadStreamCall<String, String> stream = new ReadStreamCall<>(call, "request", null, (status, trailers) -> { });
+        CompletableFuture<Status> status = stream.startWithFlowControl(message -> null);
+
+        // null future of the observer is treated as completed one
+        stream.onMessage("first");
+        stream.onMessage("second");
+        Mockito.verify(call, Mockito.times(3)).request(1);
+
+        stream.onClose(io.grpc.Status.OK, new Metadata());
+        Assert.assertEquals(Status.SUCCESS, status.join());
+    }
+}
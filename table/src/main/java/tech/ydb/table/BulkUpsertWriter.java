@@ -0,0 +1,499 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import tech.ydb.core.Status;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.KeyRange;
+import tech.ydb.table.description.TableColumn;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.BulkUpsertData;
+import tech.ydb.table.query.BulkUpsertRowsData;
+import tech.ydb.table.settings.BulkUpsertSettings;
+import tech.ydb.table.settings.DescribeTableSettings;
+import tech.ydb.table.values.ListType;
+import tech.ydb.table.values.StructType;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.TupleValue;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+
+
+/**
+ * Buffers rows of one table and writes them by batched {@link Session#executeBulkUpsert} requests.
+ *
+ * <p>Rows are grouped by shard key ranges of the table, so each request writes rows of a single shard. A batch is
+ * sent when it reaches the max count of rows or the max size, or when the linger time after its first row ends.
+ * Batches are executed by the given {@link SessionRetryContext}, at most the configured count of batches is in
+ * flight. Bulk upsert is idempotent, so the retry context may be configured as idempotent.
+ *
+ * <p>Size of all buffered and unfinished rows is bounded by the memory budget, {@link #write} blocks the caller
+ * until rows of finished batches release enough memory. All rows passed to one writer must have the same type.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class BulkUpsertWriter implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_BATCH_ROWS = 1000;
+    private static final long DEFAULT_MAX_BATCH_BYTES = 4 * 1024 * 1024;
+    private static final Duration DEFAULT_LINGER = Duration.ofMillis(10);
+    private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+    private static final long DEFAULT_MEMORY_BUDGET_BYTES = 64 * 1024 * 1024;
+
+    private final SessionRetryContext retryCtx;
+    private final ScheduledExecutorService scheduler;
+    private final String tablePath;
+    private final BulkUpsertSettings settings;
+    private final int maxBatchRows;
+    private final long maxBatchBytes;
+    private final long lingerNanos;
+    private final int maxInFlight;
+    private final long memoryBudgetBytes;
+
+    private final Object lock = new Object();
+    /** Open batches by index of the shard */
+    private final Map<Integer, Batch> open = new HashMap<>();
+    private final ArrayDeque<Batch> ready = new ArrayDeque<>();
+    private final Set<Batch> unfinished = new LinkedHashSet<>();
+    /** Shard key ranges of the table, null until the table is described */
+    private Partitioning partitioning = null;
+    private StructType rowType = null;
+    private int inFlight = 0;
+    private long bufferedBytes = 0;
+    private boolean closed = false;
+
+    private BulkUpsertWriter(Builder builder) {
+        this.retryCtx = builder.retryCtx;
+        this.scheduler = builder.scheduler;
+        this.tablePath = builder.tablePath;
+        this.settings = builder.settings;
+        this.maxBatchRows = builder.maxBatchRows;
+        this.maxBatchBytes = builder.maxBatchBytes;
+        this.lingerNanos = builder.linger.toNanos();
+        this.maxInFlight = builder.maxInFlight;
+        this.memoryBudgetBytes = builder.memoryBudgetBytes;
+    }
+
+    public static Builder newBuilder(SessionRetryContext retryCtx, ScheduledExecutorService scheduler,
+            String tablePath) {
+        return new Builder(retryCtx, scheduler, tablePath);
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    /**
+     * @return size of rows which are written but aren't upserted yet
+     */
+    public long getBufferedBytes() {
+        synchronized (lock) {
+            return bufferedBytes;
+        }
+    }
+
+    /**
+     * Adds the row to the batch of its shard. Blocks while the memory budget is used up and while the table is
+     * being described.
+     *
+     * @param row row with all primary key columns
+     * @return future with status of the batch with the row
+     * @throws InterruptedException if the caller is interrupted while waiting for memory
+     * @throws IllegalStateException if the writer is closed
+     */
+    public CompletableFuture<Status> write(StructValue row) throws InterruptedException {
+        ValueProtos.Value value = row.toPb();
+        long size = value.getSerializedSize();
+
+        while (true) {
+            List<Batch> toSend;
+            CompletableFuture<Status> result = null;
+            synchronized (lock) {
+                checkState(!closed, "bulk upsert writer is closed");
+                checkArgument(rowType == null || rowType.equals(row.getType()),
+                        "type of row %s differs from type of previous rows %s", row.getType(), rowType);
+
+                if (partitioning == null) {
+                    lock.wait();
+                    continue;
+                }
+
+                if (bufferedBytes == 0 || bufferedBytes + size <= memoryBudgetBytes) {
+                    int partition = partitioning.partitionOf(row);
+                    rowType = row.getType();
+                    bufferedBytes += size;
+                    result = add(partition, value, size);
+                } else if (open.isEmpty()) {
+                    // all memory is used by batches which are already sent or are waiting for sending
+                    lock.wait();
+                    continue;
+                } else {
+                    // send collected rows without waiting for linger to release memory
+                    sealAll();
+                }
+                toSend = pollReady();
+            }
+
+            send(toSend);
+            if (result != null) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * Sends all buffered rows without waiting for the end of linger.
+     *
+     * @return future with status of all rows written before the call, it is the first failed status of their
+     * batches or {@link Status#SUCCESS}
+     */
+    public CompletableFuture<Status> flush() {
+        List<Batch> toSend;
+        List<CompletableFuture<Status>> futures = new ArrayList<>();
+        synchronized (lock) {
+            sealAll();
+            for (Batch batch : unfinished) {
+                futures.add(batch.result);
+            }
+            toSend = pollReady();
+        }
+        send(toSend);
+
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(v -> {
+            for (CompletableFuture<Status> future : futures) {
+                Status status = future.join();
+                if (!status.isSuccess()) {
+                    return status;
+                }
+            }
+            return Status.SUCCESS;
+        });
+    }
+
+    /**
+     * Rejects new rows and waits for upsert of all written rows.
+     */
+    @Override
+    public void close() {
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+        flush().join();
+    }
+
+    private void describe(@Nullable TableDescription description) {
+        if (description != null) {
+            setPartitioning(Partitioning.of(description));
+            return;
+        }
+
+        DescribeTableSettings describeSettings = new DescribeTableSettings();
+        describeSettings.setIncludeShardKeyBounds(true);
+        retryCtx.supplyResult(session -> session.describeTable(tablePath, describeSettings))
+                .whenComplete((result, th) -> {
+                    // rows are written without grouping by shards if the table cannot be described
+                    boolean described = th == null && result.isSuccess();
+                    setPartitioning(described ? Partitioning.of(result.getValue()) : Partitioning.SINGLE);
+                });
+    }
+
+    private void setPartitioning(Partitioning value) {
+        synchronized (lock) {
+            partitioning = value;
+            lock.notifyAll();
+        }
+    }
+
+    private CompletableFuture<Status> add(int partition, ValueProtos.Value value, long size) {
+        Batch batch = open.get(partition);
+        if (batch == null) {
+            batch = new Batch(partition);
+            open.put(partition, batch);
+            unfinished.add(batch);
+            if (maxBatchRows > 1) {
+                Batch scheduled = batch;
+                batch.timer = scheduler.schedule(() -> onLingerEnd(scheduled), lingerNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+        batch.rows.add(value);
+        batch.bytes += size;
+        if (batch.rows.size() >= maxBatchRows || batch.bytes >= maxBatchBytes) {
+            seal(batch);
+        }
+        return batch.result;
+    }
+
+    private void seal(Batch batch) {
+        open.remove(batch.partition);
+        if (batch.timer != null) {
+            batch.timer.cancel(false);
+        }
+        ready.add(batch);
+    }
+
+    private void sealAll() {
+        for (Batch batch : new ArrayList<>(open.values())) {
+            seal(batch);
+        }
+    }
+
+    private List<Batch> pollReady() {
+        if (ready.isEmpty() || inFlight >= maxInFlight) {
+            return Collections.emptyList();
+        }
+        List<Batch> batches = new ArrayList<>();
+        while (!ready.isEmpty() && inFlight < maxInFlight) {
+            batches.add(ready.poll());
+            inFlight++;
+        }
+        return batches;
+    }
+
+    private void onLingerEnd(Batch batch) {
+        List<Batch> toSend;
+        synchronized (lock) {
+            if (open.get(batch.partition) != batch) {
+                // already sealed
+                return;
+            }
+            seal(batch);
+            toSend = pollReady();
+        }
+        send(toSend);
+    }
+
+    private void send(List<Batch> batches) {
+        for (Batch batch : batches) {
+            BulkUpsertData data = new BulkUpsertRowsData(ValueProtos.TypedValue.newBuilder()
+                    .setType(ListType.of(rowType).toPb())
+                    .setValue(ValueProtos.Value.newBuilder().addAllItems(batch.rows))
+                    .build());
+
+            retryCtx.supplyStatus(session -> session.executeBulkUpsert(tablePath, data, settings))
+                    .whenComplete((status, th) -> onBatchEnd(batch, status, th));
+        }
+    }
+
+    private void onBatchEnd(Batch batch, @Nullable Status status, @Nullable Throwable th) {
+        List<Batch> toSend;
+        synchronized (lock) {
+            inFlight--;
+            bufferedBytes -= batch.bytes;
+            unfinished.remove(batch);
+            lock.notifyAll();
+            toSend = pollReady();
+        }
+
+        if (th != null) {
+            batch.result.completeExceptionally(th);
+        } else {
+            batch.result.complete(status);
+        }
+        send(toSend);
+    }
+
+    /**
+     * Rows of one shard collected for one request
+     */
+    private static final class Batch {
+        private final int partition;
+        private final List<ValueProtos.Value> rows = new ArrayList<>();
+        private final CompletableFuture<Status> result = new CompletableFuture<>();
+        private long bytes = 0;
+        private ScheduledFuture<?> timer = null;
+
+        Batch(int partition) {
+            this.partition = partition;
+        }
+    }
+
+    /**
+     * Upper bounds of shard key ranges of the table, rows of tables with keys which cannot be compared on the client
+     * (for example, Uuid keys) are written in a single batch
+     */
+    private static final class Partitioning {
+        private static final Partitioning SINGLE = new Partitioning(Collections.emptyList(), Collections.emptyList());
+
+        private final List<String> keyColumns;
+        private final List<KeyBound> bounds;
+
+        private Partitioning(List<String> keyColumns, List<KeyBound> bounds) {
+            this.keyColumns = keyColumns;
+            this.bounds = bounds;
+        }
+
+        static Partitioning of(TableDescription description) {
+            List<KeyBound> bounds = new ArrayList<>();
+            for (KeyRange range : description.getKeyRanges()) {
+                Optional<KeyBound> to = range.getTo();
+                if (to.isPresent()) {
+                    bounds.add(to.get());
+                }
+            }
+            if (bounds.isEmpty() || description.getPrimaryKeys().isEmpty()) {
+                return SINGLE;
+            }
+            for (String keyColumn : description.getPrimaryKeys()) {
+                if (!isComparableColumn(description, keyColumn)) {
+                    return SINGLE;
+                }
+            }
+            return new Partitioning(description.getPrimaryKeys(), bounds);
+        }
+
+        private static boolean isComparableColumn(TableDescription description, String name) {
+            for (TableColumn column : description.getColumns()) {
+                if (column.getName().equals(name)) {
+                    return KeyRanges.isComparable(column.getType());
+                }
+            }
+            return false;
+        }
+
+        int partitionOf(StructValue row) {
+            if (bounds.isEmpty()) {
+                return 0;
+            }
+
+            StructType type = row.getType();
+            List<Value<?>> key = new ArrayList<>(keyColumns.size());
+            for (String column : keyColumns) {
+                int index = type.getMemberIndex(column);
+                checkArgument(index >= 0, "row has no primary key column %s", column);
+                key.add(row.getMemberValue(index));
+            }
+            KeyBound keyValue = KeyBound.inclusive(TupleValue.of(key));
+
+            // index of the first range with the upper bound greater than the key
+            int low = 0;
+            int high = bounds.size();
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (isBefore(keyValue, bounds.get(mid))) {
+                    high = mid;
+                } else {
+                    low = mid + 1;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Checks if the key belongs to a range with the upper bound. The bound can contain only a prefix of the key,
+         * then keys with the same prefix are before the inclusive bound and after the exclusive one.
+         */
+        private static boolean isBefore(KeyBound key, KeyBound bound) {
+            int c = KeyRanges.compareBounds(key, true, bound, false);
+            return c < 0 || (c == 0 && bound.isInclusive());
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final SessionRetryContext retryCtx;
+        private final ScheduledExecutorService scheduler;
+        private final String tablePath;
+        private BulkUpsertSettings settings = new BulkUpsertSettings();
+        private int maxBatchRows = DEFAULT_MAX_BATCH_ROWS;
+        private long maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+        private Duration linger = DEFAULT_LINGER;
+        private int maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+        private long memoryBudgetBytes = DEFAULT_MEMORY_BUDGET_BYTES;
+        private TableDescription tableDescription = null;
+
+        private Builder(SessionRetryContext retryCtx, ScheduledExecutorService scheduler, String tablePath) {
+            this.retryCtx = Objects.requireNonNull(retryCtx, "retryCtx");
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+            this.tablePath = Objects.requireNonNull(tablePath, "tablePath");
+        }
+
+        public Builder withSettings(BulkUpsertSettings settings) {
+            this.settings = Objects.requireNonNull(settings, "settings");
+            return this;
+        }
+
+        public Builder withMaxBatchRows(int maxBatchRows) {
+            checkArgument(maxBatchRows > 0, "maxBatchRows(%s) is not positive", maxBatchRows);
+            this.maxBatchRows = maxBatchRows;
+            return this;
+        }
+
+        public Builder withMaxBatchBytes(long maxBatchBytes) {
+            checkArgument(maxBatchBytes > 0, "maxBatchBytes(%s) is not positive", maxBatchBytes);
+            this.maxBatchBytes = maxBatchBytes;
+            return this;
+        }
+
+        /**
+         * Sets time to wait for other rows of the shard after the first row of the batch.
+         *
+         * @param linger duration of linger
+         * @return this builder
+         */
+        public Builder withLinger(Duration linger) {
+            checkArgument(!linger.isNegative(), "linger(%s) is negative", linger);
+            this.linger = linger;
+            return this;
+        }
+
+        public Builder withMaxInFlight(int maxInFlight) {
+            checkArgument(maxInFlight > 0, "maxInFlight(%s) is not positive", maxInFlight);
+            this.maxInFlight = maxInFlight;
+            return this;
+        }
+
+        /**
+         * Sets max size of rows which are written but aren't upserted yet.
+         *
+         * @param memoryBudgetBytes max size of rows in bytes
+         * @return this builder
+         */
+        public Builder withMemoryBudgetBytes(long memoryBudgetBytes) {
+            checkArgument(memoryBudgetBytes > 0, "memoryBudgetBytes(%s) is not positive", memoryBudgetBytes);
+            this.memoryBudgetBytes = memoryBudgetBytes;
+            return this;
+        }
+
+        /**
+         * Sets description of the table with shard key bounds, otherwise the table is described on build.
+         *
+         * @param tableDescription description of the table
+         * @return this builder
+         * @see DescribeTableSettings#setIncludeShardKeyBounds
+         */
+        public Builder withTableDescription(TableDescription tableDescription) {
+            this.tableDescription = tableDescription;
+            return this;
+        }
+
+        public BulkUpsertWriter build() {
+            BulkUpsertWriter writer = new BulkUpsertWriter(this);
+            writer.describe(tableDescription);
+            return writer;
+        }
+    }
+}
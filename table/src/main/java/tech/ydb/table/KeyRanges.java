@@ -0,0 +1,331 @@
+package tech.ydb.table;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.protobuf.ByteString;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.KeyRange;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ReadTableSettings;
+import tech.ydb.table.values.DecimalValue;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.OptionalValue;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.TupleValue;
+import tech.ydb.table.values.Type;
+import tech.ydb.table.values.Value;
+
+
+/**
+ * Helpers for key ranges of tables and keys of read rows
+ */
+final class KeyRanges {
+
+    private KeyRanges() { }
+
+    /**
+     * Intersects range of the given settings with each of the shard ranges.
+     *
+     * @param settings original read table settings
+     * @param shards shard key ranges in the order of table partitions
+     * @return list of non empty sub-ranges in partition order or {@code null} if keys cannot be compared
+     */
+    @Nullable
+    static List<ReadTableSettings> split(ReadTableSettings settings, List<KeyRange> shards) {
+        KeyBound from = settings.getFromKey() != null
+                ? new KeyBound(settings.getFromKey(), settings.isFromInclusive())
+                : null;
+        KeyBound to = settings.getToKey() != null
+                ? new KeyBound(settings.getToKey(), settings.isToInclusive())
+                : null;
+
+        try {
+            List<ReadTableSettings> ranges = new ArrayList<>(shards.size());
+            for (KeyRange shard : shards) {
+                KeyBound rangeFrom = maxFrom(from, shard.getFrom().orElse(null));
+                KeyBound rangeTo = minTo(to, shard.getTo().orElse(null));
+                if (!isEmpty(rangeFrom, rangeTo)) {
+                    ranges.add(withRange(settings, rangeFrom, rangeTo));
+                }
+            }
+            return ranges;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    static ReadTableSettings withRange(ReadTableSettings settings, @Nullable KeyBound from, @Nullable KeyBound to) {
+        ReadTableSettings.Builder builder = ReadTableSettings.newBuilder()
+                .orderedRead(settings.isOrdered())
+                .columns(settings.getColumns())
+                .rowLimit(settings.getRowLimit());
+        if (settings.getRequestTimeout() != null) {
+            builder.withRequestTimeout(settings.getRequestTimeout());
+        }
+        if (from != null) {
+            builder.fromKey(asTuple(from.getValue()), from.isInclusive());
+        }
+        if (to != null) {
+            builder.toKey(asTuple(to.getValue()), to.isInclusive());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads key of the last row of the result set and rewinds the reader to its first row.
+     *
+     * @param reader non empty result set
+     * @param keyColumns names of key columns
+     * @return mutable list of key values in order of key columns
+     */
+    static List<Value<?>> readLastRowKey(ResultSetReader reader, List<String> keyColumns) {
+        reader.setRowIndex(reader.getRowCount() - 1);
+        List<Value<?>> key = new ArrayList<>(keyColumns.size());
+        for (String column : keyColumns) {
+            key.add(reader.getColumn(column).getValue());
+        }
+        reader.setRowIndex(0);
+        return key;
+    }
+
+    /**
+     * Returns protobuf values of the key members, which can be compared with values of the same key read from
+     * the table. Present optional value has the same protobuf representation as its item, so nullability of key
+     * columns doesn't matter.
+     *
+     * @param key struct with key columns
+     * @return list of protobuf values in order of struct members
+     */
+    static List<ValueProtos.Value> keyOf(StructValue key) {
+        List<ValueProtos.Value> values = new ArrayList<>(key.getMembersCount());
+        for (int i = 0; i < key.getMembersCount(); i++) {
+            values.add(key.getMemberValue(i).toPb());
+        }
+        return values;
+    }
+
+    /**
+     * Compares two key values, empty optional values are less than any other ones. Tuples are compared
+     * lexicographically, so a tuple is less than any longer tuple with the same prefix.
+     *
+     * @throws IllegalArgumentException if values cannot be compared
+     */
+    static int compare(Value<?> a, Value<?> b) {
+        Value<?> left = a;
+        Value<?> right = b;
+        if (left instanceof OptionalValue || right instanceof OptionalValue) {
+            left = unwrap(left);
+            right = unwrap(right);
+            if (left == null || right == null) {
+                return left == null ? (right == null ? 0 : -1) : 1;
+            }
+        }
+
+        if (left instanceof TupleValue && right instanceof TupleValue) {
+            TupleValue leftTuple = (TupleValue) left;
+            TupleValue rightTuple = (TupleValue) right;
+            int size = Math.min(leftTuple.size(), rightTuple.size());
+            for (int i = 0; i < size; i++) {
+                int c = compare(leftTuple.get(i), rightTuple.get(i));
+                if (c != 0) {
+                    return c;
+                }
+            }
+            return Integer.compare(leftTuple.size(), rightTuple.size());
+        }
+
+        if (left instanceof DecimalValue && right instanceof DecimalValue) {
+            return ((DecimalValue) left).compareTo((DecimalValue) right);
+        }
+
+        if (left instanceof PrimitiveValue && right instanceof PrimitiveValue) {
+            PrimitiveType type = ((PrimitiveValue) left).getType();
+            if (type != ((PrimitiveValue) right).getType()) {
+                throw new IllegalArgumentException("cannot compare " + type + " with " + right.getType());
+            }
+            return comparePrimitive(type, left.toPb(), right.toPb());
+        }
+
+        throw new IllegalArgumentException("cannot compare " + left.getType() + " with " + right.getType());
+    }
+
+    private static int comparePrimitive(PrimitiveType type, ValueProtos.Value a, ValueProtos.Value b) {
+        switch (type) {
+            case Bool:
+                return Boolean.compare(a.getBoolValue(), b.getBoolValue());
+            case Int8:
+            case Int16:
+            case Int32:
+                return Integer.compare(a.getInt32Value(), b.getInt32Value());
+            case Uint8:
+            case Uint16:
+            case Uint32:
+            case Date:
+            case Datetime:
+                return Integer.compareUnsigned(a.getUint32Value(), b.getUint32Value());
+            case Int64:
+            case Interval:
+                return Long.compare(a.getInt64Value(), b.getInt64Value());
+            case Uint64:
+            case Timestamp:
+                return Long.compareUnsigned(a.getUint64Value(), b.getUint64Value());
+            case Float:
+                return Float.compare(a.getFloatValue(), b.getFloatValue());
+            case Double:
+                return Double.compare(a.getDoubleValue(), b.getDoubleValue());
+            case Bytes:
+            case Yson:
+                return compareBytes(a.getBytesValue(), b.getBytesValue());
+            case Text:
+            case Json:
+                return compareBytes(a.getTextValueBytes(), b.getTextValueBytes());
+            default:
+                throw new IllegalArgumentException("cannot compare values of type " + type);
+        }
+    }
+
+    /**
+     * Checks if values of the key column type can be compared by {@link #compare}.
+     *
+     * @param type type of the key column
+     * @return true for decimals and primitive types supported by comparison
+     */
+    static boolean isComparable(Type type) {
+        Type item = type;
+        while (item.getKind() == Type.Kind.OPTIONAL) {
+            item = ((OptionalType) item).getItemType();
+        }
+        if (item.getKind() == Type.Kind.DECIMAL) {
+            return true;
+        }
+        if (item.getKind() != Type.Kind.PRIMITIVE) {
+            return false;
+        }
+        switch ((PrimitiveType) item) {
+            case Bool:
+            case Int8:
+            case Int16:
+            case Int32:
+            case Uint8:
+            case Uint16:
+            case Uint32:
+            case Date:
+            case Datetime:
+            case Int64:
+            case Interval:
+            case Uint64:
+            case Timestamp:
+            case Float:
+            case Double:
+            case Bytes:
+            case Yson:
+            case Text:
+            case Json:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static int compareBytes(ByteString a, ByteString b) {
+        int size = Math.min(a.size(), b.size());
+        for (int i = 0; i < size; i++) {
+            int c = Integer.compare(a.byteAt(i) & 0xff, b.byteAt(i) & 0xff);
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(a.size(), b.size());
+    }
+
+    @Nullable
+    private static Value<?> unwrap(Value<?> value) {
+        Value<?> result = value;
+        while (result instanceof OptionalValue) {
+            OptionalValue optional = (OptionalValue) result;
+            if (!optional.isPresent()) {
+                return null;
+            }
+            result = optional.get();
+        }
+        return result;
+    }
+
+    /**
+     * Compares two bounds of key ranges. A bound can contain only a prefix of the key, missing members of such
+     * bound are treated as infinitely small for inclusive from and exclusive to bounds, because the bound is placed
+     * before all keys with the same prefix, and as infinitely large otherwise.
+     *
+     * @param a first bound
+     * @param aIsFrom true if the first bound is the from bound of a range
+     * @param b second bound
+     * @param bIsFrom true if the second bound is the from bound of a range
+     * @return zero only if bounds have keys of equal length and equal members
+     * @throws IllegalArgumentException if key members cannot be compared
+     */
+    static int compareBounds(KeyBound a, boolean aIsFrom, KeyBound b, boolean bIsFrom) {
+        TupleValue left = asTuple(a.getValue());
+        TupleValue right = asTuple(b.getValue());
+        int size = Math.min(left.size(), right.size());
+        for (int i = 0; i < size; i++) {
+            int c = compare(left.get(i), right.get(i));
+            if (c != 0) {
+                return c;
+            }
+        }
+        if (left.size() == right.size()) {
+            return 0;
+        }
+        return left.size() < right.size() ? openEnd(a, aIsFrom) : -openEnd(b, bIsFrom);
+    }
+
+    private static int openEnd(KeyBound bound, boolean isFrom) {
+        return isFrom == bound.isInclusive() ? -1 : 1;
+    }
+
+    @Nullable
+    private static KeyBound maxFrom(@Nullable KeyBound a, @Nullable KeyBound b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        int c = compareBounds(a, true, b, true);
+        if (c == 0) {
+            return a.isInclusive() ? b : a;
+        }
+        return c > 0 ? a : b;
+    }
+
+    @Nullable
+    private static KeyBound minTo(@Nullable KeyBound a, @Nullable KeyBound b) {
+        if (a == null || b == null) {
+            return a == null ? b : a;
+        }
+        int c = compareBounds(a, false, b, false);
+        if (c == 0) {
+            return a.isInclusive() ? b : a;
+        }
+        return c < 0 ? a : b;
+    }
+
+    private static boolean isEmpty(@Nullable KeyBound from, @Nullable KeyBound to) {
+        if (from == null || to == null) {
+            return false;
+        }
+        int c = compareBounds(from, true, to, false);
+        return c > 0 || (c == 0 && !(from.isInclusive() && to.isInclusive()));
+    }
+
+    private static TupleValue asTuple(Value<?> value) {
+        if (value instanceof TupleValue) {
+            return (TupleValue) value;
+        }
+        return TupleValue.of(value);
+    }
+}
@@ -0,0 +1,356 @@
+package tech.ydb.table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.collect.ImmutableList;
+
+import tech.ydb.core.Result;
+import tech.ydb.table.mapping.ObjectMapper;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Reads all rows of a table matching a predicate by pages ordered by key columns.
+ *
+ * <p>Every page is read by its own data query, which selects rows with keys greater than the last key of the
+ * previous page, so the result isn't limited by the truncation limit of a single data query. Each page is
+ * executed by the given {@link SessionRetryContext} and is retried independently, texts of queries are the same
+ * for all pages and are kept in the query cache. The next page is requested as soon as the current page is
+ * received, unless prefetch is disabled.
+ *
+ * <p>Key columns must identify rows uniquely and must not contain NULL values, usually they are the primary key
+ * of the table.
+ */
+@ParametersAreNonnullByDefault
+public class PaginatedQuery implements Iterable<ResultSetReader> {
+
+    private static final int DEFAULT_PAGE_SIZE = 1000;
+    private static final String KEY_PARAM_PREFIX = "$page_key_";
+
+    private final SessionRetryContext retryCtx;
+    private final String tablePath;
+    private final ImmutableList<String> keyColumns;
+    private final ImmutableList<String> columns;
+    @Nullable
+    private final String predicate;
+    private final Params params;
+    private final int pageSize;
+    private final TxControl<?> txControl;
+    private final boolean prefetch;
+
+    private final String firstPageQuery;
+    private volatile String nextPageQuery = null;
+
+    private PaginatedQuery(Builder builder) {
+        this.retryCtx = builder.retryCtx;
+        this.tablePath = builder.tablePath;
+        this.keyColumns = builder.keyColumns;
+        this.columns = builder.columns;
+        this.predicate = builder.predicate;
+        this.params = builder.params;
+        this.pageSize = builder.pageSize;
+        this.txControl = builder.txControl;
+        this.prefetch = builder.prefetch;
+        this.firstPageQuery = buildQuery(Collections.emptyList());
+    }
+
+    public static Builder newBuilder(SessionRetryContext retryCtx, String tablePath, List<String> keyColumns) {
+        return new Builder(retryCtx, tablePath, keyColumns);
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    public ImmutableList<String> getKeyColumns() {
+        return keyColumns;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Returns lazy iterator over pages of the result. Every call starts reading from the first page.
+     * {@link Iterator#hasNext()} and {@link Iterator#next()} throw
+     * {@link tech.ydb.core.UnexpectedResultException} if the page cannot be read.
+     *
+     * @return iterator over non empty pages
+     */
+    @Override
+    public Iterator<ResultSetReader> iterator() {
+        return new PageIterator();
+    }
+
+    /**
+     * Returns lazy stream of pages of the result.
+     *
+     * @return stream of non empty pages
+     */
+    public Stream<ResultSetReader> pages() {
+        Spliterator<ResultSetReader> spliterator = Spliterators.spliteratorUnknownSize(
+                iterator(), Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Returns lazy stream of rows of the result mapped to objects.
+     *
+     * @param mapper mapper of rows
+     * @param <T> type of objects
+     * @return stream of objects in key order
+     */
+    public <T> Stream<T> rows(ObjectMapper<T> mapper) {
+        return pages().flatMap(page -> mapper.readAll(page).stream());
+    }
+
+    private CompletableFuture<Result<DataQueryResult>> fetch(List<Value<?>> lastKey) {
+        String query = firstPageQuery;
+        Params queryParams = params;
+        if (!lastKey.isEmpty()) {
+            query = nextPageQuery;
+            if (query == null) {
+                query = buildQuery(lastKey);
+                nextPageQuery = query;
+            }
+            queryParams = Params.copyOf(params);
+            for (int i = 0; i < lastKey.size(); i++) {
+                putParam(queryParams, KEY_PARAM_PREFIX + i, lastKey.get(i));
+            }
+        }
+
+        final String text = query;
+        final Params pageParams = queryParams;
+        return retryCtx.supplyResult(session -> session.executeDataQuery(
+                text, txControl, pageParams, new ExecuteDataQuerySettings()));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void putParam(Params params, String name, Value<?> value) {
+        params.put(name, (Value) value);
+    }
+
+    /**
+     * Builds text of query for the first page if last key is empty, otherwise for the next pages
+     */
+    private String buildQuery(List<Value<?>> lastKey) {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Value<?>> param : params.values().entrySet()) {
+            declare(sb, param.getKey(), param.getValue());
+        }
+        for (int i = 0; i < lastKey.size(); i++) {
+            declare(sb, KEY_PARAM_PREFIX + i, lastKey.get(i));
+        }
+
+        sb.append("SELECT ");
+        if (columns.isEmpty()) {
+            sb.append('*');
+        } else {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append('`').append(columns.get(i)).append('`');
+            }
+        }
+        sb.append(" FROM `").append(tablePath).append('`');
+
+        if (predicate != null || !lastKey.isEmpty()) {
+            sb.append(" WHERE ");
+            if (predicate != null) {
+                sb.append('(').append(predicate).append(')');
+            }
+            if (!lastKey.isEmpty()) {
+                if (predicate != null) {
+                    sb.append(" AND ");
+                }
+                appendAfterKey(sb);
+            }
+        }
+
+        sb.append(" ORDER BY ");
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append('`').append(keyColumns.get(i)).append('`');
+        }
+        sb.append(" LIMIT ").append(pageSize).append(';');
+        return sb.toString();
+    }
+
+    private static void declare(StringBuilder sb, String name, Value<?> value) {
+        sb.append("DECLARE ").append(name).append(" AS ").append(value.getType()).append(";\n");
+    }
+
+    /**
+     * Appends condition (k0 &gt; $k0) OR (k0 = $k0 AND k1 &gt; $k1) OR ..., which can be used to seek by key
+     */
+    private void appendAfterKey(StringBuilder sb) {
+        sb.append('(');
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                sb.append(" OR ");
+            }
+            sb.append('(');
+            for (int j = 0; j < i; j++) {
+                sb.append('`').append(keyColumns.get(j)).append("` = ").append(KEY_PARAM_PREFIX).append(j);
+                sb.append(" AND ");
+            }
+            sb.append('`').append(keyColumns.get(i)).append("` > ").append(KEY_PARAM_PREFIX).append(i);
+            sb.append(')');
+        }
+        sb.append(')');
+    }
+
+    /**
+     * Iterator over pages, which requests the next page before the current one is returned
+     */
+    private final class PageIterator implements Iterator<ResultSetReader> {
+        private CompletableFuture<Result<DataQueryResult>> pending;
+        private List<Value<?>> nextKey = null;
+        private ResultSetReader current = null;
+
+        PageIterator() {
+            this.pending = fetch(Collections.emptyList());
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (current != null) {
+                return true;
+            }
+            if (pending == null && nextKey != null) {
+                pending = fetch(nextKey);
+            }
+            if (pending == null) {
+                return false;
+            }
+
+            DataQueryResult result = pending.join().getValue();
+            pending = null;
+            nextKey = null;
+
+            ResultSetReader page = result.getResultSet(0);
+            if (page.getRowCount() == 0) {
+                return false;
+            }
+            // truncated page may have less rows than requested
+            if (page.getRowCount() >= pageSize || result.isTruncated(0)) {
+                nextKey = KeyRanges.readLastRowKey(page, keyColumns);
+                if (prefetch) {
+                    pending = fetch(nextKey);
+                }
+            }
+            current = page;
+            return true;
+        }
+
+        @Override
+        public ResultSetReader next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ResultSetReader page = current;
+            current = null;
+            return page;
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final SessionRetryContext retryCtx;
+        private final String tablePath;
+        private final ImmutableList<String> keyColumns;
+        private ImmutableList<String> columns = ImmutableList.of();
+        private String predicate = null;
+        private Params params = Params.empty();
+        private int pageSize = DEFAULT_PAGE_SIZE;
+        private TxControl<?> txControl = TxControl.serializableRw();
+        private boolean prefetch = true;
+
+        private Builder(SessionRetryContext retryCtx, String tablePath, List<String> keyColumns) {
+            checkArgument(!keyColumns.isEmpty(), "keyColumns is empty");
+            this.retryCtx = Objects.requireNonNull(retryCtx, "retryCtx");
+            this.tablePath = Objects.requireNonNull(tablePath, "tablePath");
+            this.keyColumns = ImmutableList.copyOf(keyColumns);
+        }
+
+        /**
+         * Sets columns to read, key columns are added to them if missed. By default all columns are read.
+         *
+         * @param columns names of columns
+         * @return this builder
+         */
+        public Builder withColumns(List<String> columns) {
+            if (columns.isEmpty()) {
+                this.columns = ImmutableList.of();
+                return this;
+            }
+            List<String> all = new ArrayList<>(columns);
+            for (String key : keyColumns) {
+                if (!all.contains(key)) {
+                    all.add(key);
+                }
+            }
+            this.columns = ImmutableList.copyOf(all);
+            return this;
+        }
+
+        /**
+         * Sets YQL predicate to filter rows, parameters are declared automatically.
+         *
+         * @param predicate text of the condition, for example {@code series_id = $id}
+         * @param params values of parameters used in the predicate
+         * @return this builder
+         */
+        public Builder withPredicate(String predicate, Params params) {
+            this.predicate = Objects.requireNonNull(predicate, "predicate");
+            this.params = Objects.requireNonNull(params, "params");
+            return this;
+        }
+
+        public Builder withPageSize(int pageSize) {
+            checkArgument(pageSize > 0, "pageSize(%s) is not positive", pageSize);
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        public Builder withTxControl(TxControl<?> txControl) {
+            this.txControl = Objects.requireNonNull(txControl, "txControl");
+            return this;
+        }
+
+        public Builder withPrefetch(boolean prefetch) {
+            this.prefetch = prefetch;
+            return this;
+        }
+
+        public PaginatedQuery build() {
+            return new PaginatedQuery(this);
+        }
+    }
+}
@@ -0,0 +1,430 @@
+package tech.ydb.table;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import tech.ydb.core.Issue;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.core.grpc.GrpcReadStream;
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.ReadTablePart;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.DescribeTableSettings;
+import tech.ydb.table.settings.ReadTableSettings;
+import tech.ydb.table.values.OptionalValue;
+import tech.ydb.table.values.TupleValue;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Reads a table by several concurrent read table streams, one stream per shard key range.
+ *
+ * <p>Requested range of {@link ReadTableSettings} is split by shard key bounds of the table, each sub-range is
+ * read on its own session of the given {@link SessionRetryContext} and is retried independently. If the read
+ * columns include all primary key columns, a retried sub-range is resumed after the last delivered key.
+ *
+ * <p>Parts are passed to the consumer one at a time. When {@link ReadTableSettings#isOrdered()} is set, parts
+ * are delivered in key order, so parts of sub-ranges read ahead of the current one are buffered in memory. The
+ * count of buffered parts is bounded: when the limit is reached, streams of sub-ranges read ahead are cancelled
+ * and resumed after their last buffered key when they become current. If such sub-ranges cannot be resumed,
+ * ordered read doesn't read ahead at all. Otherwise parts of different sub-ranges are delivered as soon as they
+ * are received.
+ */
+@ParametersAreNonnullByDefault
+public class ParallelReadTable {
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 8;
+    private static final int DEFAULT_MAX_BUFFERED_PARTS = 64;
+
+    private static final Status CANCELLED = Status.of(StatusCode.CANCELLED)
+            .withIssues(Issue.of("Parallel read table is already completed", Issue.Severity.ERROR));
+
+    private static final Status NOT_RESUMABLE = Status.of(StatusCode.PRECONDITION_FAILED)
+            .withIssues(Issue.of("Cannot retry read of range after delivery of its rows, "
+                    + "read columns don't include all primary key columns", Issue.Severity.ERROR));
+
+    private final SessionRetryContext retryCtx;
+    private final String tablePath;
+    private final ReadTableSettings settings;
+    private final int maxConcurrency;
+    private final int maxBufferedParts;
+    @Nullable
+    private final TableDescription tableDescription;
+
+    private ParallelReadTable(Builder builder) {
+        this.retryCtx = builder.retryCtx;
+        this.tablePath = builder.tablePath;
+        this.settings = builder.settings;
+        this.maxConcurrency = builder.maxConcurrency;
+        this.maxBufferedParts = builder.maxBufferedParts;
+        this.tableDescription = builder.tableDescription;
+    }
+
+    public static Builder newBuilder(SessionRetryContext retryCtx, String tablePath) {
+        return new Builder(retryCtx, tablePath);
+    }
+
+    public String getTablePath() {
+        return tablePath;
+    }
+
+    public ReadTableSettings getSettings() {
+        return settings;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public int getMaxBufferedParts() {
+        return maxBufferedParts;
+    }
+
+    /**
+     * Starts reading of the table.
+     *
+     * @param consumer consumer of read parts, it is never called concurrently
+     * @return future with status of the whole read, it is completed after delivery of all parts or on the first
+     * non retryable error of any sub-range
+     */
+    public CompletableFuture<Status> start(Consumer<ResultSetReader> consumer) {
+        if (tableDescription != null) {
+            return new ReadOperation(tableDescription, consumer).start();
+        }
+
+        DescribeTableSettings describeSettings = new DescribeTableSettings();
+        describeSettings.setIncludeShardKeyBounds(true);
+        return retryCtx.supplyResult(session -> session.describeTable(tablePath, describeSettings))
+                .thenCompose(result -> {
+                    if (!result.isSuccess()) {
+                        return CompletableFuture.completedFuture(result.getStatus());
+                    }
+                    return new ReadOperation(result.getValue(), consumer).start();
+                });
+    }
+
+    private List<ReadTableSettings> splitRanges(TableDescription description) {
+        // row limit cannot be split between ranges
+        if (settings.getRowLimit() > 0 || description.getKeyRanges().size() < 2) {
+            return Collections.singletonList(settings);
+        }
+        List<ReadTableSettings> ranges = KeyRanges.split(settings, description.getKeyRanges());
+        return ranges != null ? ranges : Collections.singletonList(settings);
+    }
+
+    private static TupleValue readLastKey(ResultSetReader part, List<String> keyColumns) {
+        List<Value<?>> key = KeyRanges.readLastRowKey(part, keyColumns);
+        for (int i = 0; i < key.size(); i++) {
+            Value<?> value = key.get(i);
+            if (!(value instanceof OptionalValue)) {
+                key.set(i, value.makeOptional());
+            }
+        }
+        return TupleValue.of(key);
+    }
+
+    /**
+     * State of the single call of {@link #start}
+     */
+    private final class ReadOperation {
+        private final Consumer<ResultSetReader> consumer;
+        @Nullable
+        private final List<String> keyColumns;
+        private final List<RangeReader> ranges;
+        private final AtomicInteger nextRange = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Status> result = new CompletableFuture<>();
+        private final Object deliveryLock = new Object();
+        private int currentRange = 0;
+        private int bufferedParts = 0;
+
+        ReadOperation(TableDescription description, Consumer<ResultSetReader> consumer) {
+            this.consumer = consumer;
+
+            List<String> primaryKeys = description.getPrimaryKeys();
+            boolean resumable = !primaryKeys.isEmpty()
+                    && (settings.getColumns().isEmpty() || settings.getColumns().containsAll(primaryKeys));
+            this.keyColumns = resumable ? primaryKeys : null;
+
+            List<ReadTableSettings> rangeSettings = splitRanges(description);
+            this.ranges = new ArrayList<>(rangeSettings.size());
+            for (ReadTableSettings range : rangeSettings) {
+                ranges.add(new RangeReader(range));
+            }
+            this.remaining = new AtomicInteger(ranges.size());
+        }
+
+        CompletableFuture<Status> start() {
+            if (ranges.isEmpty()) {
+                result.complete(Status.SUCCESS);
+                return result;
+            }
+            // parts of ranges which cannot be resumed cannot be dropped, so such ranges aren't read ahead
+            int workers = settings.isOrdered() && keyColumns == null ? 1 : Math.min(maxConcurrency, ranges.size());
+            for (int i = 0; i < workers; i++) {
+                readNext();
+            }
+            return result;
+        }
+
+        private void readNext() {
+            int index = nextRange.getAndIncrement();
+            if (index >= ranges.size() || result.isDone()) {
+                return;
+            }
+            readRange(ranges.get(index));
+        }
+
+        private void readRange(RangeReader range) {
+            range.read().whenComplete((status, th) -> {
+                if (th != null) {
+                    fail(Status.of(StatusCode.CLIENT_INTERNAL_ERROR, null,
+                            Issue.of("Read of range failed with exception " + th, Issue.Severity.ERROR)));
+                    return;
+                }
+                if (!status.isSuccess()) {
+                    fail(status);
+                    return;
+                }
+
+                RangeReader resume = null;
+                boolean paused;
+                synchronized (deliveryLock) {
+                    paused = range.pausing;
+                    if (paused) {
+                        // stream was cancelled to stop read ahead, the range is resumed when it becomes current
+                        range.pausing = false;
+                        range.paused = true;
+                        resume = ranges.get(currentRange) == range ? resumeCurrent() : null;
+                    } else {
+                        range.finished = true;
+                        if (settings.isOrdered()) {
+                            resume = flushOrdered();
+                        }
+                    }
+                }
+                if (resume != null) {
+                    readRange(resume);
+                }
+                if (paused) {
+                    return;
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    result.complete(Status.SUCCESS);
+                } else {
+                    readNext();
+                }
+            });
+        }
+
+        private void onPart(RangeReader range, ResultSetReader part) {
+            if (part.getRowCount() == 0) {
+                return;
+            }
+            if (keyColumns != null) {
+                range.lastKey = readLastKey(part, keyColumns);
+            }
+            range.delivered = true;
+
+            RangeReader resume = null;
+            GrpcReadStream<ReadTablePart> toCancel = null;
+            synchronized (deliveryLock) {
+                if (settings.isOrdered()) {
+                    range.buffer.add(part);
+                    bufferedParts++;
+                    resume = flushOrdered();
+                    boolean readAhead = !range.buffer.isEmpty();
+                    if (readAhead && bufferedParts > maxBufferedParts && keyColumns != null && !range.pausing) {
+                        range.pausing = true;
+                        toCancel = range.stream;
+                    }
+                } else {
+                    deliver(part);
+                }
+            }
+            if (toCancel != null) {
+                toCancel.cancel();
+            }
+            if (resume != null) {
+                readRange(resume);
+            }
+        }
+
+        /**
+         * Delivers buffered parts in key order.
+         *
+         * @return paused range which became current and must be resumed or null
+         */
+        @Nullable
+        private RangeReader flushOrdered() {
+            while (currentRange < ranges.size()) {
+                RangeReader range = ranges.get(currentRange);
+                ResultSetReader part;
+                while ((part = range.buffer.poll()) != null) {
+                    bufferedParts--;
+                    deliver(part);
+                }
+                if (!range.finished) {
+                    return range.paused ? resumeCurrent() : null;
+                }
+                currentRange++;
+            }
+            return null;
+        }
+
+        private RangeReader resumeCurrent() {
+            RangeReader range = ranges.get(currentRange);
+            range.paused = false;
+            return range;
+        }
+
+        private void deliver(ResultSetReader part) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                consumer.accept(part);
+            } catch (RuntimeException e) {
+                fail(Status.of(StatusCode.CLIENT_INTERNAL_ERROR, null,
+                        Issue.of("Consumer of parts failed with exception " + e, Issue.Severity.ERROR)));
+            }
+        }
+
+        private void fail(Status status) {
+            if (result.complete(status)) {
+                for (RangeReader range : ranges) {
+                    GrpcReadStream<ReadTablePart> stream = range.stream;
+                    if (stream != null) {
+                        stream.cancel();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Single sub-range of the table
+         */
+        private final class RangeReader {
+            private final ReadTableSettings rangeSettings;
+            private final ArrayDeque<ResultSetReader> buffer = new ArrayDeque<>();
+            private volatile GrpcReadStream<ReadTablePart> stream = null;
+            private volatile TupleValue lastKey = null;
+            private volatile boolean delivered = false;
+            /** Stream is cancelled to stop read ahead, guarded by deliveryLock but also read by the stream */
+            private volatile boolean pausing = false;
+            private boolean paused = false;
+            private boolean finished = false;
+
+            RangeReader(ReadTableSettings rangeSettings) {
+                this.rangeSettings = rangeSettings;
+            }
+
+            CompletableFuture<Status> read() {
+                return retryCtx.supplyStatus(session -> {
+                    if (result.isDone()) {
+                        return CompletableFuture.completedFuture(CANCELLED);
+                    }
+
+                    ReadTableSettings attempt = rangeSettings;
+                    if (lastKey != null) {
+                        KeyBound to = rangeSettings.getToKey() != null
+                                ? new KeyBound(rangeSettings.getToKey(), rangeSettings.isToInclusive())
+                                : null;
+                        attempt = KeyRanges.withRange(rangeSettings, KeyBound.exclusive(lastKey), to);
+                    } else if (delivered) {
+                        return CompletableFuture.completedFuture(NOT_RESUMABLE);
+                    }
+
+                    GrpcReadStream<ReadTablePart> attemptStream = session.executeReadTable(tablePath, attempt);
+                    stream = attemptStream;
+                    if (result.isDone()) {
+                        attemptStream.cancel();
+                    }
+                    return attemptStream.start(part -> onPart(this, part.getResultSetReader()))
+                            .thenApply(status -> {
+                                if (pausing) {
+                                    return Status.SUCCESS;
+                                }
+                                if (!status.isSuccess() && lastKey == null && delivered) {
+                                    // delivered rows cannot be skipped on retry, so the read fails with the
+                                    // status of the attempt and the retry context gets a non retryable status
+                                    fail(status);
+                                    return NOT_RESUMABLE;
+                                }
+                                return status;
+                            });
+                });
+            }
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final SessionRetryContext retryCtx;
+        private final String tablePath;
+        private ReadTableSettings settings = ReadTableSettings.newBuilder().build();
+        private int maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+        private int maxBufferedParts = DEFAULT_MAX_BUFFERED_PARTS;
+        private TableDescription tableDescription = null;
+
+        private Builder(SessionRetryContext retryCtx, String tablePath) {
+            this.retryCtx = Objects.requireNonNull(retryCtx, "retryCtx");
+            this.tablePath = Objects.requireNonNull(tablePath, "tablePath");
+        }
+
+        public Builder withSettings(ReadTableSettings settings) {
+            this.settings = Objects.requireNonNull(settings, "settings");
+            return this;
+        }
+
+        public Builder withMaxConcurrency(int maxConcurrency) {
+            checkArgument(maxConcurrency > 0, "maxConcurrency(%s) is not positive", maxConcurrency);
+            this.maxConcurrency = maxConcurrency;
+            return this;
+        }
+
+        /**
+         * Sets max count of parts buffered by ordered read. The limit can be exceeded by parts which are already
+         * received by cancelled streams.
+         *
+         * @param maxBufferedParts max count of buffered parts
+         * @return this builder
+         */
+        public Builder withMaxBufferedParts(int maxBufferedParts) {
+            checkArgument(maxBufferedParts > 0, "maxBufferedParts(%s) is not positive", maxBufferedParts);
+            this.maxBufferedParts = maxBufferedParts;
+            return this;
+        }
+
+        /**
+         * Sets description of the table with shard key bounds, otherwise the table is described on each start.
+         *
+         * @param tableDescription description of the table
+         * @return this builder
+         * @see DescribeTableSettings#setIncludeShardKeyBounds
+         */
+        public Builder withTableDescription(TableDescription tableDescription) {
+            this.tableDescription = tableDescription;
+            return this;
+        }
+
+        public ParallelReadTable build() {
+            return new ParallelReadTable(this);
+        }
+    }
+}
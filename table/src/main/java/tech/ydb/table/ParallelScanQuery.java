@@ -0,0 +1,406 @@
+package tech.ydb.table;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import tech.ydb.core.Issue;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.core.grpc.GrpcReadStream;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ExecuteScanQuerySettings;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Executes a scan query and processes its parts on the given executor.
+ *
+ * <p>Parts are read from the stream on the callback thread and processed by at most {@code parallelism} concurrent
+ * tasks of the executor. The count of received and not yet completed parts is bounded by {@code maxPrefetch}: when
+ * the limit is reached, the next part isn't requested from the server until processing of previous parts is
+ * completed, so the stream is slowed down to the speed of processing. The callback thread is never blocked, the
+ * stream is read with {@link GrpcReadStream#startWithFlowControl}.
+ *
+ * <p>Results of processing are passed to the sink one at a time. When the order is preserved, results are passed
+ * in the order of parts in the stream, otherwise in the order of completion of processing. The query is executed
+ * by the given {@link SessionRetryContext}, it is retried only until the first part is received.
+ */
+@ParametersAreNonnullByDefault
+public class ParallelScanQuery {
+
+    private static final int DEFAULT_PARALLELISM = 4;
+    private static final int DEFAULT_MAX_PREFETCH = 8;
+
+    private static final Status CANCELLED = Status.of(StatusCode.CANCELLED)
+            .withIssues(Issue.of("Parallel scan query is already completed", Issue.Severity.ERROR));
+
+    private static final CompletableFuture<Void> READY = CompletableFuture.completedFuture(null);
+
+    private static final Status NOT_RESUMABLE = Status.of(StatusCode.PRECONDITION_FAILED)
+            .withIssues(Issue.of("Cannot retry scan query after processing of its parts", Issue.Severity.ERROR));
+
+    private final SessionRetryContext retryCtx;
+    private final Executor executor;
+    private final String query;
+    private final Params params;
+    private final ExecuteScanQuerySettings settings;
+    private final int parallelism;
+    private final int maxPrefetch;
+    private final boolean ordered;
+
+    private ParallelScanQuery(Builder builder) {
+        this.retryCtx = builder.retryCtx;
+        this.executor = builder.executor;
+        this.query = builder.query;
+        this.params = builder.params;
+        this.settings = builder.settings;
+        this.parallelism = builder.parallelism;
+        this.maxPrefetch = builder.maxPrefetch;
+        this.ordered = builder.ordered;
+    }
+
+    public static Builder newBuilder(SessionRetryContext retryCtx, Executor executor, String query) {
+        return new Builder(retryCtx, executor, query);
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getMaxPrefetch() {
+        return maxPrefetch;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
+
+    /**
+     * Starts execution of the query.
+     *
+     * @param consumer consumer of parts, it is called concurrently by tasks of the executor
+     * @return future with status of the query, it is completed after processing of all parts or on the first error
+     */
+    public CompletableFuture<Status> start(Consumer<ResultSetReader> consumer) {
+        return start(part -> {
+            consumer.accept(part);
+            return null;
+        }, result -> { });
+    }
+
+    /**
+     * Starts execution of the query.
+     *
+     * @param processor function to process a part, it is called concurrently by tasks of the executor
+     * @param sink consumer of results of processing, it is never called concurrently
+     * @param <T> type of results of processing
+     * @return future with status of the query, it is completed after delivery of results of all parts or on the
+     * first error
+     */
+    public <T> CompletableFuture<Status> start(Function<ResultSetReader, T> processor, Consumer<T> sink) {
+        return new ScanOperation<>(processor, sink).start();
+    }
+
+    /**
+     * State of the single call of {@link #start}
+     */
+    private final class ScanOperation<T> {
+        private final Function<ResultSetReader, T> processor;
+        private final Consumer<T> sink;
+        private final CompletableFuture<Status> result = new CompletableFuture<>();
+
+        private final Object lock = new Object();
+        /** Parts waiting for processing */
+        private final ArrayDeque<Part<T>> queue = new ArrayDeque<>();
+        private int workers = 0;
+        private int unfinished = 0;
+        private boolean streamFinished = false;
+        /** Completed when the next part can be requested, null if the stream isn't suspended */
+        private CompletableFuture<Void> suspended = null;
+
+        private final Object deliveryLock = new Object();
+        /** Parts in the order of the stream which results aren't delivered yet, used only if order is preserved */
+        private final ArrayDeque<Part<T>> delivery = new ArrayDeque<>();
+
+        private volatile GrpcReadStream<ResultSetReader> stream = null;
+        private volatile boolean received = false;
+
+        ScanOperation(Function<ResultSetReader, T> processor, Consumer<T> sink) {
+            this.processor = processor;
+            this.sink = sink;
+        }
+
+        CompletableFuture<Status> start() {
+            retryCtx.supplyStatus(session -> {
+                if (result.isDone()) {
+                    return CompletableFuture.completedFuture(CANCELLED);
+                }
+                if (received) {
+                    return CompletableFuture.completedFuture(NOT_RESUMABLE);
+                }
+
+                GrpcReadStream<ResultSetReader> attemptStream = session.executeScanQuery(query, params, settings);
+                stream = attemptStream;
+                if (result.isDone()) {
+                    attemptStream.cancel();
+                }
+                return attemptStream.startWithFlowControl(this::onPart).thenApply(status -> {
+                    if (!status.isSuccess() && received) {
+                        // processed parts cannot be read again, so the operation fails with the status of the
+                        // attempt and the retry context gets a non retryable status
+                        fail(status);
+                        return NOT_RESUMABLE;
+                    }
+                    return status;
+                });
+            }).whenComplete((status, th) -> {
+                if (th != null) {
+                    fail(Status.of(StatusCode.CLIENT_INTERNAL_ERROR, null,
+                            Issue.of("Scan query failed with exception " + th, Issue.Severity.ERROR)));
+                    return;
+                }
+                if (!status.isSuccess()) {
+                    fail(status);
+                    return;
+                }
+
+                boolean completed;
+                synchronized (lock) {
+                    streamFinished = true;
+                    completed = unfinished == 0;
+                }
+                if (completed) {
+                    result.complete(Status.SUCCESS);
+                }
+            });
+            return result;
+        }
+
+        /**
+         * Accepts the received part.
+         *
+         * @return future which is completed when the next part can be requested
+         */
+        private CompletableFuture<Void> onPart(ResultSetReader reader) {
+            if (result.isDone()) {
+                return READY;
+            }
+            received = true;
+
+            Part<T> part = new Part<>(reader);
+            if (ordered) {
+                synchronized (deliveryLock) {
+                    delivery.add(part);
+                }
+            }
+
+            boolean startWorker;
+            CompletableFuture<Void> ready = READY;
+            synchronized (lock) {
+                unfinished++;
+                queue.add(part);
+                startWorker = workers < parallelism;
+                if (startWorker) {
+                    workers++;
+                }
+                if (unfinished >= maxPrefetch) {
+                    // the stream is resumed when processing of previous parts releases a slot
+                    suspended = new CompletableFuture<>();
+                    ready = suspended;
+                }
+            }
+
+            if (startWorker) {
+                try {
+                    executor.execute(this::work);
+                } catch (RejectedExecutionException e) {
+                    fail(Status.of(StatusCode.CLIENT_INTERNAL_ERROR, null,
+                            Issue.of("Processing of part was rejected by executor " + e, Issue.Severity.ERROR)));
+                }
+            }
+            return ready;
+        }
+
+        private void work() {
+            while (true) {
+                Part<T> part;
+                synchronized (lock) {
+                    part = queue.poll();
+                    if (part == null || result.isDone()) {
+                        workers--;
+                        return;
+                    }
+                }
+
+                T value;
+                try {
+                    value = processor.apply(part.reader);
+                } catch (RuntimeException e) {
+                    fail(Status.of(StatusCode.CLIENT_INTERNAL_ERROR, null,
+                            Issue.of("Processing of part failed with exception " + e, Issue.Severity.ERROR)));
+                    synchronized (lock) {
+                        workers--;
+                    }
+                    return;
+                }
+                onProcessed(part, value);
+            }
+        }
+
+        private void onProcessed(Part<T> part, T value) {
+            int completed = 0;
+            synchronized (deliveryLock) {
+                if (ordered) {
+                    part.value = value;
+                    part.processed = true;
+                    while (!delivery.isEmpty() && delivery.peek().processed) {
+                        deliver(delivery.poll().value);
+                        completed++;
+                    }
+                } else {
+                    deliver(value);
+                    completed++;
+                }
+            }
+            if (completed == 0) {
+                return;
+            }
+
+            boolean finished;
+            CompletableFuture<Void> resume = null;
+            synchronized (lock) {
+                unfinished -= completed;
+                finished = streamFinished && unfinished == 0;
+                if (suspended != null && unfinished < maxPrefetch) {
+                    resume = suspended;
+                    suspended = null;
+                }
+            }
+            if (resume != null) {
+                resume.complete(null);
+            }
+            if (finished) {
+                result.complete(Status.SUCCESS);
+            }
+        }
+
+        private void deliver(T value) {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                sink.accept(value);
+            } catch (RuntimeException e) {
+                fail(Status.of(StatusCode.CLIENT_INTERNAL_ERROR, null,
+                        Issue.of("Sink of results failed with exception " + e, Issue.Severity.ERROR)));
+            }
+        }
+
+        private void fail(Status status) {
+            if (result.complete(status)) {
+                GrpcReadStream<ResultSetReader> current = stream;
+                if (current != null) {
+                    current.cancel();
+                }
+                CompletableFuture<Void> resume;
+                synchronized (lock) {
+                    resume = suspended;
+                    suspended = null;
+                }
+                // lets the suspended stream observe its cancellation
+                if (resume != null) {
+                    resume.complete(null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Received part and result of its processing
+     */
+    private static final class Part<T> {
+        private final ResultSetReader reader;
+        private T value = null;
+        private boolean processed = false;
+
+        Part(ResultSetReader reader) {
+            this.reader = reader;
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final SessionRetryContext retryCtx;
+        private final Executor executor;
+        private final String query;
+        private Params params = Params.empty();
+        private ExecuteScanQuerySettings settings = ExecuteScanQuerySettings.newBuilder().build();
+        private int parallelism = DEFAULT_PARALLELISM;
+        private int maxPrefetch = DEFAULT_MAX_PREFETCH;
+        private boolean ordered = false;
+
+        private Builder(SessionRetryContext retryCtx, Executor executor, String query) {
+            this.retryCtx = Objects.requireNonNull(retryCtx, "retryCtx");
+            this.executor = Objects.requireNonNull(executor, "executor");
+            this.query = Objects.requireNonNull(query, "query");
+        }
+
+        public Builder withParams(Params params) {
+            this.params = Objects.requireNonNull(params, "params");
+            return this;
+        }
+
+        public Builder withSettings(ExecuteScanQuerySettings settings) {
+            this.settings = Objects.requireNonNull(settings, "settings");
+            return this;
+        }
+
+        public Builder withParallelism(int parallelism) {
+            checkArgument(parallelism > 0, "parallelism(%s) is not positive", parallelism);
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        /**
+         * Sets max count of parts which are received from the stream but whose results aren't delivered yet.
+         *
+         * @param maxPrefetch max count of parts
+         * @return this builder
+         */
+        public Builder withMaxPrefetch(int maxPrefetch) {
+            checkArgument(maxPrefetch > 0, "maxPrefetch(%s) is not positive", maxPrefetch);
+            this.maxPrefetch = maxPrefetch;
+            return this;
+        }
+
+        /**
+         * Sets preservation of the order of parts, by default results are delivered in the order of completion.
+         *
+         * @param ordered true to deliver results in the order of parts in the stream
+         * @return this builder
+         */
+        public Builder withOrdered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        public ParallelScanQuery build() {
+            return new ParallelScanQuery(this);
+        }
+    }
+}
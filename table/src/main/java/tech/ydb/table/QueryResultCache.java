@@ -0,0 +1,263 @@
+package tech.ydb.table;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import tech.ydb.core.Result;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Cache of results of read-only data queries executed in stale or snapshot read-only transactions.
+ *
+ * <p>Results are identified by text of the query, transaction mode and values of its parameters and are kept
+ * for the TTL of the query. Total size of cached result sets is bounded, least recently used results are evicted
+ * first. Concurrent executions of the same query with the same parameters are merged into single request executed
+ * by the given {@link SessionRetryContext}. Failed results are not cached. Transactions must be committed by the
+ * query, so cached results never refer to an open transaction.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class QueryResultCache {
+
+    private static final long DEFAULT_MAX_SIZE_BYTES = 64L * 1024 * 1024;
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(1);
+
+    private final SessionRetryContext retryCtx;
+    private final Clock clock;
+    private final long maxSizeBytes;
+    private final Duration defaultTtl;
+
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final HashMap<CacheKey, CompletableFuture<Result<DataQueryResult>>> inflight = new HashMap<>();
+    private long sizeBytes = 0;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    private QueryResultCache(Builder builder) {
+        this.retryCtx = builder.retryCtx;
+        this.clock = builder.clock;
+        this.maxSizeBytes = builder.maxSizeBytes;
+        this.defaultTtl = builder.defaultTtl;
+    }
+
+    public static Builder newBuilder(SessionRetryContext retryCtx) {
+        return new Builder(retryCtx);
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeDataQuery(
+            String query, TxControl<?> txControl, Params params) {
+        return executeDataQuery(query, txControl, params, defaultTtl);
+    }
+
+    /**
+     * Returns cached result of the query or executes it.
+     *
+     * @param query text of the query
+     * @param txControl stale or snapshot read-only transaction control with commit
+     * @param params parameters of the query
+     * @param ttl time to keep the result of the query in the cache
+     * @return future with the result of the query
+     */
+    public CompletableFuture<Result<DataQueryResult>> executeDataQuery(
+            String query, TxControl<?> txControl, Params params, Duration ttl) {
+        checkArgument(txControl instanceof TxControl.TxStaleRo || txControl instanceof TxControl.TxSnapshotRo,
+                "only results of stale and snapshot read-only transactions can be cached");
+        checkArgument(txControl.isCommitTx(), "only results of committed transactions can be cached");
+        checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl(%s) is not positive", ttl);
+
+        CacheKey key = new CacheKey(query, txControl.toPb(), params.toPb());
+        CompletableFuture<Result<DataQueryResult>> future = new CompletableFuture<>();
+        // lookup of the cache and of running queries is atomic, the result of a query is put to the cache and the
+        // query is removed from running queries atomically too, so no duplicate request is sent between them
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expireAtMillis > clock.millis()) {
+                    hitCount++;
+                    return CompletableFuture.completedFuture(Result.success(entry.result));
+                }
+                remove(key);
+            }
+            missCount++;
+
+            CompletableFuture<Result<DataQueryResult>> running = inflight.putIfAbsent(key, future);
+            if (running != null) {
+                return running;
+            }
+        }
+
+        long ttlMillis = ttl.toMillis();
+        retryCtx.supplyResult(session -> session.executeDataQuery(
+                query, txControl, params, new ExecuteDataQuerySettings())
+        ).whenComplete((result, th) -> {
+            synchronized (this) {
+                if (result != null && result.isSuccess()) {
+                    put(key, result.getValue(), ttlMillis);
+                }
+                inflight.remove(key, future);
+            }
+            if (th != null) {
+                future.completeExceptionally(th);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        sizeBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeBytes() {
+        return sizeBytes;
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private synchronized void put(CacheKey key, DataQueryResult result, long ttlMillis) {
+        long resultSize = key.size + result.getSerializedSize();
+        if (resultSize > maxSizeBytes) {
+            return;
+        }
+
+        remove(key);
+        Iterator<Map.Entry<CacheKey, Entry>> it = entries.entrySet().iterator();
+        while (sizeBytes + resultSize > maxSizeBytes && it.hasNext()) {
+            sizeBytes -= it.next().getValue().sizeBytes;
+            it.remove();
+        }
+
+        entries.put(key, new Entry(result, resultSize, clock.millis() + ttlMillis));
+        sizeBytes += resultSize;
+    }
+
+    private void remove(CacheKey key) {
+        Entry removed = entries.remove(key);
+        if (removed != null) {
+            sizeBytes -= removed.sizeBytes;
+        }
+    }
+
+    /**
+     * Text of query with transaction control and values of its parameters
+     */
+    private static final class CacheKey {
+        private final String query;
+        private final YdbTable.TransactionControl txControl;
+        private final Map<String, ValueProtos.TypedValue> params;
+        private final long size;
+        private final int hash;
+
+        CacheKey(String query, YdbTable.TransactionControl txControl, Map<String, ValueProtos.TypedValue> params) {
+            this.query = query;
+            this.txControl = txControl;
+            this.params = params;
+
+            long paramsSize = 0;
+            for (Map.Entry<String, ValueProtos.TypedValue> param : params.entrySet()) {
+                paramsSize += param.getKey().length() + param.getValue().getSerializedSize();
+            }
+            this.size = query.length() + txControl.getSerializedSize() + paramsSize;
+            this.hash = Objects.hash(query, txControl, params);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash
+                    && query.equals(other.query)
+                    && txControl.equals(other.txControl)
+                    && params.equals(other.params);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Cached result
+     */
+    private static final class Entry {
+        private final DataQueryResult result;
+        private final long sizeBytes;
+        private final long expireAtMillis;
+
+        Entry(DataQueryResult result, long sizeBytes, long expireAtMillis) {
+            this.result = result;
+            this.sizeBytes = sizeBytes;
+            this.expireAtMillis = expireAtMillis;
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final SessionRetryContext retryCtx;
+        private Clock clock = Clock.systemUTC();
+        private long maxSizeBytes = DEFAULT_MAX_SIZE_BYTES;
+        private Duration defaultTtl = DEFAULT_TTL;
+
+        private Builder(SessionRetryContext retryCtx) {
+            this.retryCtx = Objects.requireNonNull(retryCtx, "retryCtx");
+        }
+
+        Builder withClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        public Builder withMaxSizeBytes(long maxSizeBytes) {
+            checkArgument(maxSizeBytes > 0, "maxSizeBytes(%s) is not positive", maxSizeBytes);
+            this.maxSizeBytes = maxSizeBytes;
+            return this;
+        }
+
+        public Builder withDefaultTtl(Duration ttl) {
+            checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl(%s) is not positive", ttl);
+            this.defaultTtl = ttl;
+            return this;
+        }
+
+        public QueryResultCache build() {
+            return new QueryResultCache(this);
+        }
+    }
+}
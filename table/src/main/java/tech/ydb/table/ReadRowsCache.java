@@ -0,0 +1,525 @@
+package tech.ydb.table;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.collect.ImmutableList;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+
+import tech.ydb.core.Result;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.values.OptionalValue;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Read-through cache of rows read by primary keys.
+ *
+ * <p>Misses are read by the given {@link ReadRowsLoader}, so concurrent misses are batched into single ReadRows
+ * requests. Found rows and absence of rows are cached for the configured time. The number of cached rows is
+ * bounded, when the cache is full a new row is admitted only if it was requested more frequently than the least
+ * recently used one, frequencies are estimated by a small count-min sketch like in TinyLFU.
+ *
+ * <p>Cached rows can be invalidated explicitly or by records of the table changefeed in JSON format. Invalidation
+ * of a row also discards results of its reads started before the invalidation. Changefeed records can be passed,
+ * for example, from the topic reader of the changefeed:
+ * <pre>{@code
+ * cache.onChangefeedRecord("/local/series", Arrays.asList("series_id"), message.getData());
+ * }</pre>
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class ReadRowsCache {
+
+    private static final int DEFAULT_MAX_SIZE = 10_000;
+    private static final Duration DEFAULT_EXPIRE_AFTER_WRITE = Duration.ofMinutes(1);
+
+    private final ReadRowsLoader loader;
+    private final Clock clock;
+    private final int maxSize;
+    private final long expireAfterWriteMillis;
+
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /** Cached and loading rows by table path, used for invalidation */
+    private final HashMap<String, TableRows> tables = new HashMap<>();
+    private final FrequencySketch sketch;
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    private ReadRowsCache(Builder builder) {
+        this.loader = builder.loader;
+        this.clock = builder.clock;
+        this.maxSize = builder.maxSize;
+        this.expireAfterWriteMillis = builder.expireAfterWrite.toMillis();
+        this.sketch = new FrequencySketch(maxSize);
+    }
+
+    public static Builder newBuilder(ReadRowsLoader loader) {
+        return new Builder(loader);
+    }
+
+    /**
+     * Returns the row with all columns from the cache or reads it from the table.
+     *
+     * @param tablePath path to the table
+     * @param key struct with all primary key columns
+     * @return future with the row or with empty optional if the row isn't found
+     */
+    public CompletableFuture<Result<Optional<StructValue>>> get(String tablePath, StructValue key) {
+        return get(tablePath, key, Collections.emptyList());
+    }
+
+    /**
+     * Returns the row from the cache or reads it from the table.
+     *
+     * @param tablePath path to the table
+     * @param key struct with all primary key columns
+     * @param columns columns to read, key columns are always read
+     * @return future with the row or with empty optional if the row isn't found
+     */
+    public CompletableFuture<Result<Optional<StructValue>>> get(String tablePath, StructValue key,
+                                                               List<String> columns) {
+        CacheKey cacheKey = new CacheKey(tablePath, key, columns);
+        Row row;
+        long version;
+        synchronized (this) {
+            sketch.increment(cacheKey.hashCode());
+            Entry entry = entries.get(cacheKey);
+            if (entry != null) {
+                if (entry.expireAtMillis > clock.millis()) {
+                    hitCount++;
+                    return CompletableFuture.completedFuture(Result.success(entry.row));
+                }
+                removeEntry(cacheKey);
+            }
+            missCount++;
+            row = tables.computeIfAbsent(tablePath, path -> new TableRows()).getOrCreate(cacheKey);
+            row.loading++;
+            version = row.version;
+        }
+
+        return loader.load(tablePath, key, columns).whenComplete((result, th) -> {
+            onLoaded(cacheKey, row, version, result);
+        });
+    }
+
+    /**
+     * Removes cached rows with the given key in all column sets.
+     *
+     * @param tablePath path to the table
+     * @param key struct with all primary key columns
+     */
+    public synchronized void invalidate(String tablePath, StructValue key) {
+        TableRows table = tables.get(tablePath);
+        Row row = table != null ? table.rows.get(KeyRanges.keyOf(key)) : null;
+        if (row != null) {
+            invalidate(row);
+        }
+    }
+
+    /**
+     * Removes all cached rows of the table.
+     *
+     * @param tablePath path to the table
+     */
+    public synchronized void invalidateAll(String tablePath) {
+        TableRows table = tables.get(tablePath);
+        if (table != null) {
+            for (Row row : new ArrayList<>(table.rows.values())) {
+                invalidate(row);
+            }
+        }
+    }
+
+    /**
+     * Invalidates the row changed by the changefeed record in JSON format. Rows with keys of types which cannot be
+     * matched with keys of the changefeed records are invalidated by any record of their table.
+     *
+     * @param tablePath path to the table
+     * @param primaryKey names of primary key columns in order of the primary key
+     * @param record JSON changefeed record
+     */
+    public void onChangefeedRecord(String tablePath, List<String> primaryKey, byte[] record) {
+        List<String> recordKey = parseRecordKey(record);
+        if (recordKey == null || recordKey.size() != primaryKey.size()) {
+            invalidateAll(tablePath);
+            return;
+        }
+
+        Map<String, String> changefeedKey = new HashMap<>();
+        for (int i = 0; i < primaryKey.size(); i++) {
+            changefeedKey.put(primaryKey.get(i), recordKey.get(i));
+        }
+
+        synchronized (this) {
+            TableRows table = tables.get(tablePath);
+            if (table == null) {
+                return;
+            }
+            List<Row> changed = new ArrayList<>(table.unmatched);
+            changed.addAll(table.byChangefeedKey.getOrDefault(changefeedKey, Collections.emptyList()));
+            for (Row row : changed) {
+                invalidate(row);
+            }
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private synchronized void onLoaded(CacheKey cacheKey, Row row, long version,
+                                       @Nullable Result<Optional<StructValue>> result) {
+        row.loading--;
+        // row could be read before invalidation
+        if (result != null && result.isSuccess() && version == row.version) {
+            put(cacheKey, row, result.getValue());
+        }
+        releaseIfUnused(row);
+    }
+
+    private void put(CacheKey cacheKey, Row row, Optional<StructValue> value) {
+        if (entries.size() >= maxSize && !entries.containsKey(cacheKey)) {
+            CacheKey victim = entries.keySet().iterator().next();
+            if (sketch.frequency(cacheKey.hashCode()) <= sketch.frequency(victim.hashCode())) {
+                return;
+            }
+            removeEntry(victim);
+        }
+        entries.put(cacheKey, new Entry(row, value, clock.millis() + expireAfterWriteMillis));
+        row.cached.add(cacheKey);
+    }
+
+    private void invalidate(Row row) {
+        row.version++;
+        for (CacheKey cacheKey : new ArrayList<>(row.cached)) {
+            entries.remove(cacheKey);
+        }
+        row.cached.clear();
+        releaseIfUnused(row);
+    }
+
+    private void removeEntry(CacheKey cacheKey) {
+        Entry entry = entries.remove(cacheKey);
+        if (entry != null) {
+            entry.owner.cached.remove(cacheKey);
+            releaseIfUnused(entry.owner);
+        }
+    }
+
+    private void releaseIfUnused(Row row) {
+        TableRows table = tables.get(row.tablePath);
+        if (table != null) {
+            table.releaseIfUnused(row);
+            if (table.rows.isEmpty()) {
+                tables.remove(row.tablePath);
+            }
+        }
+    }
+
+    @Nullable
+    private static List<String> parseRecordKey(byte[] record) {
+        try {
+            JsonElement json = JsonParser.parseString(new String(record, StandardCharsets.UTF_8));
+            JsonElement key = json.isJsonObject() ? json.getAsJsonObject().get("key") : null;
+            if (key == null || !key.isJsonArray()) {
+                return null;
+            }
+            List<String> result = new ArrayList<>();
+            for (JsonElement element : key.getAsJsonArray()) {
+                if (!element.isJsonNull() && !element.isJsonPrimitive()) {
+                    return null;
+                }
+                result.add(element.isJsonNull() ? null : element.getAsString());
+            }
+            return result;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns key columns with values as they are written in changefeed records or null if key has unsupported types
+     */
+    @Nullable
+    private static Map<String, String> changefeedKey(StructValue key) {
+        Map<String, String> result = new HashMap<>();
+        for (int i = 0; i < key.getMembersCount(); i++) {
+            String column = key.getType().getMemberName(i);
+            Value<?> value = key.getMemberValue(i);
+            if (value instanceof OptionalValue) {
+                OptionalValue optional = (OptionalValue) value;
+                if (!optional.isPresent()) {
+                    result.put(column, null);
+                    continue;
+                }
+                value = optional.get();
+            }
+            if (!(value instanceof PrimitiveValue)) {
+                return null;
+            }
+            String json = changefeedValue((PrimitiveValue) value);
+            if (json == null) {
+                return null;
+            }
+            result.put(column, json);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static String changefeedValue(PrimitiveValue value) {
+        switch (value.getType()) {
+            case Bool:
+                return Boolean.toString(value.getBool());
+            case Int8:
+            case Int16:
+            case Int32:
+                return Integer.toString(value.toPb().getInt32Value());
+            case Uint8:
+            case Uint16:
+            case Uint32:
+                return Integer.toUnsignedString(value.toPb().getUint32Value());
+            case Int64:
+                return Long.toString(value.getInt64());
+            case Uint64:
+                return Long.toUnsignedString(value.getUint64());
+            case Text:
+                return value.getText();
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Key of cached row
+     */
+    private static final class CacheKey {
+        private final String tablePath;
+        private final StructValue key;
+        private final List<ValueProtos.Value> keyValues;
+        private final ImmutableList<String> columns;
+        private final int hash;
+
+        CacheKey(String tablePath, StructValue key, List<String> columns) {
+            this.tablePath = Objects.requireNonNull(tablePath, "tablePath");
+            this.key = key;
+            this.keyValues = KeyRanges.keyOf(key);
+            this.columns = ImmutableList.copyOf(columns);
+            this.hash = Objects.hash(tablePath, keyValues, this.columns);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return hash == other.hash
+                    && tablePath.equals(other.tablePath)
+                    && keyValues.equals(other.keyValues)
+                    && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * Cached row
+     */
+    private static final class Entry {
+        private final Row owner;
+        private final Optional<StructValue> row;
+        private final long expireAtMillis;
+
+        Entry(Row owner, Optional<StructValue> row, long expireAtMillis) {
+            this.owner = owner;
+            this.row = row;
+            this.expireAtMillis = expireAtMillis;
+        }
+    }
+
+    /**
+     * Cached and loading rows of one table indexed by their keys
+     */
+    private static final class TableRows {
+        private final HashMap<List<ValueProtos.Value>, Row> rows = new HashMap<>();
+        private final HashMap<Map<String, String>, List<Row>> byChangefeedKey = new HashMap<>();
+        /** Rows which keys cannot be matched with keys of changefeed records */
+        private final Set<Row> unmatched = new HashSet<>();
+
+        Row getOrCreate(CacheKey cacheKey) {
+            Row row = rows.get(cacheKey.keyValues);
+            if (row == null) {
+                row = new Row(cacheKey.tablePath, cacheKey.keyValues, changefeedKey(cacheKey.key));
+                rows.put(cacheKey.keyValues, row);
+                if (row.changefeedKey != null) {
+                    byChangefeedKey.computeIfAbsent(row.changefeedKey, k -> new ArrayList<>(1)).add(row);
+                } else {
+                    unmatched.add(row);
+                }
+            }
+            return row;
+        }
+
+        void releaseIfUnused(Row row) {
+            if (row.loading > 0 || !row.cached.isEmpty() || rows.get(row.keyValues) != row) {
+                return;
+            }
+            rows.remove(row.keyValues);
+            if (row.changefeedKey == null) {
+                unmatched.remove(row);
+                return;
+            }
+            List<Row> sameKey = byChangefeedKey.get(row.changefeedKey);
+            sameKey.remove(row);
+            if (sameKey.isEmpty()) {
+                byChangefeedKey.remove(row.changefeedKey);
+            }
+        }
+    }
+
+    /**
+     * Row key with its cached column sets and version, the version is incremented by each invalidation of the row
+     * so that loads started before the invalidation aren't cached
+     */
+    private static final class Row {
+        private final String tablePath;
+        private final List<ValueProtos.Value> keyValues;
+        @Nullable
+        private final Map<String, String> changefeedKey;
+        private final Set<CacheKey> cached = new HashSet<>();
+        private long version = 0;
+        private int loading = 0;
+
+        Row(String tablePath, List<ValueProtos.Value> keyValues, @Nullable Map<String, String> changefeedKey) {
+            this.tablePath = tablePath;
+            this.keyValues = keyValues;
+            this.changefeedKey = changefeedKey;
+        }
+    }
+
+    /**
+     * Count-min sketch of request frequencies, all counters are halved periodically to forget old requests
+     */
+    private static final class FrequencySketch {
+        private static final int DEPTH = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x97cb3127, 0xb7bd5a4d, 0x3a8f05c5, 0xec8fc4a7};
+
+        private final int[][] counters;
+        private final int mask;
+        private final int sampleSize;
+        private int additions = 0;
+
+        FrequencySketch(int maxSize) {
+            int width = Integer.highestOneBit(Math.max(16, maxSize - 1) << 1);
+            this.counters = new int[DEPTH][width];
+            this.mask = width - 1;
+            this.sampleSize = 10 * Math.max(16, maxSize);
+        }
+
+        void increment(int hash) {
+            for (int i = 0; i < DEPTH; i++) {
+                int index = index(hash, i);
+                if (counters[i][index] < MAX_COUNT) {
+                    counters[i][index]++;
+                }
+            }
+            if (++additions >= sampleSize) {
+                for (int[] row : counters) {
+                    for (int j = 0; j < row.length; j++) {
+                        row[j] >>>= 1;
+                    }
+                }
+                additions /= 2;
+            }
+        }
+
+        int frequency(int hash) {
+            int frequency = MAX_COUNT;
+            for (int i = 0; i < DEPTH; i++) {
+                frequency = Math.min(frequency, counters[i][index(hash, i)]);
+            }
+            return frequency;
+        }
+
+        private int index(int hash, int i) {
+            int h = hash * SEEDS[i];
+            h ^= h >>> 16;
+            return h & mask;
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final ReadRowsLoader loader;
+        private Clock clock = Clock.systemUTC();
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private Duration expireAfterWrite = DEFAULT_EXPIRE_AFTER_WRITE;
+
+        private Builder(ReadRowsLoader loader) {
+            this.loader = Objects.requireNonNull(loader, "loader");
+        }
+
+        Builder withClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        public Builder withMaxSize(int maxSize) {
+            checkArgument(maxSize > 0, "maxSize(%s) is not positive", maxSize);
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder withExpireAfterWrite(Duration expireAfterWrite) {
+            checkArgument(!expireAfterWrite.isNegative() && !expireAfterWrite.isZero(),
+                    "expireAfterWrite(%s) is not positive", expireAfterWrite);
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        public ReadRowsCache build() {
+            return new ReadRowsCache(this);
+        }
+    }
+}
@@ -0,0 +1,346 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import com.google.common.collect.ImmutableList;
+
+import tech.ydb.core.Result;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.query.ReadRowsResult;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ReadRowsSettings;
+import tech.ydb.table.values.StructType;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Coalesces concurrent single key lookups into batched {@link Session#readRows} requests.
+ *
+ * <p>Lookups of the same table with the same columns and the same type of key are collected for the batch window
+ * or until the max batch size is reached, then all collected keys are read by a single request executed by the
+ * given {@link SessionRetryContext}. Each lookup is completed with its own row, duplicated keys of one batch are
+ * read once.
+ */
+@ParametersAreNonnullByDefault
+public class ReadRowsLoader implements AutoCloseable {
+
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    private static final Duration DEFAULT_BATCH_WINDOW = Duration.ofMillis(1);
+
+    private final SessionRetryContext retryCtx;
+    private final ScheduledExecutorService scheduler;
+    private final int maxBatchSize;
+    private final long batchWindowNanos;
+
+    private final Object lock = new Object();
+    private final Map<BatchKey, Batch> pending = new HashMap<>();
+
+    private ReadRowsLoader(Builder builder) {
+        this.retryCtx = builder.retryCtx;
+        this.scheduler = builder.scheduler;
+        this.maxBatchSize = builder.maxBatchSize;
+        this.batchWindowNanos = builder.batchWindow.toNanos();
+    }
+
+    public static Builder newBuilder(SessionRetryContext retryCtx, ScheduledExecutorService scheduler) {
+        return new Builder(retryCtx, scheduler);
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * Looks up the row with all columns by the primary key.
+     *
+     * @param tablePath path to the table
+     * @param key struct with all primary key columns
+     * @return future with the row or with empty optional if the row isn't found
+     */
+    public CompletableFuture<Result<Optional<StructValue>>> load(String tablePath, StructValue key) {
+        return load(tablePath, key, Collections.emptyList());
+    }
+
+    /**
+     * Looks up the row by the primary key.
+     *
+     * @param tablePath path to the table
+     * @param key struct with all primary key columns
+     * @param columns columns to read, key columns are always read
+     * @return future with the row or with empty optional if the row isn't found
+     */
+    public CompletableFuture<Result<Optional<StructValue>>> load(String tablePath, StructValue key,
+                                                                List<String> columns) {
+        BatchKey batchKey = new BatchKey(tablePath, key.getType(), columns);
+        CompletableFuture<Result<Optional<StructValue>>> future = new CompletableFuture<>();
+
+        Batch ready = null;
+        synchronized (lock) {
+            Batch batch = pending.get(batchKey);
+            if (batch == null) {
+                batch = new Batch(batchKey);
+                pending.put(batchKey, batch);
+                if (maxBatchSize > 1) {
+                    Batch scheduled = batch;
+                    batch.timer = scheduler.schedule(
+                            () -> onBatchWindowEnd(scheduled), batchWindowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            batch.add(key, future);
+            if (batch.size() >= maxBatchSize) {
+                pending.remove(batchKey);
+                ready = batch;
+            }
+        }
+
+        if (ready != null) {
+            if (ready.timer != null) {
+                ready.timer.cancel(false);
+            }
+            send(ready);
+        }
+        return future;
+    }
+
+    /**
+     * Sends all collected lookups without waiting for the end of their batch windows.
+     */
+    public void flush() {
+        List<Batch> batches;
+        synchronized (lock) {
+            batches = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        for (Batch batch : batches) {
+            if (batch.timer != null) {
+                batch.timer.cancel(false);
+            }
+            send(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+    }
+
+    private void onBatchWindowEnd(Batch batch) {
+        synchronized (lock) {
+            if (pending.get(batch.key) != batch) {
+                // already sent
+                return;
+            }
+            pending.remove(batch.key);
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        ReadRowsSettings settings = ReadRowsSettings.newBuilder()
+                .addColumns(batch.key.columns)
+                .addKeys(batch.keys())
+                .build();
+
+        retryCtx.supplyResult(session -> session.readRows(batch.key.tablePath, settings))
+                .whenComplete((result, th) -> {
+                    if (th != null) {
+                        batch.completeExceptionally(th);
+                    } else if (!result.isSuccess()) {
+                        batch.complete(Result.fail(result.getStatus()));
+                    } else {
+                        batch.completeRows(result.getValue());
+                    }
+                });
+    }
+
+    /**
+     * Group of lookups which can be read by single request
+     */
+    private static final class BatchKey {
+        private final String tablePath;
+        private final StructType keyType;
+        private final ImmutableList<String> columns;
+
+        BatchKey(String tablePath, StructType keyType, List<String> columns) {
+            this.tablePath = Objects.requireNonNull(tablePath, "tablePath");
+            this.keyType = keyType;
+            if (columns.isEmpty()) {
+                this.columns = ImmutableList.of();
+            } else {
+                List<String> all = new ArrayList<>(columns);
+                for (int i = 0; i < keyType.getMembersCount(); i++) {
+                    if (!all.contains(keyType.getMemberName(i))) {
+                        all.add(keyType.getMemberName(i));
+                    }
+                }
+                this.columns = ImmutableList.copyOf(all);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BatchKey other = (BatchKey) o;
+            return tablePath.equals(other.tablePath)
+                    && keyType.equals(other.keyType)
+                    && columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tablePath, keyType, columns);
+        }
+    }
+
+    /**
+     * Lookups collected for one request
+     */
+    private static final class Batch {
+        private final BatchKey key;
+        private final Map<List<ValueProtos.Value>, KeyLookup> lookups = new LinkedHashMap<>();
+        private int size = 0;
+        private ScheduledFuture<?> timer = null;
+
+        Batch(BatchKey key) {
+            this.key = key;
+        }
+
+        void add(StructValue rowKey, CompletableFuture<Result<Optional<StructValue>>> future) {
+            lookups.computeIfAbsent(KeyRanges.keyOf(rowKey), k -> new KeyLookup(rowKey)).futures.add(future);
+            size++;
+        }
+
+        int size() {
+            return size;
+        }
+
+        List<StructValue> keys() {
+            List<StructValue> keys = new ArrayList<>(lookups.size());
+            for (KeyLookup lookup : lookups.values()) {
+                keys.add(lookup.key);
+            }
+            return keys;
+        }
+
+        void complete(Result<Optional<StructValue>> result) {
+            for (KeyLookup lookup : lookups.values()) {
+                lookup.complete(result);
+            }
+        }
+
+        void completeRows(ReadRowsResult result) {
+            ResultSetReader rows = result.getResultSetReader();
+            int[] keyColumns = new int[key.keyType.getMembersCount()];
+            for (int i = 0; i < keyColumns.length; i++) {
+                keyColumns[i] = rows.getColumnIndex(key.keyType.getMemberName(i));
+            }
+
+            while (rows.next()) {
+                List<ValueProtos.Value> rowKey = new ArrayList<>(keyColumns.length);
+                for (int index : keyColumns) {
+                    rowKey.add(index >= 0 ? rows.getColumn(index).getValue().toPb() : null);
+                }
+                KeyLookup lookup = lookups.remove(rowKey);
+                if (lookup != null) {
+                    lookup.complete(Result.success(Optional.of(readRow(rows))));
+                }
+            }
+
+            // rows of remaining keys aren't found
+            complete(Result.success(Optional.empty()));
+        }
+
+        void completeExceptionally(Throwable th) {
+            for (KeyLookup lookup : lookups.values()) {
+                for (CompletableFuture<?> future : lookup.futures) {
+                    future.completeExceptionally(th);
+                }
+            }
+        }
+
+        private static StructValue readRow(ResultSetReader rows) {
+            Map<String, Value<?>> members = new HashMap<>(rows.getColumnCount());
+            for (int i = 0; i < rows.getColumnCount(); i++) {
+                members.put(rows.getColumnName(i), rows.getColumn(i).getValue());
+            }
+            return StructValue.of(members);
+        }
+    }
+
+    /**
+     * Lookups of one key
+     */
+    private static final class KeyLookup {
+        private final StructValue key;
+        private final List<CompletableFuture<Result<Optional<StructValue>>>> futures = new ArrayList<>(1);
+
+        KeyLookup(StructValue key) {
+            this.key = key;
+        }
+
+        void complete(Result<Optional<StructValue>> result) {
+            for (CompletableFuture<Result<Optional<StructValue>>> future : futures) {
+                future.complete(result);
+            }
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private final SessionRetryContext retryCtx;
+        private final ScheduledExecutorService scheduler;
+        private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+        private Duration batchWindow = DEFAULT_BATCH_WINDOW;
+
+        private Builder(SessionRetryContext retryCtx, ScheduledExecutorService scheduler) {
+            this.retryCtx = Objects.requireNonNull(retryCtx, "retryCtx");
+            this.scheduler = Objects.requireNonNull(scheduler, "scheduler");
+        }
+
+        public Builder withMaxBatchSize(int maxBatchSize) {
+            checkArgument(maxBatchSize > 0, "maxBatchSize(%s) is not positive", maxBatchSize);
+            this.maxBatchSize = maxBatchSize;
+            return this;
+        }
+
+        /**
+         * Sets time to wait for other lookups after the first lookup of the batch.
+         *
+         * @param batchWindow duration of batch window
+         * @return this builder
+         */
+        public Builder withBatchWindow(Duration batchWindow) {
+            checkArgument(!batchWindow.isNegative(), "batchWindow(%s) is negative", batchWindow);
+            this.batchWindow = batchWindow;
+            return this;
+        }
+
+        public ReadRowsLoader build() {
+            return new ReadRowsLoader(this);
+        }
+    }
+}
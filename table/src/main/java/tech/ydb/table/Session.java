@@ -8,6 +8,7 @@ import tech.ydb.core.Status;
 import tech.ydb.core.grpc.GrpcReadStream;
 import tech.ydb.core.impl.call.ProxyReadStream;
 import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.BulkUpsertData;
 import tech.ydb.table.query.DataQuery;
 import tech.ydb.table.query.DataQueryResult;
 import tech.ydb.table.query.ExplainDataQueryResult;
@@ -34,6 +35,7 @@ import tech.ydb.table.settings.ReadRowsSettings;
 import tech.ydb.table.settings.ReadTableSettings;
 import tech.ydb.table.settings.RollbackTxSettings;
 import tech.ydb.table.transaction.Transaction;
+import tech.ydb.table.transaction.TxContext;
 import tech.ydb.table.transaction.TxControl;
 import tech.ydb.table.values.ListValue;
 
@@ -113,6 +115,8 @@ public interface Session extends AutoCloseable {
 
     CompletableFuture<Status> executeBulkUpsert(String tablePath, ListValue rows, BulkUpsertSettings settings);
 
+    CompletableFuture<Status> executeBulkUpsert(String tablePath, BulkUpsertData data, BulkUpsertSettings settings);
+
     default CompletableFuture<Status> createTable(String path, TableDescription tableDescriptions) {
         return createTable(path, tableDescriptions, new CreateTableSettings());
     }
@@ -154,6 +158,17 @@ public interface Session extends AutoCloseable {
         return explainDataQuery(query, new ExplainDataQuerySettings());
     }
 
+    /**
+     * Creates context of interactive transaction with lazy begin. The transaction is started by the first
+     * statement and can be committed together with the last statement
+     *
+     * @param transactionMode mode of transaction
+     * @return new transaction context
+     */
+    default TxContext createTxContext(Transaction.Mode transactionMode) {
+        return TxContext.create(this, transactionMode);
+    }
+
     default CompletableFuture<Result<Transaction>> beginTransaction(Transaction.Mode transactionMode) {
         return beginTransaction(transactionMode, new BeginTxSettings());
     }
@@ -162,6 +177,10 @@ public interface Session extends AutoCloseable {
         return executeBulkUpsert(tablePath, rows, new BulkUpsertSettings());
     }
 
+    default CompletableFuture<Status> executeBulkUpsert(String tablePath, BulkUpsertData data) {
+        return executeBulkUpsert(tablePath, data, new BulkUpsertSettings());
+    }
+
     default CompletableFuture<Result<State>> keepAlive() {
         return keepAlive(new KeepAliveSessionSettings());
     }
@@ -0,0 +1,224 @@
+package tech.ydb.table;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Circuit breaker for {@link SessionRetryContext}. The breaker counts attempts and retryable errors in a time
+ * window; when the error rate of the window exceeds the threshold, the breaker is opened and all new operations
+ * fail fast without requests to the server. After the open duration the breaker lets one probe attempt pass,
+ * successful probe closes the breaker, failed probe opens it again.
+ * <p>
+ * The breaker may be shared between several {@link SessionRetryContext}.
+ */
+@ThreadSafe
+public final class SessionCircuitBreaker {
+    public enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN,
+    }
+
+    private final Clock clock;
+    private final double errorRateThreshold;
+    private final int minRequests;
+    private final long windowMillis;
+    private final long openMillis;
+
+    private final LongAdder openedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+
+    // guarded by this
+    private State state = State.CLOSED;
+    private long windowStart;
+    private int windowRequests = 0;
+    private int windowErrors = 0;
+    private long openedAt = 0;
+    private long probeStartedAt = -1;
+
+    private SessionCircuitBreaker(Builder builder) {
+        this.clock = builder.clock;
+        this.errorRateThreshold = builder.errorRateThreshold;
+        this.minRequests = builder.minRequests;
+        this.windowMillis = builder.window.toMillis();
+        this.openMillis = builder.openDuration.toMillis();
+        this.windowStart = clock.millis();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Checks if a new attempt is allowed
+     *
+     * @return false if the breaker is open and the attempt must fail fast
+     */
+    public synchronized boolean allowRequest() {
+        long now = clock.millis();
+        switch (state) {
+            case OPEN:
+                if (now - openedAt < openMillis) {
+                    rejectedCount.increment();
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probeStartedAt = now;
+                return true;
+            case HALF_OPEN:
+                // Only one probe at time, but lost probe doesn't block the breaker forever
+                if (probeStartedAt >= 0 && now - probeStartedAt < openMillis) {
+                    rejectedCount.increment();
+                    return false;
+                }
+                probeStartedAt = now;
+                return true;
+            case CLOSED:
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * Called on completion of an attempt without retryable error
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            state = State.CLOSED;
+            resetWindow(clock.millis());
+            return;
+        }
+        if (state == State.CLOSED) {
+            rotateWindow(clock.millis());
+            windowRequests++;
+        }
+    }
+
+    /**
+     * Called on completion of an attempt with retryable error
+     */
+    public synchronized void onFailure() {
+        long now = clock.millis();
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+        if (state == State.CLOSED) {
+            rotateWindow(now);
+            windowRequests++;
+            windowErrors++;
+            if (windowRequests >= minRequests && windowErrors >= errorRateThreshold * windowRequests) {
+                open(now);
+            }
+        }
+    }
+
+    private void open(long now) {
+        state = State.OPEN;
+        openedAt = now;
+        probeStartedAt = -1;
+        openedCount.increment();
+    }
+
+    private void rotateWindow(long now) {
+        if (now - windowStart >= windowMillis) {
+            resetWindow(now);
+        }
+    }
+
+    private void resetWindow(long now) {
+        windowStart = now;
+        windowRequests = 0;
+        windowErrors = 0;
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Returns error rate of the current window
+     *
+     * @return rate of retryable errors in range [0, 1]
+     */
+    public synchronized double getErrorRate() {
+        return windowRequests == 0 ? 0 : (double) windowErrors / windowRequests;
+    }
+
+    public long getOpenedTotal() {
+        return openedCount.sum();
+    }
+
+    public long getRejectedTotal() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SessionCircuitBreaker{state=" + getState()
+                + ", errorRate=" + getErrorRate()
+                + ", opened=" + getOpenedTotal()
+                + ", rejected=" + getRejectedTotal()
+                + "}";
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private Clock clock = Clock.systemUTC();
+        private double errorRateThreshold = 0.5;
+        private int minRequests = 20;
+        private Duration window = Duration.ofSeconds(10);
+        private Duration openDuration = Duration.ofSeconds(5);
+
+        private Builder() {
+        }
+
+        Builder clock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock);
+            return this;
+        }
+
+        public Builder errorRateThreshold(double threshold) {
+            checkArgument(threshold > 0 && threshold <= 1, "errorRateThreshold(%s) must be in range (0, 1]",
+                    threshold);
+            this.errorRateThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets minimal count of attempts in the window required to open the breaker
+         *
+         * @param minRequests minimal count of attempts
+         * @return this builder
+         */
+        public Builder minRequests(int minRequests) {
+            checkArgument(minRequests > 0, "minRequests(%s) must be positive", minRequests);
+            this.minRequests = minRequests;
+            return this;
+        }
+
+        public Builder window(Duration window) {
+            checkArgument(!window.isNegative() && !window.isZero(), "window(%s) must be positive", window);
+            this.window = window;
+            return this;
+        }
+
+        public Builder openDuration(Duration duration) {
+            checkArgument(!duration.isNegative(), "openDuration(%s) is negative", duration);
+            this.openDuration = duration;
+            return this;
+        }
+
+        public SessionCircuitBreaker build() {
+            return new SessionCircuitBreaker(this);
+        }
+    }
+}
@@ -63,4 +63,19 @@ public interface SessionPoolStats {
      * @return Total count of deleteSession calls, made by the pool.
      */
     long getDeletedTotal();
+
+    /**
+     * @return Total count of data queries which were found in client side cache of prepared queries.
+     */
+    default long getQueryCacheHitsTotal() {
+        return 0;
+    }
+
+    /**
+     * @return Total count of data queries which were not found in client side cache of prepared queries
+     * and had to be prepared.
+     */
+    default long getQueryCacheMissesTotal() {
+        return 0;
+    }
 }
@@ -0,0 +1,135 @@
+package tech.ydb.table;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Token bucket which limits the count of retries to a fraction of successful requests. Every successful
+ * request deposits {@code retryRatio} tokens into the bucket, every retry withdraws one token. If the bucket
+ * has no whole token, the retry is rejected and the operation is completed with the last error.
+ * <p>
+ * The budget may be shared between several {@link SessionRetryContext}, so the total count of retries of
+ * the application doesn't grow when the cluster is overloaded or unavailable.
+ */
+@ThreadSafe
+public final class SessionRetryBudget {
+    // Tokens are stored as fixed point numbers with three decimal digits
+    private static final long TOKEN = 1000;
+
+    private final long maxTokens;
+    private final long depositPerSuccess;
+    private final AtomicLong tokens;
+
+    private final LongAdder retriesAccepted = new LongAdder();
+    private final LongAdder retriesRejected = new LongAdder();
+
+    private SessionRetryBudget(Builder builder) {
+        this.maxTokens = builder.maxTokens * TOKEN;
+        this.depositPerSuccess = Math.round(builder.retryRatio * TOKEN);
+        this.tokens = new AtomicLong(this.maxTokens);
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Called on every successful request
+     */
+    public void onSuccess() {
+        long current = tokens.get();
+        while (current < maxTokens) {
+            long next = Math.min(maxTokens, current + depositPerSuccess);
+            if (tokens.compareAndSet(current, next)) {
+                return;
+            }
+            current = tokens.get();
+        }
+    }
+
+    /**
+     * Tries to withdraw one token for a retry
+     *
+     * @return true if the retry is allowed
+     */
+    public boolean tryAcquireRetry() {
+        long current = tokens.get();
+        while (current >= TOKEN) {
+            if (tokens.compareAndSet(current, current - TOKEN)) {
+                retriesAccepted.increment();
+                return true;
+            }
+            current = tokens.get();
+        }
+        retriesRejected.increment();
+        return false;
+    }
+
+    public double getAvailableTokens() {
+        return (double) tokens.get() / TOKEN;
+    }
+
+    public long getMaxTokens() {
+        return maxTokens / TOKEN;
+    }
+
+    public long getRetriesAcceptedTotal() {
+        return retriesAccepted.sum();
+    }
+
+    public long getRetriesRejectedTotal() {
+        return retriesRejected.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SessionRetryBudget{tokens=" + getAvailableTokens()
+                + ", maxTokens=" + getMaxTokens()
+                + ", retriesAccepted=" + getRetriesAcceptedTotal()
+                + ", retriesRejected=" + getRetriesRejectedTotal()
+                + "}";
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private long maxTokens = 100;
+        private double retryRatio = 0.1;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets maximum count of retries which may be accumulated in the budget. The budget is full at start.
+         *
+         * @param maxTokens maximum count of tokens
+         * @return this builder
+         */
+        public Builder maxTokens(long maxTokens) {
+            checkArgument(maxTokens > 0, "maxTokens(%s) must be positive", maxTokens);
+            this.maxTokens = maxTokens;
+            return this;
+        }
+
+        /**
+         * Sets count of retries which are earned by one successful request
+         *
+         * @param retryRatio fraction of successful requests which can be retried
+         * @return this builder
+         */
+        public Builder retryRatio(double retryRatio) {
+            checkArgument(retryRatio > 0 && retryRatio <= 1, "retryRatio(%s) must be in range (0, 1]", retryRatio);
+            this.retryRatio = retryRatio;
+            return this;
+        }
+
+        public SessionRetryBudget build() {
+            return new SessionRetryBudget(this);
+        }
+    }
+}
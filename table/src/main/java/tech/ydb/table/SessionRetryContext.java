@@ -3,23 +3,35 @@ package tech.ydb.table;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.ParametersAreNonnullByDefault;
 
 import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Context;
+import io.grpc.Deadline;
 
+import tech.ydb.core.Issue;
 import tech.ydb.core.Result;
 import tech.ydb.core.Status;
 import tech.ydb.core.StatusCode;
 import tech.ydb.core.UnexpectedResultException;
 import tech.ydb.core.utils.Async;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.settings.RequestSettings;
+import tech.ydb.table.transaction.Transaction;
+import tech.ydb.table.transaction.TxContext;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -30,6 +42,14 @@ import static com.google.common.base.Preconditions.checkArgument;
 @ParametersAreNonnullByDefault
 public class SessionRetryContext {
 
+    private static final Status CIRCUIT_BREAKER_OPEN = Status.of(StatusCode.CLIENT_RESOURCE_EXHAUSTED)
+            .withIssues(Issue.of("Circuit breaker is open", Issue.Severity.ERROR));
+
+    private static final Status DEADLINE_EXPIRED = Status.of(StatusCode.CLIENT_DEADLINE_EXPIRED)
+            .withIssues(Issue.of("Deadline of retry context is expired", Issue.Severity.ERROR));
+
+    private static final Context.Key<Integer> RETRY_NUMBER = Context.key("ydb-session-retry-number");
+
     private final SessionSupplier sessionSupplier;
     private final Executor executor;
     private final Duration sessionCreationTimeout;
@@ -40,6 +60,12 @@ public class SessionRetryContext {
     private final int fastBackoffCeiling;
     private final boolean retryNotFound;
     private final boolean idempotent;
+    private final long timeoutNanos;
+    @Nullable
+    private final SessionRetryBudget retryBudget;
+    @Nullable
+    private final SessionCircuitBreaker circuitBreaker;
+    private final AtomicLong attemptLatencyNanos = new AtomicLong();
 
     private SessionRetryContext(Builder b) {
         this.sessionSupplier = b.sessionSupplier;
@@ -52,6 +78,20 @@ public class SessionRetryContext {
         this.fastBackoffCeiling = b.fastBackoffCeiling;
         this.retryNotFound = b.retryNotFound;
         this.idempotent = b.idempotent;
+        this.timeoutNanos = b.timeout.toNanos();
+        this.retryBudget = b.retryBudget;
+        this.circuitBreaker = b.circuitBreaker;
+    }
+
+    /**
+     * Returns number of the attempt of the retry context which runs the current request, so sessions can report it
+     * even for requests with settings which don't pass through {@link Attempt#applyTo}.
+     *
+     * @return number of the attempt, zero for the first attempt and for requests outside of retry contexts
+     */
+    public static int currentRetryNumber() {
+        Integer retryNumber = RETRY_NUMBER.get();
+        return retryNumber != null ? retryNumber : 0;
     }
 
     public static Builder create(SessionSupplier sessionSupplier) {
@@ -68,18 +108,136 @@ public class SessionRetryContext {
 
     public <T> CompletableFuture<Result<T>> supplyResult(SessionRetryHandler h,
             Function<Session, CompletableFuture<Result<T>>> fn) {
+        return supplyResult(h, (session, attempt) -> fn.apply(session));
+    }
+
+    public CompletableFuture<Status> supplyStatus(SessionRetryHandler h,
+            Function<Session, CompletableFuture<Status>> fn) {
+        return supplyStatus(h, (session, attempt) -> fn.apply(session));
+    }
+
+    /**
+     * Executes the function with retries. The function also gets the current {@link Attempt}, which can be used to
+     * apply the deadline of this context to requests of the attempt.
+     *
+     * @param <T> type of result
+     * @param fn function executing requests of one attempt
+     * @return future with result of the last attempt
+     */
+    public <T> CompletableFuture<Result<T>> supplyResult(
+            BiFunction<Session, Attempt, CompletableFuture<Result<T>>> fn) {
+        return supplyResult(SessionRetryHandler.DEFAULT, fn);
+    }
+
+    /**
+     * Executes the function with retries. The function also gets the current {@link Attempt}, which can be used to
+     * apply the deadline of this context to requests of the attempt.
+     *
+     * @param fn function executing requests of one attempt
+     * @return future with status of the last attempt
+     */
+    public CompletableFuture<Status> supplyStatus(BiFunction<Session, Attempt, CompletableFuture<Status>> fn) {
+        return supplyStatus(SessionRetryHandler.DEFAULT, fn);
+    }
+
+    public <T> CompletableFuture<Result<T>> supplyResult(SessionRetryHandler h,
+            BiFunction<Session, Attempt, CompletableFuture<Result<T>>> fn) {
         RetryableResultTask<T> task = new RetryableResultTask<>(h, fn);
-        task.requestSession();
+        task.start();
         return task.getFuture();
     }
 
     public CompletableFuture<Status> supplyStatus(SessionRetryHandler h,
-            Function<Session, CompletableFuture<Status>> fn) {
+            BiFunction<Session, Attempt, CompletableFuture<Status>> fn) {
         RetryableStatusTask task = new RetryableStatusTask(h, fn);
-        task.requestSession();
+        task.start();
         return task.getFuture();
     }
 
+    /**
+     * Executes interactive transaction with retries. The transaction is started lazily by the first statement
+     * executed in the passed {@link TxContext}. If the function completes successfully and the transaction is still
+     * active, it is committed; if the function fails, the active transaction is rolled back. Each attempt
+     * uses a new session and a new transaction context.
+     *
+     * @param <T> type of result
+     * @param mode mode of transaction
+     * @param fn function executing statements of the transaction
+     * @return future with result of the function or with status of failed commit
+     */
+    public <T> CompletableFuture<Result<T>> supplyTxResult(Transaction.Mode mode,
+            Function<TxContext, CompletableFuture<Result<T>>> fn) {
+        return supplyResult(session -> {
+            TxContext tx = session.createTxContext(mode);
+            return Async.safeCall(tx, fn)
+                    .whenComplete((result, th) -> {
+                        if (th != null && tx.isActive()) {
+                            tx.rollback();
+                        }
+                    })
+                    .thenCompose(result -> finishTx(tx, result));
+        });
+    }
+
+    private static <T> CompletableFuture<Result<T>> finishTx(TxContext tx, Result<T> result) {
+        if (!tx.isActive()) {
+            return CompletableFuture.completedFuture(result);
+        }
+        if (!result.isSuccess()) {
+            tx.rollback();
+            return CompletableFuture.completedFuture(result);
+        }
+        return tx.commit().thenApply(status -> status.isSuccess() ? result : Result.<T>fail(status));
+    }
+
+    @Nullable
+    public SessionRetryBudget getRetryBudget() {
+        return retryBudget;
+    }
+
+    @Nullable
+    public SessionCircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    private void onAttemptSuccess() {
+        if (retryBudget != null) {
+            retryBudget.onSuccess();
+        }
+        if (circuitBreaker != null) {
+            circuitBreaker.onSuccess();
+        }
+    }
+
+    private void onAttemptError(boolean retryable) {
+        if (circuitBreaker != null) {
+            if (retryable) {
+                circuitBreaker.onFailure();
+            } else {
+                // non retryable errors are not caused by unavailability of the cluster
+                circuitBreaker.onSuccess();
+            }
+        }
+    }
+
+    private long expectedAttemptNanos() {
+        return attemptLatencyNanos.get();
+    }
+
+    private void updateAttemptLatency(long nanos) {
+        // exponentially weighted moving average of attempt durations
+        long current = attemptLatencyNanos.get();
+        long next = current == 0 ? nanos : current + (nanos - current) / 4;
+        while (!attemptLatencyNanos.compareAndSet(current, next)) {
+            current = attemptLatencyNanos.get();
+            next = current == 0 ? nanos : current + (nanos - current) / 4;
+        }
+    }
+
+    private boolean tryAcquireRetry() {
+        return retryBudget == null || retryBudget.tryAcquireRetry();
+    }
+
     private boolean canRetry(StatusCode code) {
         return code.isRetryable(idempotent) || (retryNotFound && code == StatusCode.NOT_FOUND);
     }
@@ -145,11 +303,13 @@ public class SessionRetryContext {
     private abstract class BaseRetryableTask<R> implements Runnable {
         private final CompletableFuture<R> promise = new CompletableFuture<>();
         private final AtomicInteger retryNumber = new AtomicInteger();
-        private final Function<Session, CompletableFuture<R>> fn;
+        private final BiFunction<Session, Attempt, CompletableFuture<R>> fn;
         private final long createTimestamp = Instant.now().toEpochMilli();
+        private final long deadlineNanos = timeoutNanos > 0 ? System.nanoTime() + timeoutNanos : 0L;
         private final SessionRetryHandler handler;
+        private volatile long attemptStartNanos = 0L;
 
-        BaseRetryableTask(SessionRetryHandler h, Function<Session, CompletableFuture<R>> fn) {
+        BaseRetryableTask(SessionRetryHandler h, BiFunction<Session, Attempt, CompletableFuture<R>> fn) {
             this.fn = fn;
             this.handler = h;
         }
@@ -165,6 +325,36 @@ public class SessionRetryContext {
             return Instant.now().toEpochMilli() - createTimestamp;
         }
 
+        /**
+         * Checks if the next attempt started after the backoff delay can be finished before the deadline.
+         * Expected duration of attempt is taken from the history of previous attempts
+         */
+        private boolean canFitAttempt(long delayMillis) {
+            if (deadlineNanos == 0L) {
+                return true;
+            }
+            long remaining = deadlineNanos - System.nanoTime();
+            return remaining - TimeUnit.MILLISECONDS.toNanos(delayMillis) > expectedAttemptNanos();
+        }
+
+        void start() {
+            if (deadlineNanos != 0L) {
+                // the promise is completed when the deadline expires even if the current attempt is still running
+                long remaining = Math.max(0L, deadlineNanos - System.nanoTime());
+                ScheduledFuture<?> timer = sessionSupplier.getScheduler()
+                        .schedule(this::expireDeadline, remaining, TimeUnit.NANOSECONDS);
+                promise.whenComplete((result, th) -> timer.cancel(false));
+            }
+            requestSession();
+        }
+
+        private void expireDeadline() {
+            if (!promise.isDone()) {
+                handler.onDeadline(SessionRetryContext.this, DEADLINE_EXPIRED.getCode(), retryNumber.get(), ms());
+                promise.complete(toFailedResult(Result.fail(DEADLINE_EXPIRED)));
+            }
+        }
+
         // called on timer expiration
         @Override
         public void run() {
@@ -172,11 +362,34 @@ public class SessionRetryContext {
                 handler.onCancel(SessionRetryContext.this, retryNumber.get(), ms());
                 return;
             }
+            if (promise.isDone()) {
+                return;
+            }
             executor.execute(this::requestSession);
         }
 
         public void requestSession() {
-            CompletableFuture<Result<Session>> sessionFuture = sessionSupplier.createSession(sessionCreationTimeout);
+            if (circuitBreaker != null && !circuitBreaker.allowRequest()) {
+                handler.onError(SessionRetryContext.this, CIRCUIT_BREAKER_OPEN.getCode(), retryNumber.get(), ms());
+                promise.complete(toFailedResult(Result.fail(CIRCUIT_BREAKER_OPEN)));
+                return;
+            }
+
+            Duration createTimeout = sessionCreationTimeout;
+            attemptStartNanos = System.nanoTime();
+            if (deadlineNanos != 0L) {
+                long remaining = deadlineNanos - attemptStartNanos;
+                if (remaining <= 0) {
+                    handler.onDeadline(SessionRetryContext.this, DEADLINE_EXPIRED.getCode(), retryNumber.get(), ms());
+                    promise.complete(toFailedResult(Result.fail(DEADLINE_EXPIRED)));
+                    return;
+                }
+                if (remaining < createTimeout.toNanos()) {
+                    createTimeout = Duration.ofNanos(remaining);
+                }
+            }
+
+            CompletableFuture<Result<Session>> sessionFuture = sessionSupplier.createSession(createTimeout);
             if (sessionFuture.isDone() && !sessionFuture.isCompletedExceptionally()) {
                 // faster than subscribing on future
                 acceptSession(sessionFuture.join());
@@ -199,11 +412,21 @@ public class SessionRetryContext {
             }
 
             final Session session = sessionResult.getValue();
-            Async.safeCall(session, fn)
-                .whenComplete((fnResult, fnException) -> {
+            final Attempt attempt = new Attempt(retryNumber.get(), deadlineNanos);
+
+            // callbacks of requests are executed in the context of the attempt, so the attempt is finished in the
+            // root context to not pass its deadline and number to the next user of the session and to the caller
+            callInContext(session, attempt)
+                .whenComplete((fnResult, fnException) -> Context.ROOT.run(() -> {
                     try {
+                        updateAttemptLatency(System.nanoTime() - attemptStartNanos);
                         session.close();
 
+                        if (promise.isDone()) {
+                            // the deadline is expired while the attempt was running
+                            return;
+                        }
+
                         if (fnException != null) {
                             handleException(fnException);
                             return;
@@ -211,6 +434,7 @@ public class SessionRetryContext {
 
                         StatusCode statusCode = toStatusCode(fnResult);
                         if (statusCode == StatusCode.SUCCESS) {
+                            onAttemptSuccess();
                             handler.onSuccess(SessionRetryContext.this, retryNumber.get(), ms());
                             promise.complete(fnResult);
                         } else {
@@ -220,11 +444,32 @@ public class SessionRetryContext {
                         handler.onError(SessionRetryContext.this, unexpected, retryNumber.get(), ms());
                         promise.completeExceptionally(unexpected);
                     }
-                });
+                }));
+        }
+
+        /**
+         * Executes the function of the attempt in the gRPC context with the number of the attempt. If the retry
+         * context has a timeout, the remaining time is set as the deadline of the gRPC context, so all requests
+         * started by the function are limited by it, including requests with settings which don't pass through
+         * {@link Attempt#withDeadline}
+         */
+        private CompletableFuture<R> callInContext(Session session, Attempt attempt) {
+            Context context = Context.current().withValue(RETRY_NUMBER, attempt.getRetryNumber());
+            if (deadlineNanos != 0L) {
+                long remaining = Math.max(1L, deadlineNanos - System.nanoTime());
+                context = context.withDeadline(Deadline.after(remaining, TimeUnit.NANOSECONDS),
+                        sessionSupplier.getScheduler());
+            }
+            Context previous = context.attach();
+            try {
+                return Async.safeCall(session, attempt, fn);
+            } finally {
+                context.detach(previous);
+            }
         }
 
         private void scheduleNext(long delayMillis) {
-            if (promise.isCancelled()) {
+            if (promise.isDone()) {
                 return;
             }
             sessionSupplier.getScheduler().schedule(this, delayMillis, TimeUnit.MILLISECONDS);
@@ -233,39 +478,62 @@ public class SessionRetryContext {
         private void handleError(@Nonnull StatusCode code, R result) {
             // Check retrayable status
             if (!canRetry(code)) {
+                onAttemptError(false);
                 handler.onError(SessionRetryContext.this, code, retryNumber.get(), ms());
                 promise.complete(result);
                 return;
             }
 
+            onAttemptError(true);
             int retry = retryNumber.incrementAndGet();
-            if (retry <= maxRetries) {
-                long next = backoffTimeMillis(code, retry);
-                handler.onRetry(SessionRetryContext.this, code, retry, next, ms());
-                scheduleNext(next);
-            } else {
+            if (retry > maxRetries) {
                 handler.onLimit(SessionRetryContext.this, code, maxRetries, ms());
                 promise.complete(result);
+                return;
+            }
+
+            long next = backoffTimeMillis(code, retry);
+            if (!canFitAttempt(next)) {
+                handler.onDeadline(SessionRetryContext.this, code, retry - 1, ms());
+                promise.complete(result);
+            } else if (!tryAcquireRetry()) {
+                handler.onBudgetExhausted(SessionRetryContext.this, code, retry - 1, ms());
+                promise.complete(result);
+            } else {
+                handler.onRetry(SessionRetryContext.this, code, retry, next, ms());
+                scheduleNext(next);
             }
         }
 
         private void handleException(@Nonnull Throwable ex) {
             // Check retrayable execption
             if (!canRetry(ex)) {
+                onAttemptError(false);
                 handler.onError(SessionRetryContext.this, ex, retryNumber.get(), ms());
                 promise.completeExceptionally(ex);
                 return;
             }
 
+            onAttemptError(true);
             int retry = retryNumber.incrementAndGet();
             if (retry <= maxRetries) {
                 long next = backoffTimeMillis(ex, retry);
-                handler.onRetry(SessionRetryContext.this, ex, retry, next, ms());
-                scheduleNext(next);
+                // only exceptions with retryable status codes reach this point
+                StatusCode code = ((UnexpectedResultException) Async.unwrapCompletionException(ex))
+                        .getStatus().getCode();
+                if (!canFitAttempt(next)) {
+                    handler.onDeadline(SessionRetryContext.this, code, retry - 1, ms());
+                } else if (!tryAcquireRetry()) {
+                    handler.onBudgetExhausted(SessionRetryContext.this, code, retry - 1, ms());
+                } else {
+                    handler.onRetry(SessionRetryContext.this, ex, retry, next, ms());
+                    scheduleNext(next);
+                    return;
+                }
             } else {
                 handler.onError(SessionRetryContext.this, ex, maxRetries, ms());
-                promise.completeExceptionally(ex);
             }
+            promise.completeExceptionally(ex);
         }
     }
 
@@ -273,7 +541,7 @@ public class SessionRetryContext {
      * RETRYABLE RESULT TASK
      */
     private final class RetryableResultTask<T> extends BaseRetryableTask<Result<T>> {
-        RetryableResultTask(SessionRetryHandler h, Function<Session, CompletableFuture<Result<T>>> fn) {
+        RetryableResultTask(SessionRetryHandler h, BiFunction<Session, Attempt, CompletableFuture<Result<T>>> fn) {
             super(h, fn);
         }
 
@@ -292,7 +560,7 @@ public class SessionRetryContext {
      * RETRYABLE STATUS TASK
      */
     private final class RetryableStatusTask extends BaseRetryableTask<Status> {
-        RetryableStatusTask(SessionRetryHandler h, Function<Session, CompletableFuture<Status>> fn) {
+        RetryableStatusTask(SessionRetryHandler h, BiFunction<Session, Attempt, CompletableFuture<Status>> fn) {
             super(h, fn);
         }
 
@@ -307,6 +575,74 @@ public class SessionRetryContext {
         }
     }
 
+    /**
+     * Attempt of the retry context. It is passed to the function of the context, so requests of the attempt can be
+     * limited by the deadline of the context.
+     */
+    @ParametersAreNonnullByDefault
+    public static final class Attempt {
+        private final int retryNumber;
+        private final long deadlineNanos;
+
+        private Attempt(int retryNumber, long deadlineNanos) {
+            this.retryNumber = retryNumber;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * @return number of the attempt, zero for the first attempt
+         */
+        public int getRetryNumber() {
+            return retryNumber;
+        }
+
+        /**
+         * @return time remaining before the deadline of the retry context or empty if the context has no timeout
+         */
+        public Optional<Duration> getRemainingTime() {
+            if (deadlineNanos == 0L) {
+                return Optional.empty();
+            }
+            return Optional.of(Duration.ofNanos(Math.max(0L, deadlineNanos - System.nanoTime())));
+        }
+
+        /**
+         * Limits the client timeout and the operation timeout of the request by the remaining time of the retry
+         * context, so the request is cancelled both on the client and on the server when the deadline expires.
+         * Timeouts shorter than the remaining time are kept.
+         *
+         * @param settings settings of the request
+         * @param <S> type of settings
+         * @return the same settings
+         */
+        public <S extends RequestSettings<?>> S withDeadline(S settings) {
+            if (deadlineNanos == 0L) {
+                return settings;
+            }
+            Duration remaining = Duration.ofNanos(Math.max(1L, deadlineNanos - System.nanoTime()));
+            Duration timeout = settings.getTimeoutDuration();
+            if (timeout == null || timeout.isZero() || timeout.compareTo(remaining) > 0) {
+                settings.setTimeout(remaining);
+            }
+            Duration operationTimeout = settings.getOperationTimeout().orElse(null);
+            if (operationTimeout == null || operationTimeout.compareTo(remaining) > 0) {
+                settings.setOperationTimeout(remaining);
+            }
+            return settings;
+        }
+
+        /**
+         * Applies the deadline of the retry context and the number of the attempt to settings of the data query, the
+         * number of the attempt is reported by {@link tech.ydb.table.query.stats.SlowQueryLog}.
+         *
+         * @param settings settings of the data query
+         * @return the same settings
+         */
+        public ExecuteDataQuerySettings applyTo(ExecuteDataQuerySettings settings) {
+            return withDeadline(settings).setRetryNumber(retryNumber);
+        }
+    }
+
     /**
      * BUILDER
      */
@@ -322,6 +658,9 @@ public class SessionRetryContext {
         private int fastBackoffCeiling = 10;
         private boolean retryNotFound = true;
         private boolean idempotent = false;
+        private Duration timeout = Duration.ZERO;
+        private SessionRetryBudget retryBudget = null;
+        private SessionCircuitBreaker circuitBreaker = null;
 
         public Builder(SessionSupplier sessionSupplier) {
             this.sessionSupplier = sessionSupplier;
@@ -374,6 +713,45 @@ public class SessionRetryContext {
             return this;
         }
 
+        /**
+         * Sets end-to-end timeout of operation including all attempts and backoff delays. No new attempt is started
+         * if the expected duration of attempt exceeds the remaining time. Requests started by an attempt get the
+         * remaining time as the deadline of the gRPC context, {@link Attempt#withDeadline} also limits the operation
+         * timeout of a request on the server. When the timeout expires, the operation is completed with
+         * {@link StatusCode#CLIENT_DEADLINE_EXPIRED} even if the current attempt is not finished
+         *
+         * @param timeout timeout of operation, zero value disables the timeout
+         * @return this builder
+         */
+        public Builder timeout(Duration timeout) {
+            checkArgument(!timeout.isNegative(), "timeout(%s) is negative", timeout);
+            this.timeout = timeout;
+            return this;
+        }
+
+        /**
+         * Sets retry budget which limits count of retries. Budget may be shared between several contexts
+         *
+         * @param budget retry budget or null to disable budget
+         * @return this builder
+         */
+        public Builder retryBudget(@Nullable SessionRetryBudget budget) {
+            this.retryBudget = budget;
+            return this;
+        }
+
+        /**
+         * Sets circuit breaker which fails operations fast when the error rate is too high. Breaker may be shared
+         * between several contexts
+         *
+         * @param breaker circuit breaker or null to disable breaker
+         * @return this builder
+         */
+        public Builder circuitBreaker(@Nullable SessionCircuitBreaker breaker) {
+            this.circuitBreaker = breaker;
+            return this;
+        }
+
         public SessionRetryContext build() {
             return new SessionRetryContext(this);
         }
@@ -87,6 +87,34 @@ public interface SessionRetryHandler {
                 context.hashCode(), code, retryLimit, millis);
     }
 
+    /**
+     * Called when the operation is finished because the deadline of the retry context doesn't allow a new attempt.
+     *
+     * @param context Session retry object
+     * @param code Status code
+     * @param retryNumber Current number of retries
+     * @param millis Elapsed time
+     */
+    default void onDeadline(SessionRetryContext context, StatusCode code,
+            int retryNumber, long millis) {
+        LOGGER.debug("RetryCtx[{}] CODE[{}], finished by deadline after {} retries, {} ms total",
+                context.hashCode(), code, retryNumber, millis);
+    }
+
+    /**
+     * Called on retryable error when the retry budget is exhausted.
+     *
+     * @param context Session retry object
+     * @param code Status code
+     * @param retryNumber Current number of retries
+     * @param millis Elapsed time
+     */
+    default void onBudgetExhausted(SessionRetryContext context, StatusCode code,
+            int retryNumber, long millis) {
+        LOGGER.debug("RetryCtx[{}] RETRYABLE CODE[{}], finished by retry budget after {} retries, {} ms total",
+                context.hashCode(), code, retryNumber, millis);
+    }
+
     /**
      * Called on non-retryable error.
      *
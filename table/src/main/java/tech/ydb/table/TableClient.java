@@ -2,10 +2,13 @@ package tech.ydb.table;
 
 import java.time.Duration;
 
+import javax.annotation.Nullable;
 import javax.annotation.WillNotClose;
 
 import tech.ydb.core.grpc.GrpcTransport;
 import tech.ydb.table.impl.PooledTableClient;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.SlowQueryLog;
 import tech.ydb.table.rpc.grpc.GrpcTableRpc;
 
 
@@ -41,12 +44,53 @@ public interface TableClient extends SessionSupplier, AutoCloseable {
 
         Builder keepQueryText(boolean keep);
 
+        /**
+         * Enables client side cache of prepared queries in every session. When cache is enabled,
+         * {@link Session#executeDataQuery} prepares query on first usage and executes it by query id after that
+         * @param size max count of prepared queries per session, zero disables cache
+         * @return this
+         */
+        Builder queryCacheSize(int size);
+
+        /**
+         * Enables aggregation of statistics of data queries executed by sessions of the client. Server statistics
+         * are requested for the sampled share of executions, see {@link QueryStatsAggregator}
+         * @param aggregator aggregator of statistics, null disables aggregation
+         * @return this
+         */
+        Builder queryStatsAggregator(@Nullable QueryStatsAggregator aggregator);
+
+        /**
+         * Enables log of data queries executed by sessions of the client longer than the threshold of the log,
+         * see {@link SlowQueryLog}
+         * @param log log of slow queries, null disables the log
+         * @return this
+         */
+        Builder slowQueryLog(@Nullable SlowQueryLog log);
+
+        /**
+         * Enables cache of table descriptions shared by all sessions of the client, see
+         * {@link TableDescriptionCache}
+         * @param cache cache of table descriptions, null disables the cache
+         * @return this
+         */
+        Builder tableDescriptionCache(@Nullable TableDescriptionCache cache);
+
         Builder sessionPoolSize(int minSize, int maxSize);
 
         Builder sessionKeepAliveTime(Duration duration);
 
         Builder sessionMaxIdleTime(Duration duration);
 
+        /**
+         * Spreads keep alive requests of idle sessions over time, so sessions created together don't send them
+         * at once. The keep alive deadline of every session is moved earlier by a random shift chosen once per
+         * session. Default spread is one minute
+         * @param spread max shift of keep alive deadlines, zero disables the spread
+         * @return this
+         */
+        Builder sessionKeepAliveSpread(Duration spread);
+
         TableClient build();
     }
 }
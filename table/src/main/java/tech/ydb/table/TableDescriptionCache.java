@@ -0,0 +1,245 @@
+package tech.ydb.table;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.StatusCode;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.settings.DescribeTableSettings;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Cache of table descriptions shared by sessions of one client.
+ *
+ * <p>Descriptions are kept for the TTL and the count of cached descriptions is bounded, least recently used
+ * descriptions are evicted first. Concurrent describes of the same table are merged into a single request.
+ * Descriptions with table or partition statistics are never cached. Sessions invalidate the description of a table
+ * after creating, altering, copying or dropping it and after any request to the table failed with
+ * {@link StatusCode#SCHEME_ERROR} or {@link StatusCode#NOT_FOUND}; successful scheme queries invalidate all
+ * descriptions. Tables are identified by paths exactly as they are passed to the session.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public class TableDescriptionCache {
+
+    private static final int DEFAULT_MAX_SIZE = 1000;
+    private static final Duration DEFAULT_TTL = Duration.ofMinutes(1);
+
+    private final Clock clock;
+    private final int maxSize;
+    private final long ttlMillis;
+
+    private final LinkedHashMap<CacheKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Running describes, invalidation of a table removes its describes, so descriptions read before the
+     * invalidation are not stored
+     */
+    private final HashMap<CacheKey, CompletableFuture<Result<TableDescription>>> inflight = new HashMap<>();
+    private long hitCount = 0;
+    private long missCount = 0;
+
+    private TableDescriptionCache(Builder builder) {
+        this.clock = builder.clock;
+        this.maxSize = builder.maxSize;
+        this.ttlMillis = builder.ttl.toMillis();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns cached description of the table or loads it.
+     *
+     * @param path path to the table
+     * @param settings settings of describe
+     * @param loader function to describe the table
+     * @return future with description of the table
+     */
+    public CompletableFuture<Result<TableDescription>> get(String path, DescribeTableSettings settings,
+            Supplier<CompletableFuture<Result<TableDescription>>> loader) {
+        if (settings.isIncludeTableStats() || settings.isIncludePartitionStats()) {
+            return loader.get().whenComplete((result, th) -> onResult(path, result));
+        }
+
+        CacheKey key = new CacheKey(path, settings.isIncludeShardKeyBounds());
+        CompletableFuture<Result<TableDescription>> future = new CompletableFuture<>();
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                if (entry.expireAtMillis > clock.millis()) {
+                    hitCount++;
+                    return CompletableFuture.completedFuture(Result.success(entry.description));
+                }
+                entries.remove(key);
+            }
+            missCount++;
+
+            CompletableFuture<Result<TableDescription>> running = inflight.putIfAbsent(key, future);
+            if (running != null) {
+                return running;
+            }
+        }
+
+        loader.get().whenComplete((result, th) -> {
+            complete(key, future, result);
+            onResult(path, result);
+            if (th != null) {
+                future.completeExceptionally(th);
+            } else {
+                future.complete(result);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Invalidates cached description of the table if the request to the table failed because of its scheme.
+     *
+     * @param path path to the table
+     * @param code status code of the request
+     */
+    public void onStatus(String path, StatusCode code) {
+        if (code == StatusCode.SCHEME_ERROR || code == StatusCode.NOT_FOUND) {
+            invalidate(path);
+        }
+    }
+
+    public synchronized void invalidate(String path) {
+        CacheKey key = new CacheKey(path, false);
+        CacheKey keyWithBounds = new CacheKey(path, true);
+        entries.remove(key);
+        entries.remove(keyWithBounds);
+        inflight.remove(key);
+        inflight.remove(keyWithBounds);
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        inflight.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+
+    private void onResult(String path, Result<TableDescription> result) {
+        if (result != null) {
+            onStatus(path, result.getStatus().getCode());
+        }
+    }
+
+    private synchronized void complete(CacheKey key, CompletableFuture<Result<TableDescription>> future,
+            Result<TableDescription> result) {
+        if (!inflight.remove(key, future)) {
+            // the table was invalidated during describe
+            return;
+        }
+        if (result == null || !result.isSuccess()) {
+            return;
+        }
+        entries.put(key, new Entry(result.getValue(), clock.millis() + ttlMillis));
+        if (entries.size() > maxSize) {
+            Iterator<Map.Entry<CacheKey, Entry>> it = entries.entrySet().iterator();
+            it.next();
+            it.remove();
+        }
+    }
+
+    /**
+     * Path to the table with options of describe which change the description
+     */
+    private static final class CacheKey {
+        private final String path;
+        private final boolean withShardKeyBounds;
+
+        CacheKey(String path, boolean withShardKeyBounds) {
+            this.path = Objects.requireNonNull(path, "path");
+            this.withShardKeyBounds = withShardKeyBounds;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return withShardKeyBounds == other.withShardKeyBounds && path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(path, withShardKeyBounds);
+        }
+    }
+
+    /**
+     * Cached description
+     */
+    private static final class Entry {
+        private final TableDescription description;
+        private final long expireAtMillis;
+
+        Entry(TableDescription description, long expireAtMillis) {
+            this.description = description;
+            this.expireAtMillis = expireAtMillis;
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private Clock clock = Clock.systemUTC();
+        private int maxSize = DEFAULT_MAX_SIZE;
+        private Duration ttl = DEFAULT_TTL;
+
+        private Builder() {
+        }
+
+        Builder withClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        public Builder withMaxSize(int maxSize) {
+            checkArgument(maxSize > 0, "maxSize(%s) is not positive", maxSize);
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Builder withTtl(Duration ttl) {
+            checkArgument(!ttl.isNegative() && !ttl.isZero(), "ttl(%s) is not positive", ttl);
+            this.ttl = ttl;
+            return this;
+        }
+
+        public TableDescriptionCache build() {
+            return new TableDescriptionCache(this);
+        }
+    }
+}
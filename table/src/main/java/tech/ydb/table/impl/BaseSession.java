@@ -14,6 +14,7 @@ import java.util.stream.Collectors;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.ThreadSafe;
 
+import com.google.protobuf.ByteString;
 import com.google.protobuf.Timestamp;
 import io.grpc.Metadata;
 import org.slf4j.Logger;
@@ -33,8 +34,11 @@ import tech.ydb.proto.StatusCodesProtos.StatusIds;
 import tech.ydb.proto.ValueProtos;
 import tech.ydb.proto.ValueProtos.TypedValue;
 import tech.ydb.proto.common.CommonProtos;
+import tech.ydb.proto.formats.YdbFormats;
 import tech.ydb.proto.table.YdbTable;
 import tech.ydb.table.Session;
+import tech.ydb.table.SessionRetryContext;
+import tech.ydb.table.TableDescriptionCache;
 import tech.ydb.table.description.ColumnFamily;
 import tech.ydb.table.description.KeyBound;
 import tech.ydb.table.description.KeyRange;
@@ -42,12 +46,20 @@ import tech.ydb.table.description.StoragePool;
 import tech.ydb.table.description.TableColumn;
 import tech.ydb.table.description.TableDescription;
 import tech.ydb.table.description.TableIndex;
+import tech.ydb.table.query.BulkUpsertArrowData;
+import tech.ydb.table.query.BulkUpsertCsvData;
+import tech.ydb.table.query.BulkUpsertData;
+import tech.ydb.table.query.BulkUpsertRowsData;
 import tech.ydb.table.query.DataQuery;
 import tech.ydb.table.query.DataQueryResult;
 import tech.ydb.table.query.ExplainDataQueryResult;
 import tech.ydb.table.query.Params;
 import tech.ydb.table.query.ReadRowsResult;
 import tech.ydb.table.query.ReadTablePart;
+import tech.ydb.table.query.stats.QueryStats;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.QueryStatsCollectionMode;
+import tech.ydb.table.query.stats.SlowQueryLog;
 import tech.ydb.table.result.ResultSetReader;
 import tech.ydb.table.result.impl.ProtoValueReaders;
 import tech.ydb.table.rpc.TableRpc;
@@ -96,6 +108,8 @@ import tech.ydb.table.values.proto.ProtoValue;
 @ThreadSafe
 public abstract class BaseSession implements Session {
     private static final String SERVER_BALANCER_HINT = "session-balancer";
+    /** Beginning of the message of the issue which server reports for unknown id of prepared query */
+    private static final String PREPARED_QUERY_NOT_FOUND = "Query not found";
     private static final Logger logger = LoggerFactory.getLogger(Session.class);
 
     private final String id;
@@ -103,13 +117,46 @@ public abstract class BaseSession implements Session {
     private final TableRpc tableRpc;
     private final ShutdownHandler shutdownHandler;
     private final boolean keepQueryText;
+    @Nullable
+    private final PreparedQueryCache queryCache;
+    @Nullable
+    private final QueryStatsAggregator statsAggregator;
+    @Nullable
+    private final SlowQueryLog slowQueryLog;
+    @Nullable
+    private final TableDescriptionCache descriptionCache;
 
     protected BaseSession(String id, TableRpc tableRpc, boolean keepQueryText) {
+        this(id, tableRpc, keepQueryText, SessionOptions.DEFAULT);
+    }
+
+    /**
+     * @param id session id
+     * @param tableRpc table rpc
+     * @param keepQueryText keep query text in prepared queries and logs
+     * @param queryCacheSize size of client side cache of prepared queries, zero disables the cache
+     */
+    protected BaseSession(String id, TableRpc tableRpc, boolean keepQueryText, int queryCacheSize) {
+        this(id, tableRpc, keepQueryText, SessionOptions.DEFAULT.withQueryCacheSize(queryCacheSize));
+    }
+
+    /**
+     * @param id session id
+     * @param tableRpc table rpc
+     * @param keepQueryText keep query text in prepared queries and logs
+     * @param options client side options of the session
+     */
+    protected BaseSession(String id, TableRpc tableRpc, boolean keepQueryText, SessionOptions options) {
         this.id = id;
         this.tableRpc = tableRpc;
         this.keepQueryText = keepQueryText;
         this.prefferedNodeID = getNodeBySessionId(id);
         this.shutdownHandler = new ShutdownHandler();
+        int queryCacheSize = options.getQueryCacheSize();
+        this.queryCache = queryCacheSize > 0 ? new PreparedQueryCache(queryCacheSize) : null;
+        this.statsAggregator = options.getQueryStatsAggregator();
+        this.slowQueryLog = options.getSlowQueryLog();
+        this.descriptionCache = options.getTableDescriptionCache();
     }
 
     private static Integer getNodeBySessionId(String sessionId) {
@@ -126,10 +173,15 @@ public abstract class BaseSession implements Session {
     }
 
     private GrpcRequestSettings makeGrpcRequestSettings(Duration timeout) {
+        return makeGrpcRequestSettings(timeout, null);
+    }
+
+    private GrpcRequestSettings makeGrpcRequestSettings(Duration timeout, @Nullable Consumer<String> endpointHandler) {
         return GrpcRequestSettings.newBuilder()
                 .withDeadline(timeout)
                 .withPreferredNodeID(prefferedNodeID)
                 .withTrailersHandler(shutdownHandler)
+                .withEndpointHandler(endpointHandler)
                 .build();
     }
 
@@ -138,6 +190,11 @@ public abstract class BaseSession implements Session {
         return id;
     }
 
+    @Nullable
+    protected Integer getNodeId() {
+        return prefferedNodeID;
+    }
+
     public static CompletableFuture<Result<String>> createSessionId(TableRpc tableRpc,
                                                                     CreateSessionSettings settings,
                                                                     boolean useServerBalancer) {
@@ -340,7 +397,7 @@ public abstract class BaseSession implements Session {
         }
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return tableRpc.createTable(request.build(), grpcRequestSettings);
+        return invalidateDescription(path, tableRpc.createTable(request.build(), grpcRequestSettings));
     }
 
     private static YdbTable.PartitioningPolicy.AutoPartitioningPolicy toPb(AutoPartitioningPolicy policy) {
@@ -365,7 +422,7 @@ public abstract class BaseSession implements Session {
                 .build();
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return tableRpc.dropTable(request, grpcRequestSettings);
+        return invalidateDescription(path, tableRpc.dropTable(request, grpcRequestSettings));
     }
 
     @Override
@@ -399,7 +456,7 @@ public abstract class BaseSession implements Session {
         applyPartitioningSettings(settings.getPartitioningSettings(), builder::setAlterPartitioningSettings);
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return tableRpc.alterTable(builder.build(), grpcRequestSettings);
+        return invalidateDescription(path, tableRpc.alterTable(builder.build(), grpcRequestSettings));
     }
 
     @Override
@@ -412,7 +469,7 @@ public abstract class BaseSession implements Session {
                 .build();
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return tableRpc.copyTable(request, grpcRequestSettings);
+        return invalidateDescription(dst, tableRpc.copyTable(request, grpcRequestSettings));
     }
 
     @Override
@@ -423,7 +480,24 @@ public abstract class BaseSession implements Session {
                 .build();
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return tableRpc.copyTables(request, grpcRequestSettings);
+        return tableRpc.copyTables(request, grpcRequestSettings).whenComplete((status, th) -> {
+            if (descriptionCache != null) {
+                settings.getItems().forEach(item -> descriptionCache.invalidate(item.getDestinationPath()));
+            }
+        });
+    }
+
+    private CompletableFuture<Status> invalidateDescription(String path, CompletableFuture<Status> future) {
+        if (descriptionCache == null) {
+            return future;
+        }
+        return future.whenComplete((status, th) -> descriptionCache.invalidate(path));
+    }
+
+    private void onTableStatus(String path, StatusCode code) {
+        if (descriptionCache != null) {
+            descriptionCache.onStatus(path, code);
+        }
     }
 
     private List<YdbTable.CopyTableItem> convertCopyTableItems(CopyTablesSettings cts) {
@@ -447,6 +521,14 @@ public abstract class BaseSession implements Session {
 
     @Override
     public CompletableFuture<Result<TableDescription>> describeTable(String path, DescribeTableSettings settings) {
+        if (descriptionCache != null) {
+            return descriptionCache.get(path, settings, () -> describeTableInternal(path, settings));
+        }
+        return describeTableInternal(path, settings);
+    }
+
+    private CompletableFuture<Result<TableDescription>> describeTableInternal(String path,
+            DescribeTableSettings settings) {
         YdbTable.DescribeTableRequest request = YdbTable.DescribeTableRequest.newBuilder()
                 .setSessionId(id)
                 .setPath(path)
@@ -600,12 +682,17 @@ public abstract class BaseSession implements Session {
     @Override
     public CompletableFuture<Result<DataQueryResult>> executeDataQuery(
             String query, TxControl<?> txControl, Params params, ExecuteDataQuerySettings settings) {
+        if (queryCache != null) {
+            return executeCachedDataQuery(query, txControl, params, settings);
+        }
+
+        final ExecutionRecorder recorder = newExecutionRecorder(query, keepQueryText, params, settings);
         YdbTable.ExecuteDataQueryRequest.Builder request = YdbTable.ExecuteDataQueryRequest.newBuilder()
                 .setSessionId(id)
                 .setOperationParams(OperationUtils.createParams(settings.toOperationSettings()))
                 .setTxControl(txControl.toPb())
                 .setQuery(YdbTable.Query.newBuilder().setYqlText(query))
-                .setCollectStats(settings.collectStats().toPb())
+                .setCollectStats(statsCollectionMode(query, settings).toPb())
                 .putAllParameters(params.toPb());
 
         final boolean keepInServerQueryCache = settings.isKeepInQueryCache();
@@ -634,9 +721,72 @@ public abstract class BaseSession implements Session {
             msg = sb.toString();
         }
 
-        final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return interceptResultWithLog(msg, tableRpc.executeDataQuery(request.build(), grpcRequestSettings))
-                .thenApply(result -> result.map(DataQueryResult::new));
+        final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(
+                settings.getTimeoutDuration(), recorder);
+        return record(recorder, interceptResultWithLog(msg,
+                tableRpc.executeDataQuery(request.build(), grpcRequestSettings))
+                .thenApply(result -> result.map(DataQueryResult::new)));
+    }
+
+    private CompletableFuture<Result<DataQueryResult>> executeCachedDataQuery(
+            String query, TxControl<?> txControl, Params params, ExecuteDataQuerySettings settings) {
+        DataQueryImpl cached = queryCache.get(query);
+        onQueryCacheLookup(cached != null);
+        if (cached == null) {
+            return prepareAndExecuteDataQuery(query, txControl, params, settings);
+        }
+
+        // text is passed to collect statistics by it even if prepared queries don't keep their texts
+        return executePreparedDataQuery(cached.getId(), query, txControl, params, settings).thenCompose(result -> {
+            Status status = result.getStatus();
+            if (status.getCode() != StatusCode.NOT_FOUND || !isPreparedQueryNotFound(status.getIssues())) {
+                return CompletableFuture.completedFuture(result);
+            }
+
+            // Query could be evicted from the server cache, so try to prepare it again
+            logger.debug("Session[{}] prepared query {} not found, prepare it again", id, cached.getId());
+            queryCache.invalidate(query, cached);
+            return prepareAndExecuteDataQuery(query, txControl, params, settings);
+        });
+    }
+
+    private CompletableFuture<Result<DataQueryResult>> prepareAndExecuteDataQuery(
+            String query, TxControl<?> txControl, Params params, ExecuteDataQuerySettings settings) {
+        PrepareDataQuerySettings prepareSettings = new PrepareDataQuerySettings()
+                .setTraceId(settings.getTraceId())
+                .setTimeout(settings.getTimeoutDuration())
+                .setReportCostInfo(settings.getReportCostInfo().orElse(null));
+        settings.getOperationTimeout().ifPresent(prepareSettings::setOperationTimeout);
+        settings.getCancelAfter().ifPresent(prepareSettings::setCancelAfter);
+
+        return prepareDataQuery(query, prepareSettings).thenCompose(prepared -> {
+            if (!prepared.isSuccess()) {
+                return CompletableFuture.completedFuture(prepared.<DataQueryResult>map(null));
+            }
+            return executePreparedDataQuery(prepared.getValue().getId(), query, txControl, params, settings);
+        });
+    }
+
+    /**
+     * Server responds with {@link StatusCode#NOT_FOUND} both when the prepared query was evicted from its cache
+     * and when the query refers to missing objects, only the first case is fixed by preparing the query again
+     */
+    private static boolean isPreparedQueryNotFound(Issue[] issues) {
+        for (Issue issue : issues) {
+            if (issue.getMessage().startsWith(PREPARED_QUERY_NOT_FOUND)
+                    || isPreparedQueryNotFound(issue.getIssues())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Called on every lookup in the client side cache of prepared queries
+     * @param hit true if prepared query was found in the cache
+     */
+    protected void onQueryCacheLookup(boolean hit) {
+        // nothing by default
     }
 
     @Override
@@ -654,20 +804,33 @@ public abstract class BaseSession implements Session {
                             .build());
         return interceptResult(
                 tableRpc.readRows(requestBuilder.build(), makeGrpcRequestSettings(settings.getRequestTimeout())))
+                .whenComplete((result, th) -> {
+                    if (result != null) {
+                        onTableStatus(pathToTable, result.getStatus().getCode());
+                    }
+                })
                 .thenApply(result -> result.map(ReadRowsResult::new));
     }
 
     CompletableFuture<Result<DataQueryResult>> executePreparedDataQuery(String queryId, @Nullable String queryText,
                                                                         TxControl<?> txControl, Params params,
                                                                         ExecuteDataQuerySettings settings) {
+        // without the text statistics of the prepared query are collected by its id
+        final String statsKey = queryText != null ? queryText : queryId;
+        final ExecutionRecorder recorder = newExecutionRecorder(statsKey, keepQueryText || queryText == null, params,
+                settings);
         YdbTable.ExecuteDataQueryRequest.Builder request = YdbTable.ExecuteDataQueryRequest.newBuilder()
                 .setSessionId(id)
                 .setOperationParams(OperationUtils.createParams(settings.toOperationSettings()))
                 .setTxControl(txControl.toPb())
-                .setCollectStats(settings.collectStats().toPb());
+                .setCollectStats(statsCollectionMode(statsKey, settings).toPb());
 
         request.getQueryBuilder().setId(queryId);
-        request.putAllParameters(params.toPb());
+        if (params instanceof DataQueryImpl.ParamsBinder) {
+            ((DataQueryImpl.ParamsBinder) params).writeTo(request);
+        } else {
+            request.putAllParameters(params.toPb());
+        }
 
         final boolean keepInServerQueryCache = settings.isKeepInQueryCache();
         if (keepInServerQueryCache) {
@@ -698,9 +861,78 @@ public abstract class BaseSession implements Session {
             msg = sb.toString();
         }
 
-        final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return interceptResultWithLog(msg, tableRpc.executeDataQuery(request.build(), grpcRequestSettings))
-                .thenApply(result -> result.map(DataQueryResult::new));
+        final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(
+                settings.getTimeoutDuration(), recorder);
+        return record(recorder, interceptResultWithLog(msg,
+                tableRpc.executeDataQuery(request.build(), grpcRequestSettings))
+                .thenApply(result -> result.map(DataQueryResult::new)));
+    }
+
+    private QueryStatsCollectionMode statsCollectionMode(String query, ExecuteDataQuerySettings settings) {
+        QueryStatsCollectionMode mode = settings.collectStats();
+        if (slowQueryLog != null) {
+            mode = slowQueryLog.statsCollectionMode(query, mode);
+        }
+        boolean notRequested = mode == QueryStatsCollectionMode.NONE || mode == QueryStatsCollectionMode.UNSPECIFIED;
+        if (statsAggregator != null && notRequested && statsAggregator.sample()) {
+            return QueryStatsCollectionMode.BASIC;
+        }
+        return mode;
+    }
+
+    @Nullable
+    private ExecutionRecorder newExecutionRecorder(String query, boolean keepText, Params params,
+            ExecuteDataQuerySettings settings) {
+        if (statsAggregator == null && slowQueryLog == null) {
+            return null;
+        }
+        // legacy overloads don't pass settings of the attempt, so its number is taken from the retry context
+        int retryNumber = Math.max(settings.getRetryNumber(), SessionRetryContext.currentRetryNumber());
+        return new ExecutionRecorder(query, keepText, params, retryNumber);
+    }
+
+    private static CompletableFuture<Result<DataQueryResult>> record(@Nullable ExecutionRecorder recorder,
+            CompletableFuture<Result<DataQueryResult>> future) {
+        return recorder != null ? future.whenComplete(recorder::record) : future;
+    }
+
+    /**
+     * Records execution of the data query to the aggregator of statistics and to the log of slow queries, the
+     * endpoint of the request is set by the transport
+     */
+    private final class ExecutionRecorder implements Consumer<String> {
+        private final String query;
+        private final boolean keepText;
+        private final Params params;
+        private final int retryNumber;
+        private final long startNanos = System.nanoTime();
+        private volatile String endpoint = null;
+
+        ExecutionRecorder(String query, boolean keepText, Params params, int retryNumber) {
+            this.query = query;
+            this.keepText = keepText;
+            this.params = params;
+            this.retryNumber = retryNumber;
+        }
+
+        @Override
+        public void accept(String endpoint) {
+            this.endpoint = endpoint;
+        }
+
+        void record(Result<DataQueryResult> result, Throwable th) {
+            long durationNanos = System.nanoTime() - startNanos;
+            boolean success = result != null && result.isSuccess();
+            QueryStats stats = success ? result.getValue().getQueryStats() : null;
+            if (statsAggregator != null) {
+                statsAggregator.record(query, durationNanos, success, stats);
+            }
+            if (slowQueryLog != null) {
+                Status status = result != null ? result.getStatus() : Status.of(StatusCode.CLIENT_INTERNAL_ERROR);
+                slowQueryLog.record(query, keepText, params, id, prefferedNodeID, endpoint, retryNumber,
+                        durationNanos, status, stats);
+            }
+        }
     }
 
     @Override
@@ -715,7 +947,11 @@ public abstract class BaseSession implements Session {
                 .thenApply(result -> result.map((value) -> {
                     String queryId = value.getQueryId();
                     Map<String, ValueProtos.Type> types = value.getParametersTypesMap();
-                    return new DataQueryImpl(this, queryId, query, keepQueryText, types);
+                    DataQueryImpl dataQuery = new DataQueryImpl(this, queryId, query, keepQueryText, types);
+                    if (queryCache != null) {
+                        queryCache.put(query, dataQuery);
+                    }
+                    return dataQuery;
                 }));
     }
 
@@ -728,7 +964,13 @@ public abstract class BaseSession implements Session {
                 .build();
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
-        return interceptStatus(tableRpc.executeSchemeQuery(request, grpcRequestSettings));
+        return interceptStatus(tableRpc.executeSchemeQuery(request, grpcRequestSettings))
+                .whenComplete((status, th) -> {
+                    if (descriptionCache != null && status != null && status.isSuccess()) {
+                        // scheme queries can change any table
+                        descriptionCache.invalidateAll();
+                    }
+                });
     }
 
     @Override
@@ -809,6 +1051,7 @@ public abstract class BaseSession implements Session {
             } else {
                 Issue[] issues = Issue.fromPb(response.getIssuesList());
                 StatusCode code = StatusCode.fromProto(statusCode);
+                onTableStatus(tablePath, code);
                 future.complete(Status.of(code, null, issues));
                 origin.cancel();
             }
@@ -889,20 +1132,51 @@ public abstract class BaseSession implements Session {
 
     @Override
     public CompletableFuture<Status> executeBulkUpsert(String tablePath, ListValue rows, BulkUpsertSettings settings) {
-        ValueProtos.TypedValue typedRows = ValueProtos.TypedValue.newBuilder()
-                .setType(rows.getType().toPb())
-                .setValue(rows.toPb())
-                .build();
+        return executeBulkUpsert(tablePath, new BulkUpsertRowsData(rows), settings);
+    }
 
-        YdbTable.BulkUpsertRequest request = YdbTable.BulkUpsertRequest.newBuilder()
+    @Override
+    public CompletableFuture<Status> executeBulkUpsert(String tablePath, BulkUpsertData data,
+            BulkUpsertSettings settings) {
+        YdbTable.BulkUpsertRequest.Builder builder = YdbTable.BulkUpsertRequest.newBuilder()
                 .setTable(tablePath)
-                .setRows(typedRows)
-                .setOperationParams(OperationUtils.createParams(settings.toOperationSettings()))
-                .build();
+                .setOperationParams(OperationUtils.createParams(settings.toOperationSettings()));
+        applyBulkUpsertData(builder, data);
+        YdbTable.BulkUpsertRequest request = builder.build();
 
         final GrpcRequestSettings grpcRequestSettings = makeGrpcRequestSettings(settings.getTimeoutDuration());
 
-        return interceptStatus(tableRpc.bulkUpsert(request, grpcRequestSettings));
+        return interceptStatus(tableRpc.bulkUpsert(request, grpcRequestSettings)).whenComplete((status, th) -> {
+            if (status != null) {
+                onTableStatus(tablePath, status.getCode());
+            }
+        });
+    }
+
+    static void applyBulkUpsertData(YdbTable.BulkUpsertRequest.Builder builder, BulkUpsertData data) {
+        if (data instanceof BulkUpsertRowsData) {
+            builder.setRows(((BulkUpsertRowsData) data).getRows());
+        } else if (data instanceof BulkUpsertArrowData) {
+            BulkUpsertArrowData arrow = (BulkUpsertArrowData) data;
+            builder.setArrowBatchSettings(YdbFormats.ArrowBatchSettings.newBuilder().setSchema(arrow.getSchema()));
+            builder.setData(arrow.getBatch());
+        } else if (data instanceof BulkUpsertCsvData) {
+            BulkUpsertCsvData csv = (BulkUpsertCsvData) data;
+            YdbFormats.CsvSettings.Builder settings = YdbFormats.CsvSettings.newBuilder()
+                    .setSkipRows(csv.getSkipRows())
+                    .setHeader(csv.hasHeader());
+            if (csv.getDelimiter() != null) {
+                settings.setDelimiter(ByteString.copyFromUtf8(csv.getDelimiter()));
+            }
+            if (csv.getNullValue() != null) {
+                settings.setNullValue(ByteString.copyFromUtf8(csv.getNullValue()));
+            }
+            builder.setCsvSettings(settings);
+            builder.setData(csv.getData());
+        } else {
+            // constructor of BulkUpsertData is package private, so all formats are listed above
+            throw new IllegalArgumentException("unknown bulk upsert data " + data.getClass().getName());
+        }
     }
 
     private static State mapSessionStatus(YdbTable.KeepAliveResult result) {
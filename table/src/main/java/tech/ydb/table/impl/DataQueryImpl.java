@@ -1,6 +1,7 @@
 package tech.ydb.table.impl;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -16,9 +17,14 @@ import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
 import com.google.common.hash.Hashing;
 
+import com.google.protobuf.ByteString;
+
 import tech.ydb.core.Result;
 import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.ValueProtos.Type.PrimitiveTypeId;
+import tech.ydb.proto.table.YdbTable;
 import tech.ydb.table.query.DataQuery;
+import tech.ydb.table.query.DataQueryBinder;
 import tech.ydb.table.query.DataQueryResult;
 import tech.ydb.table.query.Params;
 import tech.ydb.table.settings.ExecuteDataQuerySettings;
@@ -26,6 +32,7 @@ import tech.ydb.table.transaction.TxControl;
 import tech.ydb.table.values.Type;
 import tech.ydb.table.values.Value;
 import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
 
 import static com.google.common.base.Preconditions.checkArgument;
 
@@ -81,6 +88,11 @@ final class DataQueryImpl implements DataQuery {
         return new DataQueryParams(types, typesPb);
     }
 
+    @Override
+    public DataQueryBinder newBinder() {
+        return new ParamsBinder();
+    }
+
     @Override
     public Map<String, Type> types() {
         return types;
@@ -159,4 +171,257 @@ final class DataQueryImpl implements DataQuery {
             return Collections.unmodifiableMap(params);
         }
     }
+
+    /**
+     * Implementation of {@link DataQueryBinder} with fixed slots for all parameters of the data query.
+     * Protobuf types of parameters are resolved once and values are written directly into
+     * {@link tech.ydb.proto.table.YdbTable.ExecuteDataQueryRequest} without intermediate map.
+     */
+    @ParametersAreNonnullByDefault
+    final class ParamsBinder implements DataQueryBinder {
+        private final String[] names;
+        private final Type[] declaredTypes;
+        private final PrimitiveTypeId[] primitiveIds;
+        private final boolean[] optionals;
+        private final ValueProtos.TypedValue.Builder[] typed;
+        private final ValueProtos.Value[] values;
+        private int count = 0;
+
+        ParamsBinder() {
+            int size = typesPb.size();
+            this.names = new String[size];
+            this.declaredTypes = new Type[size];
+            this.primitiveIds = new PrimitiveTypeId[size];
+            this.optionals = new boolean[size];
+            this.typed = new ValueProtos.TypedValue.Builder[size];
+            this.values = new ValueProtos.Value[size];
+
+            int idx = 0;
+            for (Map.Entry<String, ValueProtos.Type> entry : typesPb.entrySet()) {
+                ValueProtos.Type typePb = entry.getValue();
+                names[idx] = entry.getKey();
+                declaredTypes[idx] = types.get(entry.getKey());
+                typed[idx] = ValueProtos.TypedValue.newBuilder().setType(typePb);
+                optionals[idx] = typePb.hasOptionalType();
+
+                ValueProtos.Type itemPb = optionals[idx] ? typePb.getOptionalType().getItem() : typePb;
+                boolean isPrimitive = itemPb.getTypeCase() == ValueProtos.Type.TypeCase.TYPE_ID;
+                primitiveIds[idx] = isPrimitive ? itemPb.getTypeId() : PrimitiveTypeId.PRIMITIVE_TYPE_ID_UNSPECIFIED;
+                idx++;
+            }
+        }
+
+        @Override
+        public int indexOf(String name) {
+            for (int idx = 0; idx < names.length; idx++) {
+                if (names[idx].equals(name)) {
+                    return idx;
+                }
+            }
+            throw new IllegalArgumentException("unknown parameter: " + name);
+        }
+
+        @Override
+        public int size() {
+            return names.length;
+        }
+
+        private IllegalArgumentException typeMismatch(int index, String setter) {
+            return new IllegalArgumentException(String.format("cannot use %s for parameter %s of type %s",
+                    setter, names[index], declaredTypes[index]));
+        }
+
+        private DataQueryBinder set(int index, ValueProtos.Value value) {
+            if (values[index] == null) {
+                count++;
+            }
+            values[index] = value;
+            return this;
+        }
+
+        @Override
+        public DataQueryBinder setBool(int index, boolean value) {
+            if (primitiveIds[index] != PrimitiveTypeId.BOOL) {
+                throw typeMismatch(index, "setBool");
+            }
+            return set(index, ProtoValue.fromBool(value));
+        }
+
+        @Override
+        public DataQueryBinder setInt32(int index, int value) {
+            switch (primitiveIds[index]) {
+                case INT8:
+                    checkArgument(value >= Byte.MIN_VALUE && value <= Byte.MAX_VALUE, "value %s is out of Int8", value);
+                    break;
+                case INT16:
+                    checkArgument(value >= Short.MIN_VALUE && value <= Short.MAX_VALUE,
+                            "value %s is out of Int16", value);
+                    break;
+                case INT32:
+                    break;
+                default:
+                    throw typeMismatch(index, "setInt32");
+            }
+            return set(index, ProtoValue.fromInt32(value));
+        }
+
+        @Override
+        public DataQueryBinder setUint32(int index, long value) {
+            switch (primitiveIds[index]) {
+                case UINT8:
+                    checkArgument(value >= 0 && value <= 0xFFL, "value %s is out of Uint8", value);
+                    break;
+                case UINT16:
+                    checkArgument(value >= 0 && value <= 0xFFFFL, "value %s is out of Uint16", value);
+                    break;
+                case UINT32:
+                case DATE:
+                case DATETIME:
+                    checkArgument(value >= 0 && value <= 0xFFFFFFFFL, "value %s is out of Uint32", value);
+                    break;
+                default:
+                    throw typeMismatch(index, "setUint32");
+            }
+            return set(index, ProtoValue.fromUint32(value));
+        }
+
+        @Override
+        public DataQueryBinder setInt64(int index, long value) {
+            switch (primitiveIds[index]) {
+                case INT64:
+                case INTERVAL:
+                    break;
+                default:
+                    throw typeMismatch(index, "setInt64");
+            }
+            return set(index, ProtoValue.fromInt64(value));
+        }
+
+        @Override
+        public DataQueryBinder setUint64(int index, long value) {
+            switch (primitiveIds[index]) {
+                case UINT64:
+                case TIMESTAMP:
+                    break;
+                default:
+                    throw typeMismatch(index, "setUint64");
+            }
+            return set(index, ProtoValue.fromUint64(value));
+        }
+
+        @Override
+        public DataQueryBinder setFloat(int index, float value) {
+            if (primitiveIds[index] != PrimitiveTypeId.FLOAT) {
+                throw typeMismatch(index, "setFloat");
+            }
+            return set(index, ProtoValue.fromFloat(value));
+        }
+
+        @Override
+        public DataQueryBinder setDouble(int index, double value) {
+            if (primitiveIds[index] != PrimitiveTypeId.DOUBLE) {
+                throw typeMismatch(index, "setDouble");
+            }
+            return set(index, ProtoValue.fromDouble(value));
+        }
+
+        @Override
+        public DataQueryBinder setText(int index, String value) {
+            switch (primitiveIds[index]) {
+                case UTF8:
+                case JSON:
+                case JSON_DOCUMENT:
+                    break;
+                default:
+                    throw typeMismatch(index, "setText");
+            }
+            return set(index, ValueProtos.Value.newBuilder().setTextValue(value).build());
+        }
+
+        @Override
+        public DataQueryBinder setBytes(int index, ByteString value) {
+            switch (primitiveIds[index]) {
+                case STRING:
+                case YSON:
+                    break;
+                default:
+                    throw typeMismatch(index, "setBytes");
+            }
+            return set(index, ValueProtos.Value.newBuilder().setBytesValue(value).build());
+        }
+
+        @Override
+        public DataQueryBinder setNull(int index) {
+            if (!optionals[index]) {
+                throw typeMismatch(index, "setNull");
+            }
+            return set(index, ProtoValue.optional());
+        }
+
+        @Override
+        public DataQueryBinder setValue(int index, Value<?> value) {
+            Type declared = declaredTypes[index];
+            Type actual = value.getType();
+            // value of the item type is encoded the same way as non empty value of the optional type
+            if (!actual.equals(declared) && !(optionals[index] && actual.equals(declared.unwrapOptional()))) {
+                throw new IllegalArgumentException(String.format(
+                        "cannot use value of type %s for parameter %s of type %s", actual, names[index], declared));
+            }
+            return set(index, value.toPb());
+        }
+
+        @Override
+        public DataQueryBinder clear() {
+            Arrays.fill(values, null);
+            count = 0;
+            return this;
+        }
+
+        @Override
+        public CompletableFuture<Result<DataQueryResult>> execute(
+                TxControl<?> txControl, ExecuteDataQuerySettings settings) {
+            return session.executePreparedDataQuery(queryId, text, txControl, this, settings);
+        }
+
+        void writeTo(YdbTable.ExecuteDataQueryRequest.Builder request) {
+            for (int idx = 0; idx < values.length; idx++) {
+                if (values[idx] != null) {
+                    request.putParameters(names[idx], typed[idx].setValue(values[idx]).build());
+                }
+            }
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return count == 0;
+        }
+
+        @Override
+        public <T extends Type> Params put(String name, Value<T> value) {
+            setValue(indexOf(name), value);
+            return this;
+        }
+
+        @Override
+        public Map<String, ValueProtos.TypedValue> toPb() {
+            Map<String, ValueProtos.TypedValue> result = Maps.newHashMapWithExpectedSize(count);
+            for (int idx = 0; idx < values.length; idx++) {
+                if (values[idx] != null) {
+                    result.put(names[idx], typed[idx].setValue(values[idx]).build());
+                }
+            }
+            return Collections.unmodifiableMap(result);
+        }
+
+        @Override
+        public Map<String, Value<?>> values() {
+            Map<String, Value<?>> result = Maps.newHashMapWithExpectedSize(count);
+            for (int idx = 0; idx < values.length; idx++) {
+                if (values[idx] != null) {
+                    result.put(names[idx], ProtoValue.fromPb(types.get(names[idx]), values[idx]));
+                }
+            }
+            return Collections.unmodifiableMap(result);
+        }
+    }
 }
@@ -5,14 +5,19 @@ import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
+import javax.annotation.Nullable;
+
 import com.google.common.base.Preconditions;
 
 import tech.ydb.core.Result;
 import tech.ydb.table.Session;
 import tech.ydb.table.SessionPoolStats;
 import tech.ydb.table.TableClient;
+import tech.ydb.table.TableDescriptionCache;
 import tech.ydb.table.impl.pool.SessionPool;
 import tech.ydb.table.impl.pool.SessionPoolOptions;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.SlowQueryLog;
 import tech.ydb.table.rpc.TableRpc;
 
 /**
@@ -86,6 +91,31 @@ public class PooledTableClient implements TableClient {
             return this;
         }
 
+        @Override
+        public Builder queryCacheSize(int size) {
+            Preconditions.checkArgument(size >= 0, "queryCacheSize(%s) is negative", size);
+            this.sessionPoolOptions = sessionPoolOptions.withQueryCacheSize(size);
+            return this;
+        }
+
+        @Override
+        public Builder queryStatsAggregator(@Nullable QueryStatsAggregator aggregator) {
+            this.sessionPoolOptions = sessionPoolOptions.withQueryStatsAggregator(aggregator);
+            return this;
+        }
+
+        @Override
+        public Builder slowQueryLog(@Nullable SlowQueryLog log) {
+            this.sessionPoolOptions = sessionPoolOptions.withSlowQueryLog(log);
+            return this;
+        }
+
+        @Override
+        public Builder tableDescriptionCache(@Nullable TableDescriptionCache cache) {
+            this.sessionPoolOptions = sessionPoolOptions.withTableDescriptionCache(cache);
+            return this;
+        }
+
         @Override
         public Builder sessionPoolSize(int minSize, int maxSize) {
             Preconditions.checkArgument(minSize >= 0, "sessionPoolMinSize(%s) is negative", minSize);
@@ -130,6 +160,18 @@ public class PooledTableClient implements TableClient {
             return this;
         }
 
+        @Override
+        public Builder sessionKeepAliveSpread(Duration spread) {
+            Preconditions.checkArgument(!spread.isNegative(),
+                    "sessionKeepAliveSpread(%s) is negative", prettyDuration(spread));
+            Preconditions.checkArgument(spread.compareTo(MAX_DURATION) <= 0,
+                "sessionKeepAliveSpread(%s) is greater than maximal duration %s",
+                prettyDuration(spread), prettyDuration(MAX_DURATION));
+
+            this.sessionPoolOptions = sessionPoolOptions.withKeepAliveSpreadMillis(spread.toMillis());
+            return this;
+        }
+
         @Override
         public PooledTableClient build() {
             return new PooledTableClient(this);
@@ -0,0 +1,57 @@
+package tech.ydb.table.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Simple LRU cache of prepared data queries of one session. Queries are identified by their text
+ */
+@ThreadSafe
+final class PreparedQueryCache {
+    private final int maxSize;
+    private final LinkedHashMap<String, DataQueryImpl> queries;
+
+    PreparedQueryCache(int maxSize) {
+        Preconditions.checkArgument(maxSize > 0, "prepared query cache size (%d) must be positive", maxSize);
+        this.maxSize = maxSize;
+        this.queries = new LinkedHashMap<String, DataQueryImpl>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DataQueryImpl> eldest) {
+                return size() > PreparedQueryCache.this.maxSize;
+            }
+        };
+    }
+
+    @Nullable
+    synchronized DataQueryImpl get(String text) {
+        return queries.get(text);
+    }
+
+    synchronized void put(String text, DataQueryImpl query) {
+        queries.put(text, query);
+    }
+
+    /**
+     * Removes query from the cache only if it is still mapped to the passed query object
+     * @param text text of query
+     * @param query prepared query which was found invalid
+     */
+    synchronized void invalidate(String text, DataQueryImpl query) {
+        queries.remove(text, query);
+    }
+
+    synchronized int size() {
+        return queries.size();
+    }
+
+    int maxSize() {
+        return maxSize;
+    }
+}
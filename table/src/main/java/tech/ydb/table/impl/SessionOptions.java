@@ -0,0 +1,87 @@
+package tech.ydb.table.impl;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+
+import tech.ydb.table.TableDescriptionCache;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.SlowQueryLog;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Client side options of sessions, they are shared by all sessions of one client.
+ */
+@Immutable
+public final class SessionOptions {
+
+    public static final SessionOptions DEFAULT = new SessionOptions(0, null, null, null);
+
+    private final int queryCacheSize;
+    @Nullable
+    private final QueryStatsAggregator queryStatsAggregator;
+    @Nullable
+    private final SlowQueryLog slowQueryLog;
+    @Nullable
+    private final TableDescriptionCache tableDescriptionCache;
+
+    private SessionOptions(
+        int queryCacheSize,
+        @Nullable QueryStatsAggregator queryStatsAggregator,
+        @Nullable SlowQueryLog slowQueryLog,
+        @Nullable TableDescriptionCache tableDescriptionCache) {
+        this.queryCacheSize = queryCacheSize;
+        this.queryStatsAggregator = queryStatsAggregator;
+        this.slowQueryLog = slowQueryLog;
+        this.tableDescriptionCache = tableDescriptionCache;
+    }
+
+    /**
+     * @return size of client side cache of prepared queries of each session, zero if the cache is disabled
+     */
+    public int getQueryCacheSize() {
+        return queryCacheSize;
+    }
+
+    /**
+     * @return aggregator of statistics of executed data queries or null if aggregation is disabled
+     */
+    @Nullable
+    public QueryStatsAggregator getQueryStatsAggregator() {
+        return queryStatsAggregator;
+    }
+
+    /**
+     * @return log of slow data queries or null if the log is disabled
+     */
+    @Nullable
+    public SlowQueryLog getSlowQueryLog() {
+        return slowQueryLog;
+    }
+
+    /**
+     * @return cache of table descriptions or null if the cache is disabled
+     */
+    @Nullable
+    public TableDescriptionCache getTableDescriptionCache() {
+        return tableDescriptionCache;
+    }
+
+    public SessionOptions withQueryCacheSize(int size) {
+        checkArgument(size >= 0, "queryCacheSize(%s) is negative", size);
+        return new SessionOptions(size, queryStatsAggregator, slowQueryLog, tableDescriptionCache);
+    }
+
+    public SessionOptions withQueryStatsAggregator(@Nullable QueryStatsAggregator aggregator) {
+        return new SessionOptions(queryCacheSize, aggregator, slowQueryLog, tableDescriptionCache);
+    }
+
+    public SessionOptions withSlowQueryLog(@Nullable SlowQueryLog log) {
+        return new SessionOptions(queryCacheSize, queryStatsAggregator, log, tableDescriptionCache);
+    }
+
+    public SessionOptions withTableDescriptionCache(@Nullable TableDescriptionCache cache) {
+        return new SessionOptions(queryCacheSize, queryStatsAggregator, slowQueryLog, cache);
+    }
+}
@@ -4,10 +4,15 @@ import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
+import com.google.common.base.Preconditions;
+
 import tech.ydb.core.Result;
 import tech.ydb.core.StatusCode;
 import tech.ydb.table.Session;
 import tech.ydb.table.SessionSupplier;
+import tech.ydb.table.TableDescriptionCache;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.SlowQueryLog;
 import tech.ydb.table.rpc.TableRpc;
 import tech.ydb.table.settings.CreateSessionSettings;
 import tech.ydb.table.settings.DeleteSessionSettings;
@@ -19,10 +24,12 @@ import tech.ydb.table.settings.DeleteSessionSettings;
 public class SimpleTableClient implements SessionSupplier {
     private final TableRpc tableRpc;
     private final boolean keepQueryText;
+    private final SessionOptions sessionOptions;
 
     private SimpleTableClient(Builder builder) {
         this.tableRpc = builder.tableRpc;
         this.keepQueryText = builder.keepQueryText;
+        this.sessionOptions = builder.sessionOptions;
     }
 
     @Override
@@ -45,6 +52,7 @@ public class SimpleTableClient implements SessionSupplier {
     public static class Builder {
         private final TableRpc tableRpc;
         private boolean keepQueryText = true;
+        private SessionOptions sessionOptions = SessionOptions.DEFAULT;
 
         public Builder(TableRpc tableRpc) {
             this.tableRpc = tableRpc;
@@ -55,6 +63,27 @@ public class SimpleTableClient implements SessionSupplier {
             return this;
         }
 
+        public Builder queryCacheSize(int size) {
+            Preconditions.checkArgument(size >= 0, "queryCacheSize(%s) is negative", size);
+            this.sessionOptions = sessionOptions.withQueryCacheSize(size);
+            return this;
+        }
+
+        public Builder queryStatsAggregator(QueryStatsAggregator aggregator) {
+            this.sessionOptions = sessionOptions.withQueryStatsAggregator(aggregator);
+            return this;
+        }
+
+        public Builder slowQueryLog(SlowQueryLog log) {
+            this.sessionOptions = sessionOptions.withSlowQueryLog(log);
+            return this;
+        }
+
+        public Builder tableDescriptionCache(TableDescriptionCache cache) {
+            this.sessionOptions = sessionOptions.withTableDescriptionCache(cache);
+            return this;
+        }
+
         public SimpleTableClient build() {
             return new SimpleTableClient(this);
         }
@@ -62,7 +91,7 @@ public class SimpleTableClient implements SessionSupplier {
 
     private class SimpleSession extends BaseSession {
         SimpleSession(String id) {
-            super(id, tableRpc, keepQueryText);
+            super(id, tableRpc, keepQueryText, sessionOptions);
         }
 
         @Override
@@ -8,7 +8,9 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Future;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
@@ -25,6 +27,7 @@ import tech.ydb.core.utils.Async;
 import tech.ydb.table.Session;
 import tech.ydb.table.SessionPoolStats;
 import tech.ydb.table.impl.BaseSession;
+import tech.ydb.table.impl.SessionOptions;
 import tech.ydb.table.rpc.TableRpc;
 import tech.ydb.table.settings.CreateSessionSettings;
 import tech.ydb.table.settings.DeleteSessionSettings;
@@ -41,6 +44,7 @@ public class SessionPool implements AutoCloseable {
             .setOperationTimeout(Duration.ofSeconds(299));
 
     private final int minSize;
+    private final long keepAliveSpreadMillis;
     private final Clock clock;
     private final ScheduledExecutorService scheduler;
     private final WaitingQueue<ClosableSession> queue;
@@ -50,10 +54,14 @@ public class SessionPool implements AutoCloseable {
 
     public SessionPool(Clock clock, TableRpc rpc, boolean keepQueryText, SessionPoolOptions options) {
         this.minSize = options.getMinSize();
+        // Keep alive deadlines may be spread over the last part of keep alive time, so sessions created
+        // together (after application start, for example) don't send keep alive requests in the same tick
+        this.keepAliveSpreadMillis = Math.min(options.getKeepAliveSpreadMillis(), options.getKeepAliveTimeMillis());
 
         this.clock = clock;
         this.scheduler = rpc.getScheduler();
-        this.queue = new WaitingQueue<>(new Handler(rpc, keepQueryText), options.getMaxSize());
+        this.queue = new WaitingQueue<>(new Handler(rpc, keepQueryText, options.getSessionOptions()),
+                options.getMaxSize());
 
         KeepAliveTask keepAlive = new KeepAliveTask(options);
         this.keepAliveFuture = scheduler.scheduleAtFixedRate(
@@ -61,10 +69,11 @@ public class SessionPool implements AutoCloseable {
                 keepAlive.periodMillis / 2,
                 keepAlive.periodMillis,
                 TimeUnit.MILLISECONDS);
-        logger.info("init session pool, min size = {}, max size = {}, keep alive period = {}",
+        logger.info("init session pool, min size = {}, max size = {}, keep alive period = {}, keep alive rate = {}",
                 options.getMinSize(),
                 options.getMaxSize(),
-                keepAlive.periodMillis);
+                keepAlive.periodMillis,
+                keepAlive.maxKeepAliveRate);
     }
 
     public void updateMaxSize(int maxSize) {
@@ -148,13 +157,59 @@ public class SessionPool implements AutoCloseable {
         return pollNext(future);
     }
 
+    /**
+     * Node of the session is going to be shut down. All idle sessions of this node will be removed and the pool
+     * starts creating of replacements in the background. New sessions are created with the server balancer hint,
+     * so the server doesn't place them on the node being shut down.
+     */
+    private void replaceShutdownSessions(ClosableSession source) {
+        Integer nodeId = source.nodeId();
+        logger.debug("session {} got shutdown hint, node id = {}", source.getId(), nodeId);
+
+        if (!source.replacementRequested.getAndSet(true) && !queue.prepareNew()) {
+            // the pool is full, replacement will be requested after session deleting
+            source.replacementRequested.set(false);
+        }
+
+        Iterator<ClosableSession> coldIterator = queue.coldIterator();
+        while (coldIterator.hasNext()) {
+            ClosableSession session = coldIterator.next();
+            boolean sameNode = nodeId != null && nodeId.equals(session.nodeId());
+            if (session == source || sameNode) {
+                logger.debug("remove idle session {} of shutting down node {}", session.getId(), nodeId);
+                coldIterator.remove();
+                if (session != source || !source.replacementRequested.getAndSet(true)) {
+                    queue.prepareNew();
+                }
+            }
+        }
+    }
+
     private class ClosableSession extends StatefulSession {
-        ClosableSession(String id, TableRpc rpc, boolean keepQueryText) {
-            super(id, clock, rpc, keepQueryText);
+        private final AtomicBoolean replacementRequested = new AtomicBoolean(false);
+        private final long keepAliveShiftMillis;
+
+        ClosableSession(String id, TableRpc rpc, boolean keepQueryText, SessionOptions options) {
+            super(id, clock, rpc, keepQueryText, options);
+            this.keepAliveShiftMillis = nextKeepAliveShiftMillis();
             logger.debug("session {} successful created", id);
             stats.created.increment();
         }
 
+        @Override
+        protected void onQueryCacheLookup(boolean hit) {
+            if (hit) {
+                stats.queryCacheHits.increment();
+            } else {
+                stats.queryCacheMisses.increment();
+            }
+        }
+
+        @Override
+        protected void onShutdownHint() {
+            replaceShutdownSessions(this);
+        }
+
         @Override
         public void close() {
             stats.released.increment();
@@ -164,6 +219,9 @@ public class SessionPool implements AutoCloseable {
             } else {
                 logger.debug("session {} shutdown", getId());
                 queue.delete(this);
+                if (state().isGracefulShutdown() && !replacementRequested.getAndSet(true)) {
+                    queue.prepareNew();
+                }
             }
         }
     }
@@ -171,10 +229,12 @@ public class SessionPool implements AutoCloseable {
     private class Handler implements WaitingQueue.Handler<ClosableSession> {
         private final TableRpc tableRpc;
         private final boolean keepQueryText;
+        private final SessionOptions sessionOptions;
 
-        Handler(TableRpc tableRpc, boolean keepQueryText) {
+        Handler(TableRpc tableRpc, boolean keepQueryText, SessionOptions sessionOptions) {
             this.tableRpc = tableRpc;
             this.keepQueryText = keepQueryText;
+            this.sessionOptions = sessionOptions;
         }
 
         @Override
@@ -187,7 +247,7 @@ public class SessionPool implements AutoCloseable {
                             stats.failed.increment();
                         }
                         String id = response.getValue();
-                        return new ClosableSession(id, tableRpc, keepQueryText);
+                        return new ClosableSession(id, tableRpc, keepQueryText, sessionOptions);
                     });
         }
 
@@ -209,15 +269,31 @@ public class SessionPool implements AutoCloseable {
         }
     }
 
+    /**
+     * Random shift of keep alive deadline of a new session in range [0, keepAliveSpreadMillis), zero if spread is
+     * disabled. The shift is chosen once, so the session keeps its place in the keep alive schedule
+     */
+    long nextKeepAliveShiftMillis() {
+        if (keepAliveSpreadMillis <= 0) {
+            return 0;
+        }
+        return ThreadLocalRandom.current().nextLong(keepAliveSpreadMillis);
+    }
+
     private class KeepAliveTask implements Runnable {
         private final long maxIdleTimeMillis;
         private final long keepAliveTimeMillis;
 
         private final int maxKeepAliveCount;
+        private final int maxKeepAliveRate;
         private final long periodMillis;
 
         private final AtomicInteger keepAliveCount = new AtomicInteger();
 
+        // Task is never executed concurrently, so rate window doesn't need synchronization
+        private Instant rateWindowStart = Instant.EPOCH;
+        private int rateWindowCount = 0;
+
         KeepAliveTask(SessionPoolOptions options) {
             this.maxIdleTimeMillis = options.getMaxIdleTimeMillis();
             this.keepAliveTimeMillis = options.getKeepAliveTimeMillis();
@@ -225,6 +301,10 @@ public class SessionPool implements AutoCloseable {
             // Simple heuristics to limit task inflight and frequency
             // KeepAlive task inflight limit - not more than 20 percent but not less than two
             this.maxKeepAliveCount = Math.max(2, options.getMaxSize() / 5);
+            // KeepAlive rate limit - enough to check all sessions twice per keep alive time, but not less
+            // than inflight limit per second
+            this.maxKeepAliveRate = (int) Math.max(maxKeepAliveCount,
+                    2000L * options.getMaxSize() / Math.max(1, keepAliveTimeMillis));
             // KeepAlive task execution frequency limit - must be executed at least 5 times
             // for keepAlive and at least 2 times for idle, but no more than once every 100 ms
             this.periodMillis = Math.max(100, Math.min(keepAliveTimeMillis / 5, maxIdleTimeMillis / 2));
@@ -235,10 +315,14 @@ public class SessionPool implements AutoCloseable {
             Iterator<ClosableSession> coldIterator = queue.coldIterator();
             Instant now = clock.instant();
             Instant idleToRemove = now.minusMillis(maxIdleTimeMillis);
-            Instant keepAlive = now.minusMillis(keepAliveTimeMillis);
+
+            if (!now.isBefore(rateWindowStart.plusSeconds(1))) {
+                rateWindowStart = now;
+                rateWindowCount = 0;
+            }
 
             while (coldIterator.hasNext()) {
-                StatefulSession session = coldIterator.next();
+                ClosableSession session = coldIterator.next();
                 StatefulSession.State state = session.state();
                 if (state.needShutdown()) {
                     coldIterator.remove();
@@ -250,13 +334,17 @@ public class SessionPool implements AutoCloseable {
                     continue;
                 }
 
+                // Any request made by session (not only keep alive) updates lastUpdate, so recently used
+                // sessions are skipped here
+                Instant keepAlive = now.minusMillis(keepAliveTimeMillis - session.keepAliveShiftMillis);
                 if (!state.lastUpdate().isAfter(keepAlive)) {
-                    if (keepAliveCount.get() >= maxKeepAliveCount) {
+                    if (keepAliveCount.get() >= maxKeepAliveCount || rateWindowCount >= maxKeepAliveRate) {
                         continue;
                     }
 
                     if (state.switchToKeepAlive(now)) {
                         keepAliveCount.incrementAndGet();
+                        rateWindowCount++;
                         logger.debug("keep alive session {}", session.getId());
                         session.keepAlive().whenComplete((res, th) -> {
                             boolean ok = th == null
@@ -286,6 +374,9 @@ public class SessionPool implements AutoCloseable {
         private final LongAdder created = new LongAdder();
         private final LongAdder deleted = new LongAdder();
 
+        private final LongAdder queryCacheHits = new LongAdder();
+        private final LongAdder queryCacheMisses = new LongAdder();
+
         @Override
         public int getMinSize() {
             return minSize;
@@ -341,6 +432,16 @@ public class SessionPool implements AutoCloseable {
             return deleted.sum();
         }
 
+        @Override
+        public long getQueryCacheHitsTotal() {
+            return queryCacheHits.sum();
+        }
+
+        @Override
+        public long getQueryCacheMissesTotal() {
+            return queryCacheMisses.sum();
+        }
+
         @Override
         public String toString() {
             return "SessionPoolStats{minSize=" + getMinSize()
@@ -354,6 +455,8 @@ public class SessionPool implements AutoCloseable {
                     + ", createdTotal=" + getCreatedTotal()
                     + ", failedTotal=" + getFailedTotal()
                     + ", deletedTotal=" + getDeletedTotal()
+                    + ", queryCacheHitsTotal=" + getQueryCacheHitsTotal()
+                    + ", queryCacheMissesTotal=" + getQueryCacheMissesTotal()
                     + "}";
         }
     }
@@ -1,7 +1,15 @@
 package tech.ydb.table.impl.pool;
 
+import java.util.Objects;
 import java.util.concurrent.TimeUnit;
 
+import javax.annotation.Nullable;
+
+import tech.ydb.table.TableDescriptionCache;
+import tech.ydb.table.impl.SessionOptions;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.SlowQueryLog;
+
 
 /**
  * @author Sergey Polovko
@@ -12,22 +20,30 @@ public final class SessionPoolOptions {
         10,                            // minSize
         50,                            // maxSize
         TimeUnit.MINUTES.toMillis(5),  // keepAliveTimeMillis
-        TimeUnit.MINUTES.toMillis(1)); // maxIdleTimeMillis
+        TimeUnit.MINUTES.toMillis(1),  // maxIdleTimeMillis
+        TimeUnit.MINUTES.toMillis(1),  // keepAliveSpreadMillis
+        SessionOptions.DEFAULT);       // sessionOptions
 
     private final int minSize;
     private final int maxSize;
     private final long keepAliveTimeMillis;
     private final long maxIdleTimeMillis;
+    private final long keepAliveSpreadMillis;
+    private final SessionOptions sessionOptions;
 
     SessionPoolOptions(
         int minSize,
         int maxSize,
         long keepAliveTimeMillis,
-        long maxIdleTimeMillis) {
+        long maxIdleTimeMillis,
+        long keepAliveSpreadMillis,
+        SessionOptions sessionOptions) {
         this.minSize = minSize;
         this.maxSize = maxSize;
         this.keepAliveTimeMillis = keepAliveTimeMillis;
         this.maxIdleTimeMillis = maxIdleTimeMillis;
+        this.keepAliveSpreadMillis = keepAliveSpreadMillis;
+        this.sessionOptions = Objects.requireNonNull(sessionOptions, "sessionOptions");
     }
 
     int getMinSize() {
@@ -46,15 +62,59 @@ public final class SessionPoolOptions {
         return maxIdleTimeMillis;
     }
 
+    long getKeepAliveSpreadMillis() {
+        return keepAliveSpreadMillis;
+    }
+
+    SessionOptions getSessionOptions() {
+        return sessionOptions;
+    }
+
     public SessionPoolOptions withSize(int minSize, int maxSize) {
-        return new SessionPoolOptions(minSize, maxSize, keepAliveTimeMillis, maxIdleTimeMillis);
+        return new SessionPoolOptions(minSize, maxSize, keepAliveTimeMillis, maxIdleTimeMillis, keepAliveSpreadMillis,
+                sessionOptions);
     }
 
     public SessionPoolOptions withKeepAliveTimeMillis(long timeMillis) {
-        return new SessionPoolOptions(minSize, maxSize, timeMillis, maxIdleTimeMillis);
+        return new SessionPoolOptions(minSize, maxSize, timeMillis, maxIdleTimeMillis, keepAliveSpreadMillis,
+                sessionOptions);
     }
 
     public SessionPoolOptions withMaxIdleTimeMillis(long timeMillis) {
-        return new SessionPoolOptions(minSize, maxSize, keepAliveTimeMillis, timeMillis);
+        return new SessionPoolOptions(minSize, maxSize, keepAliveTimeMillis, timeMillis, keepAliveSpreadMillis,
+                sessionOptions);
+    }
+
+    /**
+     * Spreads keep alive requests of sessions over time: the keep alive deadline of every session is moved
+     * earlier by a random shift in range [0, timeMillis), chosen once per session. Zero disables the spread.
+     *
+     * @param timeMillis max shift of keep alive deadlines
+     * @return new options
+     */
+    public SessionPoolOptions withKeepAliveSpreadMillis(long timeMillis) {
+        return new SessionPoolOptions(minSize, maxSize, keepAliveTimeMillis, maxIdleTimeMillis, timeMillis,
+                sessionOptions);
+    }
+
+    public SessionPoolOptions withSessionOptions(SessionOptions options) {
+        return new SessionPoolOptions(minSize, maxSize, keepAliveTimeMillis, maxIdleTimeMillis, keepAliveSpreadMillis,
+                options);
+    }
+
+    public SessionPoolOptions withQueryCacheSize(int size) {
+        return withSessionOptions(sessionOptions.withQueryCacheSize(size));
+    }
+
+    public SessionPoolOptions withQueryStatsAggregator(@Nullable QueryStatsAggregator aggregator) {
+        return withSessionOptions(sessionOptions.withQueryStatsAggregator(aggregator));
+    }
+
+    public SessionPoolOptions withSlowQueryLog(@Nullable SlowQueryLog log) {
+        return withSessionOptions(sessionOptions.withSlowQueryLog(log));
+    }
+
+    public SessionPoolOptions withTableDescriptionCache(@Nullable TableDescriptionCache cache) {
+        return withSessionOptions(sessionOptions.withTableDescriptionCache(cache));
     }
 }
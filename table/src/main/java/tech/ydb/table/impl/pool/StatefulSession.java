@@ -11,6 +11,7 @@ import org.slf4j.LoggerFactory;
 
 import tech.ydb.core.StatusCode;
 import tech.ydb.table.impl.BaseSession;
+import tech.ydb.table.impl.SessionOptions;
 import tech.ydb.table.rpc.TableRpc;
 
 /**
@@ -25,7 +26,12 @@ abstract class StatefulSession extends BaseSession {
     private final AtomicReference<State> state;
 
     protected StatefulSession(String id, Clock clock, TableRpc tableRpc, boolean keepQueryText) {
-        super(id, tableRpc, keepQueryText);
+        this(id, clock, tableRpc, keepQueryText, SessionOptions.DEFAULT);
+    }
+
+    protected StatefulSession(String id, Clock clock, TableRpc tableRpc, boolean keepQueryText,
+                              SessionOptions options) {
+        super(id, tableRpc, keepQueryText, options);
         this.clock = clock;
         this.state = new AtomicReference<>(new State(Status.IDLE, clock.instant()));
     }
@@ -33,18 +39,34 @@ abstract class StatefulSession extends BaseSession {
     @Override
     protected void updateSessionState(Throwable th, StatusCode code, boolean gracefulShutdown) {
         State current = state.get();
-        while (!state.compareAndSet(current, current.updated(clock.instant(), th, code, gracefulShutdown))) {
+        State next = current.updated(clock.instant(), th, code, gracefulShutdown);
+        while (!state.compareAndSet(current, next)) {
             current = state.get();
+            next = current.updated(clock.instant(), th, code, gracefulShutdown);
         }
         if (logger.isTraceEnabled()) {
-            logger.trace("{} updated => {}, {}", toString(), state.get().status, state.get().lastUpdate);
+            logger.trace("{} updated => {}, {}", toString(), next.status, next.lastUpdate);
+        }
+        if (current.status != Status.NEED_SHUTDOWN && next.status == Status.NEED_SHUTDOWN) {
+            onShutdownHint();
         }
     }
 
+    /**
+     * Called once when the server has notified that the node of this session is going to be shut down
+     */
+    protected void onShutdownHint() {
+        // nothing by default
+    }
+
     public State state() {
         return state.get();
     }
 
+    Integer nodeId() {
+        return getNodeId();
+    }
+
     private boolean switchState(State current, State next) {
         return next != null && state.compareAndSet(current, next);
     }
@@ -85,6 +107,10 @@ abstract class StatefulSession extends BaseSession {
             return this.status == Status.BROKEN || this.status == Status.NEED_SHUTDOWN;
         }
 
+        public boolean isGracefulShutdown() {
+            return this.status == Status.NEED_SHUTDOWN;
+        }
+
         public boolean switchToActive(Instant now) {
             return switchState(this, nextState(Status.ACTIVE, now));
         }
@@ -130,6 +156,10 @@ abstract class StatefulSession extends BaseSession {
                 return new State(status, now);
             }
 
+            if (status == Status.KEEPALIVE && shutdownHint) {
+                return new State(Status.NEED_SHUTDOWN, lastActive, now);
+            }
+
             return new State(status, lastActive, now);
         }
 
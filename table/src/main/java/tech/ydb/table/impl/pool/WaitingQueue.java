@@ -143,6 +143,29 @@ public class WaitingQueue<T> implements AutoCloseable {
         checkNextWaitingAcquire();
     }
 
+    /**
+     * Starts creation of a new object in the background if the queue has free capacity. Created object will be
+     * passed to the first waiting acquire or will be put to the idle deque as hottest object
+     * @return true if a new object creation was started
+     */
+    public boolean prepareNew() {
+        if (stopped) {
+            return false;
+        }
+
+        CompletableFuture<T> pending = new CompletableFuture<>();
+        if (!tryToCreateNewPending(pending)) {
+            return false;
+        }
+
+        pending.whenComplete((object, th) -> {
+            if (object != null) {
+                release(object);
+            }
+        });
+        return true;
+    }
+
     @Override
     public void close() {
         stopped = true;
@@ -0,0 +1,256 @@
+package tech.ydb.table.mapping;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.google.common.primitives.Primitives;
+
+
+/**
+ * Factory of typed accessors of fields, methods and constructors. Public methods of classes visible from this
+ * class loader are bound with {@link LambdaMetafactory}, so calls of accessors are as fast as direct calls. Other
+ * members are bound with {@link MethodHandle} adapted to the erased signature of the accessor.
+ */
+final class Accessors {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private Accessors() { }
+
+    static Supplier<Object> constructor(Constructor<?> ctor) {
+        MethodHandle handle = unreflect(ctor);
+        if (canSpinLambda(ctor)) {
+            return lambda(handle, Supplier.class, "get", MethodType.methodType(Object.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(Object.class));
+        return () -> {
+            try {
+                return (Object) erased.invokeExact();
+            } catch (Throwable th) {
+                throw rethrow(ctor, th);
+            }
+        };
+    }
+
+    static Function<Object[], Object> allArgsConstructor(Constructor<?> ctor) {
+        MethodHandle spreader = unreflect(ctor)
+                .asSpreader(Object[].class, ctor.getParameterCount())
+                .asType(MethodType.methodType(Object.class, Object[].class));
+        return args -> {
+            try {
+                return (Object) spreader.invokeExact(args);
+            } catch (Throwable th) {
+                throw rethrow(ctor, th);
+            }
+        };
+    }
+
+    static Function<Object, Object> getter(Member member) {
+        MethodHandle handle = unreflect(member, false);
+        if (canSpinLambda(member)) {
+            MethodType instantiated = MethodType.methodType(
+                    Primitives.wrap(handle.type().returnType()), handle.type().parameterType(0));
+            return lambda(handle, Function.class, "apply", MethodType.methodType(Object.class, Object.class),
+                    instantiated);
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return target -> {
+            try {
+                return (Object) erased.invokeExact(target);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static ToIntFunction<Object> intGetter(Member member) {
+        MethodHandle handle = unreflect(member, false);
+        if (canSpinLambda(member)) {
+            return lambda(handle, ToIntFunction.class, "applyAsInt",
+                    MethodType.methodType(int.class, Object.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(int.class, Object.class));
+        return target -> {
+            try {
+                return (int) erased.invokeExact(target);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static ToLongFunction<Object> longGetter(Member member) {
+        MethodHandle handle = unreflect(member, false);
+        if (canSpinLambda(member)) {
+            return lambda(handle, ToLongFunction.class, "applyAsLong",
+                    MethodType.methodType(long.class, Object.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(long.class, Object.class));
+        return target -> {
+            try {
+                return (long) erased.invokeExact(target);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static ToDoubleFunction<Object> doubleGetter(Member member) {
+        MethodHandle handle = unreflect(member, false);
+        if (canSpinLambda(member)) {
+            return lambda(handle, ToDoubleFunction.class, "applyAsDouble",
+                    MethodType.methodType(double.class, Object.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(double.class, Object.class));
+        return target -> {
+            try {
+                return (double) erased.invokeExact(target);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static BiConsumer<Object, Object> setter(Member member) {
+        MethodHandle handle = unreflect(member, true);
+        if (canSpinLambda(member)) {
+            MethodType instantiated = MethodType.methodType(void.class,
+                    handle.type().parameterType(0), Primitives.wrap(handle.type().parameterType(1)));
+            return lambda(handle, BiConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, Object.class), instantiated);
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+        return (target, value) -> {
+            try {
+                erased.invokeExact(target, value);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static ObjIntConsumer<Object> intSetter(Member member) {
+        MethodHandle handle = unreflect(member, true);
+        if (canSpinLambda(member)) {
+            return lambda(handle, ObjIntConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, int.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(void.class, Object.class, int.class));
+        return (target, value) -> {
+            try {
+                erased.invokeExact(target, value);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static ObjLongConsumer<Object> longSetter(Member member) {
+        MethodHandle handle = unreflect(member, true);
+        if (canSpinLambda(member)) {
+            return lambda(handle, ObjLongConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, long.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(void.class, Object.class, long.class));
+        return (target, value) -> {
+            try {
+                erased.invokeExact(target, value);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    static ObjDoubleConsumer<Object> doubleSetter(Member member) {
+        MethodHandle handle = unreflect(member, true);
+        if (canSpinLambda(member)) {
+            return lambda(handle, ObjDoubleConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, double.class), handle.type());
+        }
+        MethodHandle erased = handle.asType(MethodType.methodType(void.class, Object.class, double.class));
+        return (target, value) -> {
+            try {
+                erased.invokeExact(target, value);
+            } catch (Throwable th) {
+                throw rethrow(member, th);
+            }
+        };
+    }
+
+    private static boolean canSpinLambda(Member member) {
+        Class<?> owner = member.getDeclaringClass();
+        if (member instanceof Field || !Modifier.isPublic(member.getModifiers())
+                || !Modifier.isPublic(owner.getModifiers())) {
+            return false;
+        }
+
+        // Generated class is defined in the class loader of this class, so the owner must be visible from it
+        try {
+            return Class.forName(owner.getName(), false, Accessors.class.getClassLoader()) == owner;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <F> F lambda(MethodHandle impl, Class<? super F> iface, String name, MethodType erased,
+            MethodType instantiated) {
+        try {
+            CallSite site = LambdaMetafactory.metafactory(LOOKUP, name, MethodType.methodType(iface), erased,
+                    impl, instantiated);
+            return (F) site.getTarget().invoke();
+        } catch (Throwable th) {
+            throw new IllegalArgumentException("cannot bind accessor " + impl, th);
+        }
+    }
+
+    private static MethodHandle unreflect(Constructor<?> ctor) {
+        try {
+            ctor.setAccessible(true);
+            return LOOKUP.unreflectConstructor(ctor);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("cannot access constructor " + ctor, e);
+        }
+    }
+
+    private static MethodHandle unreflect(Member member, boolean isSetter) {
+        try {
+            if (member instanceof Method) {
+                Method method = (Method) member;
+                method.setAccessible(true);
+                return LOOKUP.unreflect(method);
+            }
+            Field field = (Field) member;
+            field.setAccessible(true);
+            return isSetter ? LOOKUP.unreflectSetter(field) : LOOKUP.unreflectGetter(field);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalArgumentException("cannot access " + member, e);
+        }
+    }
+
+    private static RuntimeException rethrow(Member member, Throwable th) {
+        if (th instanceof RuntimeException) {
+            return (RuntimeException) th;
+        }
+        if (th instanceof Error) {
+            throw (Error) th;
+        }
+        return new IllegalStateException("cannot invoke " + member, th);
+    }
+}
@@ -0,0 +1,31 @@
+package tech.ydb.table.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Customizes mapping of a field by {@link ObjectMapper}
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Column {
+
+    /**
+     * @return name of the column, the name of the field is used by default
+     */
+    String name() default "";
+
+    /**
+     * @return precision of the decimal column, used only for {@link java.math.BigDecimal} fields
+     */
+    int precision() default 22;
+
+    /**
+     * @return scale of the decimal column, used only for {@link java.math.BigDecimal} fields
+     */
+    int scale() default 9;
+}
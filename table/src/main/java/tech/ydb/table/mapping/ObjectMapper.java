@@ -0,0 +1,581 @@
+package tech.ydb.table.mapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.base.Defaults;
+
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.ValueReader;
+import tech.ydb.table.result.impl.ProtoValueReaders;
+import tech.ydb.table.values.ListType;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructType;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.Type;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Maps rows of result sets and struct values to java objects and java objects to struct values.
+ * <p>
+ * Mapped properties are all non static and non transient fields of the class and its superclasses, the name of the
+ * column is the name of the field or {@link Column#name()}. Objects are created by the constructor without
+ * arguments and filled by public setters (or by fields if there is no setter), or by the constructor with all
+ * mapped fields in order of declaration, like the canonical constructor of records. Values are read by public
+ * getters, accessors of records or fields. Accessors are bound once per class with {@link java.lang.invoke}, so
+ * mapping doesn't use reflection.
+ * <p>
+ * Supported types of fields are primitive types and their wrappers, {@code String}, {@code byte[]},
+ * {@code UUID}, {@code LocalDate}, {@code LocalDateTime}, {@code Instant}, {@code Duration}, {@code BigDecimal},
+ * {@code DecimalValue} and {@code Optional} of these types. Fields of primitive types are mapped to non optional
+ * YDB types, other fields are mapped to optional types. Integer fields can be read from columns of narrower
+ * integer types.
+ *
+ * @param <T> type of mapped objects
+ */
+@ThreadSafe
+public final class ObjectMapper<T> {
+    /** Max count of cached bindings to struct types of one class */
+    private static final int MAX_STRUCT_BINDINGS = 64;
+
+    private static final ClassValue<ObjectMapper<?>> MAPPERS = new ClassValue<ObjectMapper<?>>() {
+        @Override
+        protected ObjectMapper<?> computeValue(Class<?> type) {
+            return new ObjectMapper<>(type);
+        }
+    };
+
+    private final Class<T> type;
+    private final Property[] properties;
+    private final Map<String, Integer> propertiesIdx;
+    private final StructType structType;
+    // structMembers[i] is index of property which is mapped to member i of the struct type
+    private final int[] structMembers;
+
+    @Nullable
+    private final Supplier<Object> constructor;
+    @Nullable
+    private final Function<Object[], Object> allArgsConstructor;
+    private final Object[] defaultArgs;
+
+    private final ConcurrentHashMap<StructType, Binding> structBindings = new ConcurrentHashMap<>();
+
+    private ObjectMapper(Class<T> type) {
+        this.type = type;
+
+        List<Field> fields = mappedFields(type);
+        checkArgument(!fields.isEmpty(), "class %s has no fields to map", type.getName());
+
+        Constructor<?> noArgs = findConstructor(type, Collections.emptyList());
+        Constructor<?> allArgs = noArgs == null ? findConstructor(type, fields) : null;
+        checkArgument(noArgs != null || allArgs != null,
+                "class %s must have a constructor without arguments or with all mapped fields", type.getName());
+
+        this.constructor = noArgs != null ? Accessors.constructor(noArgs) : null;
+        this.allArgsConstructor = allArgs != null ? Accessors.allArgsConstructor(allArgs) : null;
+
+        this.properties = new Property[fields.size()];
+        this.propertiesIdx = new HashMap<>();
+        this.defaultArgs = new Object[fields.size()];
+        String[] names = new String[fields.size()];
+        Type[] types = new Type[fields.size()];
+        for (int idx = 0; idx < properties.length; idx++) {
+            Property property = new Property(fields.get(idx), noArgs != null);
+            properties[idx] = property;
+            propertiesIdx.put(property.name, idx);
+            defaultArgs[idx] = property.emptyValue();
+            names[idx] = property.name;
+            types[idx] = property.valueType;
+        }
+
+        this.structType = StructType.ofCopy(names, types);
+        this.structMembers = new int[properties.length];
+        for (int idx = 0; idx < properties.length; idx++) {
+            structMembers[structType.getMemberIndex(properties[idx].name)] = idx;
+        }
+    }
+
+    /**
+     * Returns mapper of the class. Mappers are cached, so analysis of the class is performed only once.
+     *
+     * @param type class of objects
+     * @param <T> type of objects
+     * @return mapper of the class
+     * @throws IllegalArgumentException if the class cannot be mapped
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ObjectMapper<T> of(Class<T> type) {
+        return (ObjectMapper<T>) MAPPERS.get(type);
+    }
+
+    public Class<T> getObjectClass() {
+        return type;
+    }
+
+    /**
+     * @return struct type which is used by {@link #toStruct(Object)}
+     */
+    public StructType getStructType() {
+        return structType;
+    }
+
+    /**
+     * Binds the mapper to the result set. Columns of the result set are resolved by names only once, columns
+     * without mapped fields are ignored, fields without columns keep default values.
+     *
+     * @param resultSet result set to read
+     * @return reader of objects from rows of the result set
+     * @throws IllegalArgumentException if a column has type which cannot be mapped to the field
+     */
+    public ObjectReader<T> bind(ResultSetReader resultSet) {
+        Binding binding = new Binding(resultSet.getColumnCount(), resultSet::getColumnName,
+                resultSet::getColumnType);
+        return new BoundReader(resultSet, binding);
+    }
+
+    /**
+     * Maps all remaining rows of the result set
+     *
+     * @param resultSet result set to read
+     * @return list of objects
+     */
+    public List<T> readAll(ResultSetReader resultSet) {
+        return bind(resultSet).readAll();
+    }
+
+    /**
+     * Maps the struct value to a new object
+     *
+     * @param value struct value
+     * @return object with values of struct members
+     */
+    public T fromStruct(StructValue value) {
+        Binding binding = structBinding(value.getType());
+        return binding.read(ProtoValueReaders.forValue(value)::getStructMember);
+    }
+
+    /**
+     * Maps the current value of the struct reader to a new object
+     *
+     * @param struct reader of struct value
+     * @return object with values of struct members
+     */
+    public T fromStruct(ValueReader struct) {
+        Type readerType = struct.getType();
+        checkArgument(readerType instanceof StructType, "expected struct value, but was %s", readerType);
+        StructType readerStruct = (StructType) readerType;
+        // members of struct type are sorted by names, but members of the reader keep order of the server
+        return structBinding(readerStruct).read(idx -> struct.getStructMember(readerStruct.getMemberName(idx)));
+    }
+
+    /**
+     * Converts the object to the struct value of type {@link #getStructType()}, which can be used as a parameter
+     * of query or as a row of bulk upsert
+     *
+     * @param object object to convert
+     * @return struct value
+     */
+    public StructValue toStruct(T object) {
+        Value<?>[] members = new Value<?>[structMembers.length];
+        for (int idx = 0; idx < structMembers.length; idx++) {
+            members[idx] = properties[structMembers[idx]].write(object);
+        }
+        return structType.newValueUnsafe(members);
+    }
+
+    /**
+     * Converts objects to the list of struct values, which can be used as a parameter of query or as rows of bulk
+     * upsert
+     *
+     * @param objects objects to convert
+     * @return list value
+     */
+    public ListValue toList(Collection<? extends T> objects) {
+        List<Value<?>> items = new ArrayList<>(objects.size());
+        for (T object : objects) {
+            items.add(toStruct(object));
+        }
+        return ListType.of(structType).newValue(items);
+    }
+
+    private Binding structBinding(StructType struct) {
+        Binding binding = structBindings.get(struct);
+        if (binding == null) {
+            binding = new Binding(struct.getMembersCount(), struct::getMemberName, struct::getMemberType);
+            if (structBindings.size() < MAX_STRUCT_BINDINGS) {
+                structBindings.putIfAbsent(struct, binding);
+            }
+        }
+        return binding;
+    }
+
+    private static List<Field> mappedFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> clazz = type; clazz != null && clazz != Object.class; clazz = clazz.getSuperclass()) {
+            List<Field> declared = new ArrayList<>();
+            for (Field field : clazz.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                    declared.add(field);
+                }
+            }
+            // fields of superclasses go first
+            fields.addAll(0, declared);
+        }
+        return fields;
+    }
+
+    @Nullable
+    private static Constructor<?> findConstructor(Class<?> type, List<Field> fields) {
+        for (Constructor<?> ctor : type.getDeclaredConstructors()) {
+            Class<?>[] params = ctor.getParameterTypes();
+            if (params.length != fields.size()) {
+                continue;
+            }
+            boolean matches = true;
+            for (int idx = 0; idx < params.length && matches; idx++) {
+                matches = params[idx] == fields.get(idx).getType();
+            }
+            if (matches) {
+                return ctor;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static Method findMethod(Class<?> owner, String name, Class<?> returnType, Class<?>... params) {
+        try {
+            Method method = owner.getMethod(name, params);
+            return method.getReturnType() == returnType && !Modifier.isStatic(method.getModifiers()) ? method : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    /**
+     * Mapped field of the class with bound accessors
+     */
+    private static final class Property {
+        private final String name;
+        private final Field field;
+        private final Class<?> javaClass;
+        private final boolean isOptional;
+        private final PropertyType propertyType;
+        private final Type itemType;
+        private final Type valueType;
+
+        private final Function<Object, Object> getter;
+        private final ToIntFunction<Object> intGetter;
+        private final ToLongFunction<Object> longGetter;
+        private final ToDoubleFunction<Object> doubleGetter;
+
+        private final BiConsumer<Object, Object> setter;
+        private final ObjIntConsumer<Object> intSetter;
+        private final ObjLongConsumer<Object> longSetter;
+        private final ObjDoubleConsumer<Object> doubleSetter;
+
+        Property(Field field, boolean withSetters) {
+            Column column = field.getAnnotation(Column.class);
+            this.name = column != null && !column.name().isEmpty() ? column.name() : field.getName();
+            this.field = field;
+            this.javaClass = field.getType();
+            this.isOptional = javaClass == Optional.class;
+
+            Class<?> itemClass = isOptional ? optionalItemClass(field) : javaClass;
+            this.propertyType = PropertyType.of(itemClass);
+            this.itemType = propertyType.getType(column);
+            this.valueType = javaClass.isPrimitive() ? itemType : itemType.makeOptional();
+
+            Member getterMember = findGetter(field);
+            this.intGetter = javaClass == int.class ? Accessors.intGetter(getterMember) : null;
+            this.longGetter = javaClass == long.class ? Accessors.longGetter(getterMember) : null;
+            this.doubleGetter = javaClass == double.class ? Accessors.doubleGetter(getterMember) : null;
+            this.getter = intGetter == null && longGetter == null && doubleGetter == null
+                    ? Accessors.getter(getterMember) : null;
+
+            Member setterMember = withSetters ? findSetter(field) : null;
+            this.intSetter = setterMember != null && javaClass == int.class
+                    ? Accessors.intSetter(setterMember) : null;
+            this.longSetter = setterMember != null && javaClass == long.class
+                    ? Accessors.longSetter(setterMember) : null;
+            this.doubleSetter = setterMember != null && javaClass == double.class
+                    ? Accessors.doubleSetter(setterMember) : null;
+            this.setter = setterMember != null && intSetter == null && longSetter == null && doubleSetter == null
+                    ? Accessors.setter(setterMember) : null;
+        }
+
+        private static Class<?> optionalItemClass(Field field) {
+            java.lang.reflect.Type generic = field.getGenericType();
+            if (generic instanceof ParameterizedType) {
+                java.lang.reflect.Type arg = ((ParameterizedType) generic).getActualTypeArguments()[0];
+                if (arg instanceof Class) {
+                    return (Class<?>) arg;
+                }
+            }
+            throw new IllegalArgumentException("cannot resolve type of optional field " + field);
+        }
+
+        private static Member findGetter(Field field) {
+            Class<?> owner = field.getDeclaringClass();
+            String suffix = capitalize(field.getName());
+            Method method = findMethod(owner, "get" + suffix, field.getType());
+            if (method == null && field.getType() == boolean.class) {
+                method = findMethod(owner, "is" + suffix, field.getType());
+            }
+            if (method == null) {
+                // accessor of record
+                method = findMethod(owner, field.getName(), field.getType());
+            }
+            return method != null ? method : field;
+        }
+
+        private static Member findSetter(Field field) {
+            Method method = findMethod(field.getDeclaringClass(), "set" + capitalize(field.getName()), void.class,
+                    field.getType());
+            if (method != null) {
+                return method;
+            }
+            checkArgument(!Modifier.isFinal(field.getModifiers()), "final field %s has no setter", field);
+            return field;
+        }
+
+        Object emptyValue() {
+            return isOptional ? Optional.empty() : Defaults.defaultValue(javaClass);
+        }
+
+        private Function<ValueReader, Object> valueReader(Type itemColumnType, Type columnType) {
+            Function<ValueReader, Object> reader = checkReader(propertyType.reader(itemColumnType), columnType);
+            if (isOptional) {
+                return column -> Optional.of(reader.apply(column));
+            }
+            return reader;
+        }
+
+        private <R> R checkReader(@Nullable R reader, Type columnType) {
+            if (reader == null) {
+                throw new IllegalArgumentException("cannot map column " + name + " with type " + columnType
+                        + " to field " + field);
+            }
+            return reader;
+        }
+
+        /**
+         * Returns function which reads value of the column and writes it to the field
+         */
+        BiConsumer<Object, ValueReader> bindSetter(Type columnType) {
+            boolean nullable = columnType.getKind() == Type.Kind.OPTIONAL;
+            Type itemColumnType = nullable ? columnType.unwrapOptional() : columnType;
+
+            if (intSetter != null) {
+                ToIntFunction<ValueReader> reader = checkReader(
+                        PropertyType.intReader(itemColumnType), columnType);
+                if (nullable) {
+                    return (target, column) -> {
+                        if (column.isOptionalItemPresent()) {
+                            intSetter.accept(target, reader.applyAsInt(column.getOptionalItem()));
+                        }
+                    };
+                }
+                return (target, column) -> intSetter.accept(target, reader.applyAsInt(column));
+            }
+
+            if (longSetter != null) {
+                ToLongFunction<ValueReader> reader = checkReader(
+                        PropertyType.longReader(itemColumnType), columnType);
+                if (nullable) {
+                    return (target, column) -> {
+                        if (column.isOptionalItemPresent()) {
+                            longSetter.accept(target, reader.applyAsLong(column.getOptionalItem()));
+                        }
+                    };
+                }
+                return (target, column) -> longSetter.accept(target, reader.applyAsLong(column));
+            }
+
+            if (doubleSetter != null) {
+                ToDoubleFunction<ValueReader> reader = checkReader(
+                        PropertyType.doubleReader(itemColumnType), columnType);
+                if (nullable) {
+                    return (target, column) -> {
+                        if (column.isOptionalItemPresent()) {
+                            doubleSetter.accept(target, reader.applyAsDouble(column.getOptionalItem()));
+                        }
+                    };
+                }
+                return (target, column) -> doubleSetter.accept(target, reader.applyAsDouble(column));
+            }
+
+            Function<ValueReader, Object> reader = valueReader(itemColumnType, columnType);
+            if (!nullable) {
+                return (target, column) -> setter.accept(target, reader.apply(column));
+            }
+            if (javaClass.isPrimitive()) {
+                // null values don't change primitive fields
+                return (target, column) -> {
+                    if (column.isOptionalItemPresent()) {
+                        setter.accept(target, reader.apply(column.getOptionalItem()));
+                    }
+                };
+            }
+            Object empty = emptyValue();
+            return (target, column) -> setter.accept(target,
+                    column.isOptionalItemPresent() ? reader.apply(column.getOptionalItem()) : empty);
+        }
+
+        /**
+         * Returns function which reads value of the column as an argument of constructor
+         */
+        Function<ValueReader, Object> bindValue(Type columnType) {
+            boolean nullable = columnType.getKind() == Type.Kind.OPTIONAL;
+            Type itemColumnType = nullable ? columnType.unwrapOptional() : columnType;
+
+            Function<ValueReader, Object> reader = valueReader(itemColumnType, columnType);
+            if (!nullable) {
+                return reader;
+            }
+            Object empty = emptyValue();
+            return column -> column.isOptionalItemPresent() ? reader.apply(column.getOptionalItem()) : empty;
+        }
+
+        Value<?> write(Object target) {
+            if (intGetter != null) {
+                return PrimitiveValue.newInt32(intGetter.applyAsInt(target));
+            }
+            if (longGetter != null) {
+                return PrimitiveValue.newInt64(longGetter.applyAsLong(target));
+            }
+            if (doubleGetter != null) {
+                return PrimitiveValue.newDouble(doubleGetter.applyAsDouble(target));
+            }
+
+            Object value = getter.apply(target);
+            if (isOptional && value != null) {
+                value = ((Optional<?>) value).orElse(null);
+            }
+            if (valueType == itemType) {
+                return propertyType.toValue(itemType, value);
+            }
+
+            OptionalType optionalType = (OptionalType) valueType;
+            if (value == null) {
+                return optionalType.emptyValue();
+            }
+            return optionalType.newValue(propertyType.toValue(itemType, value));
+        }
+    }
+
+    /**
+     * Properties resolved for columns of a result set or members of a struct
+     */
+    private final class Binding {
+        private final int[] columns;
+        private final int[] targets;
+        private final List<BiConsumer<Object, ValueReader>> setters = new ArrayList<>();
+        private final List<Function<ValueReader, Object>> values = new ArrayList<>();
+
+        Binding(int count, IntFunction<String> names, IntFunction<Type> types) {
+            int[] boundColumns = new int[count];
+            int[] boundTargets = new int[count];
+            int size = 0;
+            for (int idx = 0; idx < count; idx++) {
+                Integer target = propertiesIdx.get(names.apply(idx));
+                if (target == null) {
+                    continue;
+                }
+                Property property = properties[target];
+                if (constructor != null) {
+                    setters.add(property.bindSetter(types.apply(idx)));
+                } else {
+                    values.add(property.bindValue(types.apply(idx)));
+                }
+                boundColumns[size] = idx;
+                boundTargets[size] = target;
+                size++;
+            }
+            this.columns = Arrays.copyOf(boundColumns, size);
+            this.targets = Arrays.copyOf(boundTargets, size);
+        }
+
+        T read(IntFunction<ValueReader> source) {
+            if (constructor != null) {
+                Object target = constructor.get();
+                for (int idx = 0; idx < columns.length; idx++) {
+                    setters.get(idx).accept(target, source.apply(columns[idx]));
+                }
+                return type.cast(target);
+            }
+
+            Object[] args = defaultArgs.clone();
+            for (int idx = 0; idx < columns.length; idx++) {
+                args[targets[idx]] = values.get(idx).apply(source.apply(columns[idx]));
+            }
+            return type.cast(allArgsConstructor.apply(args));
+        }
+    }
+
+    private final class BoundReader implements ObjectReader<T> {
+        private final ResultSetReader resultSet;
+        private final IntFunction<ValueReader> columnsSource;
+        private final Binding binding;
+
+        BoundReader(ResultSetReader resultSet, Binding binding) {
+            this.resultSet = resultSet;
+            this.columnsSource = resultSet::getColumn;
+            this.binding = binding;
+        }
+
+        @Override
+        public T read() {
+            return binding.read(columnsSource);
+        }
+
+        @Override
+        public List<T> readAll() {
+            List<T> objects = new ArrayList<>(Math.max(0, resultSet.getRowCount()));
+            while (resultSet.next()) {
+                objects.add(binding.read(columnsSource));
+            }
+            return objects;
+        }
+
+        @Override
+        public ResultSetReader getResultSet() {
+            return resultSet;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package tech.ydb.table.mapping;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import tech.ydb.table.result.ResultSetReader;
+
+/**
+ * Reader of objects from rows of the result set. Columns of the result set are resolved once when the reader is
+ * created by {@link ObjectMapper#bind(ResultSetReader)}.
+ *
+ * @param <T> type of objects
+ */
+public interface ObjectReader<T> {
+
+    /**
+     * Maps the current row of the result set to a new object
+     *
+     * @return object with values of the current row
+     */
+    T read();
+
+    /**
+     * Moves the result set to the next row and maps it to a new object
+     *
+     * @return object with values of the next row or null if there are no more rows
+     */
+    @Nullable
+    default T readNext() {
+        return getResultSet().next() ? read() : null;
+    }
+
+    /**
+     * Maps all remaining rows of the result set
+     *
+     * @return list of objects
+     */
+    List<T> readAll();
+
+    ResultSetReader getResultSet();
+}
@@ -0,0 +1,252 @@
+package tech.ydb.table.mapping;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import javax.annotation.Nullable;
+
+import tech.ydb.table.result.ValueReader;
+import tech.ydb.table.values.DecimalType;
+import tech.ydb.table.values.DecimalValue;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.Type;
+import tech.ydb.table.values.Value;
+
+
+/**
+ * Java types of mapped properties with conversions from and to YDB values
+ */
+enum PropertyType {
+    BOOL(PrimitiveType.Bool),
+    INT8(PrimitiveType.Int8),
+    INT16(PrimitiveType.Int16),
+    INT32(PrimitiveType.Int32),
+    INT64(PrimitiveType.Int64),
+    FLOAT(PrimitiveType.Float),
+    DOUBLE(PrimitiveType.Double),
+    TEXT(PrimitiveType.Text),
+    BYTES(PrimitiveType.Bytes),
+    UUID(PrimitiveType.Uuid),
+    DATE(PrimitiveType.Date),
+    DATETIME(PrimitiveType.Datetime),
+    TIMESTAMP(PrimitiveType.Timestamp),
+    INTERVAL(PrimitiveType.Interval),
+    BIG_DECIMAL(null),
+    DECIMAL(null);
+
+    @Nullable
+    private final PrimitiveType primitiveType;
+
+    PropertyType(@Nullable PrimitiveType primitiveType) {
+        this.primitiveType = primitiveType;
+    }
+
+    static PropertyType of(Class<?> clazz) {
+        if (clazz == boolean.class || clazz == Boolean.class) {
+            return BOOL;
+        }
+        if (clazz == byte.class || clazz == Byte.class) {
+            return INT8;
+        }
+        if (clazz == short.class || clazz == Short.class) {
+            return INT16;
+        }
+        if (clazz == int.class || clazz == Integer.class) {
+            return INT32;
+        }
+        if (clazz == long.class || clazz == Long.class) {
+            return INT64;
+        }
+        if (clazz == float.class || clazz == Float.class) {
+            return FLOAT;
+        }
+        if (clazz == double.class || clazz == Double.class) {
+            return DOUBLE;
+        }
+        if (clazz == String.class) {
+            return TEXT;
+        }
+        if (clazz == byte[].class) {
+            return BYTES;
+        }
+        if (clazz == java.util.UUID.class) {
+            return UUID;
+        }
+        if (clazz == LocalDate.class) {
+            return DATE;
+        }
+        if (clazz == LocalDateTime.class) {
+            return DATETIME;
+        }
+        if (clazz == Instant.class) {
+            return TIMESTAMP;
+        }
+        if (clazz == Duration.class) {
+            return INTERVAL;
+        }
+        if (clazz == BigDecimal.class) {
+            return BIG_DECIMAL;
+        }
+        if (clazz == DecimalValue.class) {
+            return DECIMAL;
+        }
+        throw new IllegalArgumentException("unsupported type of property: " + clazz.getName());
+    }
+
+    Type getType(Column column) {
+        if (primitiveType != null) {
+            return primitiveType;
+        }
+        return column != null ? DecimalType.of(column.precision(), column.scale()) : DecimalType.getDefault();
+    }
+
+    /**
+     * Returns reader of int values from column of given type
+     *
+     * @param type type of column without optional
+     * @return reader or null if values of the type cannot be read as int
+     */
+    @Nullable
+    static ToIntFunction<ValueReader> intReader(Type type) {
+        if (type.getKind() != Type.Kind.PRIMITIVE) {
+            return null;
+        }
+        switch ((PrimitiveType) type) {
+            case Int8: return ValueReader::getInt8;
+            case Int16: return ValueReader::getInt16;
+            case Int32: return ValueReader::getInt32;
+            case Uint8: return ValueReader::getUint8;
+            case Uint16: return ValueReader::getUint16;
+            default: return null;
+        }
+    }
+
+    @Nullable
+    static ToLongFunction<ValueReader> longReader(Type type) {
+        if (type.getKind() != Type.Kind.PRIMITIVE) {
+            return null;
+        }
+        switch ((PrimitiveType) type) {
+            case Int64: return ValueReader::getInt64;
+            case Uint64: return ValueReader::getUint64;
+            case Uint32: return ValueReader::getUint32;
+            default:
+                ToIntFunction<ValueReader> reader = intReader(type);
+                return reader != null ? reader::applyAsInt : null;
+        }
+    }
+
+    @Nullable
+    static ToDoubleFunction<ValueReader> doubleReader(Type type) {
+        if (type == PrimitiveType.Double) {
+            return ValueReader::getDouble;
+        }
+        if (type == PrimitiveType.Float) {
+            return ValueReader::getFloat;
+        }
+        return null;
+    }
+
+    /**
+     * Returns reader of boxed values of this property type from column of given type
+     *
+     * @param type type of column without optional
+     * @return reader or null if the column cannot be mapped to the property
+     */
+    @Nullable
+    Function<ValueReader, Object> reader(Type type) {
+        switch (this) {
+            case INT32: {
+                ToIntFunction<ValueReader> reader = intReader(type);
+                return reader != null ? reader::applyAsInt : null;
+            }
+            case INT64: {
+                ToLongFunction<ValueReader> reader = longReader(type);
+                return reader != null ? reader::applyAsLong : null;
+            }
+            case DOUBLE: {
+                ToDoubleFunction<ValueReader> reader = doubleReader(type);
+                return reader != null ? reader::applyAsDouble : null;
+            }
+            case TEXT:
+                if (type == PrimitiveType.Json) {
+                    return ValueReader::getJson;
+                }
+                if (type == PrimitiveType.JsonDocument) {
+                    return ValueReader::getJsonDocument;
+                }
+                return type == PrimitiveType.Text ? ValueReader::getText : null;
+            case BYTES:
+                if (type == PrimitiveType.Yson) {
+                    return ValueReader::getYson;
+                }
+                return type == PrimitiveType.Bytes ? ValueReader::getBytes : null;
+            case BIG_DECIMAL:
+                return type.getKind() == Type.Kind.DECIMAL ? r -> r.getDecimal().toBigDecimal() : null;
+            case DECIMAL:
+                return type.getKind() == Type.Kind.DECIMAL ? ValueReader::getDecimal : null;
+            default:
+                break;
+        }
+
+        if (type != primitiveType) {
+            return null;
+        }
+        switch (this) {
+            case BOOL: return ValueReader::getBool;
+            case INT8: return ValueReader::getInt8;
+            case INT16: return ValueReader::getInt16;
+            case FLOAT: return ValueReader::getFloat;
+            case UUID: return ValueReader::getUuid;
+            case DATE: return ValueReader::getDate;
+            case DATETIME: return ValueReader::getDatetime;
+            case TIMESTAMP: return ValueReader::getTimestamp;
+            case INTERVAL: return ValueReader::getInterval;
+            default: return null;
+        }
+    }
+
+    /**
+     * Converts non null value of this property type to YDB value
+     *
+     * @param type YDB type of property without optional
+     * @param value value of property
+     * @return YDB value
+     */
+    Value<?> toValue(Type type, Object value) {
+        switch (this) {
+            case BOOL: return PrimitiveValue.newBool((Boolean) value);
+            case INT8: return PrimitiveValue.newInt8((Byte) value);
+            case INT16: return PrimitiveValue.newInt16((Short) value);
+            case INT32: return PrimitiveValue.newInt32((Integer) value);
+            case INT64: return PrimitiveValue.newInt64((Long) value);
+            case FLOAT: return PrimitiveValue.newFloat((Float) value);
+            case DOUBLE: return PrimitiveValue.newDouble((Double) value);
+            case TEXT: return PrimitiveValue.newText((String) value);
+            case BYTES: return PrimitiveValue.newBytes((byte[]) value);
+            case UUID: return PrimitiveValue.newUuid((java.util.UUID) value);
+            case DATE: return PrimitiveValue.newDate((LocalDate) value);
+            case DATETIME: return PrimitiveValue.newDatetime((LocalDateTime) value);
+            case TIMESTAMP: return PrimitiveValue.newTimestamp((Instant) value);
+            case INTERVAL: return PrimitiveValue.newInterval((Duration) value);
+            case BIG_DECIMAL: return ((DecimalType) type).newValue((BigDecimal) value);
+            case DECIMAL: {
+                DecimalValue decimal = (DecimalValue) value;
+                if (decimal.getType().equals(type)) {
+                    return decimal;
+                }
+                return ((DecimalType) type).newValue(decimal.toBigDecimal());
+            }
+            default:
+                throw new IllegalStateException("unsupported property type " + this);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package tech.ydb.table.query;
+
+import java.util.Objects;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Payload of bulk upsert request in Apache Arrow format. Both schema and record batch must be serialized in
+ * Arrow IPC format, they are sent as is without any conversion.
+ */
+public class BulkUpsertArrowData extends BulkUpsertData {
+    private final ByteString schema;
+    private final ByteString batch;
+
+    public BulkUpsertArrowData(ByteString schema, ByteString batch) {
+        this.schema = Objects.requireNonNull(schema, "schema");
+        this.batch = Objects.requireNonNull(batch, "batch");
+    }
+
+    public ByteString getSchema() {
+        return schema;
+    }
+
+    public ByteString getBatch() {
+        return batch;
+    }
+}
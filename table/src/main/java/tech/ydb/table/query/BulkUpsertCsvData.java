@@ -0,0 +1,102 @@
+package tech.ydb.table.query;
+
+import java.util.Objects;
+
+import com.google.common.base.Preconditions;
+import com.google.protobuf.ByteString;
+
+/**
+ * Payload of bulk upsert request in CSV format. Data is sent as is and parsed by the server.
+ */
+public class BulkUpsertCsvData extends BulkUpsertData {
+    private final ByteString data;
+    private final int skipRows;
+    private final boolean header;
+    private final String delimiter;
+    private final String nullValue;
+
+    private BulkUpsertCsvData(Builder builder) {
+        this.data = builder.data;
+        this.skipRows = builder.skipRows;
+        this.header = builder.header;
+        this.delimiter = builder.delimiter;
+        this.nullValue = builder.nullValue;
+    }
+
+    public ByteString getData() {
+        return data;
+    }
+
+    public int getSkipRows() {
+        return skipRows;
+    }
+
+    public boolean hasHeader() {
+        return header;
+    }
+
+    public String getDelimiter() {
+        return delimiter;
+    }
+
+    public String getNullValue() {
+        return nullValue;
+    }
+
+    public static Builder newBuilder(ByteString data) {
+        return new Builder(data);
+    }
+
+    public static class Builder {
+        private final ByteString data;
+        private int skipRows = 0;
+        private boolean header = false;
+        private String delimiter = null;
+        private String nullValue = null;
+
+        private Builder(ByteString data) {
+            this.data = Objects.requireNonNull(data, "data");
+        }
+
+        /**
+         * @param value count of rows to skip before the data or the header
+         * @return this builder
+         */
+        public Builder withSkipRows(int value) {
+            Preconditions.checkArgument(value >= 0, "skipRows(%s) is negative", value);
+            this.skipRows = value;
+            return this;
+        }
+
+        /**
+         * @param value whether the first row after skipped ones contains names of columns
+         * @return this builder
+         */
+        public Builder withHeader(boolean value) {
+            this.header = value;
+            return this;
+        }
+
+        /**
+         * @param value delimiter of fields, comma is used by default
+         * @return this builder
+         */
+        public Builder withDelimiter(String value) {
+            this.delimiter = value;
+            return this;
+        }
+
+        /**
+         * @param value representation of null values, empty by default
+         * @return this builder
+         */
+        public Builder withNullValue(String value) {
+            this.nullValue = value;
+            return this;
+        }
+
+        public BulkUpsertCsvData build() {
+            return new BulkUpsertCsvData(this);
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package tech.ydb.table.query;
+
+/**
+ * Payload of bulk upsert request. Payloads are created by {@link BulkUpsertRowsData}, {@link BulkUpsertArrowData}
+ * and {@link BulkUpsertCsvData}, the set of formats is closed.
+ */
+public abstract class BulkUpsertData {
+    BulkUpsertData() {
+    }
+}
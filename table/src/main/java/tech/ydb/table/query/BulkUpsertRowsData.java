@@ -0,0 +1,55 @@
+package tech.ydb.table.query;
+
+import java.util.Objects;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+/**
+ * Payload of bulk upsert request as a list of structs
+ */
+public class BulkUpsertRowsData extends BulkUpsertData {
+    private final ValueProtos.TypedValue rows;
+    private volatile ListValue list;
+
+    public BulkUpsertRowsData(ListValue rows) {
+        this.rows = ValueProtos.TypedValue.newBuilder()
+                .setType(rows.getType().toPb())
+                .setValue(rows.toPb())
+                .build();
+        this.list = rows;
+    }
+
+    /**
+     * Creates payload from already built protobuf list of structs
+     *
+     * @param rows typed list of rows
+     */
+    public BulkUpsertRowsData(ValueProtos.TypedValue rows) {
+        this.rows = Objects.requireNonNull(rows, "rows");
+        this.list = null;
+    }
+
+    /**
+     * @return typed protobuf list of rows
+     */
+    public ValueProtos.TypedValue getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns rows as a list value, payloads created from protobuf are decoded on the first call
+     *
+     * @return list of rows
+     */
+    public ListValue toListValue() {
+        ListValue value = list;
+        if (value == null) {
+            value = (ListValue) ProtoValue.fromPb(ProtoType.fromPb(rows.getType()), rows.getValue());
+            list = value;
+        }
+        return value;
+    }
+}
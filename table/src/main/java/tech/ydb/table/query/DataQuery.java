@@ -19,6 +19,14 @@ public interface DataQuery {
 
     Params newParams();
 
+    /**
+     * Creates new binder of parameters of this query. Binder keeps fixed slots with prebuilt types of
+     * parameters and can be reused for many executions
+     *
+     * @return new binder of parameters
+     */
+    DataQueryBinder newBinder();
+
     /**
      * Returns parameter types
      *
@@ -0,0 +1,92 @@
+package tech.ydb.table.query;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.google.protobuf.ByteString;
+
+import tech.ydb.core.Result;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.Value;
+
+
+/**
+ * Reusable parameters binder of the prepared {@link DataQuery}. Binder has a fixed slot for each parameter of
+ * the query, slot types are resolved once at the binder creation. Primitive setters write protobuf values
+ * directly into the slots without creation of intermediate {@link Value} objects, so the binder is suitable
+ * for hot paths executing the same query many times.
+ * <p>
+ * Binder is not thread safe, use separate binders for concurrent executions. Binder may be reused after
+ * the previous execution is started, values of the previous execution are kept until {@link #clear()}.
+ * <p>
+ * Setters of primitive values also accept optional types of the same primitive type.
+ */
+public interface DataQueryBinder extends Params {
+
+    /**
+     * Returns the index of the slot of the named parameter
+     *
+     * @param name name of parameter
+     * @return index of the slot
+     * @throws IllegalArgumentException if the query has no such parameter
+     */
+    int indexOf(String name);
+
+    /**
+     * Returns count of slots, equals to count of parameters of the query
+     *
+     * @return count of slots
+     */
+    int size();
+
+    /** Sets value of parameter with Bool type */
+    DataQueryBinder setBool(int index, boolean value);
+
+    /** Sets value of parameter with Int8, Int16 or Int32 type */
+    DataQueryBinder setInt32(int index, int value);
+
+    /** Sets value of parameter with Uint8, Uint16, Uint32, Date or Datetime type */
+    DataQueryBinder setUint32(int index, long value);
+
+    /** Sets value of parameter with Int64 or Interval (in microseconds) type */
+    DataQueryBinder setInt64(int index, long value);
+
+    /** Sets value of parameter with Uint64 or Timestamp (in microseconds) type */
+    DataQueryBinder setUint64(int index, long value);
+
+    /** Sets value of parameter with Float type */
+    DataQueryBinder setFloat(int index, float value);
+
+    /** Sets value of parameter with Double type */
+    DataQueryBinder setDouble(int index, double value);
+
+    /** Sets value of parameter with Text, Json or JsonDocument type */
+    DataQueryBinder setText(int index, String value);
+
+    /** Sets value of parameter with Bytes or Yson type */
+    DataQueryBinder setBytes(int index, ByteString value);
+
+    /** Sets value of parameter with Bytes or Yson type, passed array is copied */
+    default DataQueryBinder setBytes(int index, byte[] value) {
+        return setBytes(index, ByteString.copyFrom(value));
+    }
+
+    /** Sets empty value of parameter with Optional type */
+    DataQueryBinder setNull(int index);
+
+    /** Sets value of parameter with any type */
+    DataQueryBinder setValue(int index, Value<?> value);
+
+    /**
+     * Resets all slots to unset state
+     *
+     * @return this binder
+     */
+    DataQueryBinder clear();
+
+    CompletableFuture<Result<DataQueryResult>> execute(TxControl<?> txControl, ExecuteDataQuerySettings settings);
+
+    default CompletableFuture<Result<DataQueryResult>> execute(TxControl<?> txControl) {
+        return execute(txControl, new ExecuteDataQuerySettings());
+    }
+}
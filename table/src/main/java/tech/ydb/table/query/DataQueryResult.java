@@ -43,6 +43,17 @@ public class DataQueryResult {
         return resultSets.get(index).getRowsCount();
     }
 
+    /**
+     * @return total size of result sets in protobuf encoding in bytes
+     */
+    public long getSerializedSize() {
+        long size = 0;
+        for (ValueProtos.ResultSet resultSet : resultSets) {
+            size += resultSet.getSerializedSize();
+        }
+        return size;
+    }
+
     public boolean isEmpty() {
         return txId.isEmpty() && resultSets.isEmpty();
     }
@@ -0,0 +1,82 @@
+package tech.ydb.table.query.stats;
+
+import java.util.Arrays;
+
+
+/**
+ * Histogram of latencies in microseconds with relative error of bucket bounds not greater than 12.5%. Every power
+ * of two is divided into eight linear buckets, latencies greater than 2^40 microseconds are put into the last one.
+ * Not thread safe.
+ */
+final class LatencyHistogram {
+    private static final int SUB_BUCKETS_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKETS_BITS + 2) * SUB_BUCKETS;
+
+    private final long[] counts;
+    private long total;
+
+    LatencyHistogram() {
+        this(new long[BUCKETS], 0);
+    }
+
+    private LatencyHistogram(long[] counts, long total) {
+        this.counts = counts;
+        this.total = total;
+    }
+
+    void add(long valueUs) {
+        counts[bucketOf(valueUs)]++;
+        total++;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100
+     * @return upper bound of the bucket with the given percentile or zero if the histogram is empty
+     */
+    long getPercentile(double percentile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return upperBoundOf(i);
+            }
+        }
+        return upperBoundOf(counts.length - 1);
+    }
+
+    LatencyHistogram copy() {
+        return new LatencyHistogram(Arrays.copyOf(counts, counts.length), total);
+    }
+
+    static int bucketOf(long valueUs) {
+        if (valueUs < SUB_BUCKETS) {
+            return (int) Math.max(0, valueUs);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(valueUs);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int shift = exponent - SUB_BUCKETS_BITS;
+        int subBucket = (int) (valueUs >>> shift) & (SUB_BUCKETS - 1);
+        return (shift + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
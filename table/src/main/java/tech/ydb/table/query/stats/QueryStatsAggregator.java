@@ -0,0 +1,327 @@
+package tech.ydb.table.query.stats;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Client side aggregator of statistics of data queries.
+ *
+ * <p>Executions are grouped by normalized text of the query, see {@link #normalize(String)}. Every execution
+ * updates count of calls and latency histogram of its query, server statistics are requested only for the sampled
+ * share of executions and are aggregated over sampled executions only. Count of tracked queries is bounded,
+ * executions of queries over the limit are counted as dropped. Original texts of queries are mapped to their entries,
+ * so repeated executions of the same text aren't normalized again.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class QueryStatsAggregator {
+
+    private static final double DEFAULT_SAMPLE_RATE = 0.01;
+    private static final int DEFAULT_MAX_QUERIES = 1000;
+    /** Max count of original texts of queries mapped to entries per tracked query */
+    private static final int TEXTS_PER_QUERY = 4;
+
+    private final double sampleRate;
+    private final int maxQueries;
+
+    private final ConcurrentHashMap<String, QueryEntry> queries = new ConcurrentHashMap<>();
+    /** Original text of query to the entry of its normalized text */
+    private final ConcurrentHashMap<String, QueryEntry> texts = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    private QueryStatsAggregator(Builder builder) {
+        this.sampleRate = builder.sampleRate;
+        this.maxQueries = builder.maxQueries;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * @return true if server statistics should be collected for the next execution
+     */
+    public boolean sample() {
+        return sampleRate >= 1.0 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    /**
+     * Records one execution of the query.
+     *
+     * @param query text of the query
+     * @param durationNanos client side duration of the execution
+     * @param success true if the query was executed successfully
+     * @param stats server statistics of the execution if they were collected
+     */
+    public void record(String query, long durationNanos, boolean success, @Nullable QueryStats stats) {
+        QueryEntry entry = texts.get(query);
+        if (entry == null) {
+            entry = findEntry(normalize(query));
+            if (entry == null) {
+                dropped.increment();
+                return;
+            }
+            if (texts.size() < maxQueries * TEXTS_PER_QUERY) {
+                texts.put(query, entry);
+            }
+        }
+        entry.record(durationNanos, success, stats);
+    }
+
+    @Nullable
+    private QueryEntry findEntry(String normalized) {
+        QueryEntry entry = queries.get(normalized);
+        if (entry == null) {
+            if (queries.size() >= maxQueries) {
+                return null;
+            }
+            entry = queries.computeIfAbsent(normalized, QueryEntry::new);
+        }
+        return entry;
+    }
+
+    /**
+     * @return count of executions of queries which weren't tracked because of the limit of queries
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueriesCount() {
+        return queries.size();
+    }
+
+    /**
+     * Returns the top of queries by estimated total cpu time.
+     *
+     * @param limit max count of queries
+     * @return summaries of queries in descending order of estimated total cpu time
+     */
+    public List<QueryStatsSummary> top(int limit) {
+        return top(limit, Comparator.comparingLong(QueryStatsSummary::getEstimatedTotalCpuTimeUs));
+    }
+
+    /**
+     * Returns the top of queries by the given order.
+     *
+     * @param limit max count of queries
+     * @param order order of summaries, the greatest summaries are returned first
+     * @return summaries of queries in descending order
+     */
+    public List<QueryStatsSummary> top(int limit, Comparator<QueryStatsSummary> order) {
+        checkArgument(limit > 0, "limit(%s) is not positive", limit);
+        List<QueryStatsSummary> summaries = new ArrayList<>(queries.size());
+        for (QueryEntry entry : queries.values()) {
+            summaries.add(entry.snapshot());
+        }
+        summaries.sort(order.reversed());
+        return summaries.size() > limit ? new ArrayList<>(summaries.subList(0, limit)) : summaries;
+    }
+
+    public void reset() {
+        texts.clear();
+        queries.clear();
+        dropped.reset();
+    }
+
+    /**
+     * Normalizes text of the query: removes comments, replaces string and numeric literals with {@code ?} and
+     * collapses whitespaces. Names of parameters and quoted identifiers are kept as is.
+     *
+     * @param query text of the query
+     * @return normalized text of the query
+     */
+    public static String normalize(String query) {
+        StringBuilder sb = new StringBuilder(query.length());
+        int len = query.length();
+        int i = 0;
+        while (i < len) {
+            char c = query.charAt(i);
+            if (Character.isWhitespace(c)) {
+                while (i < len && Character.isWhitespace(query.charAt(i))) {
+                    i++;
+                }
+                appendSpace(sb);
+            } else if (c == '-' && i + 1 < len && query.charAt(i + 1) == '-') {
+                while (i < len && query.charAt(i) != '\n') {
+                    i++;
+                }
+                appendSpace(sb);
+            } else if (c == '/' && i + 1 < len && query.charAt(i + 1) == '*') {
+                int end = query.indexOf("*/", i + 2);
+                i = end < 0 ? len : end + 2;
+                appendSpace(sb);
+            } else if (c == '\'' || c == '"') {
+                i = skipQuoted(query, i);
+                sb.append('?');
+                i = skipLiteralSuffix(query, i);
+            } else if (c == '`') {
+                int end = skipQuoted(query, i);
+                sb.append(query, i, end);
+                i = end;
+            } else if (Character.isDigit(c)) {
+                i = skipLiteralSuffix(query, i);
+                sb.append('?');
+            } else if (isIdentifierPart(c)) {
+                int start = i;
+                while (i < len && isIdentifierPart(query.charAt(i))) {
+                    i++;
+                }
+                sb.append(query, start, i);
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+
+        int end = sb.length();
+        while (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+        sb.setLength(end);
+        return sb.toString();
+    }
+
+    private static void appendSpace(StringBuilder sb) {
+        if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+            sb.append(' ');
+        }
+    }
+
+    private static int skipQuoted(String query, int start) {
+        char quote = query.charAt(start);
+        int i = start + 1;
+        while (i < query.length()) {
+            char c = query.charAt(i++);
+            if (c == '\\') {
+                i++;
+            } else if (c == quote) {
+                if (i < query.length() && query.charAt(i) == quote) {
+                    // doubled quote inside of the literal
+                    i++;
+                } else {
+                    return i;
+                }
+            }
+        }
+        return query.length();
+    }
+
+    /** Skips digits and suffixes of numeric and string literals like 10ul, 1.5f or "text"u */
+    private static int skipLiteralSuffix(String query, int start) {
+        int i = start;
+        while (i < query.length() && (isIdentifierPart(query.charAt(i)) || query.charAt(i) == '.')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+
+    /**
+     * Mutable statistics of one query
+     */
+    private static final class QueryEntry {
+        private final String query;
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private long calls = 0;
+        private long errors = 0;
+        private long sampled = 0;
+        private long cpuTimeUs = 0;
+        private long serverDurationUs = 0;
+        private long compilations = 0;
+        private long compilationDurationUs = 0;
+        private long rowsRead = 0;
+        private long bytesRead = 0;
+        private long rowsWritten = 0;
+        private long bytesWritten = 0;
+
+        QueryEntry(String query) {
+            this.query = query;
+        }
+
+        synchronized void record(long durationNanos, boolean success, @Nullable QueryStats stats) {
+            calls++;
+            if (!success) {
+                errors++;
+            }
+            latency.add(Math.max(0, durationNanos / 1000));
+
+            if (stats == null) {
+                return;
+            }
+            sampled++;
+            cpuTimeUs += stats.getTotalCpuTimeUs();
+            serverDurationUs += stats.getTotalDurationUs();
+            CompilationStats compilation = stats.getCompilation();
+            if (compilation != null && !compilation.getFromCache() && compilation.getDurationUs() > 0) {
+                compilations++;
+                compilationDurationUs += compilation.getDurationUs();
+            }
+            for (QueryPhaseStats phase : stats.getQueryPhasesList()) {
+                for (TableAccessStats table : phase.getTableAccessList()) {
+                    rowsRead += table.getReads().getRows();
+                    bytesRead += table.getReads().getBytes();
+                    rowsWritten += table.getUpdates().getRows() + table.getDeletes().getRows();
+                    bytesWritten += table.getUpdates().getBytes() + table.getDeletes().getBytes();
+                }
+            }
+        }
+
+        synchronized QueryStatsSummary snapshot() {
+            return new QueryStatsSummary(query, calls, errors, sampled, latency.copy(), cpuTimeUs, serverDurationUs,
+                    compilations, compilationDurationUs, rowsRead, bytesRead, rowsWritten, bytesWritten);
+        }
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private double sampleRate = DEFAULT_SAMPLE_RATE;
+        private int maxQueries = DEFAULT_MAX_QUERIES;
+
+        private Builder() {
+        }
+
+        /**
+         * Sets share of executions with collection of server statistics.
+         *
+         * @param sampleRate share of sampled executions from 0 to 1
+         * @return this builder
+         */
+        public Builder withSampleRate(double sampleRate) {
+            checkArgument(sampleRate >= 0 && sampleRate <= 1, "sampleRate(%s) is not in [0, 1]", sampleRate);
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        public Builder withMaxQueries(int maxQueries) {
+            checkArgument(maxQueries > 0, "maxQueries(%s) is not positive", maxQueries);
+            this.maxQueries = maxQueries;
+            return this;
+        }
+
+        public QueryStatsAggregator build() {
+            return new QueryStatsAggregator(this);
+        }
+    }
+}
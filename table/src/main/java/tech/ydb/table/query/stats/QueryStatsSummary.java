@@ -0,0 +1,116 @@
+package tech.ydb.table.query.stats;
+
+
+/**
+ * Snapshot of aggregated statistics of one normalized query, see {@link QueryStatsAggregator}. Counters of server
+ * statistics are summed over sampled executions only.
+ */
+public final class QueryStatsSummary {
+    private final String query;
+    private final long calls;
+    private final long errors;
+    private final long sampledCalls;
+    private final LatencyHistogram latency;
+    private final long totalCpuTimeUs;
+    private final long totalServerDurationUs;
+    private final long compilations;
+    private final long totalCompilationDurationUs;
+    private final long rowsRead;
+    private final long bytesRead;
+    private final long rowsWritten;
+    private final long bytesWritten;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    QueryStatsSummary(String query, long calls, long errors, long sampledCalls, LatencyHistogram latency,
+            long totalCpuTimeUs, long totalServerDurationUs, long compilations, long totalCompilationDurationUs,
+            long rowsRead, long bytesRead, long rowsWritten, long bytesWritten) {
+        this.query = query;
+        this.calls = calls;
+        this.errors = errors;
+        this.sampledCalls = sampledCalls;
+        this.latency = latency;
+        this.totalCpuTimeUs = totalCpuTimeUs;
+        this.totalServerDurationUs = totalServerDurationUs;
+        this.compilations = compilations;
+        this.totalCompilationDurationUs = totalCompilationDurationUs;
+        this.rowsRead = rowsRead;
+        this.bytesRead = bytesRead;
+        this.rowsWritten = rowsWritten;
+        this.bytesWritten = bytesWritten;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public long getCalls() {
+        return calls;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getSampledCalls() {
+        return sampledCalls;
+    }
+
+    /**
+     * @param percentile percentile from 0 to 100
+     * @return client side latency of the given percentile in microseconds
+     */
+    public long getLatencyPercentileUs(double percentile) {
+        return latency.getPercentile(percentile);
+    }
+
+    public long getTotalCpuTimeUs() {
+        return totalCpuTimeUs;
+    }
+
+    /**
+     * @return total cpu time of sampled executions extrapolated to all executions of the query
+     */
+    public long getEstimatedTotalCpuTimeUs() {
+        if (sampledCalls == 0) {
+            return 0;
+        }
+        return (long) ((double) totalCpuTimeUs * calls / sampledCalls);
+    }
+
+    public long getTotalServerDurationUs() {
+        return totalServerDurationUs;
+    }
+
+    public long getCompilations() {
+        return compilations;
+    }
+
+    public long getTotalCompilationDurationUs() {
+        return totalCompilationDurationUs;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public long getBytesRead() {
+        return bytesRead;
+    }
+
+    public long getRowsWritten() {
+        return rowsWritten;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public String toString() {
+        return "QueryStatsSummary{" + "query='" + query + '\'' + ", calls=" + calls + ", errors=" + errors +
+                ", sampledCalls=" + sampledCalls + ", p50Us=" + getLatencyPercentileUs(50) +
+                ", p99Us=" + getLatencyPercentileUs(99) + ", totalCpuTimeUs=" + totalCpuTimeUs +
+                ", compilations=" + compilations + ", rowsRead=" + rowsRead + ", bytesRead=" + bytesRead +
+                ", rowsWritten=" + rowsWritten + ", bytesWritten=" + bytesWritten + '}';
+    }
+}
@@ -0,0 +1,266 @@
+package tech.ydb.table.query.stats;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+import javax.annotation.concurrent.ThreadSafe;
+
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import tech.ydb.core.Status;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.values.Value;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+
+/**
+ * Log of data queries executed longer than the latency threshold.
+ *
+ * <p>Collection of server statistics is switched on for the sampled share of executions and for a larger sampled
+ * share of executions of queries which exceeded the threshold recently, so the next slow executions of such queries
+ * are likely reported with the statistics and the plan while hot queries don't collect full statistics on every
+ * execution. Queries are identified by their text. Checks made for every execution are limited by one random number
+ * and one lookup in the map of recently slow queries. Texts of queries which must not be kept are reported as their
+ * SHA-256 hashes.
+ */
+@ThreadSafe
+@ParametersAreNonnullByDefault
+public final class SlowQueryLog {
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private static final Duration DEFAULT_THRESHOLD = Duration.ofSeconds(1);
+    private static final double DEFAULT_SAMPLE_RATE = 0.001;
+    private static final double DEFAULT_SLOW_QUERY_SAMPLE_RATE = 0.1;
+    private static final Duration DEFAULT_SLOW_QUERY_TTL = Duration.ofMinutes(1);
+    private static final int DEFAULT_MAX_SLOW_QUERIES = 100;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final double slowQuerySampleRate;
+    private final QueryStatsCollectionMode statsMode;
+    private final long slowQueryTtlMillis;
+    private final int maxSlowQueries;
+    private final Consumer<SlowQueryRecord> listener;
+    private final Clock clock;
+
+    /** Text of recently slow query to the time of the end of stats collection for it */
+    private final ConcurrentHashMap<String, Long> slowQueries = new ConcurrentHashMap<>();
+
+    private SlowQueryLog(Builder builder) {
+        this.thresholdNanos = builder.threshold.toNanos();
+        this.sampleRate = builder.sampleRate;
+        this.slowQuerySampleRate = Math.max(builder.sampleRate, builder.slowQuerySampleRate);
+        this.statsMode = builder.statsMode;
+        this.slowQueryTtlMillis = builder.slowQueryTtl.toMillis();
+        this.maxSlowQueries = builder.maxSlowQueries;
+        this.listener = builder.listener;
+        this.clock = builder.clock;
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public Duration getThreshold() {
+        return Duration.ofNanos(thresholdNanos);
+    }
+
+    /**
+     * Returns mode of stats collection for the next execution of the query.
+     *
+     * @param query text of the query
+     * @param requested mode of stats collection requested by the caller
+     * @return requested mode or more detailed mode if the execution is sampled
+     */
+    public QueryStatsCollectionMode statsCollectionMode(String query, QueryStatsCollectionMode requested) {
+        if (requested.compareTo(statsMode) >= 0) {
+            return requested;
+        }
+        double rate = slowQuerySampleRate > sampleRate && isRecentlySlow(query) ? slowQuerySampleRate : sampleRate;
+        if (rate > 0 && ThreadLocalRandom.current().nextDouble() < rate) {
+            return statsMode;
+        }
+        return requested;
+    }
+
+    /**
+     * Records finished execution of the query, slow executions are reported to the listener.
+     *
+     * @param query text of the query
+     * @param keepText false if the text must not be reported, the hash of the text is reported then
+     * @param params parameters of the query
+     * @param sessionId id of the session
+     * @param nodeId id of the node of the session if it's known
+     * @param endpoint host and port of the endpoint which executed the query if it's known
+     * @param retryNumber number of the attempt of the retry context, zero for the first attempt
+     * @param durationNanos client side duration of the execution
+     * @param status status of the execution
+     * @param stats server statistics of the execution if they were collected
+     */
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    public void record(String query, boolean keepText, Params params, String sessionId, @Nullable Integer nodeId,
+            @Nullable String endpoint, int retryNumber, long durationNanos, Status status, @Nullable QueryStats stats) {
+        if (durationNanos < thresholdNanos) {
+            return;
+        }
+
+        markSlow(query);
+        String reported = keepText ? query : Hashing.sha256().hashString(query, StandardCharsets.UTF_8).toString();
+
+        Map<String, String> parameterTypes = new LinkedHashMap<>();
+        for (Map.Entry<String, Value<?>> entry : params.values().entrySet()) {
+            parameterTypes.put(entry.getKey(), entry.getValue().getType().toString());
+        }
+
+        SlowQueryRecord record = new SlowQueryRecord(reported, parameterTypes, sessionId, nodeId, endpoint,
+                retryNumber, Duration.ofNanos(durationNanos), status, stats);
+        try {
+            listener.accept(record);
+        } catch (RuntimeException ex) {
+            logger.warn("slow query listener failed", ex);
+        }
+    }
+
+    private boolean isRecentlySlow(String query) {
+        if (slowQueries.isEmpty()) {
+            return false;
+        }
+        Long until = slowQueries.get(query);
+        if (until == null) {
+            return false;
+        }
+        if (until > clock.millis()) {
+            return true;
+        }
+        slowQueries.remove(query, until);
+        return false;
+    }
+
+    private void markSlow(String query) {
+        long now = clock.millis();
+        if (slowQueries.size() >= maxSlowQueries && !slowQueries.containsKey(query)) {
+            Iterator<Long> it = slowQueries.values().iterator();
+            while (it.hasNext()) {
+                if (it.next() <= now) {
+                    it.remove();
+                }
+            }
+            if (slowQueries.size() >= maxSlowQueries) {
+                return;
+            }
+        }
+        slowQueries.put(query, now + slowQueryTtlMillis);
+    }
+
+    private static void logRecord(SlowQueryRecord record) {
+        logger.warn("{}", record);
+    }
+
+    /**
+     * BUILDER
+     */
+    public static final class Builder {
+        private Duration threshold = DEFAULT_THRESHOLD;
+        private double sampleRate = DEFAULT_SAMPLE_RATE;
+        private double slowQuerySampleRate = DEFAULT_SLOW_QUERY_SAMPLE_RATE;
+        private QueryStatsCollectionMode statsMode = QueryStatsCollectionMode.FULL;
+        private Duration slowQueryTtl = DEFAULT_SLOW_QUERY_TTL;
+        private int maxSlowQueries = DEFAULT_MAX_SLOW_QUERIES;
+        private Consumer<SlowQueryRecord> listener = SlowQueryLog::logRecord;
+        private Clock clock = Clock.systemUTC();
+
+        private Builder() {
+        }
+
+        public Builder withThreshold(Duration threshold) {
+            checkArgument(!threshold.isNegative(), "threshold(%s) is negative", threshold);
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * Sets share of executions with collection of server statistics regardless of their history.
+         *
+         * @param sampleRate share of sampled executions from 0 to 1
+         * @return this builder
+         */
+        public Builder withSampleRate(double sampleRate) {
+            checkArgument(sampleRate >= 0 && sampleRate <= 1, "sampleRate(%s) is not in [0, 1]", sampleRate);
+            this.sampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Sets share of executions with collection of server statistics for queries which exceeded the threshold
+         * recently. The share of other executions is used if it's greater.
+         *
+         * @param sampleRate share of sampled executions of recently slow queries from 0 to 1
+         * @return this builder
+         */
+        public Builder withSlowQuerySampleRate(double sampleRate) {
+            checkArgument(sampleRate >= 0 && sampleRate <= 1, "sampleRate(%s) is not in [0, 1]", sampleRate);
+            this.slowQuerySampleRate = sampleRate;
+            return this;
+        }
+
+        /**
+         * Sets mode of stats collection for sampled executions, {@link QueryStatsCollectionMode#FULL} by default
+         * to get the plan of the query.
+         *
+         * @param statsMode mode of stats collection
+         * @return this builder
+         */
+        public Builder withStatsMode(QueryStatsCollectionMode statsMode) {
+            this.statsMode = Objects.requireNonNull(statsMode, "statsMode");
+            return this;
+        }
+
+        /**
+         * Sets time of sampling with the share of recently slow queries after a slow execution of a query.
+         *
+         * @param ttl duration of stats collection
+         * @param maxQueries max count of queries with stats collection
+         * @return this builder
+         */
+        public Builder withSlowQueryTtl(Duration ttl, int maxQueries) {
+            checkArgument(!ttl.isNegative(), "ttl(%s) is negative", ttl);
+            checkArgument(maxQueries >= 0, "maxQueries(%s) is negative", maxQueries);
+            this.slowQueryTtl = ttl;
+            this.maxSlowQueries = maxQueries;
+            return this;
+        }
+
+        /**
+         * Sets consumer of slow query records, by default records are written to the log with WARN level.
+         *
+         * @param listener consumer of slow query records
+         * @return this builder
+         */
+        public Builder withListener(Consumer<SlowQueryRecord> listener) {
+            this.listener = Objects.requireNonNull(listener, "listener");
+            return this;
+        }
+
+        Builder withClock(Clock clock) {
+            this.clock = Objects.requireNonNull(clock, "clock");
+            return this;
+        }
+
+        public SlowQueryLog build() {
+            return new SlowQueryLog(this);
+        }
+    }
+}
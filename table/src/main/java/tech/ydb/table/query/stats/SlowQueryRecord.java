@@ -0,0 +1,115 @@
+package tech.ydb.table.query.stats;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import tech.ydb.core.Status;
+
+
+/**
+ * Slow execution of a data query reported by {@link SlowQueryLog}.
+ */
+public final class SlowQueryRecord {
+    private final String query;
+    private final Map<String, String> parameterTypes;
+    private final String sessionId;
+    @Nullable
+    private final Integer nodeId;
+    @Nullable
+    private final String endpoint;
+    private final int retryNumber;
+    private final Duration duration;
+    private final Status status;
+    @Nullable
+    private final QueryStats stats;
+
+    @SuppressWarnings("checkstyle:ParameterNumber")
+    SlowQueryRecord(String query, Map<String, String> parameterTypes, String sessionId, @Nullable Integer nodeId,
+            @Nullable String endpoint, int retryNumber, Duration duration, Status status, @Nullable QueryStats stats) {
+        this.query = query;
+        this.parameterTypes = Collections.unmodifiableMap(parameterTypes);
+        this.sessionId = sessionId;
+        this.nodeId = nodeId;
+        this.endpoint = endpoint;
+        this.retryNumber = retryNumber;
+        this.duration = duration;
+        this.status = status;
+        this.stats = stats;
+    }
+
+    /**
+     * @return text of the query, SHA-256 hash of the text if texts of queries aren't kept or id of the prepared
+     * query if its text is unknown
+     */
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * @return names of parameters to their types
+     */
+    public Map<String, String> getParameterTypes() {
+        return parameterTypes;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * @return id of the node of the session or null if it's unknown
+     */
+    @Nullable
+    public Integer getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * @return host and port of the endpoint which executed the query or null if it's unknown
+     */
+    @Nullable
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * @return number of the attempt in the retry context, zero for the first attempt
+     */
+    public int getRetryNumber() {
+        return retryNumber;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    /**
+     * @return server statistics of the execution or null if they weren't collected
+     */
+    @Nullable
+    public QueryStats getQueryStats() {
+        return stats;
+    }
+
+    /**
+     * @return plan of the query or empty string if it wasn't collected
+     */
+    public String getQueryPlan() {
+        return stats != null ? stats.getQueryPlan() : "";
+    }
+
+    @Override
+    public String toString() {
+        return "SlowQueryRecord{" + "query='" + query + '\'' + ", parameterTypes=" + parameterTypes +
+                ", sessionId='" + sessionId + '\'' + ", nodeId=" + nodeId + ", endpoint=" + endpoint +
+                ", retryNumber=" + retryNumber + ", duration=" + duration + ", status=" + status +
+                ", stats=" + stats + '}';
+    }
+}
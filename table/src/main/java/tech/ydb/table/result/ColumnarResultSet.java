@@ -0,0 +1,95 @@
+package tech.ydb.table.result;
+
+import java.nio.charset.StandardCharsets;
+
+import javax.annotation.Nullable;
+
+import tech.ydb.table.values.Type;
+
+/**
+ * Columnar view of a result set. All values of a column are decoded at once into a primitive array, so aggregation
+ * code can process columns in tight loops without per row virtual calls.
+ * <p>
+ * Supported column types (and their optional variants) and the accessors to read them:
+ * <ul>
+ * <li>{@code Bool} - {@link #getBools(int)}</li>
+ * <li>{@code Int8}, {@code Int16}, {@code Int32}, {@code Uint8}, {@code Uint16}, {@code Uint32}, {@code Date},
+ * {@code Datetime} - {@link #getInts(int)}, unsigned values are stored as raw bits</li>
+ * <li>{@code Int64}, {@code Uint64}, {@code Timestamp}, {@code Interval} - {@link #getLongs(int)}, unsigned values
+ * are stored as raw bits</li>
+ * <li>{@code Float} - {@link #getFloats(int)}</li>
+ * <li>{@code Double} - {@link #getDoubles(int)}</li>
+ * <li>{@code Bytes}, {@code Text}, {@code Yson}, {@code Json}, {@code JsonDocument} - {@link #getBytes(int)} with
+ * {@link #getBytesOffsets(int)}, text values are encoded in UTF-8</li>
+ * </ul>
+ * Columns of other types are not decoded and their accessors throw {@link IllegalStateException}. Null values of
+ * optional columns are marked in the null bitmap and have zero (or empty) values in arrays.
+ * <p>
+ * Returned arrays are the internal storage of the view and must not be modified.
+ */
+public interface ColumnarResultSet {
+
+    int getRowCount();
+
+    int getColumnCount();
+
+    String getColumnName(int column);
+
+    /**
+     * Returns index of the column
+     *
+     * @param name name of column
+     * @return index of the column or -1 if there is no such column
+     */
+    int getColumnIndex(String name);
+
+    Type getColumnType(int column);
+
+    /**
+     * Returns bitmap of null values of the optional column. The bit {@code row % 64} of the word {@code row / 64}
+     * is set if the value of the row is null
+     *
+     * @param column index of column
+     * @return bitmap of null values or null if the column isn't optional
+     */
+    @Nullable
+    long[] getNullBitmap(int column);
+
+    default boolean isNull(int column, int row) {
+        long[] bitmap = getNullBitmap(column);
+        return bitmap != null && (bitmap[row >>> 6] & (1L << row)) != 0;
+    }
+
+    boolean[] getBools(int column);
+
+    int[] getInts(int column);
+
+    long[] getLongs(int column);
+
+    float[] getFloats(int column);
+
+    double[] getDoubles(int column);
+
+    /**
+     * Returns concatenated bytes of all values of the column. Value of row {@code i} is placed in range from
+     * {@code offsets[i]} (inclusive) to {@code offsets[i + 1]} (exclusive), where offsets are
+     * {@link #getBytesOffsets(int)}
+     *
+     * @param column index of column
+     * @return concatenated bytes of all values
+     */
+    byte[] getBytes(int column);
+
+    /**
+     * Returns offsets of values of the column in the array {@link #getBytes(int)}
+     *
+     * @param column index of column
+     * @return array of offsets with length {@code getRowCount() + 1}
+     */
+    int[] getBytesOffsets(int column);
+
+    default String getText(int column, int row) {
+        int[] offsets = getBytesOffsets(column);
+        return new String(getBytes(column), offsets[row], offsets[row + 1] - offsets[row], StandardCharsets.UTF_8);
+    }
+}
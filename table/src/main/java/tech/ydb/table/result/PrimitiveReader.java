@@ -1,5 +1,6 @@
 package tech.ydb.table.result;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
@@ -8,6 +9,8 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
+import com.google.protobuf.ByteString;
+
 import tech.ydb.table.values.DecimalValue;
 
 
@@ -58,15 +61,63 @@ public interface PrimitiveReader {
         return new String(getBytes(), charset);
     }
 
+    /**
+     * Returns value of type {@code Bytes} without copying
+     *
+     * @return bytes of the value, shared with the result set
+     */
+    default ByteString getBytesAsByteString() {
+        return ByteString.copyFrom(getBytes());
+    }
+
     UUID getUuid();
 
     String getText();
 
+    /**
+     * Returns value of type {@code Text}, {@code Json} or {@code JsonDocument} as UTF-8 encoded bytes. Values
+     * received from the server are returned without decoding and copying.
+     *
+     * @return UTF-8 encoded bytes of the value
+     */
+    default ByteString getTextBytes() {
+        return ByteString.copyFromUtf8(getText());
+    }
+
+    /**
+     * Returns value of type {@code Text}, {@code Json} or {@code JsonDocument} as a char sequence. Values which
+     * contain only ASCII characters are returned as a view of the UTF-8 bytes without decoding.
+     *
+     * @return char sequence of the value
+     */
+    default CharSequence getTextAsCharSequence() {
+        return getTextBytes().toStringUtf8();
+    }
+
     byte[] getYson();
 
+    /**
+     * Returns value of type {@code Yson} without copying
+     *
+     * @return bytes of the value, shared with the result set
+     */
+    default ByteString getYsonBytes() {
+        return ByteString.copyFrom(getYson());
+    }
+
     String getJson();
 
     String getJsonDocument();
 
+    /**
+     * Returns read-only view of the raw bytes of value of type {@code Bytes}, {@code Yson}, {@code Text},
+     * {@code Json} or {@code JsonDocument}. Text values are UTF-8 encoded.
+     *
+     * @return read-only byte buffer
+     */
+    default ByteBuffer getRawByteBuffer() {
+        return ByteBuffer.wrap(getBytes()).asReadOnlyBuffer();
+    }
+
     DecimalValue getDecimal();
 }
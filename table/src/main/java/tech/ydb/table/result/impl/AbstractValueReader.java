@@ -1,5 +1,6 @@
 package tech.ydb.table.result.impl;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
@@ -7,6 +8,8 @@ import java.time.LocalDateTime;
 import java.time.ZonedDateTime;
 import java.util.UUID;
 
+import com.google.protobuf.ByteString;
+
 import tech.ydb.proto.ValueProtos;
 import tech.ydb.table.result.ValueReader;
 import tech.ydb.table.values.DecimalValue;
@@ -141,16 +144,41 @@ abstract class AbstractValueReader implements ValueReader {
         throw error("getUuid");
     }
 
+    @Override
+    public ByteString getBytesAsByteString() {
+        throw error("getBytesAsByteString");
+    }
+
     @Override
     public String getText() {
         throw error("getText");
     }
 
+    @Override
+    public ByteString getTextBytes() {
+        throw error("getTextBytes");
+    }
+
+    @Override
+    public CharSequence getTextAsCharSequence() {
+        throw error("getTextAsCharSequence");
+    }
+
     @Override
     public byte[] getYson() {
         throw error("getYson");
     }
 
+    @Override
+    public ByteString getYsonBytes() {
+        throw error("getYsonBytes");
+    }
+
+    @Override
+    public ByteBuffer getRawByteBuffer() {
+        throw error("getRawByteBuffer");
+    }
+
     @Override
     public String getJson() {
         throw error("getJson");
@@ -0,0 +1,46 @@
+package tech.ydb.table.result.impl;
+
+import com.google.protobuf.ByteString;
+
+
+/**
+ * Char sequence view of ASCII text stored in UTF-8 bytes. Every byte of ASCII text is one char, so the view doesn't
+ * need decoding.
+ */
+final class AsciiCharSequence implements CharSequence {
+    private final ByteString bytes;
+
+    AsciiCharSequence(ByteString bytes) {
+        this.bytes = bytes;
+    }
+
+    static boolean isAscii(ByteString bytes) {
+        ByteString.ByteIterator it = bytes.iterator();
+        while (it.hasNext()) {
+            if (it.nextByte() < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int length() {
+        return bytes.size();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return (char) bytes.byteAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return new AsciiCharSequence(bytes.substring(start, end));
+    }
+
+    @Override
+    public String toString() {
+        return bytes.toStringUtf8();
+    }
+}
@@ -0,0 +1,324 @@
+package tech.ydb.table.result.impl;
+
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import com.google.protobuf.ByteString;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ColumnarResultSet;
+import tech.ydb.table.values.Type;
+
+
+/**
+ * Implementation of {@link ColumnarResultSet} which decodes protobuf result sets column by column
+ */
+final class ProtoColumnarResultSet implements ColumnarResultSet {
+    private enum Kind {
+        UNSUPPORTED,
+        BOOL,
+        INT32,
+        UINT32,
+        INT64,
+        UINT64,
+        FLOAT,
+        DOUBLE,
+        TEXT,
+        BYTES,
+    }
+
+    private final ResultSetSchema schema;
+    private final int rowCount;
+    private final Kind[] kinds;
+    private final Object[] data;
+    private final int[][] offsets;
+    private final long[][] nulls;
+
+    ProtoColumnarResultSet(ResultSetSchema schema, List<ValueProtos.ResultSet> parts) {
+        this.schema = schema;
+
+        int count = 0;
+        for (ValueProtos.ResultSet part : parts) {
+            count += part.getRowsCount();
+        }
+        this.rowCount = count;
+
+        int columns = schema.getColumnCount();
+        this.kinds = new Kind[columns];
+        this.data = new Object[columns];
+        this.offsets = new int[columns][];
+        this.nulls = new long[columns][];
+
+        ValueProtos.ResultSet first = parts.get(0);
+        for (int column = 0; column < columns; column++) {
+            ValueProtos.Type type = first.getColumns(column).getType();
+            if (type.getTypeCase() == ValueProtos.Type.TypeCase.OPTIONAL_TYPE) {
+                type = type.getOptionalType().getItem();
+                nulls[column] = new long[(rowCount + 63) >>> 6];
+            }
+            kinds[column] = kindOf(type);
+            decodeColumn(column, parts);
+        }
+    }
+
+    private static Kind kindOf(ValueProtos.Type type) {
+        if (type.getTypeCase() != ValueProtos.Type.TypeCase.TYPE_ID) {
+            return Kind.UNSUPPORTED;
+        }
+        switch (type.getTypeId()) {
+            case BOOL:
+                return Kind.BOOL;
+            case INT8:
+            case INT16:
+            case INT32:
+                return Kind.INT32;
+            case UINT8:
+            case UINT16:
+            case UINT32:
+            case DATE:
+            case DATETIME:
+                return Kind.UINT32;
+            case INT64:
+            case INTERVAL:
+                return Kind.INT64;
+            case UINT64:
+            case TIMESTAMP:
+                return Kind.UINT64;
+            case FLOAT:
+                return Kind.FLOAT;
+            case DOUBLE:
+                return Kind.DOUBLE;
+            case UTF8:
+            case JSON:
+            case JSON_DOCUMENT:
+                return Kind.TEXT;
+            case STRING:
+            case YSON:
+                return Kind.BYTES;
+            default:
+                return Kind.UNSUPPORTED;
+        }
+    }
+
+    private static boolean isNull(ValueProtos.Value value) {
+        return value.getValueCase() == ValueProtos.Value.ValueCase.NULL_FLAG_VALUE;
+    }
+
+    private static ValueProtos.Value unwrap(ValueProtos.Value value) {
+        // present value of optional type may be wrapped into the nested value
+        return value.getValueCase() == ValueProtos.Value.ValueCase.NESTED_VALUE ? value.getNestedValue() : value;
+    }
+
+    private static void markNull(long[] bitmap, int row) {
+        bitmap[row >>> 6] |= 1L << row;
+    }
+
+    private void decodeColumn(int column, List<ValueProtos.ResultSet> parts) {
+        final long[] bitmap = nulls[column];
+        int row = 0;
+
+        switch (kinds[column]) {
+            case BOOL: {
+                boolean[] values = new boolean[rowCount];
+                for (ValueProtos.ResultSet part : parts) {
+                    for (ValueProtos.Value item : part.getRowsList()) {
+                        ValueProtos.Value value = unwrap(item.getItems(column));
+                        if (bitmap != null && isNull(value)) {
+                            markNull(bitmap, row);
+                        } else {
+                            values[row] = value.getBoolValue();
+                        }
+                        row++;
+                    }
+                }
+                data[column] = values;
+                break;
+            }
+            case INT32:
+            case UINT32: {
+                final boolean signed = kinds[column] == Kind.INT32;
+                int[] values = new int[rowCount];
+                for (ValueProtos.ResultSet part : parts) {
+                    for (ValueProtos.Value item : part.getRowsList()) {
+                        ValueProtos.Value value = unwrap(item.getItems(column));
+                        if (bitmap != null && isNull(value)) {
+                            markNull(bitmap, row);
+                        } else {
+                            values[row] = signed ? value.getInt32Value() : value.getUint32Value();
+                        }
+                        row++;
+                    }
+                }
+                data[column] = values;
+                break;
+            }
+            case INT64:
+            case UINT64: {
+                final boolean signed = kinds[column] == Kind.INT64;
+                long[] values = new long[rowCount];
+                for (ValueProtos.ResultSet part : parts) {
+                    for (ValueProtos.Value item : part.getRowsList()) {
+                        ValueProtos.Value value = unwrap(item.getItems(column));
+                        if (bitmap != null && isNull(value)) {
+                            markNull(bitmap, row);
+                        } else {
+                            values[row] = signed ? value.getInt64Value() : value.getUint64Value();
+                        }
+                        row++;
+                    }
+                }
+                data[column] = values;
+                break;
+            }
+            case FLOAT: {
+                float[] values = new float[rowCount];
+                for (ValueProtos.ResultSet part : parts) {
+                    for (ValueProtos.Value item : part.getRowsList()) {
+                        ValueProtos.Value value = unwrap(item.getItems(column));
+                        if (bitmap != null && isNull(value)) {
+                            markNull(bitmap, row);
+                        } else {
+                            values[row] = value.getFloatValue();
+                        }
+                        row++;
+                    }
+                }
+                data[column] = values;
+                break;
+            }
+            case DOUBLE: {
+                double[] values = new double[rowCount];
+                for (ValueProtos.ResultSet part : parts) {
+                    for (ValueProtos.Value item : part.getRowsList()) {
+                        ValueProtos.Value value = unwrap(item.getItems(column));
+                        if (bitmap != null && isNull(value)) {
+                            markNull(bitmap, row);
+                        } else {
+                            values[row] = value.getDoubleValue();
+                        }
+                        row++;
+                    }
+                }
+                data[column] = values;
+                break;
+            }
+            case TEXT:
+            case BYTES:
+                decodeBytesColumn(column, parts, kinds[column] == Kind.TEXT);
+                break;
+            case UNSUPPORTED:
+            default:
+                break;
+        }
+    }
+
+    private void decodeBytesColumn(int column, List<ValueProtos.ResultSet> parts, boolean isText) {
+        final long[] bitmap = nulls[column];
+        final ByteString[] values = new ByteString[rowCount];
+        final int[] columnOffsets = new int[rowCount + 1];
+
+        // text values are taken as bytes, so they are not decoded into strings
+        int row = 0;
+        int size = 0;
+        for (ValueProtos.ResultSet part : parts) {
+            for (ValueProtos.Value item : part.getRowsList()) {
+                ValueProtos.Value value = unwrap(item.getItems(column));
+                if (bitmap != null && isNull(value)) {
+                    markNull(bitmap, row);
+                } else {
+                    values[row] = isText ? value.getTextValueBytes() : value.getBytesValue();
+                    size += values[row].size();
+                }
+                row++;
+                columnOffsets[row] = size;
+            }
+        }
+
+        byte[] bytes = new byte[size];
+        for (int idx = 0; idx < rowCount; idx++) {
+            if (values[idx] != null) {
+                values[idx].copyTo(bytes, columnOffsets[idx]);
+            }
+        }
+
+        data[column] = bytes;
+        offsets[column] = columnOffsets;
+    }
+
+    private Object columnData(int column, Kind expected1, Kind expected2, String arrayName) {
+        Kind kind = kinds[column];
+        if (kind != expected1 && kind != expected2) {
+            throw new IllegalStateException("cannot read column " + getColumnName(column) + " with type "
+                    + getColumnType(column) + " as " + arrayName);
+        }
+        return data[column];
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return schema.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return schema.getColumnName(column);
+    }
+
+    @Override
+    public int getColumnIndex(String name) {
+        return schema.getColumnIndex(name);
+    }
+
+    @Override
+    public Type getColumnType(int column) {
+        return schema.getColumnType(column);
+    }
+
+    @Nullable
+    @Override
+    public long[] getNullBitmap(int column) {
+        return nulls[column];
+    }
+
+    @Override
+    public boolean[] getBools(int column) {
+        return (boolean[]) columnData(column, Kind.BOOL, Kind.BOOL, "boolean[]");
+    }
+
+    @Override
+    public int[] getInts(int column) {
+        return (int[]) columnData(column, Kind.INT32, Kind.UINT32, "int[]");
+    }
+
+    @Override
+    public long[] getLongs(int column) {
+        return (long[]) columnData(column, Kind.INT64, Kind.UINT64, "long[]");
+    }
+
+    @Override
+    public float[] getFloats(int column) {
+        return (float[]) columnData(column, Kind.FLOAT, Kind.FLOAT, "float[]");
+    }
+
+    @Override
+    public double[] getDoubles(int column) {
+        return (double[]) columnData(column, Kind.DOUBLE, Kind.DOUBLE, "double[]");
+    }
+
+    @Override
+    public byte[] getBytes(int column) {
+        return (byte[]) columnData(column, Kind.TEXT, Kind.BYTES, "byte[]");
+    }
+
+    @Override
+    public int[] getBytesOffsets(int column) {
+        columnData(column, Kind.TEXT, Kind.BYTES, "byte[]");
+        return offsets[column];
+    }
+}
@@ -0,0 +1,159 @@
+package tech.ydb.table.result.impl;
+
+import java.util.Collection;
+
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.ValueReader;
+import tech.ydb.table.values.Type;
+
+
+/**
+ * Result set reader which iterates over rows of several result sets with the same columns without copying of rows.
+ * Positions of the underlying readers are changed by this reader, so they must not be used separately.
+ */
+final class ProtoCompositeResultSetReader implements ResultSetReader {
+
+    private final ResultSetReader[] readers;
+    // offsets[i] is index of the first row of readers[i], offsets[readers.length] is total count of rows
+    private final int[] offsets;
+    private final boolean truncated;
+
+    private int rowIndex = 0;
+    private int readerIndex = 0;
+    private ResultSetReader currentReader = null;
+
+    ProtoCompositeResultSetReader(Collection<ResultSetReader> resultSets) {
+        this.readers = resultSets.toArray(new ResultSetReader[0]);
+        this.offsets = new int[readers.length + 1];
+
+        boolean isTruncated = false;
+        for (int idx = 0; idx < readers.length; idx++) {
+            ResultSetReader reader = readers[idx];
+            if (idx > 0) {
+                checkColumns(readers[0], reader, idx);
+            }
+            isTruncated |= reader.isTruncated();
+            offsets[idx + 1] = offsets[idx] + reader.getRowCount();
+        }
+        this.truncated = isTruncated;
+    }
+
+    ResultSetReader[] getReaders() {
+        return readers;
+    }
+
+    private static void checkColumns(ResultSetReader first, ResultSetReader other, int idx) {
+        if (first instanceof ProtoResultSetReader && other instanceof ProtoResultSetReader) {
+            // schemas are cached, so result sets with the same columns usually have the same schema object
+            if (((ProtoResultSetReader) first).getSchema() == ((ProtoResultSetReader) other).getSchema()) {
+                return;
+            }
+        }
+
+        if (first.getColumnCount() != other.getColumnCount()) {
+            throw new IllegalArgumentException("result set " + idx + " has " + other.getColumnCount()
+                    + " columns, expected " + first.getColumnCount());
+        }
+        for (int column = 0; column < first.getColumnCount(); column++) {
+            if (!first.getColumnName(column).equals(other.getColumnName(column))
+                    || !first.getColumnType(column).equals(other.getColumnType(column))) {
+                throw new IllegalArgumentException("result set " + idx + " has column " + other.getColumnName(column)
+                        + " with type " + other.getColumnType(column) + ", expected column "
+                        + first.getColumnName(column) + " with type " + first.getColumnType(column));
+            }
+        }
+    }
+
+    @Override
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return readers[0].getColumnCount();
+    }
+
+    @Override
+    public int getRowCount() {
+        return offsets[readers.length];
+    }
+
+    @Override
+    public void setRowIndex(int index) {
+        if (index < 0 || index >= getRowCount()) {
+            currentReader = null;
+            return;
+        }
+
+        rowIndex = index;
+        readerIndex = findReader(index);
+        currentReader = readers[readerIndex];
+        currentReader.setRowIndex(index - offsets[readerIndex]);
+    }
+
+    @Override
+    public boolean next() {
+        if (rowIndex >= getRowCount()) {
+            currentReader = null;
+            return false;
+        }
+
+        // skip finished and empty readers
+        while (rowIndex >= offsets[readerIndex + 1]) {
+            readerIndex++;
+        }
+        currentReader = readers[readerIndex];
+        currentReader.setRowIndex(rowIndex - offsets[readerIndex]);
+        rowIndex++;
+        return true;
+    }
+
+    /**
+     * Returns index of reader containing the row, the row index must be valid
+     */
+    private int findReader(int index) {
+        int low = 0;
+        int high = readers.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (offsets[mid] <= index) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public String getColumnName(int index) {
+        return readers[0].getColumnName(index);
+    }
+
+    @Override
+    public int getColumnIndex(String name) {
+        return readers[0].getColumnIndex(name);
+    }
+
+    @Override
+    public ValueReader getColumn(int index) {
+        if (currentReader == null) {
+            throw new IllegalStateException("empty result set or next() was never called");
+        }
+        return currentReader.getColumn(index);
+    }
+
+    @Override
+    public ValueReader getColumn(String name) {
+        if (currentReader == null) {
+            throw new IllegalStateException("empty result set or next() was never called");
+        }
+        return currentReader.getColumn(name);
+    }
+
+    @Override
+    public Type getColumnType(int index) {
+        return readers[0].getColumnType(index);
+    }
+}
@@ -1,5 +1,6 @@
 package tech.ydb.table.result.impl;
 
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.time.Duration;
 import java.time.Instant;
@@ -169,6 +170,12 @@ class ProtoPrimitiveValueReader extends AbstractValueReader {
         return ProtoValue.toBytesAsString(value, charset);
     }
 
+    @Override
+    public ByteString getBytesAsByteString() {
+        checkPrimitive(PrimitiveTypeId.STRING);
+        return value.getBytesValue();
+    }
+
     @Override
     public UUID getUuid() {
         checkPrimitive(PrimitiveTypeId.UUID);
@@ -181,12 +188,31 @@ class ProtoPrimitiveValueReader extends AbstractValueReader {
         return ProtoValue.toText(value);
     }
 
+    @Override
+    public ByteString getTextBytes() {
+        checkText();
+        return ProtoValue.toTextBytes(value);
+    }
+
+    @Override
+    public CharSequence getTextAsCharSequence() {
+        checkText();
+        ByteString bytes = ProtoValue.toTextBytes(value);
+        return AsciiCharSequence.isAscii(bytes) ? new AsciiCharSequence(bytes) : bytes.toStringUtf8();
+    }
+
     @Override
     public byte[] getYson() {
         checkPrimitive(PrimitiveTypeId.YSON);
         return ProtoValue.toYson(value);
     }
 
+    @Override
+    public ByteString getYsonBytes() {
+        checkPrimitive(PrimitiveTypeId.YSON);
+        return value.getBytesValue();
+    }
+
     @Override
     public String getJson() {
         checkPrimitive(PrimitiveTypeId.JSON);
@@ -209,6 +235,30 @@ class ProtoPrimitiveValueReader extends AbstractValueReader {
         return ProtoValue.toDecimal(type, value);
     }
 
+    @Override
+    public ByteBuffer getRawByteBuffer() {
+        switch (primitiveTypeId) {
+            case STRING:
+            case YSON:
+                return value.getBytesValue().asReadOnlyByteBuffer();
+            case UTF8:
+            case JSON:
+            case JSON_DOCUMENT:
+                return ProtoValue.toTextBytes(value).asReadOnlyByteBuffer();
+            default:
+                throw new IllegalStateException(
+                    "types mismatch, expected bytes or text type, but was " + ProtoType.toString(getProtoType()));
+        }
+    }
+
+    private void checkText() {
+        if (primitiveTypeId != PrimitiveTypeId.UTF8 && primitiveTypeId != PrimitiveTypeId.JSON
+                && primitiveTypeId != PrimitiveTypeId.JSON_DOCUMENT) {
+            throw new IllegalStateException(
+                "types mismatch, expected text type, but was " + ProtoType.toString(getProtoType()));
+        }
+    }
+
     private void checkPrimitive(PrimitiveTypeId expected) {
         if (primitiveTypeId != expected) {
             throw new IllegalStateException(
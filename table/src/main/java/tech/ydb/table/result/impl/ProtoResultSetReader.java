@@ -1,9 +1,5 @@
 package tech.ydb.table.result.impl;
 
-import java.util.Map;
-
-import com.google.common.collect.Maps;
-
 import tech.ydb.proto.ValueProtos;
 import tech.ydb.table.result.ResultSetReader;
 import tech.ydb.table.result.ValueReader;
@@ -16,22 +12,16 @@ import tech.ydb.table.values.Type;
 final class ProtoResultSetReader implements ResultSetReader {
 
     private final ValueProtos.ResultSet resultSet;
-    private final Map<String, Integer> columnIndexes; // TODO: use better data structure
+    private final ResultSetSchema schema;
     private final AbstractValueReader[] columnReaders;
 
     private int rowIndex;
     private ValueProtos.Value currentRow;
 
-    ProtoResultSetReader(ValueProtos.ResultSet resultSet) {
+    ProtoResultSetReader(ValueProtos.ResultSet resultSet, ResultSetSchema schema) {
         this.resultSet = resultSet;
-        this.columnIndexes = Maps.newHashMapWithExpectedSize(resultSet.getColumnsCount());
-        this.columnReaders = new AbstractValueReader[resultSet.getColumnsCount()];
-
-        for (int i = 0; i < resultSet.getColumnsCount(); i++) {
-            ValueProtos.Column columnMeta = resultSet.getColumns(i);
-            this.columnIndexes.put(columnMeta.getName(), i);
-            this.columnReaders[i] = ProtoValueReaders.forTypeImpl(columnMeta.getType());
-        }
+        this.schema = schema;
+        this.columnReaders = schema.newReaders();
     }
 
     @Override
@@ -83,13 +73,12 @@ final class ProtoResultSetReader implements ResultSetReader {
 
     @Override
     public String getColumnName(int index) {
-        return resultSet.getColumns(index).getName();
+        return schema.getColumnName(index);
     }
 
     @Override
     public int getColumnIndex(String name) {
-        Integer index = columnIndexes.get(name);
-        return index == null ? -1 : index;
+        return schema.getColumnIndex(name);
     }
 
     @Override
@@ -110,13 +99,12 @@ final class ProtoResultSetReader implements ResultSetReader {
 
     @Override
     public Type getColumnType(int index) {
-        AbstractValueReader reader = columnReaders[index];
-        return reader.getType();
+        return schema.getColumnType(index);
     }
 
     private int columnIndex(String name) {
-        Integer index = columnIndexes.get(name);
-        if (index == null) {
+        int index = schema.getColumnIndex(name);
+        if (index < 0) {
             throw new IllegalArgumentException("unknown column '" + name + "\'");
         }
         return index;
@@ -125,4 +113,8 @@ final class ProtoResultSetReader implements ResultSetReader {
     ValueProtos.ResultSet getResultSet() {
         return resultSet;
     }
+
+    ResultSetSchema getSchema() {
+        return schema;
+    }
 }
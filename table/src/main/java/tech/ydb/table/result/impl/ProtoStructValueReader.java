@@ -19,13 +19,13 @@ final class ProtoStructValueReader extends AbstractValueReader {
     private final Map<String, Integer> nameIdx;
     private ValueProtos.Value value;
 
-    ProtoStructValueReader(ValueProtos.Type type, AbstractValueReader[] memberReaders) {
+    ProtoStructValueReader(ValueProtos.Type type, AbstractValueReader[] memberReaders, Map<String, Integer> nameIdx) {
         this.type = type;
         this.memberReaders = memberReaders;
-        this.nameIdx = buildNameIdx(type.getStructType());
+        this.nameIdx = nameIdx;
     }
 
-    private static HashMap<String, Integer> buildNameIdx(ValueProtos.StructType structType) {
+    static HashMap<String, Integer> buildNameIdx(ValueProtos.StructType structType) {
         HashMap<String, Integer> nameIdx = Maps.newHashMapWithExpectedSize(structType.getMembersCount());
         for (int i = 0; i < structType.getMembersCount(); i++) {
             nameIdx.put(structType.getMembers(i).getName(), i);
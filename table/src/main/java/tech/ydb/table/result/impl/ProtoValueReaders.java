@@ -1,13 +1,18 @@
 package tech.ydb.table.result.impl;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import com.google.common.base.Preconditions;
 
 import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ColumnarResultSet;
 import tech.ydb.table.result.ResultSetReader;
 import tech.ydb.table.result.ValueReader;
+import tech.ydb.table.values.Value;
 
 
 /**
@@ -17,38 +22,101 @@ public class ProtoValueReaders {
     private ProtoValueReaders() { }
 
     public static ResultSetReader forResultSet(ValueProtos.ResultSet resultSet) {
-        return new ProtoResultSetReader(resultSet);
+        return new ProtoResultSetReader(resultSet, ResultSetSchema.of(resultSet));
     }
 
+    /**
+     * Joins several result sets with the same columns into one reader. Rows are not copied, the returned reader
+     * iterates over the passed readers, so they must not be used separately after joining.
+     *
+     * @param resultSets readers of result sets with the same columns
+     * @return reader of all rows of passed result sets
+     * @throws IllegalArgumentException if the result sets have different columns
+     */
     public static ResultSetReader forResultSets(Collection<ResultSetReader> resultSets) {
-        // TODO: add lightweight implementation instead of proto joining
         Preconditions.checkArgument(!resultSets.isEmpty(), "Expect multiple result sets to join from");
 
-        Iterator<ResultSetReader> iterator = resultSets.iterator();
         if (resultSets.size() == 1) {
-            return castAsProtoReader(iterator.next());
+            return resultSets.iterator().next();
         }
-        ValueProtos.ResultSet.Builder builder = castAsProtoReader(iterator.next()).getResultSet().toBuilder();
-        while (iterator.hasNext()) {
-            ValueProtos.ResultSet resultSet = castAsProtoReader(iterator.next()).getResultSet();
-            if (resultSet.getTruncated()) {
-                builder.setTruncated(true);
+        return new ProtoCompositeResultSetReader(resultSets);
+    }
+
+    /**
+     * Decodes all rows of the result set into the columnar view
+     *
+     * @param resultSet result set to decode
+     * @return columnar view of the result set
+     */
+    public static ColumnarResultSet toColumnar(ValueProtos.ResultSet resultSet) {
+        return new ProtoColumnarResultSet(ResultSetSchema.of(resultSet), Collections.singletonList(resultSet));
+    }
+
+    /**
+     * Decodes all rows of the reader into the columnar view. Position of the reader isn't changed.
+     *
+     * @param reader reader created by {@link #forResultSet} or {@link #forResultSets}
+     * @return columnar view of all rows of the reader
+     * @throws IllegalArgumentException if the reader isn't backed by protobuf result sets
+     */
+    public static ColumnarResultSet toColumnar(ResultSetReader reader) {
+        if (reader instanceof ProtoResultSetReader) {
+            ProtoResultSetReader proto = (ProtoResultSetReader) reader;
+            return new ProtoColumnarResultSet(proto.getSchema(), Collections.singletonList(proto.getResultSet()));
+        }
+
+        if (reader instanceof ProtoCompositeResultSetReader) {
+            ResultSetReader[] readers = ((ProtoCompositeResultSetReader) reader).getReaders();
+            List<ValueProtos.ResultSet> parts = new ArrayList<>(readers.length);
+            ResultSetSchema schema = null;
+            for (ResultSetReader part : readers) {
+                Preconditions.checkArgument(part instanceof ProtoResultSetReader,
+                        "Unsupported result set reader %s", part.getClass().getName());
+                ProtoResultSetReader proto = (ProtoResultSetReader) part;
+                if (schema == null) {
+                    schema = proto.getSchema();
+                }
+                parts.add(proto.getResultSet());
             }
-            builder.addAllRows(resultSet.getRowsList());
-            // TODO: Check columns?
+            return new ProtoColumnarResultSet(schema, parts);
         }
-        return new ProtoResultSetReader(builder.build());
+
+        throw new IllegalArgumentException("Unsupported result set reader " + reader.getClass().getName());
     }
 
     public static ValueReader forType(ValueProtos.Type type) {
         return forTypeImpl(type);
     }
 
+    /**
+     * Creates reader of the value
+     *
+     * @param value value to read
+     * @return reader positioned to the value
+     */
+    public static ValueReader forValue(Value<?> value) {
+        AbstractValueReader reader = forTypeImpl(value.getType().toPb());
+        reader.setProtoValue(value.toPb());
+        return reader;
+    }
+
     static AbstractValueReader forTypeImpl(ValueProtos.Type type) {
+        return compile(type).newReader();
+    }
+
+    /**
+     * Factory of readers of one type. Factory keeps all metadata of the type prepared, so creation of a new
+     * reader tree is just a few allocations
+     */
+    interface ReaderFactory {
+        AbstractValueReader newReader();
+    }
+
+    static ReaderFactory compile(ValueProtos.Type type) {
         switch (type.getTypeCase()) {
             case TYPE_ID:
             case DECIMAL_TYPE:
-                return new ProtoPrimitiveValueReader(type);
+                return () -> new ProtoPrimitiveValueReader(type);
             case OPTIONAL_TYPE:
                 return optionalReader(type);
             case TUPLE_TYPE:
@@ -62,81 +130,86 @@ public class ProtoValueReaders {
             case VARIANT_TYPE:
                 return variantReader(type);
             case VOID_TYPE:
-                return ProtoVoidValueReader.INSTANCE;
+                return () -> ProtoVoidValueReader.INSTANCE;
             default:
                 throw new IllegalStateException("unsupported type: " + type);
         }
     }
 
-    private static AbstractValueReader variantReader(ValueProtos.Type type) {
+    static AbstractValueReader[] newReaders(ReaderFactory[] factories) {
+        AbstractValueReader[] readers = new AbstractValueReader[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            readers[i] = factories[i].newReader();
+        }
+        return readers;
+    }
+
+    private static ReaderFactory variantReader(ValueProtos.Type type) {
         final ValueProtos.VariantType variantType = type.getVariantType();
         if (variantType.hasStructItems()) {
             ValueProtos.StructType structItems = variantType.getStructItems();
-            AbstractValueReader[] itemReaders = new AbstractValueReader[structItems.getMembersCount()];
+            ReaderFactory[] itemFactories = new ReaderFactory[structItems.getMembersCount()];
             for (int i = 0; i < structItems.getMembersCount(); i++) {
-                itemReaders[i] = forTypeImpl(structItems.getMembers(i).getType());
+                itemFactories[i] = compile(structItems.getMembers(i).getType());
             }
-            return new ProtoVariantValueReader(type, itemReaders);
+            return () -> new ProtoVariantValueReader(type, newReaders(itemFactories));
         }
         if (variantType.hasTupleItems()) {
             ValueProtos.TupleType tupleItems = variantType.getTupleItems();
-            AbstractValueReader[] itemReaders = new AbstractValueReader[tupleItems.getElementsCount()];
+            ReaderFactory[] itemFactories = new ReaderFactory[tupleItems.getElementsCount()];
             for (int i = 0; i < tupleItems.getElementsCount(); i++) {
-                itemReaders[i] = forTypeImpl(tupleItems.getElements(i));
+                itemFactories[i] = compile(tupleItems.getElements(i));
             }
-            return new ProtoVariantValueReader(type, itemReaders);
+            return () -> new ProtoVariantValueReader(type, newReaders(itemFactories));
         }
         throw new IllegalStateException("empty variant type");
     }
 
-    private static AbstractValueReader structReader(ValueProtos.Type type) {
+    private static ReaderFactory structReader(ValueProtos.Type type) {
         final ValueProtos.StructType structType = type.getStructType();
         final int membersCount = structType.getMembersCount();
 
-        AbstractValueReader[] memberReaders = new AbstractValueReader[membersCount];
+        ReaderFactory[] memberFactories = new ReaderFactory[membersCount];
         for (int i = 0; i < membersCount; i++) {
-            memberReaders[i] = forTypeImpl(structType.getMembers(i).getType());
+            memberFactories[i] = compile(structType.getMembers(i).getType());
         }
-        return new ProtoStructValueReader(type, memberReaders);
+        Map<String, Integer> nameIdx = ProtoStructValueReader.buildNameIdx(structType);
+        return () -> new ProtoStructValueReader(type, newReaders(memberFactories), nameIdx);
     }
 
-    private static AbstractValueReader listReader(ValueProtos.Type type) {
+    private static ReaderFactory listReader(ValueProtos.Type type) {
         ValueProtos.ListType listType = type.getListType();
-        return new ProtoListValueReader(type, forTypeImpl(listType.getItem()));
+        ReaderFactory itemFactory = compile(listType.getItem());
+        return () -> new ProtoListValueReader(type, itemFactory.newReader());
     }
 
-    private static AbstractValueReader dictReader(ValueProtos.Type type) {
+    private static ReaderFactory dictReader(ValueProtos.Type type) {
         ValueProtos.DictType dictType = type.getDictType();
-        return new ProtoDictValueReader(type,
-            forTypeImpl(dictType.getKey()),
-            forTypeImpl(dictType.getPayload()));
+        ReaderFactory keyFactory = compile(dictType.getKey());
+        ReaderFactory payloadFactory = compile(dictType.getPayload());
+        return () -> new ProtoDictValueReader(type, keyFactory.newReader(), payloadFactory.newReader());
     }
 
-    private static AbstractValueReader optionalReader(ValueProtos.Type type) {
+    private static ReaderFactory optionalReader(ValueProtos.Type type) {
         ValueProtos.Type itemType = type.getOptionalType().getItem();
         switch (itemType.getTypeCase()) {
             case TYPE_ID:
             case DECIMAL_TYPE:
-                return new ProtoPrimitiveValueReader.Optional(type);
+                return () -> new ProtoPrimitiveValueReader.Optional(type);
             default:
-                return new ProtoOptionalValueReader(type, forTypeImpl(itemType));
+                ReaderFactory itemFactory = compile(itemType);
+                return () -> new ProtoOptionalValueReader(type, itemFactory.newReader());
         }
     }
 
-    private static AbstractValueReader tupleReader(ValueProtos.Type type) {
+    private static ReaderFactory tupleReader(ValueProtos.Type type) {
         final ValueProtos.TupleType tupleType = type.getTupleType();
         final int elementsCount = tupleType.getElementsCount();
 
-        AbstractValueReader[] elementReaders = new AbstractValueReader[elementsCount];
+        ReaderFactory[] elementFactories = new ReaderFactory[elementsCount];
         for (int i = 0; i < elementsCount; i++) {
-            elementReaders[i] = forTypeImpl(tupleType.getElements(i));
+            elementFactories[i] = compile(tupleType.getElements(i));
         }
-        return new ProtoTupleValueReader(type, elementReaders);
-    }
-
-    private static ProtoResultSetReader castAsProtoReader(ResultSetReader reader) {
-        Preconditions.checkState(reader instanceof ProtoResultSetReader,
-                "Expect %s class to join from resultSets", ProtoResultSetReader.class);
-        return (ProtoResultSetReader) reader;
+        return () -> new ProtoTupleValueReader(type, newReaders(elementFactories));
     }
 }
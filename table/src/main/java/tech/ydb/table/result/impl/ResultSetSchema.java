@@ -0,0 +1,88 @@
+package tech.ydb.table.result.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.concurrent.Immutable;
+
+import com.google.common.collect.Maps;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.values.Type;
+import tech.ydb.table.values.proto.ProtoType;
+
+
+/**
+ * Compiled columns metadata of result set: names, index of columns by name, types and factories of value readers.
+ * Schemas are cached by the columns metadata, so repeated queries with the same result columns don't build
+ * the readers metadata for every response.
+ */
+@Immutable
+final class ResultSetSchema {
+    static final int CACHE_MAX_SIZE = 512;
+
+    private static final Map<List<ValueProtos.Column>, ResultSetSchema> CACHE = new ConcurrentHashMap<>();
+
+    private final String[] names;
+    private final Map<String, Integer> indexes;
+    private final Type[] types;
+    private final ProtoValueReaders.ReaderFactory[] factories;
+
+    private ResultSetSchema(List<ValueProtos.Column> columns) {
+        int count = columns.size();
+        this.names = new String[count];
+        this.types = new Type[count];
+        this.factories = new ProtoValueReaders.ReaderFactory[count];
+
+        this.indexes = Maps.newHashMapWithExpectedSize(count);
+        for (int i = 0; i < count; i++) {
+            ValueProtos.Column column = columns.get(i);
+            names[i] = column.getName();
+            types[i] = ProtoType.fromPb(column.getType());
+            factories[i] = ProtoValueReaders.compile(column.getType());
+            indexes.put(column.getName(), i);
+        }
+    }
+
+    static ResultSetSchema of(ValueProtos.ResultSet resultSet) {
+        List<ValueProtos.Column> columns = resultSet.getColumnsList();
+        ResultSetSchema schema = CACHE.get(columns);
+        if (schema != null) {
+            return schema;
+        }
+
+        schema = new ResultSetSchema(columns);
+        if (CACHE.size() >= CACHE_MAX_SIZE) {
+            // Simple bounding of cache, full cleaning is cheap and happens only with a lot of different queries
+            CACHE.clear();
+        }
+        CACHE.put(columns, schema);
+        return schema;
+    }
+
+    static int cacheSize() {
+        return CACHE.size();
+    }
+
+    int getColumnCount() {
+        return names.length;
+    }
+
+    String getColumnName(int index) {
+        return names[index];
+    }
+
+    int getColumnIndex(String name) {
+        Integer index = indexes.get(name);
+        return index == null ? -1 : index;
+    }
+
+    Type getColumnType(int index) {
+        return types[index];
+    }
+
+    AbstractValueReader[] newReaders() {
+        return ProtoValueReaders.newReaders(factories);
+    }
+}
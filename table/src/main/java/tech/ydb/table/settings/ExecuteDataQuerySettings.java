@@ -10,6 +10,7 @@ import tech.ydb.table.query.stats.QueryStatsCollectionMode;
 public class ExecuteDataQuerySettings extends RequestSettings<ExecuteDataQuerySettings> {
     private boolean keepInQueryCache = true;
     private QueryStatsCollectionMode collectStats = QueryStatsCollectionMode.NONE;
+    private int retryNumber = 0;
 
     public boolean isKeepInQueryCache() {
         return keepInQueryCache;
@@ -29,4 +30,22 @@ public class ExecuteDataQuerySettings extends RequestSettings<ExecuteDataQuerySe
         this.collectStats = collectStats;
         return this;
     }
+
+    /**
+     * @return number of the attempt of the retry context executing the query, zero for the first attempt
+     */
+    public int getRetryNumber() {
+        return retryNumber;
+    }
+
+    /**
+     * Sets number of the attempt of the retry context executing the query, it is reported for slow queries.
+     *
+     * @param retryNumber number of the attempt, zero for the first attempt
+     * @return this
+     */
+    public ExecuteDataQuerySettings setRetryNumber(int retryNumber) {
+        this.retryNumber = retryNumber;
+        return this;
+    }
 }
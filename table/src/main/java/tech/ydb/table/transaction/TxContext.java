@@ -0,0 +1,234 @@
+package tech.ydb.table.transaction;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import javax.annotation.Nullable;
+import javax.annotation.ParametersAreNonnullByDefault;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.utils.Async;
+import tech.ydb.table.Session;
+import tech.ydb.table.query.DataQuery;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.settings.CommitTxSettings;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.settings.RollbackTxSettings;
+
+/**
+ * Interactive transaction with lazy begin. The transaction is started implicitly by the first executed
+ * statement and the commit can be folded into the last statement, so the transaction doesn't need
+ * separate BeginTransaction and CommitTransaction calls.
+ * <p>
+ * Statements of one context must be executed sequentially, the next statement can be executed only
+ * after completion of the previous one. Any failed statement finishes the transaction, because
+ * the server invalidates the transaction on errors.
+ * <p>
+ * Note that read only modes {@link Transaction.Mode#ONLINE_READ_ONLY} and {@link Transaction.Mode#STALE_READ_ONLY}
+ * don't support interactive transactions, use only the <code>*AndCommit</code> methods with them.
+ */
+@ParametersAreNonnullByDefault
+public final class TxContext {
+    private enum State {
+        NEW,
+        ACTIVE,
+        FINISHED,
+    }
+
+    private final Session session;
+    private final TxControl<?> beginTx;
+
+    private volatile State state = State.NEW;
+    private volatile boolean inProgress = false;
+    @Nullable
+    private volatile String txId = null;
+
+    private TxContext(Session session, Transaction.Mode mode) {
+        this.session = Objects.requireNonNull(session);
+        this.beginTx = beginTxControl(Objects.requireNonNull(mode));
+    }
+
+    public static TxContext create(Session session, Transaction.Mode mode) {
+        return new TxContext(session, mode);
+    }
+
+    private static TxControl<?> beginTxControl(Transaction.Mode mode) {
+        switch (mode) {
+            case SERIALIZABLE_READ_WRITE:
+                return TxControl.serializableRw();
+            case ONLINE_READ_ONLY:
+                return TxControl.onlineRo();
+            case STALE_READ_ONLY:
+                return TxControl.staleRo();
+            case SNAPSHOT_READ_ONLY:
+                return TxControl.snapshotRo();
+            default:
+                throw new IllegalArgumentException("unknown transaction mode: " + mode);
+        }
+    }
+
+    /**
+     * Returns identifier of the transaction
+     *
+     * @return identifier of the transaction or null if the transaction was not started yet
+     */
+    @Nullable
+    public String getTxId() {
+        return txId;
+    }
+
+    /**
+     * Returns true if the transaction was started by the executed statements and is not finished yet
+     *
+     * @return true if the transaction is active
+     */
+    public boolean isActive() {
+        return state == State.ACTIVE;
+    }
+
+    public boolean isFinished() {
+        return state == State.FINISHED;
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeDataQuery(
+            String query, Params params, ExecuteDataQuerySettings settings) {
+        return run(false, tx -> session.executeDataQuery(query, tx, params, settings));
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeDataQuery(String query, Params params) {
+        return executeDataQuery(query, params, new ExecuteDataQuerySettings());
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeDataQuery(String query) {
+        return executeDataQuery(query, Params.empty(), new ExecuteDataQuerySettings());
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> execute(
+            DataQuery query, Params params, ExecuteDataQuerySettings settings) {
+        return run(false, tx -> query.execute(tx, params, settings));
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> execute(DataQuery query, Params params) {
+        return execute(query, params, new ExecuteDataQuerySettings());
+    }
+
+    /**
+     * Executes the last statement of the transaction and commits the transaction with it. If the transaction
+     * was not started yet, the statement is executed in a new transaction with immediate commit.
+     *
+     * @param query text of query
+     * @param params query parameters
+     * @param settings settings of execution
+     * @return future with result of the statement
+     */
+    public CompletableFuture<Result<DataQueryResult>> executeDataQueryAndCommit(
+            String query, Params params, ExecuteDataQuerySettings settings) {
+        return run(true, tx -> session.executeDataQuery(query, tx, params, settings));
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeDataQueryAndCommit(String query, Params params) {
+        return executeDataQueryAndCommit(query, params, new ExecuteDataQuerySettings());
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeDataQueryAndCommit(String query) {
+        return executeDataQueryAndCommit(query, Params.empty(), new ExecuteDataQuerySettings());
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeAndCommit(
+            DataQuery query, Params params, ExecuteDataQuerySettings settings) {
+        return run(true, tx -> query.execute(tx, params, settings));
+    }
+
+    public CompletableFuture<Result<DataQueryResult>> executeAndCommit(DataQuery query, Params params) {
+        return executeAndCommit(query, params, new ExecuteDataQuerySettings());
+    }
+
+    /**
+     * Commits the active transaction. If the transaction was not started, nothing is sent to the server
+     *
+     * @param settings settings of commit
+     * @return future with status of commit
+     */
+    public CompletableFuture<Status> commit(CommitTxSettings settings) {
+        String id = finish();
+        if (id == null) {
+            return CompletableFuture.completedFuture(Status.SUCCESS);
+        }
+        return session.commitTransaction(id, settings);
+    }
+
+    public CompletableFuture<Status> commit() {
+        return commit(new CommitTxSettings());
+    }
+
+    /**
+     * Rollbacks the active transaction. If the transaction was not started, nothing is sent to the server
+     *
+     * @param settings settings of rollback
+     * @return future with status of rollback
+     */
+    public CompletableFuture<Status> rollback(RollbackTxSettings settings) {
+        String id = finish();
+        if (id == null) {
+            return CompletableFuture.completedFuture(Status.SUCCESS);
+        }
+        return session.rollbackTransaction(id, settings);
+    }
+
+    public CompletableFuture<Status> rollback() {
+        return rollback(new RollbackTxSettings());
+    }
+
+    @Nullable
+    private synchronized String finish() {
+        if (inProgress) {
+            throw new IllegalStateException("transaction has statement in progress");
+        }
+        String id = state == State.ACTIVE ? txId : null;
+        state = State.FINISHED;
+        return id;
+    }
+
+    private synchronized TxControl<?> nextTxControl(boolean commitTx) {
+        if (state == State.FINISHED) {
+            throw new IllegalStateException("transaction is already finished");
+        }
+        if (inProgress) {
+            throw new IllegalStateException("transaction has statement in progress");
+        }
+        inProgress = true;
+
+        if (state == State.NEW) {
+            return beginTx.setCommitTx(commitTx);
+        }
+        return TxControl.id(Objects.requireNonNull(txId)).setCommitTx(commitTx);
+    }
+
+    private CompletableFuture<Result<DataQueryResult>> run(
+            boolean commitTx, Function<TxControl<?>, CompletableFuture<Result<DataQueryResult>>> fn) {
+        TxControl<?> tx = nextTxControl(commitTx);
+        return Async.safeCall(tx, fn).whenComplete((result, th) -> onComplete(commitTx, result, th));
+    }
+
+    private synchronized void onComplete(boolean commitTx, @Nullable Result<DataQueryResult> result,
+            @Nullable Throwable th) {
+        inProgress = false;
+        if (th != null || result == null || !result.isSuccess() || commitTx) {
+            state = State.FINISHED;
+            return;
+        }
+
+        String id = result.getValue().getTxId();
+        if (id == null || id.isEmpty()) {
+            // Statement was executed in a mode without interactive transactions
+            state = State.FINISHED;
+            return;
+        }
+
+        txId = id;
+        state = State.ACTIVE;
+    }
+}
@@ -100,6 +100,18 @@ public class DecimalType implements Type {
         return DecimalValue.fromUnscaledLong(this, value);
     }
 
+    /**
+     * Creates decimal value from unscaled long value with the given scale. Value is rescaled to the scale of
+     * this type, extra fractional digits are truncated.
+     *
+     * @param value unscaled value
+     * @param scale scale of the unscaled value
+     * @return decimal value of this type
+     */
+    public DecimalValue newValueUnscaled(long value, int scale) {
+        return DecimalValue.fromUnscaledLong(this, value, scale);
+    }
+
     public DecimalValue newValue(BigDecimal value) {
         return DecimalValue.fromBigDecimal(this, value);
     }
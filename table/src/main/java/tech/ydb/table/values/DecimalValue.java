@@ -9,12 +9,32 @@ import tech.ydb.table.values.proto.ProtoValue;
 /**
  * @author Sergey Polovko
  */
-public class DecimalValue implements Value<DecimalType> {
+public class DecimalValue implements Value<DecimalType>, Comparable<DecimalValue> {
     private static final DecimalType MAX_DECIMAL = DecimalType.of(DecimalType.MAX_PRECISION);
 
     private static final long HALF_LONG_MASK = 0xFFFFFFFFL;
     private static final long LONG_SIGN_BIT = 0x8000000000000000L;
-    private static final long LONG_MAX_DIGITS = 18;
+    private static final int LONG_MAX_DIGITS = 18;
+
+    /**
+     * Max power of ten which can be used as a divisor of 128-bit value split into 32-bit parts.
+     */
+    private static final int CHUNK_DIGITS = 9;
+    private static final long CHUNK_DIVISOR = 1_000_000_000L;
+
+    /**
+     * Max value of high part which can be multiplied by ten without overflow.
+     */
+    private static final long MAX_HIGH_TO_MULTIPLY = (Long.MAX_VALUE - 9) / 10;
+
+    private static final long[] LONG_POWERS_OF_TEN = new long[LONG_MAX_DIGITS + 1];
+
+    static {
+        LONG_POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < LONG_POWERS_OF_TEN.length; i++) {
+            LONG_POWERS_OF_TEN[i] = LONG_POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
 
     private static final BigInteger BIGINT_TWO = BigInteger.valueOf(2);
 
@@ -79,12 +99,25 @@ public class DecimalValue implements Value<DecimalType> {
         return (high & LONG_SIGN_BIT) != 0;
     }
 
+    /**
+     * Returns unscaled value as long.
+     *
+     * @return unscaled value
+     * @throws ArithmeticException if the unscaled value doesn't fit in a long
+     */
+    public long toUnscaledLong() {
+        if (!isUnscaledLong()) {
+            throw new ArithmeticException("unscaled value of " + this + " is out of long range");
+        }
+        return low;
+    }
+
     public BigInteger toUnscaledBigInteger() {
         if (isZero()) {
             return BigInteger.ZERO;
         }
 
-        if (high == 0 && low > 0) {
+        if (isUnscaledLong()) {
             return BigInteger.valueOf(low);
         }
 
@@ -99,14 +132,19 @@ public class DecimalValue implements Value<DecimalType> {
             return BigInteger.ZERO;
         }
 
+        int scale = type.getScale();
+        if (isUnscaledLong() && scale <= LONG_MAX_DIGITS) {
+            return BigInteger.valueOf(scale == 0 ? low : divideRounded(low, LONG_POWERS_OF_TEN[scale]));
+        }
+
         BigInteger unscaled = toUnscaledBigInteger();
-        if (type.getScale() == 0) {
+        if (scale == 0) {
             return unscaled;
         }
 
-        BigInteger scale = BigInteger.TEN.pow(type.getScale());
-        BigInteger halfEven = scale.divide(BIGINT_TWO);
-        BigInteger[] scaled = unscaled.divideAndRemainder(BigInteger.TEN.pow(type.getScale()));
+        BigInteger divisor = BigInteger.TEN.pow(scale);
+        BigInteger halfEven = divisor.divide(BIGINT_TWO);
+        BigInteger[] scaled = unscaled.divideAndRemainder(divisor);
 
         // round positive value
         if (unscaled.signum() > 0 && scaled[1].compareTo(halfEven) >= 0) {
@@ -124,13 +162,130 @@ public class DecimalValue implements Value<DecimalType> {
             return BigDecimal.ZERO.setScale(type.getScale());
         }
 
+        if (isUnscaledLong()) {
+            return BigDecimal.valueOf(low, type.getScale());
+        }
+
         return new BigDecimal(toUnscaledBigInteger(), type.getScale());
     }
 
     public long toLong() {
+        int scale = type.getScale();
+        if (isUnscaledLong()) {
+            if (scale == 0) {
+                return low;
+            }
+            if (scale <= LONG_MAX_DIGITS) {
+                return divideRounded(low, LONG_POWERS_OF_TEN[scale]);
+            }
+        } else if (scale > 0 && scale <= CHUNK_DIGITS) {
+            // values like Decimal(22, 9) don't fit in a long, but their integer part does
+            boolean negative = isNegative();
+            long h = high;
+            long l = low;
+            if (negative) {
+                h = ~h;
+                l = ~l;
+                if (++l == 0) {
+                    h++;
+                }
+            }
+
+            long divisor = LONG_POWERS_OF_TEN[scale];
+            long remainder = h % divisor;
+            long quotientHigh = h / divisor;
+
+            remainder = (l >>> 32) + (remainder << 32);
+            long quotient = remainder / divisor;
+            remainder %= divisor;
+
+            remainder = (l & HALF_LONG_MASK) + (remainder << 32);
+            quotient = (quotient << 32) | (remainder / divisor);
+            remainder %= divisor;
+
+            if (remainder >= divisor / 2) {
+                quotient++;
+            }
+            if (quotientHigh == 0 && quotient >= 0) {
+                return negative ? -quotient : quotient;
+            }
+        }
+
         return toBigInteger().longValueExact();
     }
 
+    /**
+     * Compares this value with the specified one numerically. Values with different scales are compared by
+     * their numeric values, so this method isn't consistent with {@link #equals(Object)}. Negative infinity is
+     * less than any other value, {@link #NAN} is greater than any other value including positive infinity.
+     *
+     * @param other value to compare with
+     * @return a negative integer, zero, or a positive integer as this value is less than, equal to, or greater
+     * than the specified value
+     */
+    @Override
+    public int compareTo(DecimalValue other) {
+        int rank = specialRank();
+        int otherRank = other.specialRank();
+        if (rank != 0 || otherRank != 0) {
+            return Integer.compare(rank, otherRank);
+        }
+
+        int scale = type.getScale();
+        int otherScale = other.type.getScale();
+        if (scale == otherScale) {
+            return high != other.high ? Long.compare(high, other.high) : Long.compareUnsigned(low, other.low);
+        }
+
+        if (isUnscaledLong() && other.isUnscaledLong()) {
+            // bring both values to the same scale if it doesn't overflow
+            int diff = otherScale - scale;
+            if (diff > 0 && diff <= LONG_MAX_DIGITS) {
+                long limit = Long.MAX_VALUE / LONG_POWERS_OF_TEN[diff];
+                if (low >= -limit && low <= limit) {
+                    return Long.compare(low * LONG_POWERS_OF_TEN[diff], other.low);
+                }
+            } else if (diff < 0 && -diff <= LONG_MAX_DIGITS) {
+                long limit = Long.MAX_VALUE / LONG_POWERS_OF_TEN[-diff];
+                if (other.low >= -limit && other.low <= limit) {
+                    return Long.compare(low, other.low * LONG_POWERS_OF_TEN[-diff]);
+                }
+            }
+        }
+
+        return toBigDecimal().compareTo(other.toBigDecimal());
+    }
+
+    private boolean isUnscaledLong() {
+        return high == (low >> 63);
+    }
+
+    private int specialRank() {
+        if (this == NEG_INF) {
+            return -1;
+        }
+        if (this == INF) {
+            return 1;
+        }
+        return this == NAN ? 2 : 0;
+    }
+
+    /**
+     * Divide value and round the result half away from zero.
+     */
+    private static long divideRounded(long value, long divisor) {
+        long quotient = value / divisor;
+        long remainder = value % divisor;
+        long half = divisor / 2;
+        if (remainder >= half) {
+            return quotient + 1;
+        }
+        if (-remainder >= half) {
+            return quotient - 1;
+        }
+        return quotient;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -168,9 +323,7 @@ public class DecimalValue implements Value<DecimalType> {
             return "0";
         }
 
-        StringBuilder sb = new StringBuilder(DecimalType.MAX_PRECISION + 4);
-        writeAsString(sb, type.getScale(), high, low);
-        return sb.toString();
+        return format(type.getScale(), high, low);
     }
 
     public String toUnscaledString() {
@@ -178,19 +331,19 @@ public class DecimalValue implements Value<DecimalType> {
             return "0";
         }
 
-        StringBuilder sb = new StringBuilder(DecimalType.MAX_PRECISION + 2);
-        writeAsString(sb, 0, high, low);
-        return sb.toString();
+        return format(0, high, low);
     }
 
-    private static void writeAsString(StringBuilder sb, int scale, long ahigh, long alow) {
+    /**
+     * Formats 128-bit value dividing it by 10^9 per iteration, so every iteration produces nine digits.
+     */
+    private static String format(int scale, long ahigh, long alow) {
         long high = ahigh;
         long low = alow;
         boolean isNegative = (ahigh & LONG_SIGN_BIT) != 0;
-        boolean dot = false;
 
         // make positive number
-        if ((high & LONG_SIGN_BIT) != 0 && (high != LONG_SIGN_BIT || low != 0)) {
+        if (isNegative && (high != LONG_SIGN_BIT || low != 0)) {
             high = ~high;
             low = ~low;
             if (++low == 0) {
@@ -198,48 +351,57 @@ public class DecimalValue implements Value<DecimalType> {
             }
         }
 
+        // up to 39 digits, dot, leading zero and sign
+        char[] buf = new char[48];
+        int pos = buf.length;
+        int digits = 0;
+
         long lowHi = low >>> 32;
         long lowLo = low & HALF_LONG_MASK;
 
-        final int divisor = 10;
+        boolean last;
         do {
             // (1) high part
-            long remainder = high % divisor;
-            high /= divisor;
+            long remainder = high % CHUNK_DIVISOR;
+            high /= CHUNK_DIVISOR;
 
             // (2.1) high part of low
             remainder = lowHi + (remainder << 32);
-            lowHi = remainder / divisor;
-            remainder %= divisor;
+            lowHi = remainder / CHUNK_DIVISOR;
+            remainder %= CHUNK_DIVISOR;
 
             // (2.2) low part of low
             remainder = lowLo + (remainder << 32);
-            lowLo = remainder / divisor;
+            lowLo = remainder / CHUNK_DIVISOR;
 
-            sb.append(Character.forDigit((int) (remainder % divisor), divisor));
+            int chunk = (int) (remainder % CHUNK_DIVISOR);
+            last = high == 0 && lowHi == 0 && lowLo == 0;
 
-            if (--scale == 0) {
-                sb.append('.');
-                dot = true;
+            // the last chunk is written without leading zeros
+            for (int i = 0; i < CHUNK_DIGITS && (chunk != 0 || !last); i++) {
+                buf[--pos] = (char) ('0' + chunk % 10);
+                chunk /= 10;
+                if (++digits == scale) {
+                    buf[--pos] = '.';
+                }
             }
-        } while (high != 0 || lowHi != 0 || lowLo != 0);
+        } while (!last);
 
-        if (dot && scale == 0) {
-            sb.append('0');
-        } else if (!dot && scale > 0) {
-            while (scale-- > 0) {
-                sb.append('0');
+        if (scale > 0 && digits <= scale) {
+            while (digits < scale) {
+                buf[--pos] = '0';
+                if (++digits == scale) {
+                    buf[--pos] = '.';
+                }
             }
-
-            sb.append('.');
-            sb.append('0');
+            buf[--pos] = '0';
         }
 
         if (isNegative) {
-            sb.append('-');
+            buf[--pos] = '-';
         }
 
-        sb.reverse();
+        return new String(buf, pos, buf.length - pos);
     }
 
     @Override
@@ -340,31 +502,32 @@ public class DecimalValue implements Value<DecimalType> {
         return fromBits(type, high, low);
     }
 
-    private static DecimalValue fromUnsignedLong(DecimalType type, boolean positive, long value) {
-        if (value == 0) {
-            return new DecimalValue(type, 0L, 0L);
-        }
+    /**
+     * Multiply non negative 128-bit value by 10^scaleAdjust and restore its sign.
+     */
+    private static DecimalValue fromMagnitude(DecimalType type, boolean negative, long ahigh, long alow,
+            int scaleAdjust) {
+        long high = ahigh;
+        long lowHi = alow >>> 32;
+        long lowLo = alow & HALF_LONG_MASK;
 
-        long high = 0;
-        long lowHi = value >>> 32;
-        long lowLo = value & HALF_LONG_MASK;
+        for (int scale = 0; scale < scaleAdjust; scale += 1) {
+            if (high > MAX_HIGH_TO_MULTIPLY) {
+                // number is too big, return infinite
+                return negative ? NEG_INF : INF;
+            }
 
-        for (int scale = 0; scale < type.getScale(); scale += 1) {
             lowLo = lowLo * 10;
             lowHi = lowHi * 10 + (lowLo >>> 32);
             high = high * 10 + (lowHi >>> 32);
 
             lowLo = lowLo & HALF_LONG_MASK;
             lowHi = lowHi & HALF_LONG_MASK;
-            if ((high & LONG_SIGN_BIT) != 0) {
-                // number is too big, return infinite
-                return positive ? INF : NEG_INF;
-            }
         }
 
         long low = lowHi << 32 | lowLo;
 
-        if (!positive && (high != LONG_SIGN_BIT || low != 0)) {
+        if (negative && (high != LONG_SIGN_BIT || low != 0)) {
             // restore negative number
             high = ~high;
             low = ~low;
@@ -375,6 +538,13 @@ public class DecimalValue implements Value<DecimalType> {
         return fromBits(type, high, low);
     }
 
+    private static DecimalValue fromUnsignedLong(DecimalType type, boolean positive, long value) {
+        if (value == 0) {
+            return new DecimalValue(type, 0L, 0L);
+        }
+        return fromMagnitude(type, !positive, 0, value, type.getScale());
+    }
+
     static DecimalValue fromUnsignedLong(DecimalType type, long value) {
         return fromUnsignedLong(type, true, value);
     }
@@ -384,6 +554,23 @@ public class DecimalValue implements Value<DecimalType> {
         return fromUnsignedLong(type, positive, positive ? value : -value);
     }
 
+    static DecimalValue fromUnscaledLong(DecimalType type, long value, int scale) {
+        int scaleAdjust = type.getScale() - scale;
+        if (scaleAdjust == 0) {
+            return fromUnscaledLong(type, value);
+        }
+        if (scaleAdjust < 0) {
+            // 10^19 is greater than any long value
+            long divided = -scaleAdjust <= LONG_MAX_DIGITS ? value / LONG_POWERS_OF_TEN[-scaleAdjust] : 0;
+            return fromUnscaledLong(type, divided);
+        }
+        if (value == 0) {
+            return new DecimalValue(type, 0L, 0L);
+        }
+        // -Long.MIN_VALUE keeps the same bits which are a valid unsigned magnitude
+        return fromMagnitude(type, value < 0, 0, value < 0 ? -value : value, scaleAdjust);
+    }
+
     static DecimalValue fromString(DecimalType type, String value) {
         if (value.isEmpty()) {
             throw new NumberFormatException("cannot parse decimal from empty string");
@@ -425,30 +612,34 @@ public class DecimalValue implements Value<DecimalType> {
             return new DecimalValue(type, 0, 0);
         }
 
-        long accumulated = 0;
-        int accumulatedCount = 0;
+        int scale = type.getScale();
+        long high = 0;
+        long lowHi = 0;
+        long lowLo = 0;
+        boolean overflow = false;
         boolean fractional = false; // after '.'
         int fractionalDigits = 0;
-        BigInteger unscaledValue = BigInteger.ZERO;
 
         while (cursor < end) {
             char ch = value.charAt(cursor);
             if (ch >= '0' && ch <= '9') {
-                if (accumulatedCount == DecimalValue.LONG_MAX_DIGITS) {
-                    if (unscaledValue == BigInteger.ZERO) {
-                        unscaledValue = BigInteger.valueOf(accumulated);
-                    } else {
-                        unscaledValue = unscaledValue.multiply(BigInteger.TEN.pow(accumulatedCount));
-                        unscaledValue = unscaledValue.add(BigInteger.valueOf(accumulated));
-                    }
-                    accumulated = 0;
-                    accumulatedCount = 0;
+                // digits after the scale are truncated
+                boolean skip = overflow || fractional && fractionalDigits == scale;
+                if (!skip && high > MAX_HIGH_TO_MULTIPLY) {
+                    overflow = true;
+                    skip = true;
                 }
-                int digit = ch - '0';
-                accumulated = accumulated * 10 + digit;
-                ++accumulatedCount;
-                if (fractional) {
-                    ++fractionalDigits;
+
+                if (!skip) {
+                    lowLo = lowLo * 10 + (ch - '0');
+                    lowHi = lowHi * 10 + (lowLo >>> 32);
+                    high = high * 10 + (lowHi >>> 32);
+
+                    lowLo = lowLo & HALF_LONG_MASK;
+                    lowHi = lowHi & HALF_LONG_MASK;
+                    if (fractional) {
+                        ++fractionalDigits;
+                    }
                 }
             } else if (ch == '.') {
                 if (fractional) {
@@ -462,30 +653,18 @@ public class DecimalValue implements Value<DecimalType> {
             ++cursor;
         }
 
-        if (accumulatedCount > 0) {
-            if (unscaledValue == BigInteger.ZERO) {
-                unscaledValue = BigInteger.valueOf(accumulated);
-            } else {
-                unscaledValue = unscaledValue.multiply(BigInteger.TEN.pow(accumulatedCount));
-                unscaledValue = unscaledValue.add(BigInteger.valueOf(accumulated));
-            }
-        }
-
-        int scaleAdjust = type.getScale() - fractionalDigits;
-        if (scaleAdjust > 0) {
-            unscaledValue = unscaledValue.multiply(BigInteger.TEN.pow(scaleAdjust));
-        } else if (scaleAdjust < 0) {
-            unscaledValue = unscaledValue.divide(BigInteger.TEN.pow(-scaleAdjust));
-        }
-
-        if (negative) {
-            unscaledValue = unscaledValue.negate();
+        if (overflow) {
+            return negative ? DecimalValue.NEG_INF : DecimalValue.INF;
         }
 
-        return fromUnscaledBigInteger(type, unscaledValue);
+        return fromMagnitude(type, negative, high, lowHi << 32 | lowLo, scale - fractionalDigits);
     }
 
     static DecimalValue fromBigInteger(DecimalType type, BigInteger value) {
+        if (value.bitLength() < 64) {
+            return fromLong(type, value.longValue());
+        }
+
         BigInteger rawValue = value;
         int scale = type.getScale();
         if (scale > 0) {
@@ -496,6 +675,9 @@ public class DecimalValue implements Value<DecimalType> {
 
     static DecimalValue fromBigDecimal(DecimalType type, BigDecimal value) {
         BigInteger rawValue = value.unscaledValue();
+        if (rawValue.bitLength() < 64) {
+            return fromUnscaledLong(type, rawValue.longValue(), value.scale());
+        }
 
         int scaleAdjust = type.getScale() - value.scale();
         if (scaleAdjust > 0) {
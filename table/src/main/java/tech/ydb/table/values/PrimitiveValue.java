@@ -225,6 +225,13 @@ public abstract class PrimitiveValue implements Value<PrimitiveType> {
         return value.isEmpty() ? Text.EMPTY_TEXT : new Text(PrimitiveType.Text, value);
     }
 
+    /*
+     * given bytes must be UTF-8 encoded text, they are not decoded
+     */
+    public static PrimitiveValue newText(ByteString utf8) {
+        return utf8.isEmpty() ? Text.EMPTY_TEXT : new Text(PrimitiveType.Text, utf8);
+    }
+
     public static PrimitiveValue newYson(byte[] value) {
         return value.length == 0 ? Bytes.EMPTY_YSON : new Bytes(PrimitiveType.Yson, value.clone());
     }
@@ -241,10 +248,24 @@ public abstract class PrimitiveValue implements Value<PrimitiveType> {
         return value.isEmpty() ? Text.EMPTY_JSON : new Text(PrimitiveType.Json, value);
     }
 
+    /*
+     * given bytes must be UTF-8 encoded json, they are not decoded
+     */
+    public static PrimitiveValue newJson(ByteString utf8) {
+        return utf8.isEmpty() ? Text.EMPTY_JSON : new Text(PrimitiveType.Json, utf8);
+    }
+
     public static PrimitiveValue newJsonDocument(String value) {
         return value.isEmpty() ? Text.EMPTY_JSON_DOCUMENT : new Text(PrimitiveType.JsonDocument, value);
     }
 
+    /*
+     * given bytes must be UTF-8 encoded json, they are not decoded
+     */
+    public static PrimitiveValue newJsonDocument(ByteString utf8) {
+        return utf8.isEmpty() ? Text.EMPTY_JSON_DOCUMENT : new Text(PrimitiveType.JsonDocument, utf8);
+    }
+
     public static PrimitiveValue newUuid(long high, long low) {
         return new Uuid(high, low);
     }
@@ -1024,13 +1045,21 @@ public abstract class PrimitiveValue implements Value<PrimitiveType> {
             .build();
 
         private final PrimitiveType type;
-        private final String value;
+        // String or UTF-8 encoded ByteString
+        private final Object value;
+        // decoded value of ByteString, racy caching is safe because strings are immutable
+        private String decoded;
 
         Text(PrimitiveType type, String value) {
             this.type = type;
             this.value = value;
         }
 
+        Text(PrimitiveType type, ByteString utf8) {
+            this.type = type;
+            this.value = utf8;
+        }
+
         @Override
         public PrimitiveType getType() {
             return type;
@@ -1039,19 +1068,31 @@ public abstract class PrimitiveValue implements Value<PrimitiveType> {
         @Override
         public String getText() {
             checkType(PrimitiveType.Text, type);
-            return value;
+            return getString();
         }
 
         @Override
         public String getJson() {
             checkType(PrimitiveType.Json, type);
-            return value;
+            return getString();
         }
 
         @Override
         public String getJsonDocument() {
             checkType(PrimitiveType.JsonDocument, type);
-            return value;
+            return getString();
+        }
+
+        private String getString() {
+            if (value instanceof String) {
+                return (String) value;
+            }
+            String str = decoded;
+            if (str == null) {
+                str = ((ByteString) value).toStringUtf8();
+                decoded = str;
+            }
+            return str;
         }
 
         @Override
@@ -1068,26 +1109,33 @@ public abstract class PrimitiveValue implements Value<PrimitiveType> {
             if (type != that.type) {
                 return false;
             }
-            return that.value.equals(value);
+            if ((value instanceof String) == (that.value instanceof String)) {
+                return that.value.equals(value);
+            }
+            return that.getString().equals(getString());
         }
 
         @Override
         public int hashCode() {
-            return 31 * type.hashCode() + value.hashCode();
+            return 31 * type.hashCode() + getString().hashCode();
         }
 
         @Override
         public String toString() {
-            if (value.isEmpty()) {
+            String text = getString();
+            if (text.isEmpty()) {
                 return "\"\"";
             }
 
-            return '\"' + ESCAPER.escape(value) + '\"';
+            return '\"' + ESCAPER.escape(text) + '\"';
         }
 
         @Override
         public ValueProtos.Value toPb() {
-            return ProtoValue.fromText(value);
+            if (value instanceof String) {
+                return ProtoValue.fromText((String) value);
+            }
+            return ProtoValue.fromTextBytes((ByteString) value);
         }
     }
 
@@ -146,6 +146,17 @@ public class ProtoValue {
         return value.getTextValue();
     }
 
+    /*
+     * given bytes must be UTF-8 encoded text, they are not decoded
+     */
+    public static ValueProtos.Value fromTextBytes(ByteString utf8) {
+        return ValueProtos.Value.newBuilder().setTextValueBytes(utf8).build();
+    }
+
+    public static ByteString toTextBytes(ValueProtos.Value value) {
+        return value.getTextValueBytes();
+    }
+
     // - yson -
 
     public static ValueProtos.Value fromYson(byte[] value) {
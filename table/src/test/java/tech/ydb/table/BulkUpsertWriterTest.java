@@ -0,0 +1,310 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.KeyRange;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.BulkUpsertData;
+import tech.ydb.table.query.BulkUpsertRowsData;
+import tech.ydb.table.settings.BulkUpsertSettings;
+import tech.ydb.table.settings.DescribeTableSettings;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.TupleValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class BulkUpsertWriterTest {
+    private static final String TABLE = "/local/series";
+
+    private static StructValue row(long id) {
+        return StructValue.of("id", PrimitiveValue.newUint64(id), "title", PrimitiveValue.newText("title " + id));
+    }
+
+    private static TableDescription description(long... bounds) {
+        TableDescription.Builder builder = TableDescription.newBuilder()
+                .addNullableColumn("id", PrimitiveType.Uint64)
+                .addNullableColumn("title", PrimitiveType.Text)
+                .setPrimaryKey("id");
+        Optional<KeyBound> from = Optional.empty();
+        for (long bound : bounds) {
+            TupleValue key = TupleValue.of(PrimitiveValue.newUint64(bound).makeOptional());
+            builder.addKeyRange(new KeyRange(from, Optional.of(KeyBound.exclusive(key))));
+            from = Optional.of(KeyBound.inclusive(key));
+        }
+        builder.addKeyRange(new KeyRange(from, Optional.empty()));
+        return builder.build();
+    }
+
+    @Test
+    public void partitionBatchingTest() throws InterruptedException {
+        TableSupplier table = new TableSupplier(description(30, 60));
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMinutes(1))
+                .build();
+
+        Assert.assertEquals(1, table.describes.get());
+        for (long id = 0; id < 90; id++) {
+            // rows of different shards are interleaved
+            writer.write(row((id % 3) * 30 + id / 3));
+        }
+        Assert.assertTrue(table.requests.isEmpty());
+
+        Assert.assertEquals(Status.SUCCESS, writer.flush().join());
+        Assert.assertEquals(3, table.requests.size());
+        for (List<Long> request : table.requests) {
+            Assert.assertEquals(30, request.size());
+            long shard = request.get(0) / 30;
+            for (long id : request) {
+                Assert.assertEquals(shard, id / 30);
+            }
+        }
+        Assert.assertEquals(0, writer.getBufferedBytes());
+    }
+
+    @Test
+    public void maxBatchRowsTest() throws InterruptedException {
+        TableSupplier table = new TableSupplier(description());
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withTableDescription(description())
+                .withLinger(Duration.ofMinutes(1))
+                .withMaxBatchRows(10)
+                .build();
+
+        Assert.assertEquals(0, table.describes.get());
+        CompletableFuture<Status> first = writer.write(row(0));
+        CompletableFuture<Status> last = null;
+        for (long id = 1; id < 25; id++) {
+            last = writer.write(row(id));
+        }
+
+        Assert.assertEquals(2, table.requests.size());
+        Assert.assertEquals(Status.SUCCESS, first.join());
+        Assert.assertFalse(last.isDone());
+
+        writer.close();
+        Assert.assertEquals(3, table.requests.size());
+        Assert.assertEquals(5, table.requests.get(2).size());
+        Assert.assertEquals(Status.SUCCESS, last.join());
+    }
+
+    @Test
+    public void lingerTest() throws Exception {
+        TableSupplier table = new TableSupplier(description(50));
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMillis(10))
+                .build();
+
+        CompletableFuture<Status> first = writer.write(row(1));
+        CompletableFuture<Status> second = writer.write(row(100));
+
+        Assert.assertEquals(Status.SUCCESS, first.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(Status.SUCCESS, second.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(2, table.requests.size());
+    }
+
+    @Test
+    public void memoryBudgetTest() throws Exception {
+        TableSupplier table = new TableSupplier(description());
+        table.manual = true;
+        long rowSize = row(0).toPb().getSerializedSize();
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMinutes(1))
+                .withMaxBatchRows(1)
+                .withMaxInFlight(1)
+                .withMemoryBudgetBytes(2 * rowSize)
+                .build();
+
+        CompletableFuture<Status> first = writer.write(row(0));
+        CompletableFuture<Status> second = writer.write(row(1));
+        Assert.assertEquals(1, table.requests.size());
+        Assert.assertEquals(2 * rowSize, writer.getBufferedBytes());
+
+        CompletableFuture<CompletableFuture<Status>> third = new CompletableFuture<>();
+        Thread writerThread = new Thread(() -> {
+            try {
+                third.complete(writer.write(row(2)));
+            } catch (InterruptedException e) {
+                third.completeExceptionally(e);
+            }
+        });
+        writerThread.start();
+        awaitWaiting(writerThread);
+        Assert.assertFalse(third.isDone());
+
+        // the first batch releases memory and the second one is sent
+        table.responses.get(0).complete(Status.SUCCESS);
+        Assert.assertEquals(Status.SUCCESS, first.join());
+        third.get(10, TimeUnit.SECONDS);
+        Assert.assertEquals(2, table.requests.size());
+
+        table.responses.get(1).complete(Status.SUCCESS);
+        Assert.assertEquals(Status.SUCCESS, second.join());
+        Assert.assertEquals(3, table.requests.size());
+    }
+
+    @Test
+    public void prefixBoundTest() throws InterruptedException {
+        // the inclusive bound contains only the first key column, so all keys with id 30 are in the first shard
+        TupleValue prefix = TupleValue.of(PrimitiveValue.newUint64(30).makeOptional());
+        TableDescription description = TableDescription.newBuilder()
+                .addNullableColumn("id", PrimitiveType.Uint64)
+                .addNullableColumn("ts", PrimitiveType.Uint64)
+                .setPrimaryKeys("id", "ts")
+                .addKeyRange(new KeyRange(Optional.empty(), Optional.of(KeyBound.inclusive(prefix))))
+                .addKeyRange(new KeyRange(Optional.of(KeyBound.exclusive(prefix)), Optional.empty()))
+                .build();
+        TableSupplier table = new TableSupplier(description);
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMinutes(1))
+                .build();
+
+        for (long[] key : new long[][] {{10, 1}, {30, 5}, {31, 0}, {30, 0}}) {
+            writer.write(StructValue.of("id", PrimitiveValue.newUint64(key[0]),
+                    "ts", PrimitiveValue.newUint64(key[1])));
+        }
+        writer.close();
+
+        Assert.assertEquals(2, table.requests.size());
+        Assert.assertTrue(table.requests.contains(Arrays.asList(10L, 30L, 30L)));
+        Assert.assertTrue(table.requests.contains(Collections.singletonList(31L)));
+    }
+
+    @Test
+    public void notComparableKeyTest() throws InterruptedException {
+        TupleValue bound = TupleValue.of(PrimitiveValue.newUuid(0, 1L << 62).makeOptional());
+        TableDescription description = TableDescription.newBuilder()
+                .addNullableColumn("id", PrimitiveType.Uuid)
+                .setPrimaryKey("id")
+                .addKeyRange(new KeyRange(Optional.empty(), Optional.of(KeyBound.exclusive(bound))))
+                .addKeyRange(new KeyRange(Optional.of(KeyBound.inclusive(bound)), Optional.empty()))
+                .build();
+        TableSupplier table = new TableSupplier(description);
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMinutes(1))
+                .build();
+
+        writer.write(StructValue.of("id", PrimitiveValue.newUuid(0, 1)));
+        writer.write(StructValue.of("id", PrimitiveValue.newUuid(0, -1)));
+        writer.close();
+
+        // Uuid keys cannot be compared on the client, so rows are written by a single request
+        Assert.assertEquals(1, table.requests.size());
+        Assert.assertEquals(2, table.requests.get(0).size());
+    }
+
+    @Test
+    public void failedBatchTest() throws InterruptedException {
+        TableSupplier table = new TableSupplier(description(50));
+        table.status = Status.of(StatusCode.SCHEME_ERROR);
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMinutes(1))
+                .build();
+
+        CompletableFuture<Status> first = writer.write(row(1));
+        writer.write(row(100));
+
+        Assert.assertEquals(StatusCode.SCHEME_ERROR, writer.flush().join().getCode());
+        Assert.assertEquals(StatusCode.SCHEME_ERROR, first.join().getCode());
+        Assert.assertEquals(0, writer.getBufferedBytes());
+    }
+
+    @Test
+    public void describeFailureTest() throws InterruptedException {
+        TableSupplier table = new TableSupplier(null);
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .withLinger(Duration.ofMinutes(1))
+                .build();
+
+        writer.write(row(1));
+        writer.write(row(100));
+        writer.close();
+
+        // rows are written by a single request
+        Assert.assertEquals(Collections.singletonList(Arrays.asList(1L, 100L)), table.requests);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void writeAfterCloseTest() throws InterruptedException {
+        TableSupplier table = new TableSupplier(description());
+        BulkUpsertWriter writer = BulkUpsertWriter.newBuilder(table.retryContext(), table.getScheduler(), TABLE)
+                .build();
+        writer.close();
+        writer.write(row(1));
+    }
+
+    /**
+     * Waits until the thread is blocked waiting for memory
+     */
+    private static void awaitWaiting(Thread thread) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING) {
+            Assert.assertTrue("thread is not blocked", thread.isAlive() && System.nanoTime() < deadline);
+            Thread.yield();
+        }
+    }
+
+    private static final class TableSupplier extends SessionSupplierStub {
+        private final TableDescription description;
+        private final AtomicInteger describes = new AtomicInteger();
+        private final List<List<Long>> requests = Collections.synchronizedList(new ArrayList<>());
+        private final List<CompletableFuture<Status>> responses = Collections.synchronizedList(new ArrayList<>());
+        private volatile Status status = Status.SUCCESS;
+        private volatile boolean manual = false;
+
+        TableSupplier(TableDescription description) {
+            this.description = description;
+        }
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public CompletableFuture<Result<TableDescription>> describeTable(String path,
+                        DescribeTableSettings settings) {
+                    Assert.assertTrue(settings.isIncludeShardKeyBounds());
+                    describes.incrementAndGet();
+                    if (description == null) {
+                        return completedFuture(Result.fail(Status.of(StatusCode.UNAUTHORIZED)));
+                    }
+                    return completedFuture(Result.success(description));
+                }
+
+                @Override
+                public CompletableFuture<Status> executeBulkUpsert(String tablePath, BulkUpsertData data,
+                        BulkUpsertSettings settings) {
+                    List<Long> ids = new ArrayList<>();
+                    for (ValueProtos.Value row : ((BulkUpsertRowsData) data).getRows().getValue().getItemsList()) {
+                        ids.add(row.getItems(0).getUint64Value());
+                    }
+                    requests.add(ids);
+
+                    if (manual) {
+                        CompletableFuture<Status> response = new CompletableFuture<>();
+                        responses.add(response);
+                        return response;
+                    }
+                    return completedFuture(status);
+                }
+            };
+        }
+    }
+}
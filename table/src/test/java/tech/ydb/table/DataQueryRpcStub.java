@@ -0,0 +1,169 @@
+package tech.ydb.table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.grpc.GrpcRequestSettings;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.values.Type;
+
+
+/**
+ * Emulates sessions, preparation and execution of data queries and transactions of the table service. Prepared
+ * queries get ids {@code query_1}, {@code query_2} and so on, transactions begun by queries get ids {@code tx_1},
+ * {@code tx_2} and so on.
+ */
+public class DataQueryRpcStub extends TableRpcStub {
+    private final Map<String, Type> parameterTypes = new HashMap<>();
+    private final List<String> prepared = Collections.synchronizedList(new ArrayList<>());
+    private final List<YdbTable.ExecuteDataQueryRequest> executed = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> commits = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> rollbacks = Collections.synchronizedList(new ArrayList<>());
+    private String failedQueryId = null;
+    private Status failedStatus = null;
+    private int txCounter = 0;
+
+    public DataQueryRpcStub() {
+        this(null);
+    }
+
+    public DataQueryRpcStub(ScheduledExecutorService scheduler) {
+        super(scheduler);
+    }
+
+    /**
+     * Sets type of the parameter returned for all prepared queries
+     */
+    public DataQueryRpcStub withParameterType(String name, Type type) {
+        parameterTypes.put(name, type);
+        return this;
+    }
+
+    /**
+     * Fails the next execution of any query with the given status
+     */
+    public void failNextExecution(Status status) {
+        failNextExecution("", status);
+    }
+
+    /**
+     * Fails the next execution of the prepared query with the given status
+     */
+    public synchronized void failNextExecution(String queryId, Status status) {
+        this.failedQueryId = queryId;
+        this.failedStatus = status;
+    }
+
+    /**
+     * @return texts of prepared queries
+     */
+    public List<String> getPrepared() {
+        return prepared;
+    }
+
+    /**
+     * @return ids of executed queries, empty ids for queries executed by text
+     */
+    public List<String> getExecutedIds() {
+        List<String> ids = new ArrayList<>();
+        synchronized (executed) {
+            for (YdbTable.ExecuteDataQueryRequest request : executed) {
+                ids.add(request.getQuery().getId());
+            }
+        }
+        return ids;
+    }
+
+    public List<YdbTable.ExecuteDataQueryRequest> getExecuted() {
+        return executed;
+    }
+
+    public YdbTable.ExecuteDataQueryRequest getLastExecuted() {
+        synchronized (executed) {
+            return executed.get(executed.size() - 1);
+        }
+    }
+
+    public List<String> getCommits() {
+        return commits;
+    }
+
+    public List<String> getRollbacks() {
+        return rollbacks;
+    }
+
+    @Override
+    public CompletableFuture<Result<YdbTable.CreateSessionResult>> createSession(
+            YdbTable.CreateSessionRequest request, GrpcRequestSettings settings) {
+        YdbTable.CreateSessionResult result = YdbTable.CreateSessionResult.newBuilder()
+                .setSessionId("session")
+                .build();
+        return CompletableFuture.completedFuture(Result.success(result));
+    }
+
+    @Override
+    public CompletableFuture<Status> deleteSession(
+            YdbTable.DeleteSessionRequest request, GrpcRequestSettings settings) {
+        return CompletableFuture.completedFuture(Status.SUCCESS);
+    }
+
+    @Override
+    public CompletableFuture<Result<YdbTable.PrepareQueryResult>> prepareDataQuery(
+            YdbTable.PrepareDataQueryRequest request, GrpcRequestSettings settings) {
+        prepared.add(request.getYqlText());
+        YdbTable.PrepareQueryResult.Builder result = YdbTable.PrepareQueryResult.newBuilder()
+                .setQueryId("query_" + prepared.size());
+        parameterTypes.forEach((name, type) -> result.putParametersTypes(name, type.toPb()));
+        return CompletableFuture.completedFuture(Result.success(result.build()));
+    }
+
+    @Override
+    public CompletableFuture<Result<YdbTable.ExecuteQueryResult>> executeDataQuery(
+            YdbTable.ExecuteDataQueryRequest request, GrpcRequestSettings settings) {
+        executed.add(request);
+
+        Status failure = null;
+        YdbTable.ExecuteQueryResult.Builder result = YdbTable.ExecuteQueryResult.newBuilder();
+        synchronized (this) {
+            boolean matches = failedQueryId != null
+                    && (failedQueryId.isEmpty() || failedQueryId.equals(request.getQuery().getId()));
+            if (matches) {
+                failure = failedStatus;
+                failedQueryId = null;
+                failedStatus = null;
+            }
+
+            YdbTable.TransactionControl txControl = request.getTxControl();
+            if (failure == null && !txControl.getCommitTx()) {
+                String txId = txControl.hasBeginTx() ? "tx_" + (++txCounter) : txControl.getTxId();
+                result.getTxMetaBuilder().setId(txId);
+            }
+        }
+
+        if (failure != null) {
+            return CompletableFuture.completedFuture(Result.fail(failure));
+        }
+        return CompletableFuture.completedFuture(Result.success(result.build()));
+    }
+
+    @Override
+    public CompletableFuture<Status> commitTransaction(
+            YdbTable.CommitTransactionRequest request, GrpcRequestSettings settings) {
+        commits.add(request.getTxId());
+        return CompletableFuture.completedFuture(Status.SUCCESS);
+    }
+
+    @Override
+    public CompletableFuture<Status> rollbackTransaction(
+            YdbTable.RollbackTransactionRequest request, GrpcRequestSettings settings) {
+        rollbacks.add(request.getTxId());
+        return CompletableFuture.completedFuture(Status.SUCCESS);
+    }
+}
@@ -0,0 +1,183 @@
+package tech.ydb.table;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.KeyRange;
+import tech.ydb.table.settings.ReadTableSettings;
+import tech.ydb.table.values.DecimalType;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.TupleValue;
+
+
+public class KeyRangesTest {
+
+    private static TupleValue key(long value) {
+        return TupleValue.of(PrimitiveValue.newUint64(value).makeOptional());
+    }
+
+    private static List<KeyRange> shards(long... bounds) {
+        KeyRange[] ranges = new KeyRange[bounds.length + 1];
+        Optional<KeyBound> from = Optional.empty();
+        for (int i = 0; i < bounds.length; i++) {
+            ranges[i] = new KeyRange(from, Optional.of(KeyBound.exclusive(key(bounds[i]))));
+            from = Optional.of(KeyBound.inclusive(key(bounds[i])));
+        }
+        ranges[bounds.length] = new KeyRange(from, Optional.empty());
+        return Arrays.asList(ranges);
+    }
+
+    @Test
+    public void compareTest() {
+        Assert.assertTrue(KeyRanges.compare(PrimitiveValue.newUint64(-1), PrimitiveValue.newUint64(1)) > 0);
+        Assert.assertTrue(KeyRanges.compare(PrimitiveValue.newInt64(-1), PrimitiveValue.newInt64(1)) < 0);
+        Assert.assertTrue(KeyRanges.compare(PrimitiveValue.newText("ab"), PrimitiveValue.newText("b")) < 0);
+        Assert.assertTrue(KeyRanges.compare(PrimitiveValue.newText("\u044f"), PrimitiveValue.newText("z")) > 0);
+        Assert.assertTrue(KeyRanges.compare(
+                DecimalType.getDefault().newValue("1.5"), DecimalType.getDefault().newValue("-2")) > 0);
+
+        // empty optional is less than any value
+        Assert.assertTrue(KeyRanges.compare(
+                OptionalType.of(PrimitiveType.Int32).emptyValue(), PrimitiveValue.newInt32(Integer.MIN_VALUE)) < 0);
+        Assert.assertEquals(0,
+                KeyRanges.compare(PrimitiveValue.newInt32(5).makeOptional(), PrimitiveValue.newInt32(5)));
+
+        Assert.assertTrue(KeyRanges.compare(
+                TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("b")),
+                TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("a"))) > 0);
+        Assert.assertTrue(KeyRanges.compare(
+                TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("b")),
+                TupleValue.of(PrimitiveValue.newInt32(2))) < 0);
+
+        Assert.assertTrue(KeyRanges.compare(
+                TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("b")),
+                TupleValue.of(PrimitiveValue.newInt32(1))) > 0);
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> KeyRanges.compare(PrimitiveValue.newInt32(1), PrimitiveValue.newInt64(1)));
+    }
+
+    @Test
+    public void compareBoundsTest() {
+        KeyBound prefix = KeyBound.inclusive(TupleValue.of(PrimitiveValue.newInt32(1)));
+        KeyBound prefixExclusive = KeyBound.exclusive(TupleValue.of(PrimitiveValue.newInt32(1)));
+        KeyBound key = KeyBound.inclusive(TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("b")));
+
+        // inclusive from and exclusive to prefixes are placed before all keys with the prefix
+        Assert.assertTrue(KeyRanges.compareBounds(prefix, true, key, true) < 0);
+        Assert.assertTrue(KeyRanges.compareBounds(prefixExclusive, false, key, true) < 0);
+        Assert.assertTrue(KeyRanges.compareBounds(key, false, prefixExclusive, false) > 0);
+
+        // exclusive from and inclusive to prefixes are placed after all keys with the prefix
+        Assert.assertTrue(KeyRanges.compareBounds(prefixExclusive, true, key, true) > 0);
+        Assert.assertTrue(KeyRanges.compareBounds(prefix, false, key, false) > 0);
+        Assert.assertTrue(KeyRanges.compareBounds(key, true, prefix, false) < 0);
+
+        Assert.assertEquals(0, KeyRanges.compareBounds(prefix, true, prefixExclusive, false));
+        Assert.assertTrue(KeyRanges.compareBounds(
+                KeyBound.inclusive(TupleValue.of(PrimitiveValue.newInt32(2))), true, key, false) > 0);
+    }
+
+    @Test
+    public void splitKeyPrefixTest() {
+        // range [(1), (1, "m")) with prefix from bound intersects both shards split by key (1, "c")
+        TupleValue split = TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("c"));
+        List<KeyRange> shards = Arrays.asList(
+                new KeyRange(Optional.empty(), Optional.of(KeyBound.exclusive(split))),
+                new KeyRange(Optional.of(KeyBound.inclusive(split)), Optional.empty()));
+        TupleValue to = TupleValue.of(PrimitiveValue.newInt32(1), PrimitiveValue.newText("m"));
+        List<ReadTableSettings> ranges = KeyRanges.split(ReadTableSettings.newBuilder()
+                .fromKeyInclusive(TupleValue.of(PrimitiveValue.newInt32(1)))
+                .toKeyExclusive(to)
+                .build(), shards);
+
+        Assert.assertNotNull(ranges);
+        Assert.assertEquals(2, ranges.size());
+        Assert.assertEquals(TupleValue.of(PrimitiveValue.newInt32(1)), ranges.get(0).getFromKey());
+        Assert.assertEquals(split, ranges.get(0).getToKey());
+        Assert.assertEquals(split, ranges.get(1).getFromKey());
+        Assert.assertEquals(to, ranges.get(1).getToKey());
+
+        // exclusive prefix from bound is placed after the whole first shard
+        ranges = KeyRanges.split(ReadTableSettings.newBuilder()
+                .fromKeyExclusive(TupleValue.of(PrimitiveValue.newInt32(1)))
+                .build(), shards);
+        Assert.assertNotNull(ranges);
+        Assert.assertEquals(1, ranges.size());
+        Assert.assertEquals(TupleValue.of(PrimitiveValue.newInt32(1)), ranges.get(0).getFromKey());
+        Assert.assertFalse(ranges.get(0).isFromInclusive());
+    }
+
+    @Test
+    public void splitWholeTableTest() {
+        List<ReadTableSettings> ranges = KeyRanges.split(ReadTableSettings.newBuilder()
+                .orderedRead(true)
+                .columns("id")
+                .build(), shards(10, 20));
+
+        Assert.assertNotNull(ranges);
+        Assert.assertEquals(3, ranges.size());
+
+        Assert.assertNull(ranges.get(0).getFromKey());
+        Assert.assertEquals(key(10), ranges.get(0).getToKey());
+        Assert.assertFalse(ranges.get(0).isToInclusive());
+
+        Assert.assertEquals(key(10), ranges.get(1).getFromKey());
+        Assert.assertTrue(ranges.get(1).isFromInclusive());
+        Assert.assertEquals(key(20), ranges.get(1).getToKey());
+        Assert.assertFalse(ranges.get(1).isToInclusive());
+
+        Assert.assertEquals(key(20), ranges.get(2).getFromKey());
+        Assert.assertNull(ranges.get(2).getToKey());
+
+        for (ReadTableSettings range : ranges) {
+            Assert.assertTrue(range.isOrdered());
+            Assert.assertEquals(Arrays.asList("id"), range.getColumns());
+        }
+    }
+
+    @Test
+    public void splitKeyRangeTest() {
+        List<ReadTableSettings> ranges = KeyRanges.split(ReadTableSettings.newBuilder()
+                .fromKeyExclusive(PrimitiveValue.newUint64(10))
+                .toKeyInclusive(PrimitiveValue.newUint64(20))
+                .build(), shards(10, 20, 30));
+
+        // range (10, 20] intersects only shards [10, 20) and [20, 30)
+        Assert.assertNotNull(ranges);
+        Assert.assertEquals(2, ranges.size());
+
+        Assert.assertEquals(key(10), ranges.get(0).getFromKey());
+        Assert.assertFalse(ranges.get(0).isFromInclusive());
+        Assert.assertEquals(key(20), ranges.get(0).getToKey());
+        Assert.assertFalse(ranges.get(0).isToInclusive());
+
+        Assert.assertEquals(key(20), ranges.get(1).getFromKey());
+        Assert.assertTrue(ranges.get(1).isFromInclusive());
+        Assert.assertEquals(key(20), ranges.get(1).getToKey());
+        Assert.assertTrue(ranges.get(1).isToInclusive());
+    }
+
+    @Test
+    public void isComparableTest() {
+        Assert.assertTrue(KeyRanges.isComparable(PrimitiveType.Text));
+        Assert.assertTrue(KeyRanges.isComparable(OptionalType.of(PrimitiveType.Timestamp)));
+        Assert.assertTrue(KeyRanges.isComparable(DecimalType.getDefault()));
+        Assert.assertFalse(KeyRanges.isComparable(PrimitiveType.Uuid));
+        Assert.assertFalse(KeyRanges.isComparable(OptionalType.of(PrimitiveType.Uuid)));
+    }
+
+    @Test
+    public void splitIncomparableTest() {
+        ReadTableSettings settings = ReadTableSettings.newBuilder()
+                .fromKeyInclusive(PrimitiveValue.newInt32(10))
+                .build();
+        Assert.assertNull(KeyRanges.split(settings, shards(10, 20)));
+    }
+}
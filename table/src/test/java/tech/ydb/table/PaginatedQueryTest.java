@@ -0,0 +1,149 @@
+package tech.ydb.table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.core.UnexpectedResultException;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.Value;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class PaginatedQueryTest {
+    private static final int ROWS_COUNT = 25;
+
+    private static List<Long> readAll(PaginatedQuery query) {
+        List<Long> keys = new ArrayList<>();
+        for (ResultSetReader page : query) {
+            while (page.next()) {
+                keys.add(page.getColumn("id").getUint64());
+            }
+        }
+        return keys;
+    }
+
+    private static List<Long> expectedKeys(long from) {
+        List<Long> keys = new ArrayList<>();
+        for (long i = from; i < ROWS_COUNT; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+    @Test
+    public void readPagesTest() {
+        TableSupplier table = new TableSupplier(Integer.MAX_VALUE);
+        PaginatedQuery query = PaginatedQuery.newBuilder(table.retryContext(), "/local/series", Arrays.asList("id"))
+                .withColumns(Arrays.asList("title"))
+                .withPageSize(10)
+                .build();
+
+        Assert.assertEquals(expectedKeys(0), readAll(query));
+        Assert.assertEquals(3, table.queries.size());
+        Assert.assertEquals("SELECT `title`, `id` FROM `/local/series` ORDER BY `id` LIMIT 10;",
+                table.queries.get(0));
+        Assert.assertEquals("DECLARE $page_key_0 AS Uint64;\n"
+                + "SELECT `title`, `id` FROM `/local/series` WHERE ((`id` > $page_key_0)) ORDER BY `id` LIMIT 10;",
+                table.queries.get(1));
+        Assert.assertEquals(table.queries.get(1), table.queries.get(2));
+    }
+
+    @Test
+    public void truncatedPagesTest() {
+        TableSupplier table = new TableSupplier(7);
+        PaginatedQuery query = PaginatedQuery.newBuilder(table.retryContext(), "/local/series", Arrays.asList("id"))
+                .withPredicate("id >= $from", Params.of("$from", PrimitiveValue.newUint64(3)))
+                .withPageSize(10)
+                .withPrefetch(false)
+                .build();
+
+        Assert.assertEquals(expectedKeys(3), readAll(query));
+        Assert.assertEquals(4, table.queries.size());
+        Assert.assertEquals("DECLARE $from AS Uint64;\n"
+                + "DECLARE $page_key_0 AS Uint64;\n"
+                + "SELECT * FROM `/local/series` WHERE (id >= $from) AND ((`id` > $page_key_0))"
+                + " ORDER BY `id` LIMIT 10;",
+                table.queries.get(1));
+    }
+
+    @Test
+    public void failedPageTest() {
+        TableSupplier table = new TableSupplier(Integer.MAX_VALUE);
+        table.failed = true;
+        PaginatedQuery query = PaginatedQuery.newBuilder(table.retryContext(), "/local/series", Arrays.asList("id"))
+                .build();
+
+        Iterator<ResultSetReader> it = query.iterator();
+        UnexpectedResultException ex = Assert.assertThrows(UnexpectedResultException.class, it::hasNext);
+        Assert.assertEquals(StatusCode.SCHEME_ERROR, ex.getStatus().getCode());
+    }
+
+    /**
+     * Emulates table with keys from 0 to ROWS_COUNT and with limit of result set size
+     */
+    private static final class TableSupplier extends SessionSupplierStub {
+        private final int resultLimit;
+        private final List<String> queries = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean failed = false;
+
+        TableSupplier(int resultLimit) {
+            this.resultLimit = resultLimit;
+        }
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public CompletableFuture<Result<DataQueryResult>> executeDataQuery(
+                        String query, TxControl<?> txControl, Params params, ExecuteDataQuerySettings settings) {
+                    queries.add(query);
+                    if (failed) {
+                        return completedFuture(Result.fail(Status.of(StatusCode.SCHEME_ERROR)));
+                    }
+                    return completedFuture(Result.success(execute(params)));
+                }
+            };
+        }
+
+        private DataQueryResult execute(Params params) {
+            long from = 0;
+            Value<?> fromParam = params.values().get("$from");
+            if (fromParam != null) {
+                from = fromParam.asData().getUint64();
+            }
+            Value<?> lastKey = params.values().get("$page_key_0");
+            if (lastKey != null) {
+                from = Math.max(from, lastKey.asData().getUint64() + 1);
+            }
+
+            ValueProtos.ResultSet.Builder resultSet = ValueProtos.ResultSet.newBuilder()
+                    .addColumns(ValueProtos.Column.newBuilder().setName("id").setType(ProtoType.getUint64()));
+            long to = Math.min(ROWS_COUNT, from + Math.min(10, resultLimit));
+            for (long id = from; id < to; id++) {
+                resultSet.addRows(ValueProtos.Value.newBuilder().addItems(ProtoValue.fromUint64(id)));
+            }
+            resultSet.setTruncated(to < ROWS_COUNT && resultLimit < 10);
+            return new DataQueryResult(YdbTable.ExecuteQueryResult.newBuilder().addResultSets(resultSet).build());
+        }
+    }
+}
@@ -0,0 +1,256 @@
+package tech.ydb.table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.core.grpc.GrpcReadStream;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.common.CommonProtos;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.description.KeyBound;
+import tech.ydb.table.description.KeyRange;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.ReadTablePart;
+import tech.ydb.table.settings.ReadTableSettings;
+import tech.ydb.table.values.OptionalValue;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.TupleValue;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class ParallelReadTableTest {
+    private static final int ROWS_COUNT = 100;
+    private static final int PART_SIZE = 10;
+
+    private static TupleValue key(long value) {
+        return TupleValue.of(PrimitiveValue.newUint64(value).makeOptional());
+    }
+
+    private static long keyValue(TupleValue key) {
+        return ((OptionalValue) key.get(0)).get().asData().getUint64();
+    }
+
+    private static TableDescription description(long... bounds) {
+        TableDescription.Builder builder = TableDescription.newBuilder()
+                .addNullableColumn("id", PrimitiveType.Uint64)
+                .setPrimaryKey("id");
+        Optional<KeyBound> from = Optional.empty();
+        for (long bound : bounds) {
+            builder.addKeyRange(new KeyRange(from, Optional.of(KeyBound.exclusive(key(bound)))));
+            from = Optional.of(KeyBound.inclusive(key(bound)));
+        }
+        builder.addKeyRange(new KeyRange(from, Optional.empty()));
+        return builder.build();
+    }
+
+    private static List<Long> read(ParallelReadTable reader) {
+        List<Long> keys = new ArrayList<>();
+        Status status = reader.start(part -> {
+            while (part.next()) {
+                keys.add(part.getColumn("id").getOptionalItem().getUint64());
+            }
+        }).join();
+        Assert.assertEquals(Status.SUCCESS, status);
+        return keys;
+    }
+
+    private static List<Long> allKeys() {
+        List<Long> keys = new ArrayList<>();
+        for (long i = 0; i < ROWS_COUNT; i++) {
+            keys.add(i);
+        }
+        return keys;
+    }
+
+    @Test
+    public void unorderedReadTest() {
+        TableSupplier table = new TableSupplier(-1);
+        ParallelReadTable reader = ParallelReadTable.newBuilder(table.retryContext(), "/local/table")
+                .withTableDescription(description(25, 50, 75))
+                .withMaxConcurrency(2)
+                .build();
+
+        List<Long> keys = read(reader);
+        Collections.sort(keys);
+        Assert.assertEquals(allKeys(), keys);
+        Assert.assertEquals(4, table.streamsCount.get());
+    }
+
+    @Test
+    public void orderedReadTest() {
+        TableSupplier table = new TableSupplier(-1);
+        ParallelReadTable reader = ParallelReadTable.newBuilder(table.retryContext(), "/local/table")
+                .withTableDescription(description(33, 66))
+                .withSettings(ReadTableSettings.newBuilder().orderedRead(true).build())
+                .build();
+
+        Assert.assertEquals(allKeys(), read(reader));
+        Assert.assertEquals(3, table.streamsCount.get());
+    }
+
+    @Test
+    public void resumeAfterFailureTest() {
+        // stream of range containing key 60 fails once after the first part
+        TableSupplier table = new TableSupplier(60);
+        ParallelReadTable reader = ParallelReadTable.newBuilder(table.retryContext(), "/local/table")
+                .withTableDescription(description(50))
+                .withSettings(ReadTableSettings.newBuilder().orderedRead(true).build())
+                .build();
+
+        Assert.assertEquals(allKeys(), read(reader));
+        Assert.assertEquals(3, table.streamsCount.get());
+    }
+
+    @Test
+    public void bufferLimitTest() {
+        // the first range is blocked, so parts of the next ranges are buffered
+        TableSupplier table = new TableSupplier(-1);
+        table.firstRangeGate = new CompletableFuture<>();
+        ParallelReadTable reader = ParallelReadTable.newBuilder(table.retryContext(), "/local/table")
+                .withTableDescription(description(25, 50, 75))
+                .withSettings(ReadTableSettings.newBuilder().orderedRead(true).build())
+                .withMaxConcurrency(2)
+                .withMaxBufferedParts(1)
+                .build();
+
+        List<Long> keys = new ArrayList<>();
+        CompletableFuture<Status> status = reader.start(part -> {
+            while (part.next()) {
+                keys.add(part.getColumn("id").getOptionalItem().getUint64());
+            }
+        });
+
+        // the second range is paused after two parts and no other range is read ahead
+        Assert.assertFalse(status.isDone());
+        Assert.assertEquals(2, table.partsCount.get());
+        Assert.assertEquals(1, table.cancelsCount.get());
+        Assert.assertEquals(2, table.streamsCount.get());
+
+        // the second range is resumed after its last buffered key when the first one is finished
+        table.firstRangeGate.complete(null);
+        Assert.assertEquals(Status.SUCCESS, status.join());
+        Assert.assertEquals(allKeys(), keys);
+        Assert.assertEquals(5, table.streamsCount.get());
+        Assert.assertEquals(12, table.partsCount.get());
+    }
+
+    @Test
+    public void notResumableFailureTest() {
+        TableSupplier table = new TableSupplier(60);
+        ParallelReadTable reader = ParallelReadTable.newBuilder(table.retryContext(), "/local/table")
+                .withTableDescription(description(50))
+                .withSettings(ReadTableSettings.newBuilder().columns("value").build())
+                .build();
+
+        Status status = reader.start(part -> { }).join();
+        // delivered rows without key columns cannot be skipped, so the status of the failed stream is returned
+        Assert.assertEquals(StatusCode.UNAVAILABLE, status.getCode());
+        Assert.assertEquals(2, table.streamsCount.get());
+    }
+
+    /**
+     * Emulates table with keys from 0 to ROWS_COUNT, returned by parts of PART_SIZE rows
+     */
+    private static final class TableSupplier extends SessionSupplierStub {
+        private final AtomicInteger streamsCount = new AtomicInteger();
+        private final AtomicInteger partsCount = new AtomicInteger();
+        private final AtomicInteger cancelsCount = new AtomicInteger();
+        private volatile long failKey;
+        /** Stream of the range starting from the first key sends its parts only after completion of the gate */
+        private volatile CompletableFuture<Void> firstRangeGate = completedFuture(null);
+
+        TableSupplier(long failKey) {
+            this.failKey = failKey;
+        }
+
+        @Override
+        public SessionRetryContext retryContext() {
+            return SessionRetryContext.create(this).maxRetries(2).idempotent(true).build();
+        }
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public GrpcReadStream<ReadTablePart> executeReadTable(String tablePath, ReadTableSettings settings) {
+                    streamsCount.incrementAndGet();
+                    return new TableStream(settings);
+                }
+            };
+        }
+
+        private final class TableStream implements GrpcReadStream<ReadTablePart> {
+            private final long from;
+            private final long to;
+            private volatile boolean cancelled = false;
+
+            TableStream(ReadTableSettings settings) {
+                TupleValue fromKey = settings.getFromKey();
+                TupleValue toKey = settings.getToKey();
+                this.from = fromKey == null ? 0 : keyValue(fromKey) + (settings.isFromInclusive() ? 0 : 1);
+                this.to = toKey == null ? ROWS_COUNT : keyValue(toKey) + (settings.isToInclusive() ? 1 : 0);
+            }
+
+            @Override
+            public CompletableFuture<Status> start(Observer<ReadTablePart> observer) {
+                if (from == 0) {
+                    return firstRangeGate.thenApply(ignored -> send(observer));
+                }
+                return completedFuture(send(observer));
+            }
+
+            @Override
+            public CompletableFuture<Status> startWithFlowControl(FlowControlObserver<ReadTablePart> observer) {
+                return start(part -> observer.onNext(part).join());
+            }
+
+            private Status send(Observer<ReadTablePart> observer) {
+                for (long partFrom = from; partFrom < to; partFrom += PART_SIZE) {
+                    if (cancelled) {
+                        return Status.of(StatusCode.CLIENT_CANCELLED);
+                    }
+                    if (partFrom > from && failKey >= from && failKey < to) {
+                        failKey = -1;
+                        return Status.of(StatusCode.UNAVAILABLE);
+                    }
+                    partsCount.incrementAndGet();
+                    observer.onNext(part(partFrom, Math.min(partFrom + PART_SIZE, to)));
+                }
+                return Status.SUCCESS;
+            }
+
+            @Override
+            public void cancel() {
+                cancelsCount.incrementAndGet();
+                cancelled = true;
+            }
+
+            private ReadTablePart part(long partFrom, long partTo) {
+                ValueProtos.ResultSet.Builder resultSet = ValueProtos.ResultSet.newBuilder()
+                        .addColumns(ValueProtos.Column.newBuilder()
+                                .setName("id")
+                                .setType(ProtoType.getOptional(ProtoType.getUint64())));
+                for (long id = partFrom; id < partTo; id++) {
+                    resultSet.addRows(ValueProtos.Value.newBuilder().addItems(ProtoValue.fromUint64(id)));
+                }
+                YdbTable.ReadTableResult result = YdbTable.ReadTableResult.newBuilder()
+                        .setResultSet(resultSet)
+                        .build();
+                return new ReadTablePart(result, CommonProtos.VirtualTimestamp.getDefaultInstance());
+            }
+        }
+    }
+}
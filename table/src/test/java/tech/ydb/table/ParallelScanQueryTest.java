@@ -0,0 +1,257 @@
+package tech.ydb.table;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.core.grpc.GrpcReadStream;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.impl.ProtoValueReaders;
+import tech.ydb.table.settings.ExecuteScanQuerySettings;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class ParallelScanQueryTest {
+    private static final int PARTS_COUNT = 50;
+    private static final String QUERY = "SELECT id FROM series";
+
+    private static final ExecutorService workers = Executors.newFixedThreadPool(8);
+    private static final ExecutorService callbacks = Executors.newCachedThreadPool();
+
+    @AfterClass
+    public static void cleanUp() {
+        workers.shutdown();
+        callbacks.shutdown();
+    }
+
+    private static ResultSetReader part(long id) {
+        return ProtoValueReaders.forResultSet(ValueProtos.ResultSet.newBuilder()
+                .addColumns(ValueProtos.Column.newBuilder()
+                        .setName("id")
+                        .setType(ProtoType.getUint64()))
+                .addRows(ValueProtos.Value.newBuilder().addItems(ProtoValue.fromUint64(id)))
+                .build());
+    }
+
+    private static long readId(ResultSetReader part) {
+        Assert.assertTrue(part.next());
+        return part.getColumn("id").getUint64();
+    }
+
+    private static void sleepRandom() {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextInt(5));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Test
+    public void orderedTest() {
+        ScanSupplier scan = new ScanSupplier();
+        ParallelScanQuery query = ParallelScanQuery.newBuilder(scan.retryContext(), workers, QUERY)
+                .withParallelism(4)
+                .withOrdered(true)
+                .build();
+
+        List<Long> ids = new ArrayList<>();
+        Status status = query.start(part -> {
+            sleepRandom();
+            return readId(part);
+        }, ids::add).join();
+
+        Assert.assertEquals(Status.SUCCESS, status);
+        Assert.assertEquals(PARTS_COUNT, ids.size());
+        for (int i = 0; i < PARTS_COUNT; i++) {
+            Assert.assertEquals(Long.valueOf(i), ids.get(i));
+        }
+    }
+
+    @Test
+    public void parallelismTest() {
+        ScanSupplier scan = new ScanSupplier();
+        ParallelScanQuery query = ParallelScanQuery.newBuilder(scan.retryContext(), workers, QUERY)
+                .withParallelism(3)
+                .build();
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Long> ids = Collections.synchronizedList(new ArrayList<>());
+        Status status = query.start(part -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            sleepRandom();
+            ids.add(readId(part));
+            running.decrementAndGet();
+        }).join();
+
+        Assert.assertEquals(Status.SUCCESS, status);
+        Assert.assertEquals(PARTS_COUNT, ids.size());
+        Assert.assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void prefetchTest() throws Exception {
+        ScanSupplier scan = new ScanSupplier();
+        ParallelScanQuery query = ParallelScanQuery.newBuilder(scan.retryContext(), workers, QUERY)
+                .withParallelism(2)
+                .withMaxPrefetch(5)
+                .build();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        AtomicInteger processed = new AtomicInteger();
+        CompletableFuture<Status> status = query.start(part -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            processed.incrementAndGet();
+        });
+
+        Assert.assertTrue(scan.suspended.await(10, TimeUnit.SECONDS));
+        // five parts are prefetched and the next one isn't requested
+        Assert.assertEquals(5, scan.sent.get());
+        Assert.assertFalse(status.isDone());
+
+        latch.countDown();
+        Assert.assertEquals(Status.SUCCESS, status.get(10, TimeUnit.SECONDS));
+        Assert.assertEquals(PARTS_COUNT, processed.get());
+        Assert.assertEquals(PARTS_COUNT, scan.sent.get());
+    }
+
+    @Test
+    public void processorFailureTest() throws Exception {
+        ScanSupplier scan = new ScanSupplier();
+        ParallelScanQuery query = ParallelScanQuery.newBuilder(scan.retryContext(), workers, QUERY)
+                .withMaxPrefetch(2)
+                .build();
+
+        Status status = query.start(part -> {
+            if (readId(part) == 10) {
+                throw new IllegalStateException("broken part");
+            }
+        }).get(10, TimeUnit.SECONDS);
+
+        Assert.assertEquals(StatusCode.CLIENT_INTERNAL_ERROR, status.getCode());
+        Assert.assertTrue(scan.cancelled);
+    }
+
+    @Test
+    public void retryBeforeFirstPartTest() {
+        ScanSupplier scan = new ScanSupplier();
+        scan.failures = 1;
+        ParallelScanQuery query = ParallelScanQuery.newBuilder(scan.retryContext(), workers, QUERY).build();
+
+        AtomicInteger processed = new AtomicInteger();
+        Status status = query.start(part -> {
+            processed.incrementAndGet();
+        }).join();
+
+        Assert.assertEquals(Status.SUCCESS, status);
+        Assert.assertEquals(2, scan.streams.get());
+        Assert.assertEquals(PARTS_COUNT, processed.get());
+    }
+
+    @Test
+    public void failureAfterPartsTest() {
+        ScanSupplier scan = new ScanSupplier();
+        scan.failedPart = 10;
+        ParallelScanQuery query = ParallelScanQuery.newBuilder(scan.retryContext(), workers, QUERY).build();
+
+        Status status = query.start(part -> { }).join();
+
+        // processed parts cannot be read again, so the status of the failed stream is returned without retries
+        Assert.assertEquals(StatusCode.UNAVAILABLE, status.getCode());
+        Assert.assertEquals(1, scan.streams.get());
+    }
+
+    private static final class ScanSupplier extends SessionSupplierStub {
+        private final AtomicInteger streams = new AtomicInteger();
+        private final AtomicInteger sent = new AtomicInteger();
+        private final CountDownLatch suspended = new CountDownLatch(1);
+        private volatile int failures = 0;
+        private volatile int failedPart = -1;
+        private volatile boolean cancelled = false;
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public GrpcReadStream<ResultSetReader> executeScanQuery(String query, Params params,
+                        ExecuteScanQuerySettings settings) {
+                    streams.incrementAndGet();
+                    return new ScanStream();
+                }
+            };
+        }
+
+        /**
+         * Stream which delivers parts on its own thread like gRPC callbacks and requests the next part only when
+         * the observer is ready
+         */
+        private final class ScanStream implements GrpcReadStream<ResultSetReader> {
+            @Override
+            public CompletableFuture<Status> start(Observer<ResultSetReader> observer) {
+                return startWithFlowControl(part -> {
+                    observer.onNext(part);
+                    return completedFuture(null);
+                });
+            }
+
+            @Override
+            public CompletableFuture<Status> startWithFlowControl(FlowControlObserver<ResultSetReader> observer) {
+                if (failures > 0) {
+                    failures--;
+                    return completedFuture(Status.of(StatusCode.UNAVAILABLE));
+                }
+                CompletableFuture<Status> status = new CompletableFuture<>();
+                callbacks.execute(() -> send(0, observer, status));
+                return status;
+            }
+
+            private void send(int from, FlowControlObserver<ResultSetReader> observer,
+                    CompletableFuture<Status> status) {
+                for (int i = from; i < PARTS_COUNT && !cancelled; i++) {
+                    if (i == failedPart) {
+                        failedPart = -1;
+                        status.complete(Status.of(StatusCode.UNAVAILABLE));
+                        return;
+                    }
+                    sent.incrementAndGet();
+                    CompletableFuture<Void> ready = observer.onNext(part(i));
+                    if (!ready.isDone()) {
+                        int next = i + 1;
+                        ready.thenRunAsync(() -> send(next, observer, status), callbacks);
+                        suspended.countDown();
+                        return;
+                    }
+                }
+                status.complete(cancelled ? Status.of(StatusCode.CLIENT_CANCELLED) : Status.SUCCESS);
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.impl.pool.MockedClock;
+import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class QueryResultCacheTest {
+    private static final String QUERY = "DECLARE $id AS Uint64; SELECT * FROM series WHERE series_id = $id;";
+
+    private static Params params(long id) {
+        return Params.of("$id", PrimitiveValue.newUint64(id));
+    }
+
+    private static QueryResultCache.Builder cache(QuerySupplier supplier) {
+        return QueryResultCache.newBuilder(supplier.retryContext());
+    }
+
+    @Test
+    public void cachedResultTest() {
+        QuerySupplier supplier = new QuerySupplier();
+        QueryResultCache cache = cache(supplier).build();
+
+        DataQueryResult first = cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join().getValue();
+        DataQueryResult second = cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join().getValue();
+        DataQueryResult other = cache.executeDataQuery(QUERY, TxControl.staleRo(), params(2)).join().getValue();
+
+        Assert.assertSame(first, second);
+        Assert.assertNotSame(first, other);
+        Assert.assertEquals(2, supplier.requestsCount.get());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+
+        // results of different transaction modes are cached separately
+        DataQueryResult snapshot = cache.executeDataQuery(QUERY, TxControl.snapshotRo(), params(1)).join().getValue();
+        Assert.assertNotSame(first, snapshot);
+        Assert.assertEquals(3, supplier.requestsCount.get());
+        Assert.assertEquals(3, cache.size());
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(0, cache.getSizeBytes());
+    }
+
+    @Test
+    public void singleFlightTest() {
+        QuerySupplier supplier = new QuerySupplier();
+        supplier.delayed = true;
+        QueryResultCache cache = cache(supplier).build();
+
+        CompletableFuture<Result<DataQueryResult>> first = cache.executeDataQuery(
+                QUERY, TxControl.staleRo(), params(1));
+        CompletableFuture<Result<DataQueryResult>> second = cache.executeDataQuery(
+                QUERY, TxControl.staleRo(), params(1));
+        Assert.assertFalse(first.isDone());
+        Assert.assertEquals(1, supplier.pending.size());
+
+        supplier.completeAll();
+        Assert.assertSame(first.join().getValue(), second.join().getValue());
+        Assert.assertEquals(1, supplier.requestsCount.get());
+    }
+
+    @Test
+    public void ttlTest() {
+        QuerySupplier supplier = new QuerySupplier();
+        MockedClock clock = MockedClock.create(ZoneId.of("UTC"));
+        QueryResultCache cache = cache(supplier).withClock(clock).build();
+
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1), Duration.ofSeconds(10)).join();
+        clock.goToFuture(clock.instant().plusSeconds(9));
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1), Duration.ofSeconds(10)).join();
+        Assert.assertEquals(1, supplier.requestsCount.get());
+
+        clock.goToFuture(clock.instant().plusSeconds(1));
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1), Duration.ofSeconds(10)).join();
+        Assert.assertEquals(2, supplier.requestsCount.get());
+    }
+
+    @Test
+    public void sizeBoundTest() {
+        QuerySupplier supplier = new QuerySupplier();
+        QueryResultCache single = cache(supplier).build();
+        single.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join();
+        long entrySize = single.getSizeBytes();
+
+        // room for two results only
+        QueryResultCache cache = cache(supplier).withMaxSizeBytes(2 * entrySize + entrySize / 2).build();
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join();
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(2)).join();
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join();
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(3)).join();
+        Assert.assertEquals(2, cache.size());
+        Assert.assertTrue(cache.getSizeBytes() <= 2 * entrySize + entrySize / 2);
+
+        // least recently used result is evicted
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join();
+        Assert.assertEquals(4, supplier.requestsCount.get());
+        cache.executeDataQuery(QUERY, TxControl.staleRo(), params(2)).join();
+        Assert.assertEquals(5, supplier.requestsCount.get());
+
+        // too large result isn't cached at all
+        QueryResultCache tiny = cache(supplier).withMaxSizeBytes(1).build();
+        tiny.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join();
+        Assert.assertEquals(0, tiny.size());
+    }
+
+    @Test
+    public void failedResultTest() {
+        QuerySupplier supplier = new QuerySupplier();
+        supplier.failed = true;
+        QueryResultCache cache = cache(supplier).build();
+
+        Result<DataQueryResult> result = cache.executeDataQuery(QUERY, TxControl.staleRo(), params(1)).join();
+        Assert.assertEquals(StatusCode.SCHEME_ERROR, result.getStatus().getCode());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void readWriteTxTest() {
+        cache(new QuerySupplier()).build().executeDataQuery(QUERY, TxControl.serializableRw(), params(1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void notCommittedTxTest() {
+        cache(new QuerySupplier()).build().executeDataQuery(QUERY, TxControl.staleRo().setCommitTx(false), params(1));
+    }
+
+    /**
+     * Emulates query which returns one row with the given id
+     */
+    private static final class QuerySupplier extends SessionSupplierStub {
+        private final AtomicInteger requestsCount = new AtomicInteger();
+        private final List<Runnable> pending = new ArrayList<>();
+        private volatile boolean delayed = false;
+        private volatile boolean failed = false;
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public CompletableFuture<Result<DataQueryResult>> executeDataQuery(
+                        String query, TxControl<?> txControl, Params params, ExecuteDataQuerySettings settings) {
+                    requestsCount.incrementAndGet();
+                    if (failed) {
+                        return completedFuture(Result.fail(Status.of(StatusCode.SCHEME_ERROR)));
+                    }
+                    Result<DataQueryResult> result = Result.success(execute(params));
+                    if (!delayed) {
+                        return completedFuture(result);
+                    }
+                    CompletableFuture<Result<DataQueryResult>> future = new CompletableFuture<>();
+                    synchronized (pending) {
+                        pending.add(() -> future.complete(result));
+                    }
+                    return future;
+                }
+            };
+        }
+
+        void completeAll() {
+            List<Runnable> tasks;
+            synchronized (pending) {
+                tasks = new ArrayList<>(pending);
+                pending.clear();
+            }
+            tasks.forEach(Runnable::run);
+        }
+
+        private DataQueryResult execute(Params params) {
+            long id = params.values().get("$id").asData().getUint64();
+            ValueProtos.ResultSet resultSet = ValueProtos.ResultSet.newBuilder()
+                    .addColumns(ValueProtos.Column.newBuilder().setName("series_id").setType(ProtoType.getUint64()))
+                    .addColumns(ValueProtos.Column.newBuilder().setName("title").setType(ProtoType.getText()))
+                    .addRows(ValueProtos.Value.newBuilder()
+                            .addItems(ProtoValue.fromUint64(id))
+                            .addItems(ProtoValue.fromText("title " + id)))
+                    .build();
+            return new DataQueryResult(YdbTable.ExecuteQueryResult.newBuilder().addResultSets(resultSet).build());
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package tech.ydb.table;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.impl.pool.MockedClock;
+import tech.ydb.table.query.ReadRowsResult;
+import tech.ydb.table.settings.ReadRowsSettings;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class ReadRowsCacheTest {
+    private static final String TABLE = "/local/series";
+
+    private static StructValue key(long id) {
+        return StructValue.of("id", PrimitiveValue.newUint64(id));
+    }
+
+    private static byte[] record(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static ReadRowsCache.Builder cache(TableSupplier table) {
+        ReadRowsLoader loader = ReadRowsLoader.newBuilder(table.retryContext(), table.getScheduler())
+                .withMaxBatchSize(1)
+                .build();
+        return ReadRowsCache.newBuilder(loader);
+    }
+
+    private static Optional<StructValue> get(ReadRowsCache cache, long id) {
+        return cache.get(TABLE, key(id)).join().getValue();
+    }
+
+    @Test
+    public void readThroughTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsCache cache = cache(table).build();
+
+        Optional<StructValue> row = get(cache, 1);
+        Assert.assertTrue(row.isPresent());
+        Assert.assertEquals(row, get(cache, 1));
+        Assert.assertEquals(Optional.empty(), get(cache, 100));
+        Assert.assertEquals(Optional.empty(), get(cache, 100));
+
+        Assert.assertEquals(2, table.requestsCount.get());
+        Assert.assertEquals(2, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void expirationTest() {
+        TableSupplier table = new TableSupplier();
+        MockedClock clock = MockedClock.create(ZoneId.of("UTC"));
+        ReadRowsCache cache = cache(table).withClock(clock).withExpireAfterWrite(Duration.ofSeconds(10)).build();
+
+        get(cache, 1);
+        clock.goToFuture(clock.instant().plusSeconds(9));
+        get(cache, 1);
+        Assert.assertEquals(1, table.requestsCount.get());
+
+        clock.goToFuture(clock.instant().plusSeconds(1));
+        get(cache, 1);
+        Assert.assertEquals(2, table.requestsCount.get());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void invalidationTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsCache cache = cache(table).build();
+
+        get(cache, 1);
+        get(cache, 2);
+        cache.invalidate(TABLE, key(1));
+        Assert.assertEquals(1, cache.size());
+
+        get(cache, 1);
+        cache.invalidateAll(TABLE);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(3, table.requestsCount.get());
+    }
+
+    @Test
+    public void invalidationDuringLoadTest() {
+        TableSupplier table = new TableSupplier();
+        table.responses = new CompletableFuture<>();
+        ReadRowsCache cache = cache(table).build();
+
+        CompletableFuture<Result<Optional<StructValue>>> first = cache.get(TABLE, key(1));
+        CompletableFuture<Result<Optional<StructValue>>> second = cache.get(TABLE, key(2));
+        cache.invalidate(TABLE, key(1));
+        table.responses.complete(null);
+        Assert.assertTrue(first.join().getValue().isPresent());
+        Assert.assertTrue(second.join().getValue().isPresent());
+
+        // only the row read before its invalidation isn't cached
+        Assert.assertEquals(1, cache.size());
+        get(cache, 2);
+        Assert.assertEquals(2, table.requestsCount.get());
+        get(cache, 1);
+        Assert.assertEquals(3, table.requestsCount.get());
+    }
+
+    @Test
+    public void changefeedTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsCache cache = cache(table).build();
+
+        get(cache, 1);
+        get(cache, 2);
+        get(cache, 3);
+
+        cache.onChangefeedRecord(TABLE, Arrays.asList("id"), record("{\"key\":[2],\"update\":{\"title\":\"x\"}}"));
+        Assert.assertEquals(2, cache.size());
+        cache.onChangefeedRecord("/local/other", Arrays.asList("id"), record("{\"key\":[1],\"erase\":{}}"));
+        Assert.assertEquals(2, cache.size());
+        cache.onChangefeedRecord(TABLE, Arrays.asList("id"), record("{\"key\":[1],\"erase\":{}}"));
+        Assert.assertEquals(1, cache.size());
+
+        // invalid records invalidate the whole table
+        cache.onChangefeedRecord(TABLE, Arrays.asList("id"), record("{\"resolved\":[1, 2]}"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void changefeedUnmatchedKeyTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsCache cache = cache(table).build();
+
+        StructValue bytesKey = StructValue.of("id", PrimitiveValue.newBytes(new byte[] {1}));
+        cache.get(TABLE, bytesKey).join();
+        get(cache, 1);
+        get(cache, 2);
+        Assert.assertEquals(3, cache.size());
+
+        // rows with keys of unsupported types are invalidated by any record of the table
+        cache.onChangefeedRecord(TABLE, Arrays.asList("id"), record("{\"key\":[2],\"erase\":{}}"));
+        Assert.assertEquals(1, cache.size());
+        Assert.assertTrue(cache.get(TABLE, key(1)).join().getValue().isPresent());
+        Assert.assertEquals(1, cache.getHitCount());
+    }
+
+    @Test
+    public void admissionTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsCache cache = cache(table).withMaxSize(1).build();
+
+        get(cache, 1);
+        get(cache, 1);
+        get(cache, 1);
+
+        // rarely requested row doesn't evict frequently requested one
+        get(cache, 2);
+        get(cache, 1);
+        Assert.assertEquals(2, table.requestsCount.get());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    /**
+     * Emulates table with rows with keys from 0 to 10
+     */
+    private static final class TableSupplier extends SessionSupplierStub {
+        private final AtomicInteger requestsCount = new AtomicInteger();
+        private volatile CompletableFuture<Void> responses = completedFuture(null);
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public CompletableFuture<Result<ReadRowsResult>> readRows(String path, ReadRowsSettings settings) {
+                    requestsCount.incrementAndGet();
+                    return responses.thenApply(ignored -> Result.success(read(settings)));
+                }
+            };
+        }
+
+        private ReadRowsResult read(ReadRowsSettings settings) {
+            ValueProtos.ResultSet.Builder resultSet = ValueProtos.ResultSet.newBuilder()
+                    .addColumns(ValueProtos.Column.newBuilder().setName("id").setType(ProtoType.getUint64()))
+                    .addColumns(ValueProtos.Column.newBuilder().setName("title").setType(ProtoType.getText()));
+            for (StructValue key : settings.getKeys()) {
+                if (key.getMemberValue(0).getType() != PrimitiveType.Uint64) {
+                    continue;
+                }
+                long id = key.getMemberValue(0).asData().getUint64();
+                if (id < 10) {
+                    resultSet.addRows(ValueProtos.Value.newBuilder()
+                            .addItems(ProtoValue.fromUint64(id))
+                            .addItems(ProtoValue.fromText("title " + id)));
+                }
+            }
+            return new ReadRowsResult(YdbTable.ReadRowsResponse.newBuilder().setResultSet(resultSet).build());
+        }
+    }
+}
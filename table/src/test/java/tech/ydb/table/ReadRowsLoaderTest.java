@@ -0,0 +1,153 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.query.ReadRowsResult;
+import tech.ydb.table.settings.ReadRowsSettings;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class ReadRowsLoaderTest {
+    private static StructValue key(long id) {
+        return StructValue.of("id", PrimitiveValue.newUint64(id));
+    }
+
+    @Test
+    public void batchLookupsTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsLoader loader = ReadRowsLoader.newBuilder(table.retryContext(), table.getScheduler())
+                .withBatchWindow(Duration.ofMinutes(1))
+                .build();
+
+        CompletableFuture<Result<Optional<StructValue>>> first = loader.load("/local/series", key(1));
+        CompletableFuture<Result<Optional<StructValue>>> second = loader.load("/local/series", key(2));
+        CompletableFuture<Result<Optional<StructValue>>> duplicate = loader.load("/local/series", key(1));
+        CompletableFuture<Result<Optional<StructValue>>> missing = loader.load("/local/series", key(100));
+        Assert.assertFalse(first.isDone());
+
+        loader.flush();
+
+        Assert.assertEquals(1, table.requests.size());
+        Assert.assertEquals(3, table.requests.get(0).getKeys().size());
+
+        StructValue row = first.join().getValue().get();
+        Assert.assertEquals(PrimitiveValue.newUint64(1).makeOptional(),
+                row.getMemberValue(row.getType().getMemberIndex("id")));
+        Assert.assertEquals(PrimitiveValue.newText("title 1").makeOptional(),
+                row.getMemberValue(row.getType().getMemberIndex("title")));
+        Assert.assertEquals(row, duplicate.join().getValue().get());
+        Assert.assertEquals(PrimitiveValue.newUint64(2).makeOptional(),
+                second.join().getValue().get().getMemberValue(row.getType().getMemberIndex("id")));
+        Assert.assertEquals(Optional.empty(), missing.join().getValue());
+    }
+
+    @Test
+    public void maxBatchSizeTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsLoader loader = ReadRowsLoader.newBuilder(table.retryContext(), table.getScheduler())
+                .withBatchWindow(Duration.ofMinutes(1))
+                .withMaxBatchSize(2)
+                .build();
+
+        CompletableFuture<Result<Optional<StructValue>>> first = loader.load("/local/series", key(1));
+        CompletableFuture<Result<Optional<StructValue>>> other = loader.load("/local/other", key(1));
+        CompletableFuture<Result<Optional<StructValue>>> second = loader.load("/local/series", key(2));
+
+        // batch of /local/series is full
+        Assert.assertTrue(first.isDone());
+        Assert.assertTrue(second.isDone());
+        Assert.assertFalse(other.isDone());
+        Assert.assertEquals(1, table.requests.size());
+
+        loader.close();
+        Assert.assertTrue(other.join().isSuccess());
+        Assert.assertEquals(2, table.requests.size());
+    }
+
+    @Test
+    public void batchWindowTest() {
+        TableSupplier table = new TableSupplier();
+        ReadRowsLoader loader = ReadRowsLoader.newBuilder(table.retryContext(), table.getScheduler())
+                .withBatchWindow(Duration.ofMillis(10))
+                .build();
+
+        CompletableFuture<Result<Optional<StructValue>>> first = loader.load("/local/series", key(3));
+        CompletableFuture<Result<Optional<StructValue>>> second = loader.load("/local/series", key(4));
+
+        Assert.assertTrue(first.join().getValue().isPresent());
+        Assert.assertTrue(second.join().getValue().isPresent());
+        Assert.assertEquals(1, table.requests.size());
+    }
+
+    @Test
+    public void failedBatchTest() {
+        TableSupplier table = new TableSupplier();
+        table.failed = true;
+        ReadRowsLoader loader = ReadRowsLoader.newBuilder(table.retryContext(), table.getScheduler())
+                .withMaxBatchSize(1)
+                .build();
+
+        Result<Optional<StructValue>> result = loader.load("/local/series", key(1)).join();
+        Assert.assertEquals(StatusCode.SCHEME_ERROR, result.getStatus().getCode());
+    }
+
+    /**
+     * Emulates table with rows with keys from 0 to 10
+     */
+    private static final class TableSupplier extends SessionSupplierStub {
+        private final List<ReadRowsSettings> requests = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean failed = false;
+
+        @Override
+        protected Session newSession() {
+            return new SessionStub() {
+                @Override
+                public CompletableFuture<Result<ReadRowsResult>> readRows(String path, ReadRowsSettings settings) {
+                    requests.add(settings);
+                    if (failed) {
+                        return completedFuture(Result.fail(Status.of(StatusCode.SCHEME_ERROR)));
+                    }
+                    return completedFuture(Result.success(read(settings)));
+                }
+            };
+        }
+
+        private ReadRowsResult read(ReadRowsSettings settings) {
+            ValueProtos.ResultSet.Builder resultSet = ValueProtos.ResultSet.newBuilder()
+                    .addColumns(ValueProtos.Column.newBuilder()
+                            .setName("title")
+                            .setType(ProtoType.getOptional(ProtoType.getText())))
+                    .addColumns(ValueProtos.Column.newBuilder()
+                            .setName("id")
+                            .setType(ProtoType.getOptional(ProtoType.getUint64())));
+            // rows are returned in the reverse order
+            for (int i = settings.getKeys().size() - 1; i >= 0; i--) {
+                long id = settings.getKeys().get(i).getMemberValue(0).asData().getUint64();
+                if (id < 10) {
+                    resultSet.addRows(ValueProtos.Value.newBuilder()
+                            .addItems(ProtoValue.fromText("title " + id))
+                            .addItems(ProtoValue.fromUint64(id)));
+                }
+            }
+            return new ReadRowsResult(YdbTable.ReadRowsResponse.newBuilder().setResultSet(resultSet).build());
+        }
+    }
+}
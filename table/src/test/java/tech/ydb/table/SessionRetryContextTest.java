@@ -3,14 +3,21 @@ package tech.ydb.table;
 import java.time.Clock;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
 
+import io.grpc.Context;
+import io.grpc.Deadline;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Test;
@@ -19,11 +26,18 @@ import tech.ydb.core.Result;
 import tech.ydb.core.Status;
 import tech.ydb.core.StatusCode;
 import tech.ydb.core.UnexpectedResultException;
+import tech.ydb.core.grpc.GrpcRequestSettings;
 import tech.ydb.core.utils.Async;
+import tech.ydb.proto.table.YdbTable;
 import tech.ydb.table.impl.PooledTableClient;
+import tech.ydb.table.impl.SimpleTableClient;
 import tech.ydb.table.impl.pool.FutureHelper;
 import tech.ydb.table.impl.pool.MockedTableRpc;
 import tech.ydb.table.query.DataQueryResult;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.query.stats.SlowQueryLog;
+import tech.ydb.table.query.stats.SlowQueryRecord;
+import tech.ydb.table.settings.ExecuteDataQuerySettings;
 import tech.ydb.table.transaction.TxControl;
 
 import static java.util.concurrent.CompletableFuture.completedFuture;
@@ -486,6 +500,377 @@ public class SessionRetryContextTest extends FutureHelper  {
         custom.shutdown();
     }
 
+    @Test
+    public void retryBudgetTest() {
+        SessionRetryBudget budget = SessionRetryBudget.newBuilder()
+                .maxTokens(2)
+                .retryRatio(0.5)
+                .build();
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(10)
+                .backoffSlot(TEN_MILLIS)
+                .retryBudget(budget)
+                .build();
+
+        AtomicInteger cnt = new AtomicInteger();
+        Function<Session, CompletableFuture<Result<String>>> overloaded = session -> {
+            cnt.incrementAndGet();
+            return completedFuture(Result.fail(OVERLOADED));
+        };
+
+        // budget is full at start, only two retries are allowed
+        Assert.assertEquals(OVERLOADED, ctx.supplyResult(overloaded).join().getStatus());
+        Assert.assertEquals(3, cnt.get());
+        Assert.assertEquals(0, budget.getAvailableTokens(), 1e-9);
+
+        // budget is empty, no retries
+        cnt.set(0);
+        Assert.assertEquals(OVERLOADED, ctx.supplyResult(overloaded).join().getStatus());
+        Assert.assertEquals(1, cnt.get());
+
+        // two successful requests earn one retry
+        ctx.supplyResult(session -> completedFuture(Result.success("ok"))).join();
+        ctx.supplyResult(session -> completedFuture(Result.success("ok"))).join();
+        Assert.assertEquals(1, budget.getAvailableTokens(), 1e-9);
+
+        cnt.set(0);
+        Assert.assertEquals(OVERLOADED, ctx.supplyResult(overloaded).join().getStatus());
+        Assert.assertEquals(2, cnt.get());
+
+        Assert.assertEquals(3, budget.getRetriesAcceptedTotal());
+        Assert.assertEquals(3, budget.getRetriesRejectedTotal());
+    }
+
+    @Test
+    public void retryBudgetExceptionTest() {
+        SessionRetryBudget budget = SessionRetryBudget.newBuilder()
+                .maxTokens(1)
+                .build();
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(10)
+                .backoffSlot(TEN_MILLIS)
+                .retryBudget(budget)
+                .build();
+
+        AtomicInteger exhausted = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        SessionRetryHandler handler = new SessionRetryHandler() {
+            @Override
+            public void onBudgetExhausted(SessionRetryContext context, StatusCode code, int retryNumber,
+                    long millis) {
+                Assert.assertEquals(StatusCode.OVERLOADED, code);
+                Assert.assertEquals(1, retryNumber);
+                exhausted.incrementAndGet();
+            }
+
+            @Override
+            public void onError(SessionRetryContext context, Throwable issue, int retryNumber, long millis) {
+                errors.incrementAndGet();
+            }
+        };
+
+        AtomicInteger cnt = new AtomicInteger();
+        CompletableFuture<Result<String>> future = ctx.supplyResult(handler, session -> {
+            cnt.incrementAndGet();
+            return Async.failedFuture(new UnexpectedResultException("overloaded", OVERLOADED));
+        });
+
+        Assert.assertThrows(Exception.class, future::join);
+        Assert.assertEquals(2, cnt.get());
+        Assert.assertEquals(1, exhausted.get());
+        Assert.assertEquals(0, errors.get());
+    }
+
+    @Test
+    public void circuitBreakerTest() {
+        SessionCircuitBreaker breaker = SessionCircuitBreaker.newBuilder()
+                .minRequests(4)
+                .errorRateThreshold(0.5)
+                .openDuration(Duration.ofHours(1))
+                .build();
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(3)
+                .backoffSlot(TEN_MILLIS)
+                .circuitBreaker(breaker)
+                .build();
+
+        AtomicInteger cnt = new AtomicInteger();
+        Result<String> result = ctx.supplyResult(session -> {
+            cnt.incrementAndGet();
+            return completedFuture(Result.<String>fail(OVERLOADED));
+        }).join();
+
+        Assert.assertEquals(OVERLOADED, result.getStatus());
+        Assert.assertEquals(4, cnt.get());
+        Assert.assertEquals(SessionCircuitBreaker.State.OPEN, breaker.getState());
+        Assert.assertEquals(1, breaker.getOpenedTotal());
+
+        // open breaker fails fast
+        cnt.set(0);
+        result = ctx.supplyResult(session -> {
+            cnt.incrementAndGet();
+            return completedFuture(Result.success("ok"));
+        }).join();
+
+        Assert.assertEquals(0, cnt.get());
+        Assert.assertEquals(StatusCode.CLIENT_RESOURCE_EXHAUSTED, result.getStatus().getCode());
+        Assert.assertEquals(1, breaker.getRejectedTotal());
+    }
+
+    @Test
+    public void circuitBreakerProbeTest() {
+        SessionCircuitBreaker breaker = SessionCircuitBreaker.newBuilder()
+                .minRequests(2)
+                .errorRateThreshold(1)
+                .openDuration(Duration.ZERO)
+                .build();
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(1)
+                .backoffSlot(TEN_MILLIS)
+                .circuitBreaker(breaker)
+                .build();
+
+        Result<String> result = ctx.supplyResult(session -> completedFuture(Result.<String>fail(OVERLOADED))).join();
+        Assert.assertEquals(OVERLOADED, result.getStatus());
+        Assert.assertEquals(SessionCircuitBreaker.State.OPEN, breaker.getState());
+
+        // open duration is passed, the probe is allowed and closes the breaker
+        result = ctx.supplyResult(session -> completedFuture(Result.success("ok"))).join();
+        Assert.assertEquals(Result.success("ok"), result);
+        Assert.assertEquals(SessionCircuitBreaker.State.CLOSED, breaker.getState());
+        Assert.assertEquals(0, breaker.getRejectedTotal());
+    }
+
+    @Test
+    public void deadlineStopsRetriesTest() {
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(10)
+                .backoffSlot(Duration.ofSeconds(1))
+                .timeout(Duration.ofMillis(500))
+                .build();
+
+        // backoff delay is longer than the deadline, no retries
+        AtomicInteger cnt = new AtomicInteger();
+        Result<String> result = ctx.supplyResult(session -> {
+            cnt.incrementAndGet();
+            return completedFuture(Result.<String>fail(OVERLOADED));
+        }).join();
+
+        Assert.assertEquals(OVERLOADED, result.getStatus());
+        Assert.assertEquals(1, cnt.get());
+    }
+
+    @Test
+    public void deadlineExpectedLatencyTest() {
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(10)
+                .backoffSlot(TEN_MILLIS)
+                .timeout(Duration.ofMillis(300))
+                .build();
+
+        // every attempt takes 200 ms, the second attempt cannot be finished in the remaining 100 ms
+        AtomicInteger cnt = new AtomicInteger();
+        Result<String> result = ctx.supplyResult(session -> {
+            cnt.incrementAndGet();
+            CompletableFuture<Result<String>> future = new CompletableFuture<>();
+            scheduler.schedule(() -> future.complete(Result.fail(OVERLOADED)), 200, TimeUnit.MILLISECONDS);
+            return future;
+        }).join();
+
+        Assert.assertEquals(OVERLOADED, result.getStatus());
+        Assert.assertEquals(1, cnt.get());
+    }
+
+    @Test
+    public void attemptRetryNumberTest() {
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(2)
+                .build();
+
+        List<Integer> retries = new ArrayList<>();
+        Status status = ctx.supplyStatus((session, attempt) -> {
+            ExecuteDataQuerySettings settings = attempt.applyTo(new ExecuteDataQuerySettings());
+            retries.add(settings.getRetryNumber());
+            return completedFuture(retries.size() < 3 ? Status.of(StatusCode.BAD_SESSION) : Status.SUCCESS);
+        }).join();
+
+        Assert.assertEquals(Status.SUCCESS, status);
+        Assert.assertEquals(Arrays.asList(0, 1, 2), retries);
+    }
+
+    @Test
+    public void currentRetryNumberTest() {
+        List<SlowQueryRecord> records = new ArrayList<>();
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ZERO)
+                .withListener(records::add)
+                .build();
+        DataQueryRpcStub rpc = new DataQueryRpcStub(scheduler);
+        rpc.failNextExecution(Status.of(StatusCode.ABORTED));
+
+        SessionRetryContext ctx = SessionRetryContext.create(SimpleTableClient.newClient(rpc).slowQueryLog(log).build())
+                .maxRetries(2)
+                .build();
+
+        // settings of the request aren't passed through the attempt
+        Result<DataQueryResult> result = ctx.supplyResult(
+                session -> session.executeDataQuery("SELECT 1;", TxControl.serializableRw())
+        ).join();
+
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals(2, records.size());
+        Assert.assertEquals(0, records.get(0).getRetryNumber());
+        Assert.assertEquals(1, records.get(1).getRetryNumber());
+        Assert.assertEquals(0, SessionRetryContext.currentRetryNumber());
+    }
+
+    @Test
+    public void deadlineIsPassedToRequestsTest() {
+        AtomicLong requestDeadline = new AtomicLong();
+        TableRpcStub rpc = new TableRpcStub(scheduler) {
+            @Override
+            public CompletableFuture<Result<YdbTable.CreateSessionResult>> createSession(
+                    YdbTable.CreateSessionRequest request, GrpcRequestSettings settings) {
+                return completedFuture(Result.success(
+                        YdbTable.CreateSessionResult.newBuilder().setSessionId("session").build()));
+            }
+
+            @Override
+            public CompletableFuture<Status> deleteSession(
+                    YdbTable.DeleteSessionRequest request, GrpcRequestSettings settings) {
+                return completedFuture(Status.SUCCESS);
+            }
+
+            @Override
+            public CompletableFuture<Result<YdbTable.ExecuteQueryResult>> executeDataQuery(
+                    YdbTable.ExecuteDataQueryRequest request, GrpcRequestSettings settings) {
+                requestDeadline.set(settings.getDeadlineAfter());
+                return completedFuture(Result.success(YdbTable.ExecuteQueryResult.getDefaultInstance()));
+            }
+        };
+
+        SessionRetryContext ctx = SessionRetryContext.create(SimpleTableClient.newClient(rpc).build())
+                .timeout(FIVE_SECONDS)
+                .build();
+
+        long before = System.nanoTime();
+        Result<DataQueryResult> result = ctx.supplyResult(
+                (session, attempt) -> session.executeDataQuery("SELECT 1;", TxControl.serializableRw(),
+                        Params.empty(), attempt.withDeadline(new ExecuteDataQuerySettings()))
+        ).join();
+        long after = System.nanoTime();
+
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertTrue(requestDeadline.get() - before > 0);
+        Assert.assertTrue(requestDeadline.get() - after <= FIVE_SECONDS.toNanos());
+    }
+
+    @Test
+    public void deadlineIsPassedToAllRequestsTest() {
+        AtomicReference<Deadline> requestDeadline = new AtomicReference<>();
+        TableRpcStub rpc = new TableRpcStub(scheduler) {
+            @Override
+            public CompletableFuture<Result<YdbTable.CreateSessionResult>> createSession(
+                    YdbTable.CreateSessionRequest request, GrpcRequestSettings settings) {
+                return completedFuture(Result.success(
+                        YdbTable.CreateSessionResult.newBuilder().setSessionId("session").build()));
+            }
+
+            @Override
+            public CompletableFuture<Status> deleteSession(
+                    YdbTable.DeleteSessionRequest request, GrpcRequestSettings settings) {
+                return completedFuture(Status.SUCCESS);
+            }
+
+            @Override
+            public CompletableFuture<Result<YdbTable.ExecuteQueryResult>> executeDataQuery(
+                    YdbTable.ExecuteDataQueryRequest request, GrpcRequestSettings settings) {
+                // gRPC calls get the deadline of the current context
+                requestDeadline.set(Context.current().getDeadline());
+                return completedFuture(Result.success(YdbTable.ExecuteQueryResult.getDefaultInstance()));
+            }
+        };
+
+        SessionRetryContext ctx = SessionRetryContext.create(SimpleTableClient.newClient(rpc).build())
+                .timeout(FIVE_SECONDS)
+                .build();
+
+        // settings of the request aren't passed through the attempt
+        Result<DataQueryResult> result = ctx.supplyResult(
+                session -> session.executeDataQuery("SELECT 1;", TxControl.serializableRw())
+        ).join();
+
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertNotNull(requestDeadline.get());
+        long remaining = requestDeadline.get().timeRemaining(TimeUnit.NANOSECONDS);
+        Assert.assertTrue(remaining > 0 && remaining <= FIVE_SECONDS.toNanos());
+        // the deadline isn't passed to the caller
+        Assert.assertNull(Context.current().getDeadline());
+    }
+
+    @Test
+    public void deadlineCompletesOperationTest() {
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .timeout(Duration.ofMillis(100))
+                .build();
+
+        AtomicInteger deadlines = new AtomicInteger();
+        SessionRetryHandler handler = new SessionRetryHandler() {
+            @Override
+            public void onDeadline(SessionRetryContext context, StatusCode code, int retryNumber, long millis) {
+                Assert.assertEquals(StatusCode.CLIENT_DEADLINE_EXPIRED, code);
+                deadlines.incrementAndGet();
+            }
+        };
+
+        // the attempt is never finished
+        CompletableFuture<Result<String>> attempt = new CompletableFuture<>();
+        Result<String> result = ctx.supplyResult(handler, session -> attempt).join();
+
+        Assert.assertEquals(StatusCode.CLIENT_DEADLINE_EXPIRED, result.getStatus().getCode());
+        Assert.assertEquals(1, deadlines.get());
+
+        // late result of the attempt is ignored
+        attempt.complete(Result.success("late"));
+        Assert.assertEquals(1, deadlines.get());
+    }
+
+    @Test
+    public void deadlineStopsRetriesOfExceptionsTest() {
+        SessionRetryContext ctx = SessionRetryContext.create(new SuccessSupplier())
+                .maxRetries(10)
+                .backoffSlot(Duration.ofSeconds(1))
+                .timeout(Duration.ofMillis(500))
+                .build();
+
+        AtomicInteger deadlines = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        SessionRetryHandler handler = new SessionRetryHandler() {
+            @Override
+            public void onDeadline(SessionRetryContext context, StatusCode code, int retryNumber, long millis) {
+                Assert.assertEquals(StatusCode.OVERLOADED, code);
+                deadlines.incrementAndGet();
+            }
+
+            @Override
+            public void onError(SessionRetryContext context, Throwable issue, int retryNumber, long millis) {
+                errors.incrementAndGet();
+            }
+        };
+
+        // backoff delay is longer than the deadline, no retries
+        AtomicInteger cnt = new AtomicInteger();
+        CompletableFuture<Result<String>> future = ctx.supplyResult(handler, session -> {
+            cnt.incrementAndGet();
+            return Async.failedFuture(new UnexpectedResultException("overloaded", OVERLOADED));
+        });
+
+        Assert.assertThrows(Exception.class, future::join);
+        Assert.assertEquals(1, cnt.get());
+        Assert.assertEquals(1, deadlines.get());
+        Assert.assertEquals(0, errors.get());
+    }
+
     /**
      * SUCCESS SUPPLIER
      */
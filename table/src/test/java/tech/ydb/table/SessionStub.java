@@ -11,6 +11,7 @@ import tech.ydb.core.Status;
 import tech.ydb.core.grpc.GrpcReadStream;
 import tech.ydb.core.utils.Async;
 import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.query.BulkUpsertData;
 import tech.ydb.table.query.DataQuery;
 import tech.ydb.table.query.DataQueryResult;
 import tech.ydb.table.query.ExplainDataQueryResult;
@@ -160,6 +161,12 @@ public class SessionStub implements Session {
         return notImplemented("bulkUpsert()");
     }
 
+    @Override
+    public CompletableFuture<Status> executeBulkUpsert(String tablePath, BulkUpsertData data,
+            BulkUpsertSettings settings) {
+        return notImplemented("bulkUpsert()");
+    }
+
     private static <U> CompletableFuture<U> notImplemented(String method) {
         return Async.failedFuture(new UnsupportedOperationException(method + " not implemented"));
     }
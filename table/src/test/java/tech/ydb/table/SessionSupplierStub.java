@@ -0,0 +1,43 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import tech.ydb.core.Result;
+
+
+/**
+ * Supplier of session stubs for tests of helpers executed by {@link SessionRetryContext}. Subclasses emulate the
+ * table by overriding methods of sessions returned by {@link #newSession()}.
+ */
+public abstract class SessionSupplierStub implements SessionSupplier {
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "session-supplier-stub");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * @return new session, usually {@link SessionStub} with overridden methods
+     */
+    protected abstract Session newSession();
+
+    /**
+     * @return retry context with two retries over this supplier
+     */
+    public SessionRetryContext retryContext() {
+        return SessionRetryContext.create(this).maxRetries(2).build();
+    }
+
+    @Override
+    public CompletableFuture<Result<Session>> createSession(Duration timeout) {
+        return CompletableFuture.completedFuture(Result.success(newSession()));
+    }
+
+    @Override
+    public ScheduledExecutorService getScheduler() {
+        return SCHEDULER;
+    }
+}
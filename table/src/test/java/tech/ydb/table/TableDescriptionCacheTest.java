@@ -0,0 +1,223 @@
+package tech.ydb.table;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.table.description.TableDescription;
+import tech.ydb.table.impl.pool.MockedClock;
+import tech.ydb.table.settings.DescribeTableSettings;
+import tech.ydb.table.values.PrimitiveType;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+
+public class TableDescriptionCacheTest {
+    private static final String TABLE = "/local/series";
+
+    private static TableDescription description() {
+        return TableDescription.newBuilder()
+                .addNonnullColumn("id", PrimitiveType.Uint64)
+                .addNullableColumn("title", PrimitiveType.Text)
+                .setPrimaryKey("id")
+                .build();
+    }
+
+    private static TableDescription describe(TableDescriptionCache cache, Describer describer) {
+        return cache.get(TABLE, new DescribeTableSettings(), describer).join().getValue();
+    }
+
+    @Test
+    public void cachedDescriptionTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        Describer describer = new Describer();
+
+        TableDescription first = describe(cache, describer);
+        Assert.assertSame(first, describe(cache, describer));
+        Assert.assertEquals(1, describer.count.get());
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        // descriptions with shard key bounds are cached separately
+        DescribeTableSettings withBounds = new DescribeTableSettings();
+        withBounds.setIncludeShardKeyBounds(true);
+        cache.get(TABLE, withBounds, describer).join();
+        Assert.assertEquals(2, describer.count.get());
+        Assert.assertEquals(2, cache.size());
+
+        // descriptions with statistics are never cached
+        DescribeTableSettings withStats = new DescribeTableSettings();
+        withStats.setIncludeTableStats(true);
+        cache.get(TABLE, withStats, describer).join();
+        cache.get(TABLE, withStats, describer).join();
+        Assert.assertEquals(4, describer.count.get());
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void singleFlightTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        CompletableFuture<Result<TableDescription>> response = new CompletableFuture<>();
+        AtomicInteger count = new AtomicInteger();
+        Supplier<CompletableFuture<Result<TableDescription>>> describer = () -> {
+            count.incrementAndGet();
+            return response;
+        };
+
+        CompletableFuture<Result<TableDescription>> first = cache.get(TABLE, new DescribeTableSettings(), describer);
+        CompletableFuture<Result<TableDescription>> second = cache.get(TABLE, new DescribeTableSettings(), describer);
+        Assert.assertFalse(first.isDone());
+        Assert.assertEquals(1, count.get());
+
+        response.complete(Result.success(description()));
+        Assert.assertSame(first.join().getValue(), second.join().getValue());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void ttlTest() {
+        MockedClock clock = MockedClock.create(ZoneId.of("UTC"));
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder()
+                .withClock(clock)
+                .withTtl(Duration.ofSeconds(10))
+                .build();
+        Describer describer = new Describer();
+
+        describe(cache, describer);
+        clock.goToFuture(clock.instant().plusSeconds(9));
+        describe(cache, describer);
+        Assert.assertEquals(1, describer.count.get());
+
+        clock.goToFuture(clock.instant().plusSeconds(1));
+        describe(cache, describer);
+        Assert.assertEquals(2, describer.count.get());
+    }
+
+    @Test
+    public void maxSizeTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().withMaxSize(2).build();
+        Describer describer = new Describer();
+
+        cache.get("/local/a", new DescribeTableSettings(), describer).join();
+        cache.get("/local/b", new DescribeTableSettings(), describer).join();
+        cache.get("/local/a", new DescribeTableSettings(), describer).join();
+        cache.get("/local/c", new DescribeTableSettings(), describer).join();
+        Assert.assertEquals(2, cache.size());
+
+        // least recently used description is evicted
+        cache.get("/local/a", new DescribeTableSettings(), describer).join();
+        Assert.assertEquals(3, describer.count.get());
+        cache.get("/local/b", new DescribeTableSettings(), describer).join();
+        Assert.assertEquals(4, describer.count.get());
+    }
+
+    @Test
+    public void invalidationTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        Describer describer = new Describer();
+
+        describe(cache, describer);
+        cache.onStatus(TABLE, StatusCode.OVERLOADED);
+        Assert.assertEquals(1, cache.size());
+        cache.onStatus(TABLE, StatusCode.SCHEME_ERROR);
+        Assert.assertEquals(0, cache.size());
+
+        describe(cache, describer);
+        cache.onStatus("/local/other", StatusCode.NOT_FOUND);
+        Assert.assertEquals(1, cache.size());
+        cache.invalidate(TABLE);
+        Assert.assertEquals(0, cache.size());
+
+        describe(cache, describer);
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(3, describer.count.get());
+    }
+
+    @Test
+    public void invalidationDuringDescribeTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        CompletableFuture<Result<TableDescription>> response = new CompletableFuture<>();
+
+        CompletableFuture<Result<TableDescription>> future = cache.get(TABLE, new DescribeTableSettings(),
+                () -> response);
+        cache.invalidate(TABLE);
+        response.complete(Result.success(description()));
+
+        // description could be read before the change of the table
+        Assert.assertTrue(future.join().isSuccess());
+        Assert.assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void invalidationOfOtherTableDuringDescribeTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        CompletableFuture<Result<TableDescription>> response = new CompletableFuture<>();
+
+        CompletableFuture<Result<TableDescription>> future = cache.get(TABLE, new DescribeTableSettings(),
+                () -> response);
+        cache.invalidate("/local/other");
+        response.complete(Result.success(description()));
+
+        Assert.assertTrue(future.join().isSuccess());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void describeAfterInvalidationTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        CompletableFuture<Result<TableDescription>> staleResponse = new CompletableFuture<>();
+        Describer describer = new Describer();
+
+        CompletableFuture<Result<TableDescription>> stale = cache.get(TABLE, new DescribeTableSettings(),
+                () -> staleResponse);
+        cache.invalidate(TABLE);
+
+        // describes started after invalidation are not merged with the stale one
+        describe(cache, describer);
+        Assert.assertEquals(1, describer.count.get());
+        Assert.assertEquals(1, cache.size());
+
+        staleResponse.complete(Result.success(description()));
+        Assert.assertTrue(stale.join().isSuccess());
+        Assert.assertEquals(1, describer.count.get());
+        Assert.assertSame(describe(cache, describer), describe(cache, describer));
+    }
+
+    @Test
+    public void failedDescribeTest() {
+        TableDescriptionCache cache = TableDescriptionCache.newBuilder().build();
+        Describer describer = new Describer();
+        DescribeTableSettings withBounds = new DescribeTableSettings();
+        withBounds.setIncludeShardKeyBounds(true);
+        cache.get(TABLE, withBounds, describer).join();
+        cache.get("/local/other", new DescribeTableSettings(), describer).join();
+
+        // failed describe invalidates all descriptions of the table
+        Result<TableDescription> result = cache.get(TABLE, new DescribeTableSettings(),
+                () -> completedFuture(Result.fail(Status.of(StatusCode.SCHEME_ERROR)))).join();
+        Assert.assertEquals(StatusCode.SCHEME_ERROR, result.getStatus().getCode());
+        Assert.assertEquals(1, cache.size());
+    }
+
+    /**
+     * Counts describes of the table
+     */
+    private static final class Describer implements Supplier<CompletableFuture<Result<TableDescription>>> {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public CompletableFuture<Result<TableDescription>> get() {
+            count.incrementAndGet();
+            return completedFuture(Result.success(description()));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package tech.ydb.table.impl;
+
+import com.google.protobuf.ByteString;
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.query.BulkUpsertArrowData;
+import tech.ydb.table.query.BulkUpsertCsvData;
+import tech.ydb.table.query.BulkUpsertData;
+import tech.ydb.table.query.BulkUpsertRowsData;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructValue;
+
+
+public class BulkUpsertDataTest {
+
+    private static YdbTable.BulkUpsertRequest request(BulkUpsertData data) {
+        YdbTable.BulkUpsertRequest.Builder builder = YdbTable.BulkUpsertRequest.newBuilder().setTable("/db/table");
+        BaseSession.applyBulkUpsertData(builder, data);
+        return builder.build();
+    }
+
+    @Test
+    public void rowsTest() {
+        ListValue rows = ListValue.of(StructValue.of("id", PrimitiveValue.newUint64(1)));
+
+        YdbTable.BulkUpsertRequest request = request(new BulkUpsertRowsData(rows));
+        Assert.assertEquals(YdbTable.BulkUpsertRequest.DataFormatCase.DATAFORMAT_NOT_SET, request.getDataFormatCase());
+        Assert.assertEquals(rows.getType().toPb(), request.getRows().getType());
+        Assert.assertEquals(rows.toPb(), request.getRows().getValue());
+        Assert.assertEquals(rows, new BulkUpsertRowsData(request.getRows()).toListValue());
+    }
+
+    @Test
+    public void arrowTest() {
+        ByteString schema = ByteString.copyFromUtf8("schema");
+        ByteString batch = ByteString.copyFromUtf8("batch");
+
+        YdbTable.BulkUpsertRequest request = request(new BulkUpsertArrowData(schema, batch));
+        Assert.assertEquals(YdbTable.BulkUpsertRequest.DataFormatCase.ARROW_BATCH_SETTINGS,
+                request.getDataFormatCase());
+        Assert.assertEquals(schema, request.getArrowBatchSettings().getSchema());
+        Assert.assertEquals(batch, request.getData());
+        Assert.assertFalse(request.hasRows());
+    }
+
+    @Test
+    public void csvTest() {
+        ByteString data = ByteString.copyFromUtf8("# comment\nid;name\n1;one\n2;NULL\n");
+
+        YdbTable.BulkUpsertRequest request = request(BulkUpsertCsvData.newBuilder(data)
+                .withSkipRows(1)
+                .withHeader(true)
+                .withDelimiter(";")
+                .withNullValue("NULL")
+                .build());
+        Assert.assertEquals(YdbTable.BulkUpsertRequest.DataFormatCase.CSV_SETTINGS, request.getDataFormatCase());
+        Assert.assertEquals(1, request.getCsvSettings().getSkipRows());
+        Assert.assertTrue(request.getCsvSettings().getHeader());
+        Assert.assertEquals(ByteString.copyFromUtf8(";"), request.getCsvSettings().getDelimiter());
+        Assert.assertEquals(ByteString.copyFromUtf8("NULL"), request.getCsvSettings().getNullValue());
+        Assert.assertEquals(data, request.getData());
+
+        YdbTable.BulkUpsertRequest defaults = request(BulkUpsertCsvData.newBuilder(data).build());
+        Assert.assertTrue(defaults.getCsvSettings().getDelimiter().isEmpty());
+        Assert.assertFalse(defaults.getCsvSettings().getHeader());
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> BulkUpsertCsvData.newBuilder(data).withSkipRows(-1));
+    }
+}
@@ -0,0 +1,123 @@
+package tech.ydb.table.impl;
+
+import java.time.Duration;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.table.YdbTable;
+import tech.ydb.table.DataQueryRpcStub;
+import tech.ydb.table.query.DataQuery;
+import tech.ydb.table.query.DataQueryBinder;
+import tech.ydb.table.transaction.TxControl;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.proto.ProtoValue;
+
+
+public class DataQueryBinderTest {
+
+    private static DataQueryRpcStub rpc() {
+        return new DataQueryRpcStub()
+                .withParameterType("$id", PrimitiveType.Uint64)
+                .withParameterType("$name", PrimitiveType.Text)
+                .withParameterType("$score", OptionalType.of(PrimitiveType.Int32));
+    }
+
+    private static DataQuery prepare(DataQueryRpcStub rpc) {
+        return SimpleTableClient.newClient(rpc).build()
+                .createSession(Duration.ZERO).join().getValue()
+                .prepareDataQuery("SELECT 1;").join().getValue();
+    }
+
+    @Test
+    public void bindPrimitivesTest() {
+        DataQueryRpcStub rpc = rpc();
+        DataQueryBinder binder = prepare(rpc).newBinder();
+
+        Assert.assertEquals(3, binder.size());
+        int id = binder.indexOf("$id");
+        int name = binder.indexOf("$name");
+        int score = binder.indexOf("$score");
+
+        Assert.assertTrue(binder.isEmpty());
+        binder.setUint64(id, 10).setText(name, "ten").setInt32(score, 100);
+        Assert.assertTrue(binder.execute(TxControl.serializableRw()).join().isSuccess());
+
+        YdbTable.ExecuteDataQueryRequest request = rpc.getLastExecuted();
+        Assert.assertEquals("query_1", request.getQuery().getId());
+        Assert.assertEquals(3, request.getParametersCount());
+        Assert.assertEquals(ProtoValue.toTypedValue(PrimitiveValue.newUint64(10)), request.getParametersOrThrow("$id"));
+        Assert.assertEquals(
+                ProtoValue.toTypedValue(PrimitiveValue.newText("ten")),
+                request.getParametersOrThrow("$name"));
+        Assert.assertEquals(
+                ProtoValue.toTypedValue(PrimitiveValue.newInt32(100).makeOptional()),
+                request.getParametersOrThrow("$score"));
+
+        // binder is reused, all values are kept except overwritten
+        binder.setUint64(id, 11).setNull(score);
+        Assert.assertTrue(binder.execute(TxControl.serializableRw()).join().isSuccess());
+
+        request = rpc.getLastExecuted();
+        Assert.assertEquals(3, request.getParametersCount());
+        Assert.assertEquals(ProtoValue.toTypedValue(PrimitiveValue.newUint64(11)), request.getParametersOrThrow("$id"));
+        Assert.assertEquals(
+                ProtoValue.toTypedValue(PrimitiveValue.newText("ten")),
+                request.getParametersOrThrow("$name"));
+        Assert.assertEquals(
+                ProtoValue.toTypedValue(PrimitiveType.Int32.makeOptional().emptyValue()),
+                request.getParametersOrThrow("$score"));
+
+        binder.clear().setValue(name, PrimitiveValue.newText("eleven"));
+        Assert.assertTrue(binder.execute(TxControl.serializableRw()).join().isSuccess());
+
+        request = rpc.getLastExecuted();
+        Assert.assertEquals(1, request.getParametersCount());
+        Assert.assertEquals(
+                ProtoValue.toTypedValue(PrimitiveValue.newText("eleven")),
+                request.getParametersOrThrow("$name"));
+    }
+
+    @Test
+    public void bindWrongTypesTest() {
+        DataQueryBinder binder = prepare(rpc()).newBinder();
+
+        int id = binder.indexOf("$id");
+        int name = binder.indexOf("$name");
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.indexOf("$unknown"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.setInt64(id, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.setBytes(name, new byte[] { 0x01 }));
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.setNull(id));
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.setValue(id, PrimitiveValue.newInt64(1)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.put("$name", PrimitiveValue.newBytes(
+                new byte[] { 0x01 })));
+        Assert.assertTrue(binder.isEmpty());
+
+        // optional parameter accepts values of its item type
+        int score = binder.indexOf("$score");
+        binder.setValue(score, PrimitiveValue.newInt32(1));
+        binder.setValue(score, PrimitiveValue.newInt32(1).makeOptional());
+        Assert.assertThrows(IllegalArgumentException.class, () -> binder.setValue(score, PrimitiveValue.newInt64(1)));
+        Assert.assertEquals(1, binder.toPb().size());
+    }
+
+    @Test
+    public void binderAsParamsTest() {
+        DataQueryRpcStub rpc = rpc();
+        DataQuery query = prepare(rpc);
+        DataQueryBinder binder = query.newBinder();
+        binder.put("$id", PrimitiveValue.newUint64(5));
+
+        Assert.assertEquals(PrimitiveValue.newUint64(5), binder.values().get("$id"));
+        Assert.assertEquals(1, binder.toPb().size());
+
+        Assert.assertTrue(query.execute(TxControl.serializableRw(), binder).join().isSuccess());
+        Assert.assertEquals(1, rpc.getLastExecuted().getParametersCount());
+        Assert.assertEquals(
+                ProtoValue.toTypedValue(PrimitiveValue.newUint64(5)),
+                rpc.getLastExecuted().getParametersOrThrow("$id"));
+    }
+}
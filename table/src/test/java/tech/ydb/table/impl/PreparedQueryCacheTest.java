@@ -0,0 +1,137 @@
+package tech.ydb.table.impl;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Issue;
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.table.DataQueryRpcStub;
+import tech.ydb.table.Session;
+import tech.ydb.table.query.stats.QueryStatsAggregator;
+import tech.ydb.table.query.stats.QueryStatsSummary;
+import tech.ydb.table.transaction.TxControl;
+
+
+public class PreparedQueryCacheTest {
+
+    private static Session createSession(DataQueryRpcStub rpc, int cacheSize) {
+        return SimpleTableClient.newClient(rpc)
+                .queryCacheSize(cacheSize)
+                .build()
+                .createSession(Duration.ZERO)
+                .join().getValue();
+    }
+
+    private static void execute(Session session, String query) {
+        Result<?> result = session.executeDataQuery(query, TxControl.serializableRw()).join();
+        Assert.assertTrue("Check query " + query, result.isSuccess());
+    }
+
+    @Test
+    public void cachedQueriesAreExecutedByIdTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub();
+        Session session = createSession(rpc, 2);
+
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 2;");
+        execute(session, "SELECT 1;");
+
+        Assert.assertEquals(2, rpc.getPrepared().size());
+        Assert.assertEquals(4, rpc.getExecutedIds().size());
+        Assert.assertEquals("query_1", rpc.getExecutedIds().get(0));
+        Assert.assertEquals("query_1", rpc.getExecutedIds().get(1));
+        Assert.assertEquals("query_2", rpc.getExecutedIds().get(2));
+        Assert.assertEquals("query_1", rpc.getExecutedIds().get(3));
+    }
+
+    @Test
+    public void lruEvictionTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub();
+        Session session = createSession(rpc, 2);
+
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 2;");
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 3;"); // evicts SELECT 2
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 2;");
+
+        Assert.assertEquals(4, rpc.getPrepared().size());
+        Assert.assertEquals("SELECT 2;", rpc.getPrepared().get(3));
+    }
+
+    @Test
+    public void reprepareNotFoundQueryTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub();
+        Session session = createSession(rpc, 10);
+
+        execute(session, "SELECT 1;");
+        rpc.failNextExecution("query_1", Status.of(StatusCode.NOT_FOUND, null,
+                Issue.of("Query not found: query_1", Issue.Severity.ERROR)));
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 1;");
+
+        Assert.assertEquals(2, rpc.getPrepared().size());
+        Assert.assertEquals(4, rpc.getExecutedIds().size());
+        Assert.assertEquals("query_1", rpc.getExecutedIds().get(1));
+        Assert.assertEquals("query_2", rpc.getExecutedIds().get(2));
+        Assert.assertEquals("query_2", rpc.getExecutedIds().get(3));
+    }
+
+    @Test
+    public void notFoundTableTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub();
+        Session session = createSession(rpc, 10);
+
+        execute(session, "SELECT * FROM series;");
+        rpc.failNextExecution("query_1", Status.of(StatusCode.NOT_FOUND, null,
+                Issue.of("Cannot find table 'db.[/local/series]'", Issue.Severity.ERROR)));
+        Result<?> result = session.executeDataQuery("SELECT * FROM series;", TxControl.serializableRw()).join();
+
+        // the error isn't caused by eviction of the prepared query, so the query isn't prepared again
+        Assert.assertEquals(StatusCode.NOT_FOUND, result.getStatus().getCode());
+        Assert.assertEquals(1, rpc.getPrepared().size());
+        Assert.assertEquals(2, rpc.getExecutedIds().size());
+    }
+
+    @Test
+    public void statsOfCachedQueriesTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub();
+        QueryStatsAggregator aggregator = QueryStatsAggregator.newBuilder().build();
+        Session session = SimpleTableClient.newClient(rpc)
+                .keepQueryText(false)
+                .queryCacheSize(10)
+                .queryStatsAggregator(aggregator)
+                .build()
+                .createSession(Duration.ZERO)
+                .join().getValue();
+
+        execute(session, "SELECT * FROM series;");
+        execute(session, "SELECT * FROM series;");
+
+        // statistics are collected by the text even if prepared queries don't keep it
+        List<QueryStatsSummary> top = aggregator.top(10);
+        Assert.assertEquals(1, top.size());
+        Assert.assertEquals("SELECT * FROM series;", top.get(0).getQuery());
+        Assert.assertEquals(2, top.get(0).getCalls());
+    }
+
+    @Test
+    public void disabledCacheTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub();
+        Session session = createSession(rpc, 0);
+
+        execute(session, "SELECT 1;");
+        execute(session, "SELECT 1;");
+
+        Assert.assertTrue(rpc.getPrepared().isEmpty());
+        Assert.assertEquals(2, rpc.getExecutedIds().size());
+        Assert.assertEquals("", rpc.getExecutedIds().get(0));
+    }
+}
@@ -285,11 +285,15 @@ public class SessionPoolTest extends FutureHelper {
         futureIsReady(r2);
         futureIsReady(r3);
 
-        s3.close(); // will be shutdowned
+        s3.close(); // will be shutdowned and replaced by new one
 
-        check(pool).idle(0).acquired(2).pending(0).size(0, 3).totalClient(3, 1).totalServer(3, 3, 0, 1);
+        check(pool).idle(0).acquired(2).pending(1).size(0, 3).totalClient(3, 1).totalServer(4, 3, 0, 1);
         tableRpc.check().deleteSessionRequests(1);
         tableRpc.nextDeleteSession().completeSuccess();
+        tableRpc.check().sessionRequests(1);
+        tableRpc.nextCreateSession().completeSuccess();
+
+        check(pool).idle(1).acquired(2).pending(0).size(0, 3).totalClient(3, 1).totalServer(4, 4, 0, 1);
 
         r1 = s1.executeDataQuery("SELECT 1;", TxControl.onlineRo());
         r2 = s2.executeDataQuery("SELECT 1;", TxControl.onlineRo());
@@ -301,15 +305,58 @@ public class SessionPoolTest extends FutureHelper {
         futureIsReady(r1);
         futureIsReady(r2);
 
-        s1.close(); // will be shutdowned
-        s2.close(); // will be shutdowned
+        s1.close(); // will be shutdowned and replaced by new one
+        s2.close(); // will be shutdowned and replaced by new one
 
-        check(pool).idle(0).acquired(0).pending(0).size(0, 3).totalClient(3, 3).totalServer(3, 3, 0, 3);
+        check(pool).idle(1).acquired(0).pending(2).size(0, 3).totalClient(3, 3).totalServer(6, 4, 0, 3);
         tableRpc.check().deleteSessionRequests(2);
         tableRpc.nextDeleteSession().completeSuccess();
         tableRpc.nextDeleteSession().completeSuccess();
 
+        tableRpc.check().sessionRequests(2);
+        tableRpc.nextCreateSession().completeSuccess();
+        tableRpc.nextCreateSession().completeSuccess();
+        check(pool).idle(3).acquired(0).pending(0).size(0, 3).totalClient(3, 3).totalServer(6, 6, 0, 3);
+
+        pool.close();
+        tableRpc.check().deleteSessionRequests(3);
+        tableRpc.completeSessionDeleteRequests();
+    }
+
+    @Test
+    public void replaceSessionOnShutdownHintTest() {
+        SessionPool pool = new SessionPool(clock, tableRpc, true,
+                SessionPoolOptions.DEFAULT.withSize(0, 3));
+
+        CompletableFuture<Result<Session>> f1 = pendingFuture(pool.acquire(TIMEOUT));
+        tableRpc.check().sessionRequests(1);
+        tableRpc.nextCreateSession().completeSuccess();
+        Session s1 = futureIsReady(f1).getValue();
+
+        CompletableFuture<Result<DataQueryResult>> r1 = s1.executeDataQuery("SELECT 1;", TxControl.onlineRo());
+        tableRpc.nextExecuteDataQuery().completeSuccessWithShutdownHook();
+        resultIsGood(r1);
+
+        // The pool has free capacity, so the replacement is requested right after the hint
+        check(pool).idle(0).acquired(1).pending(1).totalServer(2, 1, 0, 0);
+        tableRpc.check().sessionRequests(1);
+        tableRpc.nextCreateSession().completeSuccess();
+        check(pool).idle(1).acquired(1).pending(0).totalServer(2, 2, 0, 0);
+
+        // Closing of the shutdowned session doesn't request one more replacement
+        s1.close();
+        check(pool).idle(1).acquired(0).pending(0).totalServer(2, 2, 0, 1);
+        tableRpc.check().sessionRequests(0).deleteSessionRequests(1);
+        tableRpc.nextDeleteSession().completeSuccess();
+
+        // Next acquire gets the replacement without createSession call
+        Session s2 = futureIsReady(pool.acquire(TIMEOUT)).getValue();
+        Assert.assertNotEquals("Check replacement session", s1, s2);
+        tableRpc.check().sessionRequests(0);
+        s2.close();
+
         pool.close();
+        tableRpc.completeSessionDeleteRequests();
     }
 
     @Test
@@ -549,7 +596,8 @@ public class SessionPoolTest extends FutureHelper {
                 SessionPoolOptions.DEFAULT
                         .withSize(2, 5)
                         .withKeepAliveTimeMillis(5000)
-                        .withMaxIdleTimeMillis(1000));
+                        .withMaxIdleTimeMillis(1000)
+                        .withKeepAliveSpreadMillis(0));
 
         check(pool).idle(0).acquired(0).pending(0);
 
@@ -637,7 +685,8 @@ public class SessionPoolTest extends FutureHelper {
                 SessionPoolOptions.DEFAULT
                         .withSize(2, 3)
                         .withKeepAliveTimeMillis(1000)
-                        .withMaxIdleTimeMillis(2500));
+                        .withMaxIdleTimeMillis(2500)
+                        .withKeepAliveSpreadMillis(0));
 
         check(pool).idle(0).acquired(0).pending(0);
 
@@ -715,13 +764,133 @@ public class SessionPoolTest extends FutureHelper {
         tableRpc.completeSessionDeleteRequests();
     }
 
+    @Test
+    public void keepAliveShiftTest() {
+        Assert.assertTrue(SessionPoolOptions.DEFAULT.getKeepAliveSpreadMillis() > 0);
+
+        SessionPool disabled = new SessionPool(clock, tableRpc, true,
+                SessionPoolOptions.DEFAULT.withKeepAliveSpreadMillis(0));
+        Assert.assertEquals(0, disabled.nextKeepAliveShiftMillis());
+        disabled.close();
+
+        // spread is limited by keep alive time
+        SessionPool pool = new SessionPool(clock, tableRpc, true,
+                SessionPoolOptions.DEFAULT
+                        .withKeepAliveTimeMillis(1000)
+                        .withKeepAliveSpreadMillis(5000));
+        boolean[] buckets = new boolean[10];
+        for (int idx = 0; idx < 1000; idx++) {
+            long shift = pool.nextKeepAliveShiftMillis();
+            Assert.assertTrue(shift >= 0 && shift < 1000);
+            buckets[(int) (shift / 100)] = true;
+        }
+        pool.close();
+
+        // shifts are spread over the whole range
+        for (boolean bucket : buckets) {
+            Assert.assertTrue(bucket);
+        }
+    }
+
+    @Test
+    public void keepAliveSpreadTest() {
+        // Keep alive task is executed at 100 ms, 300 ms, 500 ms and so on
+        SessionPool pool = new SessionPool(clock, tableRpc, true,
+                SessionPoolOptions.DEFAULT
+                        .withSize(1, 1)
+                        .withKeepAliveTimeMillis(1000)
+                        .withMaxIdleTimeMillis(10000)
+                        .withKeepAliveSpreadMillis(1000)) {
+            @Override
+            long nextKeepAliveShiftMillis() {
+                return 300;
+            }
+        };
+
+        Instant now = clock.instant();
+
+        CompletableFuture<Result<Session>> f1 = pendingFuture(pool.acquire(TIMEOUT));
+        tableRpc.check().sessionRequests(1);
+        tableRpc.nextCreateSession().completeSuccess();
+        futureIsReady(f1).getValue().close();
+        check(pool).idle(1).acquired(0).pending(0);
+
+        // Keep alive deadline is moved from 1000 ms to 700 ms
+        scheduler.runTasksTo(now.plusMillis(600));
+        tableRpc.check().hasNoKeepAlive();
+
+        scheduler.runTasksTo(now.plusMillis(700), () -> {
+            tableRpc.check().keepAlives(1);
+            tableRpc.nextKeepAlive().completeReady();
+        });
+
+        // the shift is kept for the next keep alive at 1400 ms
+        scheduler.runTasksTo(now.plusMillis(1300));
+        tableRpc.check().hasNoKeepAlive();
+
+        scheduler.runTasksTo(now.plusMillis(1500), () -> {
+            tableRpc.check().keepAlives(1);
+            tableRpc.nextKeepAlive().completeReady();
+        });
+
+        check(pool).idle(1).acquired(0).pending(0);
+        pool.close();
+        tableRpc.completeSessionDeleteRequests();
+    }
+
+    @Test
+    public void keepAliveRateLimitTest() {
+        // Keep alive task is executed every 500 ms, but rate limit is max(2, 2 * 10 * 1000 / 10000) = 2 per second
+        SessionPool pool = new SessionPool(clock, tableRpc, true,
+                SessionPoolOptions.DEFAULT
+                        .withSize(10, 10)
+                        .withKeepAliveTimeMillis(10000)
+                        .withMaxIdleTimeMillis(1000)
+                        .withKeepAliveSpreadMillis(0));
+
+        Instant now = clock.instant();
+
+        Deque<CompletableFuture<Result<Session>>> futures = new ArrayDeque<>();
+        for (int idx = 0; idx < 10; idx++) {
+            futures.addLast(pendingFuture(pool.acquire(TIMEOUT)));
+        }
+        tableRpc.check().sessionRequests(10);
+        for (int idx = 0; idx < 10; idx++) {
+            tableRpc.nextCreateSession().completeSuccess();
+        }
+        while (!futures.isEmpty()) {
+            futureIsReady(futures.removeFirst()).getValue().close();
+        }
+        check(pool).idle(10).acquired(0).pending(0);
+
+        scheduler.runTasksTo(now.plusMillis(9750));
+        tableRpc.check().hasNoKeepAlive();
+
+        // All sessions are expired, but the pool sends only two keep alives per second
+        for (int second = 10; second < 15; second++) {
+            scheduler.runTasksTo(now.plusMillis(second * 1000 + 250), () -> {
+                tableRpc.check().keepAlives(2);
+                tableRpc.nextKeepAlive().completeReady();
+                tableRpc.nextKeepAlive().completeReady();
+            });
+
+            scheduler.runTasksTo(now.plusMillis(second * 1000 + 750));
+            tableRpc.check().hasNoKeepAlive();
+        }
+
+        check(pool).idle(10).acquired(0).pending(0);
+        pool.close();
+        tableRpc.completeSessionDeleteRequests();
+    }
+
     @Test
     public void wrongKeepAliveSessionsTest() {
         SessionPool pool = new SessionPool(clock, tableRpc, true,
                 SessionPoolOptions.DEFAULT
                         .withSize(2, 3)
                         .withKeepAliveTimeMillis(1000)
-                        .withMaxIdleTimeMillis(2500));
+                        .withMaxIdleTimeMillis(2500)
+                        .withKeepAliveSpreadMillis(0));
 
         check(pool).idle(0).acquired(0).pending(0);
 
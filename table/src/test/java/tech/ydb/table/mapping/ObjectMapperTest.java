@@ -0,0 +1,287 @@
+package tech.ydb.table.mapping;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.result.impl.ProtoValueReaders;
+import tech.ydb.table.values.DecimalType;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructType;
+import tech.ydb.table.values.StructValue;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+
+public class ObjectMapperTest {
+
+    public static class Series {
+        private long id;
+        private String title;
+        private int rating;
+        private Optional<Instant> releaseDate;
+        @Column(name = "price", precision = 12, scale = 2)
+        private BigDecimal cost;
+        private transient String ignored;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+
+        public int getRating() {
+            return rating;
+        }
+
+        public void setRating(int rating) {
+            this.rating = rating;
+        }
+
+        public Optional<Instant> getReleaseDate() {
+            return releaseDate;
+        }
+
+        public void setReleaseDate(Optional<Instant> releaseDate) {
+            this.releaseDate = releaseDate;
+        }
+
+        public BigDecimal getCost() {
+            return cost;
+        }
+
+        public void setCost(BigDecimal cost) {
+            this.cost = cost;
+        }
+    }
+
+    private static class Point {
+        private int x;
+        private Integer y;
+    }
+
+    static final class ImmutablePoint {
+        private final int x;
+        private final double weight;
+        private final String label;
+
+        ImmutablePoint(int x, double weight, String label) {
+            this.x = x;
+            this.weight = weight;
+            this.label = label;
+        }
+    }
+
+    private static class Unsupported {
+        private Object value;
+    }
+
+    private static ValueProtos.Column column(String name, ValueProtos.Type type) {
+        return ValueProtos.Column.newBuilder().setName(name).setType(type).build();
+    }
+
+    private static ResultSetReader seriesResultSet() {
+        ValueProtos.ResultSet resultSet = ValueProtos.ResultSet.newBuilder()
+                .addColumns(column("id", ProtoType.getUint32()))
+                .addColumns(column("title", ProtoType.getOptional(ProtoType.getText())))
+                .addColumns(column("rating", ProtoType.getOptional(ProtoType.getUint8())))
+                .addColumns(column("releaseDate", ProtoType.getOptional(ProtoType.getTimestamp())))
+                .addColumns(column("price", ProtoType.getOptional(ProtoType.getDecimal(12, 2))))
+                .addColumns(column("unknown", ProtoType.getBool()))
+                .addRows(ValueProtos.Value.newBuilder()
+                        .addItems(ProtoValue.fromUint32(1))
+                        .addItems(ProtoValue.fromText("IT Crowd"))
+                        .addItems(ProtoValue.fromUint8(9))
+                        .addItems(ProtoValue.fromTimestamp(Instant.ofEpochSecond(1138924800)))
+                        .addItems(DecimalType.of(12, 2).newValue("12.50").toPb())
+                        .addItems(ProtoValue.fromBool(true)))
+                .addRows(ValueProtos.Value.newBuilder()
+                        .addItems(ProtoValue.fromUint32(2))
+                        .addItems(ProtoValue.optional())
+                        .addItems(ProtoValue.optional())
+                        .addItems(ProtoValue.optional())
+                        .addItems(ProtoValue.optional())
+                        .addItems(ProtoValue.fromBool(false)))
+                .build();
+        return ProtoValueReaders.forResultSet(resultSet);
+    }
+
+    @Test
+    public void readPojoTest() {
+        List<Series> series = ObjectMapper.of(Series.class).readAll(seriesResultSet());
+        Assert.assertEquals(2, series.size());
+
+        Series first = series.get(0);
+        Assert.assertEquals(1, first.id);
+        Assert.assertEquals("IT Crowd", first.title);
+        Assert.assertEquals(9, first.rating);
+        Assert.assertEquals(Optional.of(Instant.ofEpochSecond(1138924800)), first.releaseDate);
+        Assert.assertEquals(new BigDecimal("12.50"), first.cost);
+        Assert.assertNull(first.ignored);
+
+        Series second = series.get(1);
+        Assert.assertEquals(2, second.id);
+        Assert.assertNull(second.title);
+        Assert.assertEquals(0, second.rating);
+        Assert.assertEquals(Optional.empty(), second.releaseDate);
+        Assert.assertNull(second.cost);
+    }
+
+    @Test
+    public void bindTest() {
+        ResultSetReader resultSet = seriesResultSet();
+        ObjectReader<Series> reader = ObjectMapper.of(Series.class).bind(resultSet);
+
+        Assert.assertEquals(1, reader.readNext().id);
+        Assert.assertEquals(1, reader.read().id);
+        Assert.assertEquals(2, reader.readNext().id);
+        Assert.assertNull(reader.readNext());
+    }
+
+    @Test
+    public void structTypeTest() {
+        ObjectMapper<Series> mapper = ObjectMapper.of(Series.class);
+        Assert.assertSame(mapper, ObjectMapper.of(Series.class));
+
+        StructType type = mapper.getStructType();
+        Assert.assertEquals(5, type.getMembersCount());
+        Assert.assertEquals(PrimitiveType.Int64, type.getMemberType(type.getMemberIndex("id")));
+        Assert.assertEquals(PrimitiveType.Int32, type.getMemberType(type.getMemberIndex("rating")));
+        Assert.assertEquals(PrimitiveType.Text.makeOptional(), type.getMemberType(type.getMemberIndex("title")));
+        Assert.assertEquals(PrimitiveType.Timestamp.makeOptional(),
+                type.getMemberType(type.getMemberIndex("releaseDate")));
+        Assert.assertEquals(DecimalType.of(12, 2).makeOptional(), type.getMemberType(type.getMemberIndex("price")));
+        Assert.assertEquals(-1, type.getMemberIndex("ignored"));
+    }
+
+    @Test
+    public void toStructTest() {
+        Series series = new Series();
+        series.setId(5);
+        series.setTitle("Silicon Valley");
+        series.setRating(8);
+        series.setReleaseDate(Optional.empty());
+        series.setCost(new BigDecimal("3.99"));
+
+        ObjectMapper<Series> mapper = ObjectMapper.of(Series.class);
+        StructValue struct = mapper.toStruct(series);
+        StructType type = struct.getType();
+
+        Assert.assertEquals(PrimitiveValue.newInt64(5), struct.getMemberValue(type.getMemberIndex("id")));
+        Assert.assertEquals(PrimitiveValue.newText("Silicon Valley").makeOptional(),
+                struct.getMemberValue(type.getMemberIndex("title")));
+        Assert.assertEquals(OptionalType.of(PrimitiveType.Timestamp).emptyValue(),
+                struct.getMemberValue(type.getMemberIndex("releaseDate")));
+
+        Series copy = mapper.fromStruct(struct);
+        Assert.assertEquals(5, copy.id);
+        Assert.assertEquals("Silicon Valley", copy.title);
+        Assert.assertEquals(8, copy.rating);
+        Assert.assertEquals(Optional.empty(), copy.releaseDate);
+        Assert.assertEquals(new BigDecimal("3.99"), copy.cost);
+
+        ListValue list = mapper.toList(Arrays.asList(series, copy));
+        Assert.assertEquals(2, list.size());
+        Assert.assertEquals(struct, list.get(1));
+    }
+
+    @Test
+    public void privateClassTest() {
+        ObjectMapper<Point> mapper = ObjectMapper.of(Point.class);
+        Point point = new Point();
+        point.x = 3;
+
+        StructValue struct = mapper.toStruct(point);
+        Assert.assertEquals(PrimitiveValue.newInt32(3), struct.getMemberValue(0));
+        Assert.assertEquals(OptionalType.of(PrimitiveType.Int32).emptyValue(), struct.getMemberValue(1));
+
+        Point copy = mapper.fromStruct(StructValue.of(
+                "x", PrimitiveValue.newInt16((short) 4),
+                "y", PrimitiveValue.newInt32(5).makeOptional()));
+        Assert.assertEquals(4, copy.x);
+        Assert.assertEquals(Integer.valueOf(5), copy.y);
+    }
+
+    @Test
+    public void alternatingStructTypesTest() {
+        ObjectMapper<Point> mapper = ObjectMapper.of(Point.class);
+        StructValue full = StructValue.of(
+                "x", PrimitiveValue.newInt32(1),
+                "y", PrimitiveValue.newInt32(2).makeOptional());
+        StructValue partial = StructValue.of("x", PrimitiveValue.newInt32(3));
+
+        // bindings of both struct types are cached and don't replace each other
+        for (int i = 0; i < 3; i++) {
+            Point first = mapper.fromStruct(full);
+            Assert.assertEquals(1, first.x);
+            Assert.assertEquals(Integer.valueOf(2), first.y);
+
+            Point second = mapper.fromStruct(partial);
+            Assert.assertEquals(3, second.x);
+            Assert.assertNull(second.y);
+        }
+    }
+
+    @Test
+    public void constructorTest() {
+        ValueProtos.ResultSet resultSet = ValueProtos.ResultSet.newBuilder()
+                .addColumns(column("label", ProtoType.getText()))
+                .addColumns(column("x", ProtoType.getInt32()))
+                .addColumns(column("weight", ProtoType.getOptional(ProtoType.getFloat())))
+                .addRows(ValueProtos.Value.newBuilder()
+                        .addItems(ProtoValue.fromText("a"))
+                        .addItems(ProtoValue.fromInt32(1))
+                        .addItems(ProtoValue.fromFloat(0.5f)))
+                .addRows(ValueProtos.Value.newBuilder()
+                        .addItems(ProtoValue.fromText("b"))
+                        .addItems(ProtoValue.fromInt32(2))
+                        .addItems(ProtoValue.optional()))
+                .build();
+
+        List<ImmutablePoint> points = ObjectMapper.of(ImmutablePoint.class)
+                .readAll(ProtoValueReaders.forResultSet(resultSet));
+        Assert.assertEquals(2, points.size());
+        Assert.assertEquals("a", points.get(0).label);
+        Assert.assertEquals(1, points.get(0).x);
+        Assert.assertEquals(0.5, points.get(0).weight, 0.0);
+        Assert.assertEquals("b", points.get(1).label);
+        Assert.assertEquals(0.0, points.get(1).weight, 0.0);
+    }
+
+    @Test
+    public void incompatibleColumnTest() {
+        ValueProtos.ResultSet resultSet = ValueProtos.ResultSet.newBuilder()
+                .addColumns(column("x", ProtoType.getInt64()))
+                .build();
+
+        IllegalArgumentException ex = Assert.assertThrows(IllegalArgumentException.class,
+                () -> ObjectMapper.of(Point.class).bind(ProtoValueReaders.forResultSet(resultSet)));
+        Assert.assertTrue(ex.getMessage().startsWith("cannot map column x with type Int64 to field"));
+    }
+
+    @Test
+    public void unsupportedClassTest() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> ObjectMapper.of(Object.class));
+        Assert.assertThrows(IllegalArgumentException.class, () -> ObjectMapper.of(Unsupported.class));
+    }
+}
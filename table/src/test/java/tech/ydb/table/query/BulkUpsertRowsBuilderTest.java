@@ -0,0 +1,82 @@
+package tech.ydb.table.query;
+
+import java.time.Instant;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.table.values.DecimalType;
+import tech.ydb.table.values.ListValue;
+import tech.ydb.table.values.OptionalType;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.PrimitiveValue;
+import tech.ydb.table.values.StructType;
+
+
+public class BulkUpsertRowsBuilderTest {
+    private static final StructType TYPE = StructType.of(
+            "id", PrimitiveType.Uint64,
+            "title", PrimitiveType.Text.makeOptional(),
+            "rating", PrimitiveType.Int32.makeOptional(),
+            "price", DecimalType.of(12, 2),
+            "created", PrimitiveType.Timestamp
+    );
+
+    @Test
+    public void sameAsListValueTest() {
+        Instant now = Instant.ofEpochSecond(1700000000L, 123000);
+        BulkUpsertRowsBuilder builder = new BulkUpsertRowsBuilder(TYPE);
+        builder.setLong("id", 1)
+                .setText("title", "first")
+                .setLong("rating", 5)
+                .setDecimal("price", DecimalType.of(12, 2).newValue("9.99"))
+                .setTimestamp("created", now)
+                .endRow();
+        builder.setTimestamp("created", now)
+                .setDecimal("price", DecimalType.getDefault().newValue("0.5"))
+                .setNull("title")
+                .setLong("id", -1)
+                .endRow();
+        Assert.assertEquals(2, builder.getRowCount());
+
+        ListValue rows = ListValue.of(
+                TYPE.newValue(
+                        "id", PrimitiveValue.newUint64(1),
+                        "title", PrimitiveValue.newText("first").makeOptional(),
+                        "rating", PrimitiveValue.newInt32(5).makeOptional(),
+                        "price", DecimalType.of(12, 2).newValue("9.99"),
+                        "created", PrimitiveValue.newTimestamp(now)),
+                TYPE.newValue(
+                        "id", PrimitiveValue.newUint64(-1),
+                        "title", OptionalType.of(PrimitiveType.Text).emptyValue(),
+                        "rating", OptionalType.of(PrimitiveType.Int32).emptyValue(),
+                        "price", DecimalType.of(12, 2).newValue("0.50"),
+                        "created", PrimitiveValue.newTimestamp(now))
+        );
+
+        Assert.assertEquals(new BulkUpsertRowsData(rows).getRows(), builder.build().getRows());
+
+        // builder is reset after build
+        Assert.assertEquals(0, builder.getRowCount());
+        Assert.assertEquals(0, builder.build().getRows().getValue().getItemsCount());
+    }
+
+    @Test
+    public void validationTest() {
+        BulkUpsertRowsBuilder builder = new BulkUpsertRowsBuilder(TYPE);
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.setLong("unknown", 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.setText("id", "1"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.setNull("id"));
+        Assert.assertThrows(IllegalArgumentException.class, () -> builder.setLong("rating", 1L << 40));
+
+        IllegalArgumentException ex = Assert.assertThrows(IllegalArgumentException.class,
+                () -> builder.setDouble("rating", 1.0));
+        Assert.assertEquals("cannot write double to column rating with type Int32?", ex.getMessage());
+
+        builder.setLong("id", 1);
+        IllegalStateException notSet = Assert.assertThrows(IllegalStateException.class, builder::endRow);
+        Assert.assertEquals("column created isn't set in row 0", notSet.getMessage());
+        Assert.assertThrows(IllegalStateException.class, builder::build);
+    }
+}
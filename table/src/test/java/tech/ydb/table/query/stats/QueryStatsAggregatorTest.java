@@ -0,0 +1,144 @@
+package tech.ydb.table.query.stats;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.YdbQueryStats;
+
+
+public class QueryStatsAggregatorTest {
+
+    private static QueryStats stats(long cpuTimeUs, long rowsRead, long rowsUpdated, boolean compiled) {
+        return new QueryStats(YdbQueryStats.QueryStats.newBuilder()
+                .setProcessCpuTimeUs(cpuTimeUs)
+                .setTotalDurationUs(cpuTimeUs * 2)
+                .setCompilation(YdbQueryStats.CompilationStats.newBuilder()
+                        .setFromCache(!compiled)
+                        .setDurationUs(compiled ? 500 : 0))
+                .addQueryPhases(YdbQueryStats.QueryPhaseStats.newBuilder()
+                        .addTableAccess(YdbQueryStats.TableAccessStats.newBuilder()
+                                .setName("/local/series")
+                                .setReads(YdbQueryStats.OperationStats.newBuilder()
+                                        .setRows(rowsRead).setBytes(rowsRead * 10))
+                                .setUpdates(YdbQueryStats.OperationStats.newBuilder()
+                                        .setRows(rowsUpdated).setBytes(rowsUpdated * 10))))
+                .build());
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Test
+    public void normalizeTest() {
+        Assert.assertEquals("SELECT * FROM series WHERE id = ? AND title = ?;",
+                QueryStatsAggregator.normalize("SELECT *\n  FROM series  WHERE id = 10 AND title = 'it''s';"));
+        Assert.assertEquals("SELECT * FROM `my table1` WHERE id IN (?, ?, ?) LIMIT $limit;",
+                QueryStatsAggregator.normalize("-- comment\nSELECT * FROM `my table1` /* other */ "
+                        + "WHERE id IN (1ul, 2.5f, \"3\"u) LIMIT $limit;"));
+        Assert.assertEquals("SELECT t1.id FROM t1;", QueryStatsAggregator.normalize("SELECT t1.id FROM t1;  "));
+    }
+
+    @Test
+    public void aggregationTest() {
+        QueryStatsAggregator aggregator = QueryStatsAggregator.newBuilder().build();
+
+        aggregator.record("SELECT * FROM series WHERE id = 1;", ms(1), true, stats(100, 1, 0, true));
+        aggregator.record("SELECT * FROM series WHERE id = 2;", ms(3), true, null);
+        aggregator.record("SELECT * FROM series WHERE id = 3;", ms(2), false, null);
+        aggregator.record("UPSERT INTO series (id) VALUES (1);", ms(10), true, stats(1000, 0, 1, false));
+
+        Assert.assertEquals(2, aggregator.getQueriesCount());
+        List<QueryStatsSummary> top = aggregator.top(10);
+        Assert.assertEquals(2, top.size());
+
+        QueryStatsSummary upsert = top.get(0);
+        Assert.assertEquals("UPSERT INTO series (id) VALUES (?);", upsert.getQuery());
+        Assert.assertEquals(1, upsert.getCalls());
+        Assert.assertEquals(1000, upsert.getEstimatedTotalCpuTimeUs());
+        Assert.assertEquals(1, upsert.getRowsWritten());
+        Assert.assertEquals(10, upsert.getBytesWritten());
+        Assert.assertEquals(0, upsert.getCompilations());
+
+        QueryStatsSummary select = top.get(1);
+        Assert.assertEquals("SELECT * FROM series WHERE id = ?;", select.getQuery());
+        Assert.assertEquals(3, select.getCalls());
+        Assert.assertEquals(1, select.getErrors());
+        Assert.assertEquals(1, select.getSampledCalls());
+        Assert.assertEquals(100, select.getTotalCpuTimeUs());
+        Assert.assertEquals(300, select.getEstimatedTotalCpuTimeUs());
+        Assert.assertEquals(200, select.getTotalServerDurationUs());
+        Assert.assertEquals(1, select.getCompilations());
+        Assert.assertEquals(500, select.getTotalCompilationDurationUs());
+        Assert.assertEquals(1, select.getRowsRead());
+        Assert.assertEquals(10, select.getBytesRead());
+
+        // histogram buckets have relative error up to 12.5%
+        long p50 = select.getLatencyPercentileUs(50);
+        Assert.assertTrue("p50 " + p50, p50 >= 2000 && p50 <= 2250);
+        long p100 = select.getLatencyPercentileUs(100);
+        Assert.assertTrue("p100 " + p100, p100 >= 3000 && p100 <= 3375);
+
+        List<QueryStatsSummary> byCalls = aggregator.top(1, Comparator.comparingLong(QueryStatsSummary::getCalls));
+        Assert.assertEquals(1, byCalls.size());
+        Assert.assertEquals(select.getQuery(), byCalls.get(0).getQuery());
+
+        aggregator.reset();
+        Assert.assertEquals(0, aggregator.getQueriesCount());
+
+        // entries of already seen texts are dropped by reset too
+        aggregator.record("SELECT * FROM series WHERE id = 1;", ms(1), true, null);
+        Assert.assertEquals(1, aggregator.getQueriesCount());
+        Assert.assertEquals(1, aggregator.top(10).get(0).getCalls());
+    }
+
+    @Test
+    public void maxQueriesTest() {
+        QueryStatsAggregator aggregator = QueryStatsAggregator.newBuilder().withMaxQueries(1).build();
+
+        aggregator.record("SELECT 1;", ms(1), true, null);
+        aggregator.record("SELECT 2;", ms(1), true, null);
+        aggregator.record("SELECT * FROM series;", ms(1), true, null);
+
+        Assert.assertEquals(1, aggregator.getQueriesCount());
+        Assert.assertEquals(2, aggregator.top(10).get(0).getCalls());
+        Assert.assertEquals(1, aggregator.getDroppedCount());
+    }
+
+    @Test
+    public void samplingTest() {
+        QueryStatsAggregator never = QueryStatsAggregator.newBuilder().withSampleRate(0).build();
+        QueryStatsAggregator always = QueryStatsAggregator.newBuilder().withSampleRate(1).build();
+        for (int i = 0; i < 100; i++) {
+            Assert.assertFalse(never.sample());
+            Assert.assertTrue(always.sample());
+        }
+    }
+
+    @Test
+    public void histogramTest() {
+        for (long value = 0; value < 1_000_000; value += 7) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long upper = LatencyHistogram.upperBoundOf(bucket);
+            Assert.assertTrue(value <= upper);
+            Assert.assertTrue(value == upper || upper - value <= value / 8);
+            if (bucket > 0) {
+                Assert.assertTrue(value > LatencyHistogram.upperBoundOf(bucket - 1));
+            }
+        }
+        Assert.assertEquals(LatencyHistogram.bucketOf(Long.MAX_VALUE), LatencyHistogram.bucketOf(1L << 50));
+
+        LatencyHistogram histogram = new LatencyHistogram();
+        Assert.assertEquals(0, histogram.getPercentile(99));
+        for (long value = 1; value <= 100; value++) {
+            histogram.add(value);
+        }
+        Assert.assertEquals(100, histogram.getTotal());
+        Assert.assertTrue(histogram.getPercentile(50) >= 50 && histogram.getPercentile(50) < 57);
+        Assert.assertTrue(histogram.getPercentile(99) >= 99 && histogram.getPercentile(99) < 112);
+    }
+}
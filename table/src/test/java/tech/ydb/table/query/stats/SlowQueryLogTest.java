@@ -0,0 +1,172 @@
+package tech.ydb.table.query.stats;
+
+import java.time.Duration;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Status;
+import tech.ydb.proto.YdbQueryStats;
+import tech.ydb.table.impl.pool.MockedClock;
+import tech.ydb.table.query.Params;
+import tech.ydb.table.values.PrimitiveValue;
+
+
+public class SlowQueryLogTest {
+    private static final String QUERY = "DECLARE $id AS Uint64; SELECT * FROM series WHERE series_id = $id;";
+    private static final Params PARAMS = Params.of("$id", PrimitiveValue.newUint64(1));
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    private static QueryStats stats(String plan) {
+        return new QueryStats(YdbQueryStats.QueryStats.newBuilder().setQueryPlan(plan).build());
+    }
+
+    @Test
+    public void slowQueryRecordTest() {
+        List<SlowQueryRecord> records = new ArrayList<>();
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ofMillis(100))
+                .withListener(records::add)
+                .build();
+
+        log.record(QUERY, true, PARAMS, "session", 5, "n1.ydb.tech:2135", 0, ms(10), Status.SUCCESS, null);
+        Assert.assertTrue(records.isEmpty());
+
+        log.record(QUERY, true, PARAMS, "session", 5, "n1.ydb.tech:2135", 2, ms(150), Status.SUCCESS,
+                stats("{\"plan\":1}"));
+        Assert.assertEquals(1, records.size());
+
+        SlowQueryRecord record = records.get(0);
+        Assert.assertEquals(QUERY, record.getQuery());
+        Assert.assertEquals("Uint64", record.getParameterTypes().get("$id"));
+        Assert.assertEquals("session", record.getSessionId());
+        Assert.assertEquals(Integer.valueOf(5), record.getNodeId());
+        Assert.assertEquals("n1.ydb.tech:2135", record.getEndpoint());
+        Assert.assertEquals(2, record.getRetryNumber());
+        Assert.assertEquals(Duration.ofMillis(150), record.getDuration());
+        Assert.assertEquals(Status.SUCCESS, record.getStatus());
+        Assert.assertEquals("{\"plan\":1}", record.getQueryPlan());
+    }
+
+    @Test
+    public void hiddenQueryTextTest() {
+        List<SlowQueryRecord> records = new ArrayList<>();
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ZERO)
+                .withSampleRate(0)
+                .withSlowQuerySampleRate(1)
+                .withListener(records::add)
+                .build();
+
+        log.record(QUERY, false, PARAMS, "session", null, null, 0, ms(1), Status.SUCCESS, null);
+
+        // the text isn't reported, but the query is still sampled by its text
+        Assert.assertEquals(1, records.size());
+        Assert.assertEquals(64, records.get(0).getQuery().length());
+        Assert.assertFalse(records.get(0).toString().contains(QUERY));
+        Assert.assertEquals(QueryStatsCollectionMode.FULL,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.NONE));
+    }
+
+    @Test
+    public void recentlySlowQueryTest() {
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ofMillis(100))
+                .withSampleRate(0)
+                .withSlowQuerySampleRate(1)
+                .withListener(record -> { })
+                .build();
+
+        Assert.assertEquals(QueryStatsCollectionMode.NONE,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.NONE));
+
+        log.record(QUERY, true, PARAMS, "session", null, null, 0, ms(200), Status.SUCCESS, null);
+
+        // next executions of the slow query are executed with stats
+        Assert.assertEquals(QueryStatsCollectionMode.FULL,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.NONE));
+        Assert.assertEquals(QueryStatsCollectionMode.PROFILE,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.PROFILE));
+        Assert.assertEquals(QueryStatsCollectionMode.NONE,
+                log.statsCollectionMode("SELECT 1;", QueryStatsCollectionMode.NONE));
+    }
+
+    @Test
+    public void slowQueryTtlTest() {
+        MockedClock clock = MockedClock.create(ZoneId.of("UTC"));
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ZERO)
+                .withSampleRate(0)
+                .withSlowQuerySampleRate(1)
+                .withSlowQueryTtl(Duration.ofMillis(1), 1)
+                .withListener(record -> { })
+                .withClock(clock)
+                .build();
+
+        log.record(QUERY, true, PARAMS, "session", null, null, 0, ms(1), Status.SUCCESS, null);
+        // limit of slow queries is reached
+        log.record("SELECT 1;", true, Params.empty(), "session", null, null, 0, ms(1), Status.SUCCESS, null);
+        Assert.assertEquals(QueryStatsCollectionMode.FULL,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.NONE));
+        Assert.assertEquals(QueryStatsCollectionMode.NONE,
+                log.statsCollectionMode("SELECT 1;", QueryStatsCollectionMode.NONE));
+
+        clock.goToFuture(clock.instant().plusMillis(1));
+        Assert.assertEquals(QueryStatsCollectionMode.NONE,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.NONE));
+    }
+
+    @Test
+    public void slowQuerySamplingTest() {
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ZERO)
+                .withSampleRate(0)
+                .withSlowQuerySampleRate(0.5)
+                .withListener(record -> { })
+                .build();
+
+        log.record(QUERY, true, PARAMS, "session", null, null, 0, ms(1), Status.SUCCESS, null);
+
+        // only a share of executions of the recently slow query collects stats
+        int sampled = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (log.statsCollectionMode(QUERY, QueryStatsCollectionMode.NONE) == QueryStatsCollectionMode.FULL) {
+                sampled++;
+            }
+        }
+        Assert.assertTrue("sampled " + sampled, sampled > 300 && sampled < 700);
+    }
+
+    @Test
+    public void samplingTest() {
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withSampleRate(1)
+                .withStatsMode(QueryStatsCollectionMode.BASIC)
+                .build();
+
+        Assert.assertEquals(QueryStatsCollectionMode.BASIC,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.UNSPECIFIED));
+        Assert.assertEquals(QueryStatsCollectionMode.FULL,
+                log.statsCollectionMode(QUERY, QueryStatsCollectionMode.FULL));
+    }
+
+    @Test
+    public void failedListenerTest() {
+        SlowQueryLog log = SlowQueryLog.newBuilder()
+                .withThreshold(Duration.ZERO)
+                .withListener(record -> {
+                    throw new IllegalStateException("listener error");
+                })
+                .build();
+
+        // listener errors must not break execution of queries
+        log.record(QUERY, true, PARAMS, "session", null, null, 0, ms(1), Status.SUCCESS, null);
+    }
+}
@@ -1,5 +1,8 @@
 package tech.ydb.table.result;
 
+import java.nio.ByteBuffer;
+
+import com.google.protobuf.ByteString;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -139,6 +142,50 @@ public class ResultSetReaderTest {
         Assert.assertFalse(reader.next());
     }
 
+    @Test
+    public void readRawBytes() {
+        ByteString utf8 = ByteString.copyFromUtf8("{\"name\": \"\u0436\"}");
+        ByteString bytes = ByteString.copyFrom(new byte[] {1, 2, 3});
+        ValueProtos.ResultSet resultSet = ValueProtos.ResultSet.newBuilder()
+            .addColumns(newColumn("text", ProtoType.getText()))
+            .addColumns(newColumn("json", ProtoType.getOptional(ProtoType.getJson())))
+            .addColumns(newColumn("bytes", ProtoType.getBytes()))
+            .addColumns(newColumn("yson", ProtoType.getYson()))
+            .addRows(newRow(
+                ProtoValue.fromText("ascii"),
+                ProtoValue.fromTextBytes(utf8),
+                ProtoValue.fromBytes(bytes),
+                ProtoValue.fromBytes(bytes)))
+            .build();
+
+        ResultSetReader reader = ProtoValueReaders.forResultSet(resultSet);
+        Assert.assertTrue(reader.next());
+
+        ValueReader text = reader.getColumn("text");
+        Assert.assertEquals(ByteString.copyFromUtf8("ascii"), text.getTextBytes());
+        CharSequence chars = text.getTextAsCharSequence();
+        Assert.assertFalse(chars instanceof String);
+        Assert.assertEquals(5, chars.length());
+        Assert.assertEquals('c', chars.charAt(2));
+        Assert.assertEquals("sci", chars.subSequence(1, 4).toString());
+        Assert.assertEquals("ascii", chars.toString());
+
+        ValueReader json = reader.getColumn("json").getOptionalItem();
+        Assert.assertSame(utf8, json.getTextBytes());
+        Assert.assertEquals("{\"name\": \"\u0436\"}", json.getTextAsCharSequence());
+
+        ByteBuffer buffer = json.getRawByteBuffer();
+        Assert.assertTrue(buffer.isReadOnly());
+        Assert.assertEquals(utf8.size(), buffer.remaining());
+
+        Assert.assertSame(bytes, reader.getColumn("bytes").getBytesAsByteString());
+        Assert.assertSame(bytes, reader.getColumn("yson").getYsonBytes());
+        Assert.assertEquals(ByteBuffer.wrap(new byte[] {1, 2, 3}), reader.getColumn("yson").getRawByteBuffer());
+
+        Assert.assertThrows(IllegalStateException.class, () -> reader.getColumn("bytes").getTextBytes());
+        Assert.assertThrows(IllegalStateException.class, () -> text.getYsonBytes());
+    }
+
     private static ValueProtos.Column newColumn(String name, ValueProtos.Type type) {
         return ValueProtos.Column.newBuilder().setName(name).setType(type).build();
     }
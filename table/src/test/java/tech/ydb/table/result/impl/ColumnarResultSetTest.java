@@ -0,0 +1,111 @@
+package tech.ydb.table.result.impl;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ColumnarResultSet;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+
+public class ColumnarResultSetTest {
+
+    private static ValueProtos.Column column(String name, ValueProtos.Type type) {
+        return ValueProtos.Column.newBuilder().setName(name).setType(type).build();
+    }
+
+    private static ValueProtos.ResultSet resultSet(int from, int to) {
+        ValueProtos.ResultSet.Builder builder = ValueProtos.ResultSet.newBuilder()
+                .addColumns(column("id", ProtoType.getInt32()))
+                .addColumns(column("amount", ProtoType.getOptional(ProtoType.getUint64())))
+                .addColumns(column("price", ProtoType.getDouble()))
+                .addColumns(column("name", ProtoType.getOptional(ProtoType.getText())))
+                .addColumns(column("tags", ProtoType.getList(ProtoType.getText())));
+        for (int id = from; id < to; id++) {
+            boolean isNull = id % 3 == 0;
+            builder.addRows(ValueProtos.Value.newBuilder()
+                    .addItems(ProtoValue.fromInt32(id))
+                    .addItems(isNull ? ProtoValue.optional() : ProtoValue.fromUint64(id * 10L))
+                    .addItems(ProtoValue.fromDouble(id * 0.5))
+                    .addItems(isNull ? ProtoValue.optional() : ProtoValue.optional(ProtoValue.fromText("n\u00e4me" + id)))
+                    .addItems(ProtoValue.list(ProtoValue.fromText("tag"))));
+        }
+        return builder.build();
+    }
+
+    private static void assertColumns(ColumnarResultSet columnar, int rowCount) {
+        Assert.assertEquals(rowCount, columnar.getRowCount());
+        Assert.assertEquals(5, columnar.getColumnCount());
+        Assert.assertEquals(3, columnar.getColumnIndex("name"));
+        Assert.assertEquals(-1, columnar.getColumnIndex("unknown"));
+
+        int[] ids = columnar.getInts(0);
+        long[] amounts = columnar.getLongs(1);
+        double[] prices = columnar.getDoubles(2);
+
+        Assert.assertNull(columnar.getNullBitmap(0));
+        Assert.assertEquals((rowCount + 63) / 64, columnar.getNullBitmap(1).length);
+        Assert.assertEquals(rowCount + 1, columnar.getBytesOffsets(3).length);
+
+        for (int row = 0; row < rowCount; row++) {
+            Assert.assertEquals(row, ids[row]);
+            Assert.assertEquals(row * 0.5, prices[row], 0.0);
+            Assert.assertFalse(columnar.isNull(0, row));
+            if (row % 3 == 0) {
+                Assert.assertTrue(columnar.isNull(1, row));
+                Assert.assertTrue(columnar.isNull(3, row));
+                Assert.assertEquals(0, amounts[row]);
+                Assert.assertEquals("", columnar.getText(3, row));
+            } else {
+                Assert.assertFalse(columnar.isNull(1, row));
+                Assert.assertEquals(row * 10L, amounts[row]);
+                Assert.assertEquals("n\u00e4me" + row, columnar.getText(3, row));
+            }
+        }
+    }
+
+    @Test
+    public void decodeTest() {
+        assertColumns(ProtoValueReaders.toColumnar(resultSet(0, 150)), 150);
+    }
+
+    @Test
+    public void decodeReaderTest() {
+        ResultSetReader reader = ProtoValueReaders.forResultSet(resultSet(0, 10));
+        Assert.assertTrue(reader.next());
+
+        assertColumns(ProtoValueReaders.toColumnar(reader), 10);
+
+        // position of the reader isn't changed
+        Assert.assertEquals(0, reader.getColumn("id").getInt32());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(1, reader.getColumn("id").getInt32());
+    }
+
+    @Test
+    public void decodeCompositeReaderTest() {
+        ResultSetReader reader = ProtoValueReaders.forResultSets(Arrays.asList(
+                ProtoValueReaders.forResultSet(resultSet(0, 70)),
+                ProtoValueReaders.forResultSet(resultSet(70, 70)),
+                ProtoValueReaders.forResultSet(resultSet(70, 130))
+        ));
+
+        assertColumns(ProtoValueReaders.toColumnar(reader), 130);
+    }
+
+    @Test
+    public void wrongAccessorTest() {
+        ColumnarResultSet columnar = ProtoValueReaders.toColumnar(resultSet(0, 3));
+
+        IllegalStateException ex = Assert.assertThrows(IllegalStateException.class, () -> columnar.getLongs(0));
+        Assert.assertEquals("cannot read column id with type Int32 as long[]", ex.getMessage());
+
+        Assert.assertThrows(IllegalStateException.class, () -> columnar.getBools(2));
+        Assert.assertThrows(IllegalStateException.class, () -> columnar.getBytes(4));
+        Assert.assertThrows(IllegalStateException.class, () -> columnar.getBytesOffsets(4));
+    }
+}
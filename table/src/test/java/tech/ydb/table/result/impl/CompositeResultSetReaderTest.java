@@ -0,0 +1,90 @@
+package tech.ydb.table.result.impl;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+
+public class CompositeResultSetReaderTest {
+
+    private static ResultSetReader part(ValueProtos.Type idType, int... ids) {
+        ValueProtos.ResultSet.Builder builder = ValueProtos.ResultSet.newBuilder()
+                .addColumns(ValueProtos.Column.newBuilder().setName("id").setType(idType))
+                .addColumns(ValueProtos.Column.newBuilder().setName("name").setType(ProtoType.getText()));
+        for (int id : ids) {
+            builder.addRows(ValueProtos.Value.newBuilder()
+                    .addItems(ProtoValue.fromInt32(id))
+                    .addItems(ProtoValue.fromText("name" + id)));
+        }
+        return ProtoValueReaders.forResultSet(builder.build());
+    }
+
+    private static ResultSetReader part(int... ids) {
+        return part(ProtoType.getInt32(), ids);
+    }
+
+    @Test
+    public void iterateTest() {
+        ResultSetReader reader = ProtoValueReaders.forResultSets(Arrays.asList(
+                part(1, 2), part(), part(3), part(4, 5, 6)
+        ));
+
+        Assert.assertEquals(2, reader.getColumnCount());
+        Assert.assertEquals(6, reader.getRowCount());
+        Assert.assertEquals(1, reader.getColumnIndex("name"));
+        Assert.assertFalse(reader.isTruncated());
+        Assert.assertThrows(IllegalStateException.class, () -> reader.getColumn(0));
+
+        for (int id = 1; id <= 6; id++) {
+            Assert.assertTrue(reader.next());
+            Assert.assertEquals(id, reader.getColumn(0).getInt32());
+            Assert.assertEquals("name" + id, reader.getColumn("name").getText());
+        }
+        Assert.assertFalse(reader.next());
+        Assert.assertThrows(IllegalStateException.class, () -> reader.getColumn(0));
+    }
+
+    @Test
+    public void setRowIndexTest() {
+        ResultSetReader reader = ProtoValueReaders.forResultSets(Arrays.asList(
+                part(1, 2), part(), part(3), part(4, 5, 6)
+        ));
+
+        reader.setRowIndex(2);
+        Assert.assertEquals(3, reader.getColumn(0).getInt32());
+        reader.setRowIndex(5);
+        Assert.assertEquals(6, reader.getColumn(0).getInt32());
+        reader.setRowIndex(0);
+        Assert.assertEquals(1, reader.getColumn(0).getInt32());
+
+        // next() after setRowIndex() continues from the selected row
+        reader.setRowIndex(1);
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(2, reader.getColumn(0).getInt32());
+        Assert.assertTrue(reader.next());
+        Assert.assertEquals(3, reader.getColumn(0).getInt32());
+
+        reader.setRowIndex(6);
+        Assert.assertThrows(IllegalStateException.class, () -> reader.getColumn(0));
+    }
+
+    @Test
+    public void singlePartTest() {
+        ResultSetReader single = part(1);
+        Assert.assertSame(single, ProtoValueReaders.forResultSets(Collections.singletonList(single)));
+    }
+
+    @Test
+    public void differentColumnsTest() {
+        IllegalArgumentException ex = Assert.assertThrows(IllegalArgumentException.class,
+                () -> ProtoValueReaders.forResultSets(Arrays.asList(part(1), part(ProtoType.getInt64(), 2))));
+        Assert.assertTrue(ex.getMessage().startsWith("result set 1 has column id with type Int64"));
+    }
+}
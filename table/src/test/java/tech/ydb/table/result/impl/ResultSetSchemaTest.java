@@ -0,0 +1,83 @@
+package tech.ydb.table.result.impl;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.proto.ValueProtos;
+import tech.ydb.table.result.ResultSetReader;
+import tech.ydb.table.values.PrimitiveType;
+import tech.ydb.table.values.StructType;
+import tech.ydb.table.values.proto.ProtoType;
+import tech.ydb.table.values.proto.ProtoValue;
+
+
+public class ResultSetSchemaTest {
+
+    private static ValueProtos.Column column(String name, ValueProtos.Type type) {
+        return ValueProtos.Column.newBuilder().setName(name).setType(type).build();
+    }
+
+    private static ValueProtos.ResultSet resultSet(long... ids) {
+        ValueProtos.ResultSet.Builder builder = ValueProtos.ResultSet.newBuilder()
+                .addColumns(column("id", ProtoType.getInt64()))
+                .addColumns(column("point", ProtoType.getStruct(
+                        "x", ProtoType.getInt32(),
+                        "y", ProtoType.getInt32())));
+        for (long id : ids) {
+            builder.addRows(ValueProtos.Value.newBuilder()
+                    .addItems(ProtoValue.fromInt64(id))
+                    .addItems(ProtoValue.struct(ProtoValue.fromInt32((int) id), ProtoValue.fromInt32((int) -id))));
+        }
+        return builder.build();
+    }
+
+    @Test
+    public void sameColumnsShareSchemaTest() {
+        ValueProtos.ResultSet rs1 = resultSet(1, 2);
+        ValueProtos.ResultSet rs2 = resultSet(3);
+
+        ResultSetSchema schema = ResultSetSchema.of(rs1);
+        Assert.assertSame(schema, ResultSetSchema.of(rs2));
+        Assert.assertSame(schema, ResultSetSchema.of(rs1.toBuilder().build()));
+
+        Assert.assertEquals(2, schema.getColumnCount());
+        Assert.assertEquals("point", schema.getColumnName(1));
+        Assert.assertEquals(0, schema.getColumnIndex("id"));
+        Assert.assertEquals(-1, schema.getColumnIndex("unknown"));
+        Assert.assertEquals(PrimitiveType.Int64, schema.getColumnType(0));
+        Assert.assertTrue(schema.getColumnType(1) instanceof StructType);
+
+        ValueProtos.ResultSet other = ValueProtos.ResultSet.newBuilder()
+                .addColumns(column("id", ProtoType.getUint64()))
+                .build();
+        Assert.assertNotSame(schema, ResultSetSchema.of(other));
+    }
+
+    @Test
+    public void readersOfSameSchemaAreIndependentTest() {
+        ResultSetReader reader1 = ProtoValueReaders.forResultSet(resultSet(1, 2));
+        ResultSetReader reader2 = ProtoValueReaders.forResultSet(resultSet(3, 4));
+
+        Assert.assertTrue(reader1.next());
+        Assert.assertTrue(reader2.next());
+        Assert.assertTrue(reader2.next());
+
+        Assert.assertEquals(1, reader1.getColumn("id").getInt64());
+        Assert.assertEquals(1, reader1.getColumn("point").getStructMember("x").getInt32());
+        Assert.assertEquals(4, reader2.getColumn("id").getInt64());
+        Assert.assertEquals(-4, reader2.getColumn("point").getStructMember("y").getInt32());
+
+        // reader of first result set must keep its own position and values
+        Assert.assertEquals(-1, reader1.getColumn(1).getStructMember(1).getInt32());
+    }
+
+    @Test
+    public void cacheIsBoundedTest() {
+        for (int idx = 0; idx < ResultSetSchema.CACHE_MAX_SIZE * 2; idx++) {
+            ResultSetSchema.of(ValueProtos.ResultSet.newBuilder()
+                    .addColumns(column("column_" + idx, ProtoType.getText()))
+                    .build());
+        }
+        Assert.assertTrue(ResultSetSchema.cacheSize() <= ResultSetSchema.CACHE_MAX_SIZE);
+    }
+}
@@ -0,0 +1,152 @@
+package tech.ydb.table.transaction;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Test;
+
+import tech.ydb.core.Result;
+import tech.ydb.core.Status;
+import tech.ydb.core.StatusCode;
+import tech.ydb.table.DataQueryRpcStub;
+import tech.ydb.table.Session;
+import tech.ydb.table.SessionRetryContext;
+import tech.ydb.table.impl.SimpleTableClient;
+import tech.ydb.table.query.DataQueryResult;
+
+
+public class TxContextTest {
+
+    private static final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterClass
+    public static void cleanUp() {
+        scheduler.shutdown();
+    }
+
+    private static Session createSession(SimpleTableClient client) {
+        return client.createSession(Duration.ZERO).join().getValue();
+    }
+
+    private static void assertSuccess(CompletableFuture<Result<DataQueryResult>> future) {
+        Result<DataQueryResult> result = future.join();
+        Assert.assertTrue("Check result " + result, result.isSuccess());
+    }
+
+    @Test
+    public void commitWithLastStatementTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub(scheduler);
+        TxContext tx = createSession(SimpleTableClient.newClient(rpc).build())
+                .createTxContext(Transaction.Mode.SERIALIZABLE_READ_WRITE);
+
+        Assert.assertNull(tx.getTxId());
+        Assert.assertFalse(tx.isActive());
+
+        assertSuccess(tx.executeDataQuery("SELECT 1;"));
+        Assert.assertTrue(tx.isActive());
+        Assert.assertEquals("tx_1", tx.getTxId());
+
+        assertSuccess(tx.executeDataQuery("SELECT 2;"));
+        assertSuccess(tx.executeDataQueryAndCommit("SELECT 3;"));
+        Assert.assertTrue(tx.isFinished());
+
+        Assert.assertEquals(3, rpc.getExecuted().size());
+        Assert.assertTrue(rpc.getExecuted().get(0).getTxControl().hasBeginTx());
+        Assert.assertFalse(rpc.getExecuted().get(0).getTxControl().getCommitTx());
+        Assert.assertEquals("tx_1", rpc.getExecuted().get(1).getTxControl().getTxId());
+        Assert.assertFalse(rpc.getExecuted().get(1).getTxControl().getCommitTx());
+        Assert.assertEquals("tx_1", rpc.getExecuted().get(2).getTxControl().getTxId());
+        Assert.assertTrue(rpc.getExecuted().get(2).getTxControl().getCommitTx());
+
+        // No separated begin and commit requests
+        Assert.assertTrue(rpc.getCommits().isEmpty());
+        Assert.assertThrows(IllegalStateException.class, () -> tx.executeDataQuery("SELECT 4;"));
+    }
+
+    @Test
+    public void singleStatementTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub(scheduler);
+        TxContext tx = createSession(SimpleTableClient.newClient(rpc).build())
+                .createTxContext(Transaction.Mode.SERIALIZABLE_READ_WRITE);
+
+        assertSuccess(tx.executeDataQueryAndCommit("SELECT 1;"));
+        Assert.assertTrue(tx.isFinished());
+        Assert.assertEquals(1, rpc.getExecuted().size());
+        Assert.assertTrue(rpc.getExecuted().get(0).getTxControl().hasBeginTx());
+        Assert.assertTrue(rpc.getExecuted().get(0).getTxControl().getCommitTx());
+
+        // commit of the finished transaction is not sent to server
+        Assert.assertEquals(Status.SUCCESS, tx.commit().join());
+        Assert.assertTrue(rpc.getCommits().isEmpty());
+    }
+
+    @Test
+    public void explicitCommitAndRollbackTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub(scheduler);
+        Session session = createSession(SimpleTableClient.newClient(rpc).build());
+
+        TxContext tx1 = session.createTxContext(Transaction.Mode.SERIALIZABLE_READ_WRITE);
+        assertSuccess(tx1.executeDataQuery("SELECT 1;"));
+        Assert.assertEquals(Status.SUCCESS, tx1.commit().join());
+
+        TxContext tx2 = session.createTxContext(Transaction.Mode.SERIALIZABLE_READ_WRITE);
+        assertSuccess(tx2.executeDataQuery("SELECT 1;"));
+        Assert.assertEquals(Status.SUCCESS, tx2.rollback().join());
+
+        Assert.assertEquals(1, rpc.getCommits().size());
+        Assert.assertEquals("tx_1", rpc.getCommits().get(0));
+        Assert.assertEquals(1, rpc.getRollbacks().size());
+        Assert.assertEquals("tx_2", rpc.getRollbacks().get(0));
+    }
+
+    @Test
+    public void failedStatementFinishesTxTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub(scheduler);
+        TxContext tx = createSession(SimpleTableClient.newClient(rpc).build())
+                .createTxContext(Transaction.Mode.SERIALIZABLE_READ_WRITE);
+
+        assertSuccess(tx.executeDataQuery("SELECT 1;"));
+        rpc.failNextExecution(Status.of(StatusCode.ABORTED));
+        Assert.assertFalse(tx.executeDataQuery("SELECT 2;").join().isSuccess());
+
+        Assert.assertTrue(tx.isFinished());
+        Assert.assertEquals(Status.SUCCESS, tx.rollback().join());
+        Assert.assertTrue(rpc.getRollbacks().isEmpty());
+    }
+
+    @Test
+    public void retryContextTest() {
+        DataQueryRpcStub rpc = new DataQueryRpcStub(scheduler);
+        SimpleTableClient client = SimpleTableClient.newClient(rpc).build();
+        SessionRetryContext ctx = SessionRetryContext.create(client)
+                .backoffSlot(Duration.ofMillis(1))
+                .fastBackoffSlot(Duration.ofMillis(1))
+                .build();
+
+        // second statement is aborted on the first attempt
+        Result<String> result = ctx.supplyTxResult(Transaction.Mode.SERIALIZABLE_READ_WRITE,
+                tx -> tx.executeDataQuery("SELECT 1;").thenCompose(first -> {
+                    if (!first.isSuccess()) {
+                        return CompletableFuture.completedFuture(first.<String>map(null));
+                    }
+                    if (rpc.getExecuted().size() == 1) {
+                        rpc.failNextExecution(Status.of(StatusCode.ABORTED));
+                    }
+                    return tx.executeDataQuery("SELECT 2;").thenApply(r -> r.map(v -> "done"));
+                })
+        ).join();
+
+        Assert.assertTrue(result.isSuccess());
+        Assert.assertEquals("done", result.getValue());
+        Assert.assertEquals(4, rpc.getExecuted().size());
+
+        // Successful attempt is committed by the retry context
+        Assert.assertEquals(1, rpc.getCommits().size());
+        Assert.assertEquals("tx_2", rpc.getCommits().get(0));
+        Assert.assertTrue(rpc.getRollbacks().isEmpty());
+    }
+}
@@ -2,7 +2,9 @@ package tech.ydb.table.values;
 
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.math.RoundingMode;
 import java.util.Collections;
+import java.util.Random;
 
 import tech.ydb.proto.ValueProtos;
 import tech.ydb.table.values.proto.ProtoValue;
@@ -661,6 +663,92 @@ public class DecimalValueTest {
         assertThat(newDecimal(-1234567890L, 12).toString()).isEqualTo("-0.001234567890");
     }
 
+    @Test
+    public void fastPathsMatchBigDecimal() {
+        Random random = new Random(42);
+        DecimalType[] types = {
+            DecimalType.of(18, 0), DecimalType.of(18, 2), DecimalType.of(18, 18),
+            DecimalType.getDefault(), DecimalType.of(DecimalType.MAX_PRECISION, 15),
+        };
+
+        for (DecimalType type : types) {
+            BigInteger limit = BigInteger.TEN.pow(type.getPrecision());
+            for (int i = 0; i < 1000; i++) {
+                BigInteger unscaled = new BigInteger(128, random).mod(limit);
+                if (random.nextBoolean()) {
+                    unscaled = unscaled.shiftRight(random.nextInt(128));
+                }
+                if (random.nextBoolean()) {
+                    unscaled = unscaled.negate();
+                }
+                BigDecimal expected = new BigDecimal(unscaled, type.getScale());
+                DecimalValue value = type.newValueUnscaled(unscaled);
+
+                assertThat(value.toString()).isEqualTo(unscaled.signum() == 0 ? "0" : expected.toPlainString());
+                assertThat(value.toUnscaledString()).isEqualTo(unscaled.toString());
+                assertThat(value.toBigDecimal()).isEqualTo(expected);
+                assertThat(value.toUnscaledBigInteger()).isEqualTo(unscaled);
+                assertThat(type.newValue(expected.toPlainString())).isEqualTo(value);
+                assertThat(type.newValue(expected)).isEqualTo(value);
+
+                BigInteger rounded = expected.setScale(0, RoundingMode.HALF_UP).toBigIntegerExact();
+                assertThat(value.toBigInteger()).isEqualTo(rounded);
+                if (rounded.bitLength() < 64) {
+                    assertThat(value.toLong()).isEqualTo(rounded.longValue());
+                }
+                if (unscaled.bitLength() < 64) {
+                    assertThat(value.toUnscaledLong()).isEqualTo(unscaled.longValue());
+                    assertThat(type.newValueUnscaled(unscaled.longValue(), type.getScale())).isEqualTo(value);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void unscaledLong() {
+        DecimalType t = DecimalType.getDefault();
+
+        assertThat(t.newValueUnscaled(1250, 2).toString()).isEqualTo("12.500000000");
+        assertThat(t.newValueUnscaled(-1250, 2).toUnscaledLong()).isEqualTo(-12_500_000_000L);
+        assertThat(t.newValueUnscaled(1_234_567_890_123L, 12).toString()).isEqualTo("1.234567890");
+        assertThat(t.newValueUnscaled(-1_234_567_890_123L, 12).toString()).isEqualTo("-1.234567890");
+        assertThat(t.newValueUnscaled(12, -3).toString()).isEqualTo("12000.000000000");
+        assertThat(t.newValueUnscaled(Long.MAX_VALUE, 30).isZero()).isTrue();
+        assertThat(t.newValueUnscaled(Long.MIN_VALUE, 0)).isEqualTo(t.newValue(Long.MIN_VALUE));
+        assertThat(t.newValueUnscaled(1, -40)).isSameInstanceAs(DecimalValue.INF);
+        assertThat(t.newValueUnscaled(-1, -40)).isSameInstanceAs(DecimalValue.NEG_INF);
+
+        // 10^22 doesn't fit in a long
+        DecimalValue big = t.newValue("1234567890123.123456789");
+        assertThat(big.toLong()).isEqualTo(1234567890123L);
+        assertThat(big.toString()).isEqualTo("1234567890123.123456789");
+        try {
+            big.toUnscaledLong();
+            throw new AssertionError("expected ArithmeticException");
+        } catch (ArithmeticException e) {
+            assertThat(e.getMessage()).contains("out of long range");
+        }
+    }
+
+    @Test
+    public void compare() {
+        DecimalType t1 = DecimalType.of(10, 2);
+        DecimalType t2 = DecimalType.getDefault();
+
+        assertThat(t1.newValue("1.5").compareTo(t1.newValue("1.25"))).isGreaterThan(0);
+        assertThat(t1.newValue("-1.5").compareTo(t1.newValue("1.25"))).isLessThan(0);
+        assertThat(t1.newValue("1.5").compareTo(t2.newValue("1.5"))).isEqualTo(0);
+        assertThat(t1.newValue("1.5").compareTo(t2.newValue("1.500000001"))).isLessThan(0);
+        assertThat(t2.newValue("-1.500000001").compareTo(t1.newValue("-1.5"))).isLessThan(0);
+        assertThat(t2.newValue("12345678901234.5").compareTo(t1.newValue("12345678.5"))).isGreaterThan(0);
+        assertThat(t2.newValue("-12345678901234.5").compareTo(t2.newValue("12345678901234.5"))).isLessThan(0);
+
+        assertThat(DecimalValue.NEG_INF.compareTo(t2.newValue("-12345678901234.5"))).isLessThan(0);
+        assertThat(DecimalValue.INF.compareTo(t2.newValue("12345678901234.5"))).isGreaterThan(0);
+        assertThat(DecimalValue.NAN.compareTo(DecimalValue.INF)).isGreaterThan(0);
+        assertThat(DecimalValue.INF.compareTo(DecimalValue.INF)).isEqualTo(0);
+    }
+
     private DecimalValue newDecimal(long value, int scale) {
         DecimalType type = DecimalType.of(DecimalType.MAX_PRECISION, scale);
         return type.newValueUnscaled(value);
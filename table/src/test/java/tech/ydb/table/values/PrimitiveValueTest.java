@@ -419,6 +419,27 @@ public class PrimitiveValueTest {
         }
     }
 
+    @Test
+    public void textBytes() {
+        String text = "\u0416\u0443\u043a";
+        ByteString utf8 = ByteString.copyFromUtf8(text);
+
+        PrimitiveValue v = PrimitiveValue.newText(utf8);
+        assertThat(v).isEqualTo(PrimitiveValue.newText(text));
+        assertThat(PrimitiveValue.newText(text)).isEqualTo(v);
+        assertThat(v.hashCode()).isEqualTo(PrimitiveValue.newText(text).hashCode());
+        assertThat(v).isNotEqualTo(PrimitiveValue.newJson(utf8));
+        assertThat(v.getText()).isEqualTo(text);
+        assertThat(v.toString()).isEqualTo(String.format("\"%s\"", text));
+
+        ValueProtos.Value vPb = v.toPb();
+        assertThat(vPb.getTextValueBytes()).isSameInstanceAs(utf8);
+        ProtoTruth.assertThat(vPb).isEqualTo(ProtoValue.fromText(text));
+
+        assertThat(PrimitiveValue.newJsonDocument(ByteString.EMPTY)).isEqualTo(PrimitiveValue.newJsonDocument(""));
+        assertThat(PrimitiveValue.newJson(utf8).getJson()).isEqualTo(text);
+    }
+
     @Test
     public void json() {
         String data = "{\"name\": \"jamel\", \"age\": 99}";